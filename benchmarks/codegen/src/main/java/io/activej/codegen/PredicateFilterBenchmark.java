@@ -0,0 +1,106 @@
+package io.activej.codegen;
+
+import io.activej.codegen.expression.Lambda;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+import static io.activej.codegen.expression.Expressions.*;
+
+/**
+ * Compares filtering throughput of a predicate composed of separately generated generic functions
+ * with a predicate fused from lambdas over primitive-specialized functional interfaces
+ */
+@SuppressWarnings("ALL")
+@State(Scope.Benchmark)
+public class PredicateFilterBenchmark {
+	private static final int SIZE = 10_000;
+
+	public static class Item {
+		public long timestamp;
+		public int value;
+	}
+
+	private final DefiningClassLoader classLoader = DefiningClassLoader.create();
+
+	private Item[] items;
+	private Predicate<Item> boxed;
+	private Predicate<Item> fused;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(0);
+		items = new Item[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			Item item = new Item();
+			item.timestamp = random.nextInt(1000);
+			item.value = random.nextInt(100);
+			items[i] = item;
+		}
+
+		Function<Item, Long> timestamp = ClassGenerator.builder(Function.class)
+			.withMethod("apply", cast(property(cast(arg(0), Item.class), "timestamp"), Long.class))
+			.build()
+			.generateClassAndCreateInstance(classLoader);
+		Predicate<Long> isRecent = ClassGenerator.builder(Predicate.class)
+			.withMethod("test", isGe(cast(arg(0), long.class), value(500L)))
+			.build()
+			.generateClassAndCreateInstance(classLoader);
+		Predicate<Item> isLarge = ClassGenerator.builder(Predicate.class)
+			.withMethod("test", isGt(property(cast(arg(0), Item.class), "value"), value(50)))
+			.build()
+			.generateClassAndCreateInstance(classLoader);
+		boxed = ((Predicate<Item>) item -> isRecent.test(timestamp.apply(item))).and(isLarge);
+
+		Lambda timestampLambda = Lambda.of(ToLongFunction.class, item -> property(cast(item, Item.class), "timestamp"));
+		Lambda isRecentLambda = Lambda.of(java.util.function.LongPredicate.class, t -> isGe(t, value(500L)));
+		Lambda isLargeLambda = Lambda.of(Predicate.class, item -> isGt(property(cast(item, Item.class), "value"), value(50)));
+		fused = timestampLambda.andThen(Predicate.class, isRecentLambda)
+			.and(isLargeLambda)
+			.<Predicate<Item>>toClassGenerator()
+			.generateClassAndCreateInstance(classLoader);
+	}
+
+	@Benchmark
+	public void boxed(Blackhole blackhole) {
+		filter(boxed, blackhole);
+	}
+
+	@Benchmark
+	public void fused(Blackhole blackhole) {
+		filter(fused, blackhole);
+	}
+
+	private void filter(Predicate<Item> predicate, Blackhole blackhole) {
+		int count = 0;
+		for (Item item : items) {
+			if (predicate.test(item)) count++;
+		}
+		blackhole.consume(count);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+			.include(PredicateFilterBenchmark.class.getSimpleName())
+			.forks(2)
+			.warmupIterations(5)
+			.warmupTime(TimeValue.seconds(1L))
+			.measurementIterations(10)
+			.measurementTime(TimeValue.seconds(2L))
+			.mode(Mode.Throughput)
+			.timeUnit(TimeUnit.SECONDS)
+			.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -18,8 +18,9 @@ import io.activej.promise.Promise;
 import io.activej.reactor.Reactor;
 import io.activej.service.ServiceGraphModule;
 
-import java.util.function.Function;
+import java.util.function.Predicate;
 
+import static io.activej.config.converter.ConfigConverters.ofBoolean;
 import static io.activej.config.converter.ConfigConverters.ofInteger;
 
 @SuppressWarnings("WeakerAccess")
@@ -46,6 +47,54 @@ public class DatastreamBenchmark extends Launcher {
 		}
 	}
 
+	public static final class IsPositive implements Predicate<Integer> {
+		@Override
+		public boolean test(Integer value) {
+			return value > 0;
+		}
+	}
+
+	public static final class IsLessThan implements Predicate<Integer> {
+		private final int limit;
+
+		public IsLessThan(int limit) {
+			this.limit = limit;
+		}
+
+		@Override
+		public boolean test(Integer value) {
+			return value < limit;
+		}
+	}
+
+	public static final class IsNotEqual implements Predicate<Integer> {
+		private final int value;
+
+		public IsNotEqual(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public boolean test(Integer value) {
+			return value != this.value;
+		}
+	}
+
+	public static final class And implements Predicate<Integer> {
+		private final Predicate<Integer> left;
+		private final Predicate<Integer> right;
+
+		public And(Predicate<Integer> left, Predicate<Integer> right) {
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		public boolean test(Integer value) {
+			return left.test(value) && right.test(value);
+		}
+	}
+
 	@Inject
 	Reactor reactor;
 
@@ -56,7 +105,7 @@ public class DatastreamBenchmark extends Launcher {
 	InstanceProvider<StreamSupplier<Integer>> inputProvider;
 
 	@Inject
-	InstanceProvider<StreamTransformer<Integer, Integer>> mapperProvider;
+	InstanceProvider<StreamTransformer<Integer, Integer>> filterProvider;
 
 	@Inject
 	InstanceProvider<StreamConsumer<Integer>> outputProvider;
@@ -81,10 +130,22 @@ public class DatastreamBenchmark extends Launcher {
 		return new IntegerStreamSupplier(limit);
 	}
 
+	@Provides
+	Predicate<Integer> predicate(Config config) {
+		// passes every element, so that only a per-item cost of a predicate graph is measured,
+		// call sites of 'And' see several predicate classes, so they cannot be inlined unless specialized
+		Predicate<Integer> predicate = new And(new IsPositive(),
+			new And(new IsLessThan(Integer.MAX_VALUE),
+				new And(new IsNotEqual(0), new IsNotEqual(Integer.MIN_VALUE))));
+		return config.get(ofBoolean(), "benchmark.specializer", false) ?
+			StreamTransformers.specialize(predicate) :
+			predicate;
+	}
+
 	@Provides
 	@Transient
-	StreamTransformer<Integer, Integer> mapper() {
-		return StreamTransformers.mapper(Function.identity());
+	StreamTransformer<Integer, Integer> filter(Predicate<Integer> predicate) {
+		return StreamTransformers.filter(predicate);
 	}
 
 	@Provides
@@ -144,7 +205,8 @@ public class DatastreamBenchmark extends Launcher {
 		long requestsPerSecond = (long) (totalElements / avgTime * 1000);
 		System.out.println(
 			"Time: " + time + "ms; Average time: " + avgTime + "ms; Best time: " +
-			bestTime + "ms; Worst time: " + worstTime + "ms; Operations per second: " + requestsPerSecond);
+			bestTime + "ms; Worst time: " + worstTime + "ms; Operations per second: " + requestsPerSecond +
+			"; Time per element: " + avgTime * 1_000_000 / totalElements + "ns");
 	}
 
 	private long round() throws Exception {
@@ -153,11 +215,11 @@ public class DatastreamBenchmark extends Launcher {
 
 	private Promise<Long> roundCall() {
 		StreamSupplier<Integer> input = inputProvider.get();
-		StreamTransformer<Integer, Integer> mapper = mapperProvider.get();
+		StreamTransformer<Integer, Integer> filter = filterProvider.get();
 		StreamConsumer<Integer> output = outputProvider.get();
 		long start = System.currentTimeMillis();
 		return input
-			.transformWith(mapper)
+			.transformWith(filter)
 			.streamTo(output)
 			.map($ -> System.currentTimeMillis() - start);
 	}
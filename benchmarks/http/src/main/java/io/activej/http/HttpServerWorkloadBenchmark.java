@@ -31,6 +31,38 @@ public class HttpServerWorkloadBenchmark extends Launcher {
 	private static final int ACTIVE_REQUESTS_MAX = 300;
 	private static final int ACTIVE_REQUESTS_MIN = 200;
 
+	public static final class PathServlet implements AsyncServlet {
+		private final String path;
+		private final AsyncServlet next;
+
+		public PathServlet(String path, AsyncServlet next) {
+			this.path = path;
+			this.next = next;
+		}
+
+		@Override
+		public Promise<HttpResponse> serve(HttpRequest request) throws Exception {
+			return request.getPath().equals(path) ?
+				next.serve(request) :
+				Promise.ofException(HttpError.notFound404());
+		}
+	}
+
+	public static final class TextServlet implements AsyncServlet {
+		private final String text;
+
+		public TextServlet(String text) {
+			this.text = text;
+		}
+
+		@Override
+		public Promise<HttpResponse> serve(HttpRequest request) {
+			return HttpResponse.ok200()
+				.withPlainText(text)
+				.toPromise();
+		}
+	}
+
 	private String address;
 	private int totalRequests;
 	private int warmupRounds;
@@ -65,10 +97,10 @@ public class HttpServerWorkloadBenchmark extends Launcher {
 
 	@Provides
 	HttpServer server() {
-		return HttpServer.builder(serverReactor,
-				request -> HttpResponse.ok200()
-					.withPlainText("Response!!")
-					.toPromise())
+		if (config.get(ofBoolean(), "benchmark.specializer", false)) {
+			HttpServer.useSpecializer();
+		}
+		return HttpServer.builder(serverReactor, new PathServlet("/", new TextServlet("Response!!")))
 			.withListenAddresses(config.get(ofList(ofInetSocketAddress()), "address"))
 			.build();
 	}
@@ -147,7 +179,8 @@ public class HttpServerWorkloadBenchmark extends Launcher {
 		long requestsPerSecond = (long) (totalRequests / avgTime * 1000);
 		System.out.println(
 			"Time: " + timeAllRounds + "ms; Average time: " + avgTime + " ms; Best time: " +
-			bestTime + "ms; Worst time: " + worstTime + "ms; Requests per second: " + requestsPerSecond);
+			bestTime + "ms; Worst time: " + worstTime + "ms; Requests per second: " + requestsPerSecond +
+			"; Time per request: " + avgTime * 1_000 / totalRequests + "us");
 	}
 
 	private long round() throws Exception {
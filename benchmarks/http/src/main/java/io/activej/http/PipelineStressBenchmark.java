@@ -1,5 +1,6 @@
 package io.activej.http;
 
+import io.activej.common.ApplicationSettings;
 import io.activej.eventloop.Eventloop;
 import io.activej.inject.annotation.Inject;
 import io.activej.inject.annotation.Provides;
@@ -14,6 +15,10 @@ import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 
+import static io.activej.http.ContentTypes.PLAIN_TEXT_UTF_8;
+import static io.activej.http.HttpHeaderValue.ofContentType;
+import static io.activej.http.HttpHeaderValue.ofTimestamp;
+import static io.activej.http.HttpHeaders.*;
 import static java.lang.String.join;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.nCopies;
@@ -35,6 +40,20 @@ public final class PipelineStressBenchmark extends Launcher {
 
 	public static final byte[] REQUEST_BYTES = join("", nCopies(PIPELINE_COUNT, REQUEST)).getBytes();
 
+	/**
+	 * Whether responses are written from a pre-encoded {@link HttpResponseTemplate},
+	 * can be set with {@code -DPipelineStressBenchmark.useResponseTemplate=true}
+	 */
+	public static final boolean USE_RESPONSE_TEMPLATE = ApplicationSettings.getBoolean(PipelineStressBenchmark.class, "useResponseTemplate", false);
+
+	public static final String SERVER_NAME = "ActiveJ";
+	public static final byte[] HELLO_WORLD = "Hello, world!".getBytes(UTF_8);
+	public static final HttpResponseTemplate TEMPLATE = HttpResponseTemplate.builder(200)
+		.withHeader(CONTENT_TYPE, ofContentType(PLAIN_TEXT_UTF_8))
+		.withHeader(SERVER, SERVER_NAME)
+		.withDate()
+		.build();
+
 	public static final int BUFFER = 16384;
 	public static final int PORT = 8080;
 
@@ -48,9 +67,17 @@ public final class PipelineStressBenchmark extends Launcher {
 
 	@Provides
 	HttpServer server(NioReactor reactor) {
-		return HttpServer.builder(reactor, request -> HttpResponse.ok200()
-				.withPlainText("Hello, world!")
-				.toPromise())
+		AsyncServlet servlet = USE_RESPONSE_TEMPLATE ?
+			request -> TEMPLATE.response()
+				.withBody(HELLO_WORLD)
+				.toPromise() :
+			request -> HttpResponse.ok200()
+				.withHeader(CONTENT_TYPE, ofContentType(PLAIN_TEXT_UTF_8))
+				.withHeader(SERVER, SERVER_NAME)
+				.withHeader(DATE, ofTimestamp(reactor.currentTimeMillis()))
+				.withBody(HELLO_WORLD)
+				.toPromise();
+		return HttpServer.builder(reactor, servlet)
 			.withListenPort(PORT)
 			.build();
 	}
@@ -75,7 +102,7 @@ public final class PipelineStressBenchmark extends Launcher {
 			sum += rps;
 		}
 
-		System.out.println("Average RPS: " + sum / MEASUREMENT_ROUNDS);
+		System.out.println("Average RPS" + (USE_RESPONSE_TEMPLATE ? " (response template)" : "") + ": " + sum / MEASUREMENT_ROUNDS);
 
 		server.closeFuture().get();
 	}
@@ -2,6 +2,7 @@ package io.activej.rpc;
 
 import io.activej.async.callback.Callback;
 import io.activej.common.MemSize;
+import io.activej.common.collection.Try;
 import io.activej.common.initializer.Initializer;
 import io.activej.config.Config;
 import io.activej.config.ConfigModule;
@@ -20,7 +21,10 @@ import io.activej.service.ServiceGraphModule;
 import io.activej.service.ServiceGraphModuleSettings;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.management.ManagementFactory;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
 
 import static io.activej.config.converter.ConfigConverters.*;
 import static io.activej.inject.module.Modules.combine;
@@ -75,15 +79,39 @@ public class RpcBenchmark extends Launcher {
 	@Provides
 	@Eager
 	RpcServer rpcServer(@Named("server") NioReactor reactor, Config config) {
-		return RpcServer.builder(reactor)
+		// simulated fixed cost of a single handler invocation (e.g. an index scan or a DB round trip)
+		long handlerCostNanos = config.get(ofLong(), "rpc.server.handlerCostNanos", 0L);
+		int batchSize = config.get(ofInteger(), "rpc.server.batchSize", 0);
+		RpcServer.Builder builder = RpcServer.builder(reactor)
 			.withStreamProtocol(
 				config.get(ofMemSize(), "rpc.defaultPacketSize", MemSize.kilobytes(256)),
 				config.get(ofFrameFormat(), "rpc.compression", null))
 			.withListenPort(config.get(ofInteger(), "rpc.server.port"))
-			.withMessageTypes(Integer.class)
-			.withHandler(Integer.class, req -> Promise.of(req * 2))
-			.build();
+			.withMessageTypes(Integer.class);
+		if (batchSize == 0) {
+			builder.withHandler(Integer.class, req -> {
+				simulateHandlerCost(handlerCostNanos);
+				return Promise.of(req * 2);
+			});
+		} else {
+			builder.withBatchHandler(Integer.class, batchSize, (List<Integer> requests) -> {
+				simulateHandlerCost(handlerCostNanos);
+				List<Try<Integer>> results = new ArrayList<>(requests.size());
+				for (Integer req : requests) {
+					results.add(Try.of(req * 2));
+				}
+				return Promise.of(results);
+			});
+		}
+		return builder.build();
+	}
 
+	private static void simulateHandlerCost(long nanos) {
+		if (nanos == 0) return;
+		long deadline = System.nanoTime() + nanos;
+		while (System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
 	}
 
 	@ProvidesIntoSet
@@ -131,17 +159,24 @@ public class RpcBenchmark extends Launcher {
 	int sent;
 	int completed;
 
+	/**
+	 * Bytes allocated by a client reactor thread during the last round
+	 */
+	long allocatedBytes;
+
 	@Override
 	protected void run() throws Exception {
 		long time = 0;
 		long bestTime = -1;
 		long worstTime = -1;
+		long totalAllocatedBytes = 0;
 
 		System.out.println("Warming up ...");
 		for (int i = 0; i < warmupRounds; i++) {
 			long roundTime = round();
 			long rps = totalRequests * 1000L / roundTime;
-			System.out.printf("Round: %d; Round time: %dms; RPS : %d%n", i + 1, roundTime, rps);
+			System.out.printf("Round: %d; Round time: %dms; RPS : %d; Allocated per call: %s bytes%n",
+				i + 1, roundTime, rps, allocatedPerCall(allocatedBytes));
 		}
 
 		System.out.println("Start benchmarking RPC");
@@ -150,6 +185,7 @@ public class RpcBenchmark extends Launcher {
 			long roundTime = round();
 
 			time += roundTime;
+			totalAllocatedBytes += allocatedBytes;
 
 			if (bestTime == -1 || roundTime < bestTime) {
 				bestTime = roundTime;
@@ -160,12 +196,29 @@ public class RpcBenchmark extends Launcher {
 			}
 
 			long rps = totalRequests * 1000L / roundTime;
-			System.out.printf("Round: %d; Round time: %dms; RPS : %d%n", i + 1, roundTime, rps);
+			System.out.printf("Round: %d; Round time: %dms; RPS : %d; Allocated per call: %s bytes%n",
+				i + 1, roundTime, rps, allocatedPerCall(allocatedBytes));
 		}
 		double avgTime = (double) time / benchmarkRounds;
 		long requestsPerSecond = (long) (totalRequests / avgTime * 1000);
-		System.out.printf("Time: %dms; Average time: %sms; Best time: %dms; Worst time: %dms; Requests per second: %d%n",
-			time, avgTime, bestTime, worstTime, requestsPerSecond);
+		System.out.printf("Time: %dms; Average time: %sms; Best time: %dms; Worst time: %dms; Requests per second: %d; " +
+				"Allocated per call: %s bytes%n",
+			time, avgTime, bestTime, worstTime, requestsPerSecond, allocatedPerCall(totalAllocatedBytes / benchmarkRounds));
+	}
+
+	private String allocatedPerCall(long allocatedBytes) {
+		return allocatedBytes < 0 ? "N/A" : String.format("%.1f", (double) allocatedBytes / totalRequests);
+	}
+
+	/**
+	 * Returns a number of bytes allocated by a current thread or {@code -1} if it is not supported by JVM
+	 */
+	private static long currentThreadAllocatedBytes() {
+		if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean &&
+			threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+			return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
 	}
 
 	private long round() throws Exception {
@@ -176,6 +229,7 @@ public class RpcBenchmark extends Launcher {
 		SettablePromise<Long> promise = new SettablePromise<>();
 
 		long start = System.currentTimeMillis();
+		long startAllocatedBytes = currentThreadAllocatedBytes();
 
 		sent = 0;
 		completed = 0;
@@ -190,6 +244,7 @@ public class RpcBenchmark extends Launcher {
 
 				// Stop round
 				if (completed == totalRequests) {
+					allocatedBytes = startAllocatedBytes < 0 ? -1 : currentThreadAllocatedBytes() - startAllocatedBytes;
 					promise.set(null);
 					return;
 				}
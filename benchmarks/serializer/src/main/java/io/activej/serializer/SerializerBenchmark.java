@@ -30,7 +30,15 @@ public class SerializerBenchmark {
 		.withCompatibilityLevel(LEVEL_4_LE)
 		.build()
 		.create(definingClassLoader, TestData.class);
-	private static final byte[] array = new byte[10000];
+	private static final BinarySerializer<StringData> stringSerializer = SerializerFactory.builder()
+		.withCompatibilityLevel(LEVEL_4_LE)
+		.build()
+		.create(definingClassLoader, StringData.class);
+	private static final BinarySerializer<ArrayData> arraySerializer = SerializerFactory.builder()
+		.withCompatibilityLevel(LEVEL_4_LE)
+		.build()
+		.create(definingClassLoader, ArrayData.class);
+	private static final byte[] array = new byte[100000];
 
 	public static class TestData {
 		public enum TestEnum {
@@ -158,8 +166,32 @@ public class SerializerBenchmark {
 		public long y;
 	}
 
+	public static class StringData {
+		@Serialize
+		public List<String> ascii = new ArrayList<>();
+		@Serialize
+		public List<String> nonAscii = new ArrayList<>();
+		@Serialize
+		@SerializeStringFormat(ISO_8859_1)
+		public List<String> iso = new ArrayList<>();
+	}
+
+	public static class ArrayData {
+		@Serialize
+		public int[] ints = new int[1000];
+		@Serialize
+		public long[] longs = new long[1000];
+		@Serialize
+		public double[] doubles = new double[1000];
+		@Serialize
+		@SerializeVarLength
+		public int[] varInts = new int[1000];
+	}
+
 	TestData testData1 = new TestData();
 	TestData testData2;
+	StringData stringData = new StringData();
+	ArrayData arrayData = new ArrayData();
 
 	@Setup
 	public void setup() {
@@ -173,6 +205,18 @@ public class SerializerBenchmark {
 		}
 		serializer.encode(array, 0, testData1);
 		serializer.decode(array, 0);
+
+		for (int i = 0; i < 100; i++) {
+			stringData.ascii.add("Hello, World! " + i + " ".repeat(i));
+			stringData.nonAscii.add("Hello, World! Привіт, Світ! " + i);
+			stringData.iso.add("Hello, World! " + i + " ".repeat(i));
+		}
+		for (int i = 0; i < 1000; i++) {
+			arrayData.ints[i] = i * 31;
+			arrayData.longs[i] = i * 31L << 20;
+			arrayData.doubles[i] = i / 3.0;
+			arrayData.varInts[i] = i * 31;
+		}
 	}
 
 	@Benchmark
@@ -181,6 +225,18 @@ public class SerializerBenchmark {
 		blackhole.consume(serializer.decode(array, 0));
 	}
 
+	@Benchmark
+	public void measureStringSerialization(Blackhole blackhole) {
+		blackhole.consume(stringSerializer.encode(array, 0, stringData));
+		blackhole.consume(stringSerializer.decode(array, 0));
+	}
+
+	@Benchmark
+	public void measureArraySerialization(Blackhole blackhole) {
+		blackhole.consume(arraySerializer.encode(array, 0, arrayData));
+		blackhole.consume(arraySerializer.decode(array, 0));
+	}
+
 	public static void main(String[] args) throws RunnerException {
 		Options opt = new OptionsBuilder()
 			.include(SerializerBenchmark.class.getSimpleName())
@@ -0,0 +1,100 @@
+package io.activej.serializer;
+
+import io.activej.codegen.DefiningClassLoader;
+import io.activej.serializer.annotations.Serialize;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import static io.activej.serializer.CompatibilityLevel.LEVEL_4_LE;
+
+/**
+ * Compares allocation rate of a regular decoding with a decoding into a reused instance
+ * (see {@code gc.alloc.rate.norm} in the output)
+ */
+@SuppressWarnings("ALL")
+@State(Scope.Benchmark)
+public class SerializerReuseBenchmark {
+	private static final DefiningClassLoader definingClassLoader = DefiningClassLoader.create();
+	private static final BinarySerializer<TestData> serializer = SerializerFactory.builder()
+		.withCompatibilityLevel(LEVEL_4_LE)
+		.withInstanceReuse(true)
+		.build()
+		.create(definingClassLoader, TestData.class);
+	private static final byte[] array = new byte[10000];
+
+	public static class TestData {
+		@Serialize
+		public int id;
+		@Serialize
+		public long timestamp;
+		@Serialize
+		public double value;
+		@Serialize
+		public int[] ints = new int[16];
+		@Serialize
+		public byte[] bytes = new byte[64];
+		@Serialize
+		public ArrayList<TestDataElement> elements = new ArrayList<>();
+		@Serialize
+		public HashMap<Integer, Long> counters = new HashMap<>();
+	}
+
+	public static class TestDataElement {
+		@Serialize
+		public int x;
+		@Serialize
+		public long y;
+	}
+
+	TestData testData = new TestData();
+	TestData reuse;
+
+	@Setup
+	public void setup() {
+		for (int i = 0; i < 10; i++) {
+			TestDataElement e = new TestDataElement();
+			e.x = i;
+			e.y = i * 2L;
+			testData.elements.add(e);
+			testData.counters.put(i, (long) i);
+		}
+		serializer.encode(array, 0, testData);
+		reuse = serializer.decode(array, 0);
+	}
+
+	@Benchmark
+	public void decode(Blackhole blackhole) {
+		blackhole.consume(serializer.decode(array, 0));
+	}
+
+	@Benchmark
+	public void decodeWithReuse(Blackhole blackhole) {
+		blackhole.consume(serializer.decode(array, 0, reuse));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+			.include(SerializerReuseBenchmark.class.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.forks(2)
+			.warmupIterations(5)
+			.warmupTime(TimeValue.seconds(1L))
+			.measurementIterations(10)
+			.measurementTime(TimeValue.seconds(2L))
+			.mode(Mode.AverageTime)
+			.timeUnit(TimeUnit.NANOSECONDS)
+			.build();
+
+		new Runner(opt).run();
+	}
+}
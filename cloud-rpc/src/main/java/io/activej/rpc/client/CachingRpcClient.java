@@ -0,0 +1,299 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.rpc.client;
+
+import io.activej.async.callback.Callback;
+import io.activej.async.exception.AsyncTimeoutException;
+import io.activej.common.Checks;
+import io.activej.common.MemSize;
+import io.activej.common.builder.AbstractBuilder;
+import io.activej.common.collection.WTinyLfuCache;
+import io.activej.jmx.api.attribute.JmxAttribute;
+import io.activej.jmx.api.attribute.JmxOperation;
+import io.activej.reactor.AbstractReactive;
+import io.activej.reactor.Reactor;
+import io.activej.reactor.jmx.ReactiveJmxBeanWithStats;
+import io.activej.reactor.schedule.ScheduledRunnable;
+import io.activej.rpc.client.jmx.RpcRequestStats;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongBiFunction;
+
+import static io.activej.common.Checks.checkArgument;
+import static io.activej.reactor.Reactive.checkInReactorThread;
+
+/**
+ * An {@link IRpcClient} decorator that caches results of idempotent requests.
+ * <p>
+ * Only requests of types registered with a time-to-live are cached, other requests are passed
+ * to an underlying client as is. Requests are used as cache keys, so their classes should
+ * implement {@link Object#equals(Object)} and {@link Object#hashCode()}.
+ * <p>
+ * Results are kept in a {@link WTinyLfuCache} bounded by a total weight of entries in bytes,
+ * as estimated by a weigher. Identical requests that are issued while a request is in flight
+ * join it instead of being sent to a server. Each of the joined requests is still bound by its own timeout:
+ * a request with a shorter timeout than an in-flight one times out on its own, while a request with a longer
+ * timeout is sent again if an in-flight one times out. Failed requests are not cached.
+ * <p>
+ * Cached results may also be invalidated by a server by means of {@code RpcServer#invalidate(Object)},
+ * if this client is subscribed to invalidations of an {@link RpcClient}.
+ */
+public final class CachingRpcClient extends AbstractReactive
+	implements IRpcClient, ReactiveJmxBeanWithStats {
+	private static final boolean CHECKS = Checks.isEnabled(CachingRpcClient.class);
+
+	public static final MemSize DEFAULT_MAX_CACHE_SIZE = MemSize.megabytes(64);
+	public static final int DEFAULT_ENTRY_WEIGHT = 256;
+
+	private final IRpcClient next;
+
+	private final Map<Class<?>, Long> ttls = new HashMap<>();
+	private long maxCacheSize = DEFAULT_MAX_CACHE_SIZE.toLong();
+	private ToLongBiFunction<Object, Object> weigher = (request, result) -> DEFAULT_ENTRY_WEIGHT;
+
+	private WTinyLfuCache<Object, CachedResult> cache;
+	private final Map<Object, InFlight> inFlight = new HashMap<>();
+
+	// region JMX
+	private final RpcRequestStats generalRequestStats = RpcRequestStats.create(RpcClient.SMOOTHING_WINDOW);
+	private final Map<Class<?>, RpcRequestStats> requestStatsPerClass = new HashMap<>();
+	// endregion
+
+	private CachingRpcClient(Reactor reactor, IRpcClient next) {
+		super(reactor);
+		this.next = next;
+	}
+
+	public static Builder builder(Reactor reactor, IRpcClient next) {
+		return new CachingRpcClient(reactor, next).new Builder();
+	}
+
+	public final class Builder extends AbstractBuilder<Builder, CachingRpcClient> {
+		private Builder() {}
+
+		/**
+		 * Enables caching of results of requests of a given type
+		 *
+		 * @param requestClass a class of requests whose results are cached
+		 * @param ttl          a time during which a cached result is considered valid
+		 */
+		public Builder withCacheableType(Class<?> requestClass, Duration ttl) {
+			checkNotBuilt(this);
+			checkArgument(!ttl.isNegative() && !ttl.isZero(), "TTL must be positive");
+			ttls.put(requestClass, ttl.toMillis());
+			return this;
+		}
+
+		/**
+		 * Sets a maximum total weight of cached results
+		 */
+		public Builder withMaxCacheSize(MemSize maxCacheSize) {
+			checkNotBuilt(this);
+			CachingRpcClient.this.maxCacheSize = maxCacheSize.toLong();
+			return this;
+		}
+
+		/**
+		 * Sets a function that estimates a size in bytes of a cached result of a request.
+		 * By default, each entry is assumed to weigh {@value #DEFAULT_ENTRY_WEIGHT} bytes
+		 */
+		public Builder withWeigher(ToLongBiFunction<Object, Object> weigher) {
+			checkNotBuilt(this);
+			CachingRpcClient.this.weigher = weigher;
+			return this;
+		}
+
+		/**
+		 * Subscribes this client to cache invalidations that are pushed by servers
+		 * over connections of a given {@link RpcClient}
+		 */
+		public Builder withServerInvalidation(RpcClient rpcClient) {
+			checkNotBuilt(this);
+			rpcClient.addInvalidationListener(CachingRpcClient.this::invalidate);
+			return this;
+		}
+
+		@Override
+		protected CachingRpcClient doBuild() {
+			ToLongBiFunction<Object, Object> weigher = CachingRpcClient.this.weigher;
+			cache = WTinyLfuCache.<Object, CachedResult>builder(maxCacheSize)
+				.withWeigher((request, cached) -> weigher.applyAsLong(request, cached.result))
+				.build();
+			return CachingRpcClient.this;
+		}
+	}
+
+	@Override
+	public <I, O> void sendRequest(I request, int timeout, Callback<O> cb) {
+		if (CHECKS) checkInReactorThread(this);
+		Long ttl = ttls.get(request.getClass());
+		RpcRequestStats classStats = ensureRequestStatsPerClass(request.getClass());
+		generalRequestStats.getTotalRequests().recordEvent();
+		classStats.getTotalRequests().recordEvent();
+		if (ttl == null) {
+			next.sendRequest(request, timeout, cb);
+			return;
+		}
+		sendCacheableRequest(request, ttl, timeout, cb, classStats);
+	}
+
+	private <I, O> void sendCacheableRequest(I request, long ttl, int timeout, Callback<O> cb, RpcRequestStats classStats) {
+		long now = reactor.currentTimeMillis();
+		CachedResult cached = cache.get(request);
+		if (cached != null) {
+			if (cached.expiresAt > now) {
+				generalRequestStats.getCacheHits().recordEvent();
+				classStats.getCacheHits().recordEvent();
+				//noinspection unchecked
+				cb.accept((O) cached.result, null);
+				return;
+			}
+			cache.invalidate(request);
+		}
+
+		long deadline = timeout == Integer.MAX_VALUE ? Long.MAX_VALUE : now + timeout;
+		InFlight existing = inFlight.get(request);
+		if (existing != null) {
+			generalRequestStats.getCoalescedRequests().recordEvent();
+			classStats.getCoalescedRequests().recordEvent();
+			Follower follower = new Follower(cb, deadline);
+			if (deadline < existing.deadline) {
+				follower.timeoutTask = reactor.scheduleBackground(deadline, () -> {
+					existing.followers.remove(follower);
+					cb.accept(null, new AsyncTimeoutException("RPC request has timed out"));
+				});
+			}
+			existing.followers.add(follower);
+			return;
+		}
+
+		generalRequestStats.getCacheMisses().recordEvent();
+		classStats.getCacheMisses().recordEvent();
+		InFlight leader = new InFlight(deadline);
+		inFlight.put(request, leader);
+		next.<I, O>sendRequest(request, timeout, (result, e) -> {
+			inFlight.remove(request);
+			long completedAt = reactor.currentTimeMillis();
+			if (e == null && !leader.invalidated) {
+				cache.put(request, new CachedResult(result, completedAt + ttl));
+			}
+			cb.accept(result, e);
+			for (Follower follower : leader.followers) {
+				if (follower.timeoutTask != null) {
+					follower.timeoutTask.cancel();
+				}
+				//noinspection unchecked
+				Callback<O> followerCb = (Callback<O>) follower.cb;
+				if (e instanceof AsyncTimeoutException && follower.deadline > completedAt) {
+					// a follower that is allowed to wait longer than a leader is sent again with the rest of its timeout
+					int remaining = follower.deadline == Long.MAX_VALUE ?
+						Integer.MAX_VALUE :
+						(int) (follower.deadline - completedAt);
+					sendCacheableRequest(request, ttl, remaining, followerCb, classStats);
+					continue;
+				}
+				followerCb.accept(result, e);
+			}
+		});
+	}
+
+	/**
+	 * Removes a cached result of a given request, if any.
+	 * A result of an identical in-flight request will not be cached either
+	 */
+	public void invalidate(Object request) {
+		if (CHECKS) checkInReactorThread(this);
+		cache.invalidate(request);
+		InFlight existing = inFlight.get(request);
+		if (existing != null) {
+			existing.invalidated = true;
+		}
+	}
+
+	private RpcRequestStats ensureRequestStatsPerClass(Class<?> requestClass) {
+		return requestStatsPerClass.computeIfAbsent(requestClass, $ -> RpcRequestStats.create(RpcClient.SMOOTHING_WINDOW));
+	}
+
+	private record CachedResult(@Nullable Object result, long expiresAt) {
+	}
+
+	private static final class InFlight {
+		final long deadline;
+		final List<Follower> followers = new ArrayList<>();
+		boolean invalidated;
+
+		InFlight(long deadline) {
+			this.deadline = deadline;
+		}
+	}
+
+	private static final class Follower {
+		final Callback<?> cb;
+		final long deadline;
+		@Nullable ScheduledRunnable timeoutTask;
+
+		Follower(Callback<?> cb, long deadline) {
+			this.cb = cb;
+			this.deadline = deadline;
+		}
+	}
+
+	// region JMX
+	@JmxAttribute(name = "requests", extraSubAttributes = "totalRequests")
+	public RpcRequestStats getGeneralRequestStats() {
+		return generalRequestStats;
+	}
+
+	@JmxAttribute(description = "request stats distributed by request class")
+	public Map<Class<?>, RpcRequestStats> getRequestStatsPerClass() {
+		return requestStatsPerClass;
+	}
+
+	@JmxAttribute
+	public int getCachedEntries() {
+		return cache.size();
+	}
+
+	@JmxAttribute
+	public long getCachedBytes() {
+		return cache.getWeightedSize();
+	}
+
+	@JmxAttribute
+	public long getEvictions() {
+		return cache.getEvictionCount();
+	}
+
+	@JmxAttribute
+	public int getInFlightRequests() {
+		return inFlight.size();
+	}
+
+	@JmxOperation
+	public void clear() {
+		cache.clear();
+		for (InFlight existing : inFlight.values()) {
+			existing.invalidated = true;
+		}
+	}
+	// endregion
+}
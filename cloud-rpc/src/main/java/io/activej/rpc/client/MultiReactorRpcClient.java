@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.rpc.client;
+
+import io.activej.async.callback.Callback;
+import io.activej.common.builder.AbstractBuilder;
+import io.activej.jmx.api.ConcurrentJmxBean;
+import io.activej.jmx.api.attribute.JmxAttribute;
+import io.activej.reactor.Reactor;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.activej.common.Checks.checkArgument;
+import static io.activej.common.Checks.checkState;
+
+/**
+ * An {@link IRpcClient} that is shared between several worker reactors.
+ * <p>
+ * Each worker reactor has its own {@link RpcClient} with its own connection pool.
+ * A request is sent using a client of the reactor it is sent from, so that requests
+ * sent from worker reactors never cross thread boundaries.
+ * <p>
+ * Requests of {@link Builder#withSharedRequestType shared request types} are sent
+ * using a single {@link Builder#withSharedClient shared client} instead, which is adapted
+ * to the calling reactor. This way low-traffic servers keep a single connection
+ * per client instance rather than a connection per worker reactor.
+ * <p>
+ * Requests that are sent from a reactor that is not a worker reactor are distributed
+ * between worker clients in a round-robin fashion. Clients adapted to such a reactor
+ * are created once and are kept for the lifetime of this client.
+ * <p>
+ * Underlying clients are not started or stopped by this client, they should be managed
+ * by their owners (for example, as worker pool services).
+ * <p>
+ * Aggregated stats may be inspected via JMX, if this client is registered as a JMX bean.
+ * Stats of underlying clients are read without synchronization, so they may be slightly stale.
+ */
+public final class MultiReactorRpcClient implements IRpcClient, ConcurrentJmxBean {
+	private final List<RpcClient> workerClients;
+	private final Map<Reactor, Worker> workers = new HashMap<>();
+
+	private @Nullable RpcClient sharedClient;
+	private final Set<Class<?>> sharedRequestTypes = new HashSet<>();
+
+	private final AtomicInteger roundRobin = new AtomicInteger();
+
+	// adapted worker clients followed by an adapted shared client, if any
+	private final Map<Reactor, IRpcClient[]> foreignClients = new ConcurrentHashMap<>();
+
+	// region JMX
+	private final LongAdder localRequests = new LongAdder();
+	private final LongAdder sharedRequests = new LongAdder();
+	private final LongAdder foreignRequests = new LongAdder();
+	// endregion
+
+	private MultiReactorRpcClient(List<RpcClient> workerClients) {
+		this.workerClients = workerClients;
+	}
+
+	public static MultiReactorRpcClient create(List<RpcClient> workerClients) {
+		return builder(workerClients).build();
+	}
+
+	public static Builder builder(List<RpcClient> workerClients) {
+		checkArgument(!workerClients.isEmpty(), "At least one worker client should be specified");
+		return new MultiReactorRpcClient(List.copyOf(workerClients)).new Builder();
+	}
+
+	public final class Builder extends AbstractBuilder<Builder, MultiReactorRpcClient> {
+		private Builder() {}
+
+		/**
+		 * Sets a client whose connections are shared by all worker reactors.
+		 * The client may be bound either to one of the worker reactors or to a dedicated one
+		 */
+		public Builder withSharedClient(RpcClient sharedClient) {
+			checkNotBuilt(this);
+			MultiReactorRpcClient.this.sharedClient = sharedClient;
+			return this;
+		}
+
+		/**
+		 * Adds a type of requests that are sent using a {@link #withSharedClient shared client}
+		 */
+		public Builder withSharedRequestType(Class<?> requestType) {
+			checkNotBuilt(this);
+			sharedRequestTypes.add(requestType);
+			return this;
+		}
+
+		@Override
+		protected MultiReactorRpcClient doBuild() {
+			checkState(sharedRequestTypes.isEmpty() || sharedClient != null,
+				"Shared client should be specified for shared request types");
+			for (RpcClient client : workerClients) {
+				Reactor reactor = client.getReactor();
+				IRpcClient shared = sharedClient != null ? sharedClient.adaptToAnotherReactor(reactor) : null;
+				Worker existing = workers.put(reactor, new Worker(client, shared));
+				checkArgument(existing == null, "Worker clients should be bound to different reactors");
+			}
+			return MultiReactorRpcClient.this;
+		}
+	}
+
+	private record Worker(RpcClient client, @Nullable IRpcClient sharedClient) {}
+
+	@Override
+	public <I, O> void sendRequest(I request, int timeout, Callback<O> cb) {
+		Reactor reactor = Reactor.getCurrentReactor();
+		boolean shared = !sharedRequestTypes.isEmpty() && sharedRequestTypes.contains(request.getClass());
+		Worker worker = workers.get(reactor);
+		if (worker != null) {
+			if (shared) {
+				sharedRequests.increment();
+				//noinspection DataFlowIssue
+				worker.sharedClient.sendRequest(request, timeout, cb);
+			} else {
+				localRequests.increment();
+				worker.client.sendRequest(request, timeout, cb);
+			}
+			return;
+		}
+		foreignRequests.increment();
+		IRpcClient[] clients = foreignClients.computeIfAbsent(reactor, this::adaptClients);
+		IRpcClient client = shared ?
+			clients[workerClients.size()] :
+			clients[Math.floorMod(roundRobin.getAndIncrement(), workerClients.size())];
+		client.sendRequest(request, timeout, cb);
+	}
+
+	private IRpcClient[] adaptClients(Reactor reactor) {
+		IRpcClient[] clients = new IRpcClient[workerClients.size() + 1];
+		for (int i = 0; i < workerClients.size(); i++) {
+			clients[i] = workerClients.get(i).adaptToAnotherReactor(reactor);
+		}
+		if (sharedClient != null) {
+			clients[workerClients.size()] = sharedClient.adaptToAnotherReactor(reactor);
+		}
+		return clients;
+	}
+
+	public List<RpcClient> getWorkerClients() {
+		return workerClients;
+	}
+
+	public @Nullable RpcClient getSharedClient() {
+		return sharedClient;
+	}
+
+	// region JMX
+	@JmxAttribute
+	public int getWorkers() {
+		return workerClients.size();
+	}
+
+	@JmxAttribute(description = "requests sent by a worker client of a calling reactor")
+	public long getLocalRequests() {
+		return localRequests.sum();
+	}
+
+	@JmxAttribute(description = "requests sent by a shared client")
+	public long getSharedRequests() {
+		return sharedRequests.sum();
+	}
+
+	@JmxAttribute(description = "requests sent from reactors that are not worker reactors")
+	public long getForeignRequests() {
+		return foreignRequests.sum();
+	}
+
+	@JmxAttribute(description = "number of reactors that are not worker reactors, with clients adapted to them")
+	public int getForeignReactors() {
+		return foreignClients.size();
+	}
+
+	@JmxAttribute(description = "number of connections of all worker clients and a shared client")
+	public int getActiveConnections() {
+		int count = 0;
+		for (RpcClient client : allClients()) {
+			count += client.getActiveConnections();
+		}
+		return count;
+	}
+
+	@JmxAttribute
+	public int getActiveRequests() {
+		int count = 0;
+		for (RpcClient client : allClients()) {
+			count += client.getActiveRequests();
+		}
+		return count;
+	}
+
+	@JmxAttribute
+	public long getTotalRequests() {
+		long count = 0;
+		for (RpcClient client : allClients()) {
+			count += client.getGeneralRequestsStats().getTotalRequests().getTotalCount();
+		}
+		return count;
+	}
+
+	@JmxAttribute
+	public long getFailedRequests() {
+		long count = 0;
+		for (RpcClient client : allClients()) {
+			count += client.getGeneralRequestsStats().getFailedRequests().getTotalCount();
+		}
+		return count;
+	}
+
+	@JmxAttribute(description = "number of connections of each worker client")
+	public List<String> getConnectionsPerWorker() {
+		List<String> result = new ArrayList<>(workerClients.size());
+		for (RpcClient client : workerClients) {
+			result.add(client.getReactor() + ": " + client.getActiveConnections());
+		}
+		return result;
+	}
+	// endregion
+
+	private List<RpcClient> allClients() {
+		if (sharedClient == null || workerClients.contains(sharedClient)) return workerClients;
+		List<RpcClient> result = new ArrayList<>(workerClients);
+		result.add(sharedClient);
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "MultiReactorRpcClient{workers=" + workerClients.size() + ", sharedRequestTypes=" + sharedRequestTypes + '}';
+	}
+}
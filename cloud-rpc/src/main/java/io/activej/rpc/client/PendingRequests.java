@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.rpc.client;
+
+import io.activej.async.callback.Callback;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A table of callbacks of pending RPC requests keyed by request indices.
+ * <p>
+ * Request indices are sequential, so a callback is stored in a ring slot that is addressed by
+ * the lowest bits of its index. A deadline of each request is stored inline, next to its callback,
+ * so that neither boxing of indices, nor allocation of any per-request holders is needed.
+ * <p>
+ * A request that is still pending when a newer request needs its slot is moved to a map
+ * of overflowed requests. This keeps a ring compact when a few requests take much longer
+ * than the others.
+ * <p>
+ * Indices of requests in a ring are tracked as a live range, so that expiration only scans
+ * slots of that range, and a ring is shrunk once a range becomes small after a burst of requests.
+ */
+final class PendingRequests {
+	static final long NO_DEADLINE = Long.MAX_VALUE;
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private int[] indices;
+	private Callback<?>[] callbacks;
+	private long[] deadlines;
+	private int mask;
+	private int ringSize;
+
+	// all the requests in a ring have indices in [tail, head)
+	private int tail;
+	private int head;
+
+	private final Map<Integer, Overflowed> overflowed = new HashMap<>();
+
+	PendingRequests() {
+		allocate(INITIAL_CAPACITY);
+	}
+
+	private void allocate(int capacity) {
+		indices = new int[capacity];
+		callbacks = new Callback<?>[capacity];
+		deadlines = new long[capacity];
+		mask = capacity - 1;
+	}
+
+	int size() {
+		return ringSize + overflowed.size();
+	}
+
+	boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@VisibleForTesting
+	int capacity() {
+		return callbacks.length;
+	}
+
+	/**
+	 * Adds a callback of a request with a given index, the index should not be present in the table
+	 */
+	void put(int index, Callback<?> cb, long deadline) {
+		if (ringSize >= (callbacks.length >>> 1)) {
+			resize(callbacks.length << 1);
+		}
+		int slot = index & mask;
+		if (callbacks[slot] != null) {
+			assert indices[slot] != index;
+			overflow(slot);
+		}
+		indices[slot] = index;
+		callbacks[slot] = cb;
+		deadlines[slot] = deadline;
+		if (ringSize == 0) {
+			tail = index;
+			head = index + 1;
+		} else if (index - head >= 0) {
+			head = index + 1;
+		} else if (index - tail < 0) {
+			tail = index;
+		}
+		ringSize++;
+	}
+
+	private void overflow(int slot) {
+		overflowed.put(indices[slot], new Overflowed(callbacks[slot], deadlines[slot]));
+		callbacks[slot] = null;
+		ringSize--;
+	}
+
+	/**
+	 * Removes a callback of a request with a given index
+	 *
+	 * @return a removed callback or {@code null} if there is no request with a given index
+	 */
+	@Nullable Callback<?> remove(int index) {
+		int slot = index & mask;
+		Callback<?> cb = callbacks[slot];
+		if (cb != null && indices[slot] == index) {
+			callbacks[slot] = null;
+			ringSize--;
+			return cb;
+		}
+		if (overflowed.isEmpty()) return null;
+		Overflowed removed = overflowed.remove(index);
+		return removed != null ? removed.cb : null;
+	}
+
+	/**
+	 * Removes callbacks of all the requests whose deadlines have passed
+	 *
+	 * @param onExpired a consumer of the removed callbacks
+	 * @return the earliest deadline of the remaining requests or {@link #NO_DEADLINE}
+	 */
+	long expire(long now, Consumer<Callback<?>> onExpired) {
+		List<Callback<?>> expired = null;
+		long nextDeadline = NO_DEADLINE;
+		int oldest = head;
+		boolean scanRange = head - tail < callbacks.length;
+		for (int i = scanRange ? tail : 0; scanRange ? i != head : i < callbacks.length; i++) {
+			int slot = scanRange ? i & mask : i;
+			Callback<?> cb = callbacks[slot];
+			if (cb == null || scanRange && indices[slot] != i) continue;
+			long deadline = deadlines[slot];
+			if (deadline <= now) {
+				if (expired == null) expired = new ArrayList<>();
+				expired.add(cb);
+				callbacks[slot] = null;
+				ringSize--;
+				continue;
+			}
+			if (deadline < nextDeadline) {
+				nextDeadline = deadline;
+			}
+			if (head - indices[slot] > head - oldest) {
+				oldest = indices[slot];
+			}
+		}
+		tail = oldest;
+		int range = head - tail;
+		if (callbacks.length > INITIAL_CAPACITY && range < (callbacks.length >>> 2)) {
+			resize(Math.max(INITIAL_CAPACITY, Integer.highestOneBit(range) << 2));
+		}
+		for (Iterator<Overflowed> it = overflowed.values().iterator(); it.hasNext(); ) {
+			Overflowed entry = it.next();
+			if (entry.deadline <= now) {
+				if (expired == null) expired = new ArrayList<>();
+				expired.add(entry.cb);
+				it.remove();
+			} else if (entry.deadline < nextDeadline) {
+				nextDeadline = entry.deadline;
+			}
+		}
+		if (expired != null) {
+			expired.forEach(onExpired);
+		}
+		return nextDeadline;
+	}
+
+	/**
+	 * Removes all the callbacks
+	 *
+	 * @param consumer a consumer of the removed callbacks
+	 */
+	void drain(Consumer<Callback<?>> consumer) {
+		Callback<?>[] callbacks = this.callbacks;
+		List<Overflowed> overflowed = new ArrayList<>(this.overflowed.values());
+		allocate(INITIAL_CAPACITY);
+		ringSize = 0;
+		tail = head;
+		this.overflowed.clear();
+		for (Callback<?> cb : callbacks) {
+			if (cb != null) consumer.accept(cb);
+		}
+		for (Overflowed entry : overflowed) {
+			consumer.accept(entry.cb);
+		}
+	}
+
+	private void resize(int capacity) {
+		int[] oldIndices = indices;
+		Callback<?>[] oldCallbacks = callbacks;
+		long[] oldDeadlines = deadlines;
+		allocate(capacity);
+		ringSize = 0;
+		for (int i = 0; i < oldCallbacks.length; i++) {
+			Callback<?> cb = oldCallbacks[i];
+			if (cb == null) continue;
+			int slot = oldIndices[i] & mask;
+			if (callbacks[slot] != null) {
+				// the older of two requests is overflowed
+				if (oldIndices[i] - indices[slot] < 0) {
+					overflowed.put(oldIndices[i], new Overflowed(cb, oldDeadlines[i]));
+					continue;
+				}
+				overflow(slot);
+			}
+			indices[slot] = oldIndices[i];
+			callbacks[slot] = cb;
+			deadlines[slot] = oldDeadlines[i];
+			ringSize++;
+		}
+	}
+
+	private record Overflowed(Callback<?> cb, long deadline) {
+	}
+}
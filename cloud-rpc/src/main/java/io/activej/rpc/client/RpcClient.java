@@ -25,6 +25,8 @@ import io.activej.common.MemSize;
 import io.activej.common.builder.AbstractBuilder;
 import io.activej.csp.process.frame.FrameFormat;
 import io.activej.datastream.csp.ChannelSerializer;
+import io.activej.datastream.supplier.StreamSupplier;
+import io.activej.datastream.supplier.StreamSuppliers;
 import io.activej.jmx.api.attribute.JmxAttribute;
 import io.activej.jmx.api.attribute.JmxOperation;
 import io.activej.jmx.api.attribute.JmxReducers.JmxReducerSum;
@@ -46,6 +48,7 @@ import io.activej.rpc.client.sender.strategy.RpcStrategies;
 import io.activej.rpc.client.sender.strategy.RpcStrategy;
 import io.activej.rpc.protocol.RpcException;
 import io.activej.rpc.protocol.RpcMessage;
+import io.activej.rpc.protocol.RpcTimeoutSerializer;
 import io.activej.rpc.protocol.RpcStream;
 import io.activej.rpc.server.RpcServer;
 import io.activej.serializer.BinarySerializer;
@@ -59,7 +62,9 @@ import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
+import static io.activej.common.Checks.checkArgument;
 import static io.activej.common.Checks.checkState;
 import static io.activej.common.Utils.nonNullElseGet;
 import static io.activej.net.socket.tcp.SslTcpSocket.wrapClientSocket;
@@ -93,6 +98,8 @@ public final class RpcClient extends AbstractNioReactive
 	public static final Duration DEFAULT_RECONNECT_INTERVAL = ApplicationSettings.getDuration(RpcClient.class, "reconnectInterval", Duration.ZERO);
 	public static final MemSize DEFAULT_PACKET_SIZE = ApplicationSettings.getMemSize(RpcClient.class, "packetSize", ChannelSerializer.DEFAULT_INITIAL_BUFFER_SIZE);
 
+	public static final int DEFAULT_STREAM_CREDIT = 256;
+
 	private static final RpcException SET_STRATEGY_EXCEPTION = new RpcException("Could not change strategy");
 	private static final RpcException NO_SENDER_AVAILABLE_EXCEPTION = new RpcException("No senders available");
 	private static final RpcException CLIENT_IS_STOPPED = new RpcException("Client is stopped");
@@ -118,12 +125,15 @@ public final class RpcClient extends AbstractNioReactive
 	private @Nullable FrameFormat frameFormat;
 	private Duration autoFlushInterval = Duration.ZERO;
 	private Duration keepAliveInterval = Duration.ZERO;
+	private int streamCredit = DEFAULT_STREAM_CREDIT;
 
 	private long connectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT.toMillis();
 	private long reconnectIntervalMillis = DEFAULT_RECONNECT_INTERVAL.toMillis();
 
 	private BinarySerializer<RpcMessage> requestSerializer;
 	private BinarySerializer<RpcMessage> responseSerializer;
+	private @Nullable List<Class<?>> messageTypes;
+	private int protocolVersion = RpcMessage.INITIAL_VERSION;
 
 	private boolean forcedShutdown;
 
@@ -133,6 +143,8 @@ public final class RpcClient extends AbstractNioReactive
 
 	private final RpcClientConnectionPool pool = connections::get;
 
+	private final List<Consumer<Object>> invalidationListeners = new ArrayList<>();
+
 	// jmx
 	static final Duration SMOOTHING_WINDOW = Duration.ofMinutes(1);
 	private boolean monitoring = false;
@@ -173,10 +185,11 @@ public final class RpcClient extends AbstractNioReactive
 		 * specified message types
 		 */
 		public Builder withMessageTypes(List<Class<?>> messageTypes) {
-			return withSerializer(SerializerFactory.builder()
-				.withSubclasses(RpcMessage.SUBCLASSES_ID, messageTypes)
-				.build()
-				.create(RpcMessage.class));
+			checkNotBuilt(this);
+			RpcClient.this.messageTypes = messageTypes;
+			RpcClient.this.requestSerializer = null;
+			RpcClient.this.responseSerializer = null;
+			return this;
 		}
 
 		/**
@@ -186,8 +199,31 @@ public final class RpcClient extends AbstractNioReactive
 			return withMessageTypes(List.of(messageTypes));
 		}
 
+		/**
+		 * Sets a version of a protocol. By default, an {@link RpcMessage#INITIAL_VERSION initial version} is used.
+		 * <p>
+		 * A protocol version defines an envelope of each {@link RpcMessage},
+		 * message types are encoded by a serializer for {@link RpcMessage} as is.
+		 * <p>
+		 * <b>A protocol version should match the protocol version set on {@link RpcServer}</b>
+		 *
+		 * @param protocolVersion a version of RPC protocol
+		 * @return the builder for RPC client with specified protocol version
+		 * @see RpcMessage#TIMEOUT_VERSION
+		 */
+		public Builder withProtocolVersion(int protocolVersion) {
+			checkNotBuilt(this);
+			checkArgument(protocolVersion == RpcMessage.INITIAL_VERSION || protocolVersion == RpcMessage.TIMEOUT_VERSION,
+				"Unsupported protocol version: " + protocolVersion);
+			RpcClient.this.protocolVersion = protocolVersion;
+			return this;
+		}
+
 		/**
 		 * Sets serializer for {@link RpcMessage} of this RPC client.
+		 * <p>
+		 * Message types should be registered with {@link RpcMessage#subclassesOf(List)},
+		 * otherwise stream credits and cache invalidations cannot be serialized
 		 *
 		 * @param serializer serializer for RPC message
 		 * @return the builder for RPC client with specified serializer for RPC message
@@ -310,6 +346,23 @@ public final class RpcClient extends AbstractNioReactive
 			return this;
 		}
 
+		/**
+		 * Sets a number of items of a streaming request that a server may send
+		 * before the client grants more credit. This bounds a number of items of a single
+		 * stream that are in flight, so that a large stream cannot starve other requests
+		 * that share the same connection.
+		 *
+		 * @param streamCredit a number of stream items that a server may send ahead
+		 * @return the builder for RPC client with specified stream credit
+		 * @see #sendStreamRequest(Object)
+		 */
+		public Builder withStreamCredit(int streamCredit) {
+			checkNotBuilt(this);
+			checkArgument(streamCredit > 0, "Stream credit must be positive");
+			RpcClient.this.streamCredit = streamCredit;
+			return this;
+		}
+
 		/**
 		 * Sets a duration for which a client will wait on connection to the RPC server before failing with connection
 		 * timeout error.
@@ -373,6 +426,26 @@ public final class RpcClient extends AbstractNioReactive
 
 		@Override
 		protected RpcClient doBuild() {
+			if (messageTypes != null) {
+				BinarySerializer<RpcMessage> serializer = SerializerFactory.builder()
+					.withSubclasses(RpcMessage.SUBCLASSES_ID, RpcMessage.subclassesOf(messageTypes))
+					.build()
+					.create(RpcMessage.class);
+				if (requestSerializer == null) {
+					requestSerializer = serializer;
+				}
+				if (responseSerializer == null) {
+					responseSerializer = serializer;
+				}
+			}
+			if (protocolVersion == RpcMessage.TIMEOUT_VERSION) {
+				if (requestSerializer != null) {
+					requestSerializer = RpcTimeoutSerializer.create(requestSerializer);
+				}
+				if (responseSerializer != null) {
+					responseSerializer = RpcTimeoutSerializer.create(responseSerializer);
+				}
+			}
 			checkState(requestSerializer != null && responseSerializer != null);
 			return RpcClient.this;
 		}
@@ -462,7 +535,7 @@ public final class RpcClient extends AbstractNioReactive
 					wrapClientSocket(reactor, tcpSocket, sslContext, sslExecutor);
 				RpcStream stream = new RpcStream(socket, responseSerializer, requestSerializer, defaultPacketSize,
 					autoFlushInterval, frameFormat, false); // , statsSerializer, statsDeserializer, statsCompressor, statsDecompressor);
-				RpcClientConnection connection = new RpcClientConnection(reactor, this, address, stream, keepAliveInterval.toMillis());
+				RpcClientConnection connection = new RpcClientConnection(reactor, this, address, stream, keepAliveInterval.toMillis(), streamCredit);
 				stream.setListener(connection);
 
 				// jmx
@@ -495,6 +568,23 @@ public final class RpcClient extends AbstractNioReactive
 			});
 	}
 
+	/**
+	 * Adds a listener of cache invalidations that are pushed by servers.
+	 * A listener receives a request whose cached results are no longer valid
+	 *
+	 * @see RpcServer#invalidate(Object)
+	 * @see CachingRpcClient
+	 */
+	public void addInvalidationListener(Consumer<Object> listener) {
+		invalidationListeners.add(listener);
+	}
+
+	void onInvalidation(Object request) {
+		for (Consumer<Object> listener : invalidationListeners) {
+			listener.accept(request);
+		}
+	}
+
 	void onClosedConnection(InetSocketAddress address) {
 		if (connections.remove(address) == null) {
 			return;
@@ -605,6 +695,28 @@ public final class RpcClient extends AbstractNioReactive
 		requestSender.sendRequest(request, cb);
 	}
 
+	/**
+	 * Sends a streaming request to a server. The server should have a
+	 * {@link RpcServer.Builder#withStreamHandler stream handler} for a request type.
+	 * <p>
+	 * Items of a stream are carried over the same connection as ordinary requests.
+	 * The number of items that are in flight is limited by a stream credit,
+	 * which is granted by the client as the returned supplier is being consumed.
+	 * <p>
+	 * Only strategies that route each request to a single server support streaming requests.
+	 *
+	 * @param <I>     request class
+	 * @param <O>     class of stream items
+	 * @param request request to a server
+	 * @return a supplier of items sent by the server
+	 */
+	public <I, O> StreamSupplier<O> sendStreamRequest(I request) {
+		if (CHECKS) checkInReactorThread(this);
+		SettablePromise<StreamSupplier<O>> promise = new SettablePromise<>();
+		requestSender.sendStreamRequest(request, promise);
+		return StreamSuppliers.ofPromise(promise);
+	}
+
 	public IRpcClient adaptToAnotherReactor(Reactor anotherReactor) {
 		if (anotherReactor == this.reactor) {
 			return this;
@@ -654,6 +766,11 @@ public final class RpcClient extends AbstractNioReactive
 		public <I, O> void sendRequest(I request, int timeout, Callback<O> cb) {
 			cb.accept(null, NO_SENDER_AVAILABLE_EXCEPTION);
 		}
+
+		@Override
+		public <I, O> void sendStreamRequest(I request, Callback<StreamSupplier<O>> cb) {
+			cb.accept(null, NO_SENDER_AVAILABLE_EXCEPTION);
+		}
 	}
 
 	public static final class NoServersRpcStrategy implements RpcStrategy {
@@ -20,9 +20,10 @@ import io.activej.async.callback.Callback;
 import io.activej.async.exception.AsyncCloseException;
 import io.activej.async.exception.AsyncTimeoutException;
 import io.activej.common.Checks;
-import io.activej.common.recycle.Recyclers;
 import io.activej.common.time.Stopwatch;
+import io.activej.datastream.supplier.AbstractStreamSupplier;
 import io.activej.datastream.supplier.StreamDataAcceptor;
+import io.activej.datastream.supplier.StreamSupplier;
 import io.activej.jmx.api.JmxRefreshable;
 import io.activej.jmx.api.attribute.JmxAttribute;
 import io.activej.jmx.api.attribute.JmxReducers.JmxReducerSum;
@@ -39,7 +40,6 @@ import org.slf4j.Logger;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -53,6 +53,8 @@ public final class RpcClientConnection extends AbstractReactive implements RpcSt
 	private static final RpcException CONNECTION_UNRESPONSIVE = new RpcException("Unresponsive connection");
 	private static final RpcOverloadException RPC_OVERLOAD_EXCEPTION = new RpcOverloadException("RPC client is overloaded");
 
+	private static final long NO_DEADLINE = PendingRequests.NO_DEADLINE;
+
 	private StreamDataAcceptor<RpcMessage> downstreamDataAcceptor = null;
 	private boolean overloaded = false;
 	private boolean closed;
@@ -60,7 +62,12 @@ public final class RpcClientConnection extends AbstractReactive implements RpcSt
 	private final RpcClient rpcClient;
 	private final RpcStream stream;
 	private final InetSocketAddress address;
-	private final Map<Integer, Callback<?>> activeRequests = new HashMap<>();
+	private final PendingRequests activeRequests = new PendingRequests();
+	private final Map<Integer, ClientStream> activeStreams = new HashMap<>();
+	private final int streamCredit;
+
+	private @Nullable ScheduledRunnable expirationTask;
+	private long expirationTimestamp = NO_DEADLINE;
 
 	private ArrayList<RpcMessage> initialBuffer = new ArrayList<>();
 
@@ -78,13 +85,15 @@ public final class RpcClientConnection extends AbstractReactive implements RpcSt
 	private boolean pongReceived;
 
 	RpcClientConnection(
-		Reactor reactor, RpcClient rpcClient, InetSocketAddress address, RpcStream stream, long keepAliveMillis
+		Reactor reactor, RpcClient rpcClient, InetSocketAddress address, RpcStream stream, long keepAliveMillis,
+		int streamCredit
 	) {
 		super(reactor);
 		this.rpcClient = rpcClient;
 		this.stream = stream;
 		this.address = address;
 		this.keepAliveMillis = keepAliveMillis;
+		this.streamCredit = streamCredit;
 
 		// JMX
 		this.monitoring = false;
@@ -109,54 +118,48 @@ public final class RpcClientConnection extends AbstractReactive implements RpcSt
 			}
 
 			if (timeout == Integer.MAX_VALUE) {
-				activeRequests.put(index, cb);
+				activeRequests.put(index, cb, NO_DEADLINE);
+				downstreamDataAcceptor.accept(new RpcMessage(index, request));
 			} else {
-				ScheduledCallback<O> scheduledRunnable = new ScheduledCallback<>(reactor.currentTimeMillis() + timeout, index, cb);
-				reactor.scheduleBackground(scheduledRunnable);
-				activeRequests.put(index, scheduledRunnable);
+				long deadline = reactor.currentTimeMillis() + timeout;
+				activeRequests.put(index, cb, deadline);
+				if (deadline < expirationTimestamp) {
+					scheduleExpiration(deadline);
+				}
+				// the timeout is propagated, so that a server does not process requests that are no longer awaited
+				downstreamDataAcceptor.accept(new RpcMessage(index, request, timeout));
 			}
-
-			downstreamDataAcceptor.accept(new RpcMessage(index, request));
 		} else {
 			doProcessOverloaded(cb);
 		}
 	}
 
-	public class ScheduledCallback<O> extends ScheduledRunnable implements Callback<O> {
-		final Callback<O> cb;
-		final int index;
-
-		ScheduledCallback(long timestamp, int index, Callback<O> cb) {
-			super(timestamp);
-			this.index = index;
-			this.cb = cb;
+	private void scheduleExpiration(long timestamp) {
+		if (expirationTask != null) {
+			expirationTask.cancel();
 		}
+		expirationTimestamp = timestamp;
+		expirationTask = reactor.scheduleBackground(timestamp, this::expireRequests);
+	}
 
-		@Override
-		public void accept(O result, @Nullable Exception e) {
-			if (isActive()) {
-				cancel();
-				cb.accept(result, e);
-			} else {
-				Recyclers.recycle(result);
-			}
-		}
+	private void expireRequests() {
+		expirationTask = null;
+		expirationTimestamp = NO_DEADLINE;
+		if (isClosed()) return;
 
-		@Override
-		public void run() {
-			Callback<?> expiredCb = activeRequests.remove(index);
-			if (expiredCb != null) {
-				assert expiredCb == this;
-				// jmx
-				connectionStats.getExpiredRequests().recordEvent();
-				rpcClient.getGeneralRequestsStats().getExpiredRequests().recordEvent();
+		long nextDeadline = activeRequests.expire(reactor.currentTimeMillis(), expiredCb -> {
+			// jmx
+			connectionStats.getExpiredRequests().recordEvent();
+			rpcClient.getGeneralRequestsStats().getExpiredRequests().recordEvent();
 
-				cb.accept(null, new AsyncTimeoutException("RPC request has timed out"));
-			}
+			expiredCb.accept(null, new AsyncTimeoutException("RPC request has timed out"));
+		});
+		if (nextDeadline < expirationTimestamp) {
+			scheduleExpiration(nextDeadline);
+		}
 
-			if (serverClosing && activeRequests.isEmpty()) {
-				RpcClientConnection.this.shutdown();
-			}
+		if (serverClosing && activeRequests.isEmpty() && activeStreams.isEmpty()) {
+			shutdown();
 		}
 	}
 
@@ -175,7 +178,7 @@ public final class RpcClientConnection extends AbstractReactive implements RpcSt
 				cb = doJmxMonitoring(request, Integer.MAX_VALUE, cb);
 			}
 
-			activeRequests.put(index, cb);
+			activeRequests.put(index, cb, NO_DEADLINE);
 
 			downstreamDataAcceptor.accept(new RpcMessage(index, request));
 		} else {
@@ -183,6 +186,26 @@ public final class RpcClientConnection extends AbstractReactive implements RpcSt
 		}
 	}
 
+	@Override
+	public <I, O> void sendStreamRequest(I request, Callback<StreamSupplier<O>> cb) {
+		if (CHECKS) checkInReactorThread(this);
+		// jmx
+		totalRequests.recordEvent();
+		connectionRequests.recordEvent();
+
+		if (overloaded) {
+			doProcessOverloaded(cb);
+			return;
+		}
+		index++;
+		ClientStream clientStream = new ClientStream(index);
+		activeStreams.put(index, clientStream);
+		downstreamDataAcceptor.accept(new RpcMessage(index, request));
+		downstreamDataAcceptor.accept(new RpcMessage(index, new RpcStreamCredit(streamCredit)));
+		//noinspection unchecked
+		cb.accept((StreamSupplier<O>) clientStream, null);
+	}
+
 	private <I, O> Callback<O> doJmxMonitoring(I request, int timeout, Callback<O> cb) {
 		RpcRequestStats requestStatsPerClass = rpcClient.ensureRequestStatsPerClass(request.getClass());
 		requestStatsPerClass.getTotalRequests().recordEvent();
@@ -201,17 +224,26 @@ public final class RpcClientConnection extends AbstractReactive implements RpcSt
 	@Override
 	public void accept(RpcMessage message) {
 		if (CHECKS) checkInReactorThread(this);
+		if (!activeStreams.isEmpty()) {
+			ClientStream clientStream = activeStreams.get(message.getIndex());
+			if (clientStream != null) {
+				clientStream.onMessage(message.getMessage());
+				return;
+			}
+		}
 		if (message.getMessage().getClass() == RpcRemoteException.class) {
 			processErrorMessage(message);
 		} else if (message.getMessage().getClass() == RpcControlMessage.class) {
 			processControlMessage((RpcControlMessage) message.getMessage());
+		} else if (message.getMessage().getClass() == RpcInvalidation.class) {
+			rpcClient.onInvalidation(((RpcInvalidation) message.getMessage()).getRequest());
 		} else {
 			@SuppressWarnings("unchecked")
 			Callback<Object> cb = (Callback<Object>) activeRequests.remove(message.getIndex());
 			if (cb == null) return;
 
 			cb.accept(message.getMessage(), null);
-			if (serverClosing && activeRequests.isEmpty()) {
+			if (serverClosing && activeRequests.isEmpty() && activeStreams.isEmpty()) {
 				shutdown();
 			}
 		}
@@ -227,7 +259,12 @@ public final class RpcClientConnection extends AbstractReactive implements RpcSt
 
 		Callback<?> cb = activeRequests.remove(message.getIndex());
 		if (cb != null) {
-			cb.accept(null, remoteException);
+			if (RpcOverloadException.class.getName().equals(remoteException.getCauseClassName())) {
+				// a server has rejected the request without processing it
+				cb.accept(null, new RpcOverloadException(remoteException.getCauseMessage(), remoteException));
+			} else {
+				cb.accept(null, remoteException);
+			}
 		}
 	}
 
@@ -235,7 +272,7 @@ public final class RpcClientConnection extends AbstractReactive implements RpcSt
 		if (controlMessage == RpcControlMessage.CLOSE) {
 			rpcClient.onClosedConnection(address);
 			serverClosing = true;
-			if (activeRequests.isEmpty()) {
+			if (activeRequests.isEmpty() && activeStreams.isEmpty()) {
 				shutdown();
 			}
 		} else if (controlMessage == RpcControlMessage.PONG) {
@@ -288,7 +325,10 @@ public final class RpcClientConnection extends AbstractReactive implements RpcSt
 		if (isClosed()) return;
 		logger.error("Serialization error: {} for message {}", address, message.getMessage(), e);
 		rpcClient.getLastProtocolError().recordException(e, address);
-		activeRequests.remove(message.getIndex()).accept(null, e);
+		Callback<?> cb = activeRequests.remove(message.getIndex());
+		if (cb != null) {
+			cb.accept(null, e);
+		}
 	}
 
 	@Override
@@ -317,13 +357,16 @@ public final class RpcClientConnection extends AbstractReactive implements RpcSt
 		closed = true;
 		rpcClient.onClosedConnection(address);
 
+		if (expirationTask != null) {
+			expirationTask.cancel();
+			expirationTask = null;
+			expirationTimestamp = NO_DEADLINE;
+		}
 		while (!activeRequests.isEmpty()) {
-			for (Integer index : new HashSet<>(activeRequests.keySet())) {
-				Callback<?> cb = activeRequests.remove(index);
-				if (cb != null) {
-					cb.accept(null, new AsyncCloseException("Connection closed"));
-				}
-			}
+			activeRequests.drain(cb -> cb.accept(null, new AsyncCloseException("Connection closed")));
+		}
+		for (ClientStream clientStream : new ArrayList<>(activeStreams.values())) {
+			clientStream.onRemoteError(new AsyncCloseException("Connection closed"));
 		}
 	}
 
@@ -360,11 +403,88 @@ public final class RpcClientConnection extends AbstractReactive implements RpcSt
 		return activeRequests.size();
 	}
 
+	@JmxAttribute(reducer = JmxReducerSum.class)
+	public int getActiveStreams() {
+		return activeStreams.size();
+	}
+
 	@Override
 	public void refresh(long timestamp) {
 		connectionStats.refresh(timestamp);
 	}
 
+	/**
+	 * A client side of a streaming request.
+	 * <p>
+	 * A server may send up to {@link #streamCredit} items ahead. Once at least half of that credit
+	 * has been passed to a consumer of this supplier, the consumed amount is granted back to the server.
+	 */
+	private final class ClientStream extends AbstractStreamSupplier<Object> {
+		private final int index;
+		private int unacknowledged;
+		private boolean finished;
+
+		ClientStream(int index) {
+			this.index = index;
+		}
+
+		void onMessage(Object message) {
+			if (message == RpcControlMessage.END_OF_STREAM) {
+				finish();
+				sendEndOfStream();
+			} else if (message instanceof RpcRemoteException remoteException) {
+				// jmx
+				connectionStats.getFailedRequests().recordEvent();
+				rpcClient.getGeneralRequestsStats().getFailedRequests().recordEvent();
+				connectionStats.getServerExceptions().recordException(remoteException, null);
+				rpcClient.getGeneralRequestsStats().getServerExceptions().recordException(remoteException, null);
+
+				onRemoteError(remoteException);
+			} else {
+				send(message);
+				unacknowledged++;
+				grantCredit();
+			}
+		}
+
+		void onRemoteError(Exception e) {
+			finish();
+			closeEx(e);
+		}
+
+		private void finish() {
+			finished = true;
+			activeStreams.remove(index);
+			if (serverClosing && activeRequests.isEmpty() && activeStreams.isEmpty()) {
+				shutdown();
+			}
+		}
+
+		private void grantCredit() {
+			if (isReady() && unacknowledged >= (streamCredit + 1) / 2 && !isClosed()) {
+				downstreamDataAcceptor.accept(new RpcMessage(index, new RpcStreamCredit(unacknowledged)));
+				unacknowledged = 0;
+			}
+		}
+
+		@Override
+		protected void onResumed() {
+			if (!finished) {
+				grantCredit();
+			}
+		}
+
+		@Override
+		protected void onComplete() {
+			if (finished) return;
+			// a consumer has stopped consuming before the end of stream
+			finish();
+			if (!isClosed()) {
+				downstreamDataAcceptor.accept(new RpcMessage(index, RpcControlMessage.CANCEL_STREAM));
+			}
+		}
+	}
+
 	public final class JmxConnectionMonitoringResultCallback<T> implements Callback<T> {
 		private final Stopwatch stopwatch;
 		private final Callback<T> callback;
@@ -34,6 +34,9 @@ public final class RpcRequestStats implements JmxRefreshable {
 	private final ValueStats responseTime;
 	private final ValueStats overdues;
 	private final ExceptionStats serverExceptions;
+	private final EventStats cacheHits;
+	private final EventStats cacheMisses;
+	private final EventStats coalescedRequests;
 
 	private RpcRequestStats(Duration smoothingWindow) {
 		totalRequests = EventStats.create(smoothingWindow);
@@ -50,6 +53,9 @@ public final class RpcRequestStats implements JmxRefreshable {
 			.withUnit("milliseconds")
 			.build();
 		serverExceptions = ExceptionStats.create();
+		cacheHits = EventStats.create(smoothingWindow);
+		cacheMisses = EventStats.create(smoothingWindow);
+		coalescedRequests = EventStats.create(smoothingWindow);
 	}
 
 	public static RpcRequestStats create(Duration smoothingWindow) {
@@ -64,6 +70,9 @@ public final class RpcRequestStats implements JmxRefreshable {
 		expiredRequests.refresh(timestamp);
 		responseTime.refresh(timestamp);
 		overdues.refresh(timestamp);
+		cacheHits.refresh(timestamp);
+		cacheMisses.refresh(timestamp);
+		coalescedRequests.refresh(timestamp);
 	}
 
 	@JmxAttribute(extraSubAttributes = "totalCount")
@@ -108,4 +117,29 @@ public final class RpcRequestStats implements JmxRefreshable {
 	public ExceptionStats getServerExceptions() {
 		return serverExceptions;
 	}
+
+	@JmxAttribute(extraSubAttributes = "totalCount", description = "requests served from a client-side cache")
+	public EventStats getCacheHits() {
+		return cacheHits;
+	}
+
+	@JmxAttribute(extraSubAttributes = "totalCount", description = "cacheable requests that were sent to a server")
+	public EventStats getCacheMisses() {
+		return cacheMisses;
+	}
+
+	@JmxAttribute(
+		extraSubAttributes = "totalCount",
+		description = "cacheable requests that joined an identical in-flight request"
+	)
+	public EventStats getCoalescedRequests() {
+		return coalescedRequests;
+	}
+
+	@JmxAttribute(description = "ratio of cache hits to all cacheable requests")
+	public double getCacheHitRate() {
+		double hits = cacheHits.getSmoothedRate();
+		double total = hits + cacheMisses.getSmoothedRate() + coalescedRequests.getSmoothedRate();
+		return total != 0 ? hits / total : 0;
+	}
 }
@@ -17,6 +17,8 @@
 package io.activej.rpc.client.sender;
 
 import io.activej.async.callback.Callback;
+import io.activej.datastream.supplier.StreamSupplier;
+import io.activej.rpc.protocol.RpcException;
 
 public interface RpcSender {
 	<I, O> void sendRequest(I request, int timeout, Callback<O> cb);
@@ -24,4 +26,14 @@ public interface RpcSender {
 	default <I, O> void sendRequest(I request, Callback<O> cb) {
 		sendRequest(request, Integer.MAX_VALUE, cb);
 	}
+
+	/**
+	 * Sends a request which is answered with a stream of responses.
+	 * <p>
+	 * Senders that cannot route a request to a single connection
+	 * do not support streaming requests, the callback is completed exceptionally then.
+	 */
+	default <I, O> void sendStreamRequest(I request, Callback<StreamSupplier<O>> cb) {
+		cb.accept(null, new RpcException("Streaming requests are not supported by " + getClass().getSimpleName()));
+	}
 }
@@ -50,6 +50,14 @@ public class RpcStrategies {
 		return RoundRobin.create(strategies);
 	}
 
+	public static RpcStrategy latencyAware(RpcStrategy... strategies) {
+		return latencyAware(List.of(strategies));
+	}
+
+	public static RpcStrategy latencyAware(List<? extends RpcStrategy> strategies) {
+		return LatencyAware.create(strategies);
+	}
+
 	public static <T> RpcStrategy sharding(ToIntFunction<T> shardingFunction, RpcStrategy... strategies) {
 		return sharding(shardingFunction, List.of(strategies));
 	}
@@ -58,6 +66,17 @@ public class RpcStrategies {
 		return Sharding.create(shardingFunction, strategies);
 	}
 
+	public static <T> RpcStrategy consistentHashing(ToIntFunction<T> hashFn, InetSocketAddress... addresses) {
+		return consistentHashing(hashFn, List.of(addresses));
+	}
+
+	public static <T> RpcStrategy consistentHashing(ToIntFunction<T> hashFn, List<InetSocketAddress> addresses) {
+		checkArgument(!addresses.isEmpty(), "At least one address must be present");
+		return ConsistentHashing.builder(hashFn)
+			.withShards(addresses)
+			.build();
+	}
+
 	public static RpcStrategy forced(RpcStrategy strategy) {
 		return new Forced(strategy);
 	}
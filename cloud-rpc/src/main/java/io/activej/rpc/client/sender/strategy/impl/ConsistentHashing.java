@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.rpc.client.sender.strategy.impl;
+
+import io.activej.async.callback.Callback;
+import io.activej.common.HashUtils;
+import io.activej.common.annotation.ExposedInternals;
+import io.activej.common.builder.AbstractBuilder;
+import io.activej.datastream.supplier.StreamSupplier;
+import io.activej.rpc.client.RpcClientConnectionPool;
+import io.activej.rpc.client.sender.RpcSender;
+import io.activej.rpc.client.sender.strategy.RpcStrategy;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.InetSocketAddress;
+import java.util.*;
+import java.util.function.ToIntBiFunction;
+import java.util.function.ToIntFunction;
+
+import static io.activej.common.Checks.checkArgument;
+import static io.activej.rpc.client.sender.strategy.RpcStrategies.server;
+
+/**
+ * A strategy that distributes requests between shards using a consistent hashing ring.
+ * <p>
+ * Each active shard is placed on a ring at a number of points (virtual nodes), which are derived
+ * from a shard id. A request is sent to a shard that owns the first point of the ring that follows
+ * a hash of the request. A ring is precomputed once per sender, so a lookup takes O(log n) time.
+ * <p>
+ * As points depend only on shard ids, adding or removing a shard
+ * (for example, by means of {@code RpcClient#changeStrategy}) or a shard becoming unavailable
+ * remaps only the keys that belong to that shard.
+ * <p>
+ * If a load factor is set, the "consistent hashing with bounded loads" scheme is used:
+ * a shard may not have more than {@code ceil(loadFactor * (outstanding + 1) / shards)}
+ * outstanding requests, and a request to an overloaded shard spills over to the next shard on the ring.
+ */
+@ExposedInternals
+public final class ConsistentHashing implements RpcStrategy {
+	public static final int DEFAULT_VIRTUAL_NODES = 160;
+	public static final ToIntBiFunction<Object, Integer> DEFAULT_HASH_NODE_FN = (shardId, node) ->
+		(int) HashUtils.murmur3hash(((long) shardId.hashCode() << 32) | (node & 0xFFFFFFFFL));
+	public static final int DEFAULT_MIN_ACTIVE_SHARDS = 1;
+
+	public final ToIntFunction<?> hashFn;
+	public final Map<Object, RpcStrategy> shards;
+	public ToIntBiFunction<Object, Integer> hashNodeFn;
+	public int virtualNodes;
+	public int minActiveShards;
+	public double loadFactor;
+
+	public ConsistentHashing(
+		ToIntFunction<?> hashFn,
+		Map<Object, RpcStrategy> shards,
+		ToIntBiFunction<Object, Integer> hashNodeFn,
+		int virtualNodes,
+		int minActiveShards,
+		double loadFactor
+	) {
+		this.hashFn = hashFn;
+		this.shards = shards;
+		this.hashNodeFn = hashNodeFn;
+		this.virtualNodes = virtualNodes;
+		this.minActiveShards = minActiveShards;
+		this.loadFactor = loadFactor;
+	}
+
+	public static <T> Builder builder(ToIntFunction<T> hashFn) {
+		return new ConsistentHashing(
+			hashFn, new LinkedHashMap<>(), DEFAULT_HASH_NODE_FN,
+			DEFAULT_VIRTUAL_NODES, DEFAULT_MIN_ACTIVE_SHARDS, 0).new Builder();
+	}
+
+	public final class Builder extends AbstractBuilder<Builder, ConsistentHashing> {
+		private Builder() {}
+
+		/**
+		 * Sets a function that computes a position of a given virtual node of a shard on the ring
+		 */
+		public Builder withHashNodeFunction(ToIntBiFunction<Object, Integer> hashNodeFn) {
+			checkNotBuilt(this);
+			ConsistentHashing.this.hashNodeFn = hashNodeFn;
+			return this;
+		}
+
+		/**
+		 * Sets a number of points on the ring per shard. More points result in a more even distribution
+		 */
+		public Builder withVirtualNodes(int virtualNodes) {
+			checkNotBuilt(this);
+			checkArgument(virtualNodes > 0, "Number of virtual nodes must be positive");
+			ConsistentHashing.this.virtualNodes = virtualNodes;
+			return this;
+		}
+
+		public Builder withMinActiveShards(int minActiveShards) {
+			checkNotBuilt(this);
+			ConsistentHashing.this.minActiveShards = minActiveShards;
+			return this;
+		}
+
+		/**
+		 * Bounds a number of outstanding requests of each shard relative to an average load.
+		 * A load factor of {@code 1.25} allows a shard to have 25% more outstanding requests
+		 * than average before requests spill over to the next shard
+		 *
+		 * @param loadFactor a load factor, must be greater than 1
+		 */
+		public Builder withBoundedLoad(double loadFactor) {
+			checkNotBuilt(this);
+			checkArgument(loadFactor > 1, "Load factor must be greater than 1");
+			ConsistentHashing.this.loadFactor = loadFactor;
+			return this;
+		}
+
+		public Builder withShard(Object shardId, RpcStrategy strategy) {
+			checkNotBuilt(this);
+			shards.put(shardId, strategy);
+			return this;
+		}
+
+		public Builder withShards(InetSocketAddress... addresses) {
+			return withShards(List.of(addresses));
+		}
+
+		public Builder withShards(List<InetSocketAddress> addresses) {
+			checkNotBuilt(this);
+			for (InetSocketAddress address : addresses) {
+				shards.put(address, server(address));
+			}
+			return this;
+		}
+
+		@Override
+		protected ConsistentHashing doBuild() {
+			return ConsistentHashing.this;
+		}
+	}
+
+	@Override
+	public Set<InetSocketAddress> getAddresses() {
+		HashSet<InetSocketAddress> result = new HashSet<>();
+		for (RpcStrategy strategy : shards.values()) {
+			result.addAll(strategy.getAddresses());
+		}
+		return result;
+	}
+
+	@Override
+	public @Nullable RpcSender createSender(RpcClientConnectionPool pool) {
+		List<Object> shardIds = new ArrayList<>();
+		List<RpcSender> senders = new ArrayList<>();
+		for (Map.Entry<Object, RpcStrategy> entry : shards.entrySet()) {
+			RpcSender sender = entry.getValue().createSender(pool);
+			if (sender != null) {
+				shardIds.add(entry.getKey());
+				senders.add(sender);
+			}
+		}
+
+		if (senders.size() < minActiveShards || senders.isEmpty()) {
+			return null;
+		}
+
+		int size = senders.size() * virtualNodes;
+		long[] points = new long[size];
+		int i = 0;
+		for (int shard = 0; shard < senders.size(); shard++) {
+			Object shardId = shardIds.get(shard);
+			for (int node = 0; node < virtualNodes; node++) {
+				int hash = hashNodeFn.applyAsInt(shardId, node);
+				// a hash in the high bits, so that points are sorted by hash
+				points[i++] = ((long) hash << 32) | shard;
+			}
+		}
+		Arrays.sort(points);
+
+		int[] ring = new int[size];
+		int[] owners = new int[size];
+		for (int j = 0; j < size; j++) {
+			ring[j] = (int) (points[j] >> 32);
+			owners[j] = (int) points[j];
+		}
+
+		return new Sender(hashFn, ring, owners, senders.toArray(RpcSender[]::new), loadFactor);
+	}
+
+	public static final class Sender implements RpcSender {
+		private final ToIntFunction<Object> hashFunction;
+		private final int[] ring;
+		private final int[] owners;
+		private final RpcSender[] senders;
+
+		private final double loadFactor;
+		private final int[] outstanding;
+		private int totalOutstanding;
+
+		Sender(ToIntFunction<?> hashFunction, int[] ring, int[] owners, RpcSender[] senders, double loadFactor) {
+			//noinspection unchecked
+			this.hashFunction = (ToIntFunction<Object>) hashFunction;
+			this.ring = ring;
+			this.owners = owners;
+			this.senders = senders;
+			this.loadFactor = loadFactor;
+			this.outstanding = new int[senders.length];
+		}
+
+		@Override
+		public <I, O> void sendRequest(I request, int timeout, Callback<O> cb) {
+			int point = lookup(request);
+			if (loadFactor == 0) {
+				senders[owners[point]].sendRequest(request, timeout, cb);
+				return;
+			}
+
+			int capacity = (int) Math.ceil(loadFactor * (totalOutstanding + 1) / senders.length);
+			int shard = owners[point];
+			for (int i = 1; outstanding[shard] >= capacity && i < ring.length; i++) {
+				shard = owners[(point + i) % ring.length];
+			}
+
+			int chosen = shard;
+			outstanding[chosen]++;
+			totalOutstanding++;
+			senders[chosen].sendRequest(request, timeout, (Callback<O>) (result, e) -> {
+				outstanding[chosen]--;
+				totalOutstanding--;
+				cb.accept(result, e);
+			});
+		}
+
+		@Override
+		public <I, O> void sendStreamRequest(I request, Callback<StreamSupplier<O>> cb) {
+			senders[owners[lookup(request)]].sendStreamRequest(request, cb);
+		}
+
+		/**
+		 * Returns an index of the first point of the ring that is not less than a hash of a request
+		 */
+		private int lookup(Object request) {
+			int hash = HashUtils.murmur3hash(hashFunction.applyAsInt(request));
+			int index = Arrays.binarySearch(ring, hash);
+			if (index < 0) {
+				index = -index - 1;
+				if (index == ring.length) {
+					index = 0;
+				}
+			}
+			return index;
+		}
+	}
+}
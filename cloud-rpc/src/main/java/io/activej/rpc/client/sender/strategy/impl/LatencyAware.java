@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.rpc.client.sender.strategy.impl;
+
+import io.activej.async.callback.Callback;
+import io.activej.common.annotation.ExposedInternals;
+import io.activej.common.builder.AbstractBuilder;
+import io.activej.datastream.supplier.StreamSupplier;
+import io.activej.jmx.api.ConcurrentJmxBean;
+import io.activej.jmx.api.attribute.JmxAttribute;
+import io.activej.rpc.client.RpcClientConnectionPool;
+import io.activej.rpc.client.sender.RpcSender;
+import io.activej.rpc.client.sender.Utils;
+import io.activej.rpc.client.sender.strategy.RpcStrategy;
+import io.activej.rpc.protocol.RpcOverloadException;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static io.activej.common.Checks.checkArgument;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * A strategy that balances requests between sub-strategies using the
+ * "power of two choices" algorithm.
+ * <p>
+ * For each request two distinct sub-senders are chosen at random, and the one with the lower score is used.
+ * A score is the peak-sensitive exponentially weighted moving average of response latency
+ * multiplied by the number of outstanding requests (plus one). While there are outstanding requests,
+ * the average does not decay and is bounded below by the average age of these requests.
+ * A sub-sender that rejects a request
+ * with an {@link RpcOverloadException} is considered overloaded for a configured backoff period,
+ * and the rejected request is retried once using the other candidate.
+ * <p>
+ * Statistics are kept per sub-strategy and survive re-creation of senders.
+ * Scores may be inspected via JMX, if this strategy is registered as a JMX bean.
+ */
+@ExposedInternals
+public final class LatencyAware implements RpcStrategy, ConcurrentJmxBean {
+	public static final Duration DEFAULT_DECAY_TIME = Duration.ofSeconds(10);
+	public static final Duration DEFAULT_INITIAL_LATENCY = Duration.ofMillis(1);
+	public static final Duration DEFAULT_OVERLOAD_BACKOFF = Duration.ofSeconds(1);
+
+	public final List<? extends RpcStrategy> list;
+	public final ServerStats[] stats;
+
+	public double decayTimeNanos = DEFAULT_DECAY_TIME.toNanos();
+	public long initialLatencyNanos = DEFAULT_INITIAL_LATENCY.toNanos();
+	public long overloadBackoffNanos = DEFAULT_OVERLOAD_BACKOFF.toNanos();
+	public Random random = new Random();
+
+	public LatencyAware(List<? extends RpcStrategy> list) {
+		this.list = list;
+		this.stats = new ServerStats[list.size()];
+		for (int i = 0; i < list.size(); i++) {
+			stats[i] = new ServerStats(list.get(i).getAddresses().stream()
+				.map(Object::toString)
+				.sorted()
+				.collect(joining(",")));
+		}
+	}
+
+	public static LatencyAware create(List<? extends RpcStrategy> list) {
+		return builder(list).build();
+	}
+
+	public static Builder builder(List<? extends RpcStrategy> list) {
+		return new LatencyAware(list).new Builder();
+	}
+
+	public final class Builder extends AbstractBuilder<Builder, LatencyAware> {
+		private Builder() {}
+
+		/**
+		 * Sets a time after which a latency observation loses ~63% of its weight in the moving average
+		 */
+		public Builder withDecayTime(Duration decayTime) {
+			checkNotBuilt(this);
+			checkArgument(!decayTime.isNegative() && !decayTime.isZero(), "Decay time must be positive");
+			LatencyAware.this.decayTimeNanos = decayTime.toNanos();
+			return this;
+		}
+
+		/**
+		 * Sets a latency that is assumed for a sub-strategy that has not responded yet
+		 */
+		public Builder withInitialLatency(Duration initialLatency) {
+			checkNotBuilt(this);
+			checkArgument(!initialLatency.isNegative() && !initialLatency.isZero(), "Initial latency must be positive");
+			LatencyAware.this.initialLatencyNanos = initialLatency.toNanos();
+			return this;
+		}
+
+		/**
+		 * Sets a period during which a sub-strategy is avoided after it has rejected a request
+		 * with an {@link RpcOverloadException}
+		 */
+		public Builder withOverloadBackoff(Duration overloadBackoff) {
+			checkNotBuilt(this);
+			checkArgument(!overloadBackoff.isNegative(), "Overload backoff cannot be negative");
+			LatencyAware.this.overloadBackoffNanos = overloadBackoff.toNanos();
+			return this;
+		}
+
+		public Builder withRandom(Random random) {
+			checkNotBuilt(this);
+			LatencyAware.this.random = random;
+			return this;
+		}
+
+		@Override
+		protected LatencyAware doBuild() {
+			return LatencyAware.this;
+		}
+	}
+
+	@Override
+	public Set<InetSocketAddress> getAddresses() {
+		return Utils.getAddresses(list);
+	}
+
+	@Override
+	public @Nullable RpcSender createSender(RpcClientConnectionPool pool) {
+		List<RpcSender> senders = new ArrayList<>();
+		List<ServerStats> senderStats = new ArrayList<>();
+		for (int i = 0; i < list.size(); i++) {
+			RpcSender sender = list.get(i).createSender(pool);
+			if (sender != null) {
+				senders.add(sender);
+				senderStats.add(stats[i]);
+			}
+		}
+		if (senders.isEmpty())
+			return null;
+		if (senders.size() == 1)
+			return senders.get(0);
+
+		long randomLong = random.nextLong();
+		long seed = randomLong != 0L ? randomLong : 2347230858016798896L;
+
+		return new Sender(this, senders.toArray(RpcSender[]::new), senderStats.toArray(ServerStats[]::new), seed);
+	}
+
+	public static final class ServerStats {
+		public final String label;
+
+		int outstanding;
+		long sentTimeSum;
+		double cost;
+		long lastUpdate;
+		long overloadedUntil;
+
+		int overloads;
+
+		ServerStats(String label) {
+			this.label = label;
+		}
+
+		double score(LatencyAware strategy, long now) {
+			if (outstanding == 0) {
+				return cost * Math.exp(-(now - lastUpdate) / strategy.decayTimeNanos);
+			}
+			// A latency does not decay while there are outstanding requests, and it is not less than
+			// their average age, so a server that has stopped responding is never preferred
+			double latency = cost != 0 ? cost : strategy.initialLatencyNanos;
+			double averageAge = (double) (now * outstanding - sentTimeSum) / outstanding;
+			return Math.max(latency, averageAge) * (outstanding + 1);
+		}
+
+		boolean isOverloaded(long now) {
+			return overloadedUntil - now > 0;
+		}
+
+		void observe(LatencyAware strategy, long now, long latency) {
+			if (latency > cost) {
+				cost = latency;
+			} else {
+				double w = Math.exp(-(now - lastUpdate) / strategy.decayTimeNanos);
+				cost = cost * w + latency * (1 - w);
+			}
+			lastUpdate = now;
+		}
+
+		@Override
+		public String toString() {
+			return label +
+				": latency=" + Duration.ofNanos((long) cost) +
+				", outstanding=" + outstanding +
+				", overloads=" + overloads;
+		}
+	}
+
+	public static final class Sender implements RpcSender {
+		private final LatencyAware strategy;
+		private final RpcSender[] senders;
+		private final ServerStats[] stats;
+
+		private long lastRandomLong;
+
+		Sender(LatencyAware strategy, RpcSender[] senders, ServerStats[] stats, long seed) {
+			assert senders.length > 1 && senders.length == stats.length;
+			this.strategy = strategy;
+			this.senders = senders;
+			this.stats = stats;
+			this.lastRandomLong = seed;
+		}
+
+		@Override
+		public <I, O> void sendRequest(I request, int timeout, Callback<O> cb) {
+			long now = System.nanoTime();
+			long candidates = nextCandidates(now);
+			send((int) (candidates >>> 32), (int) candidates, request, timeout, cb, now);
+		}
+
+		/**
+		 * Streams are long-lived, so they are not accounted as outstanding requests,
+		 * but are still routed to the best of two candidates
+		 */
+		@Override
+		public <I, O> void sendStreamRequest(I request, Callback<StreamSupplier<O>> cb) {
+			long candidates = nextCandidates(System.nanoTime());
+			senders[(int) (candidates >>> 32)].sendStreamRequest(request, cb);
+		}
+
+		/**
+		 * Returns the chosen candidate index in the high 32 bits and the other one in the low 32 bits
+		 */
+		private long nextCandidates(long now) {
+			lastRandomLong ^= (lastRandomLong << 21);
+			lastRandomLong ^= (lastRandomLong >>> 35);
+			lastRandomLong ^= (lastRandomLong << 4);
+			int n = senders.length;
+			int first = (int) ((lastRandomLong & Integer.MAX_VALUE) % n);
+			int second = (int) (((lastRandomLong >>> 32) & Integer.MAX_VALUE) % (n - 1));
+			if (second >= first) second++;
+
+			ServerStats firstStats = stats[first];
+			ServerStats secondStats = stats[second];
+			boolean firstOverloaded = firstStats.isOverloaded(now);
+			boolean secondOverloaded = secondStats.isOverloaded(now);
+			int chosen, other;
+			if (firstOverloaded != secondOverloaded ?
+				firstOverloaded :
+				firstStats.score(strategy, now) > secondStats.score(strategy, now)) {
+				chosen = second;
+				other = first;
+			} else {
+				chosen = first;
+				other = second;
+			}
+			return ((long) chosen << 32) | other;
+		}
+
+		private <I, O> void send(int index, int fallback, I request, int timeout, Callback<O> cb, long now) {
+			ServerStats serverStats = stats[index];
+			serverStats.outstanding++;
+			serverStats.sentTimeSum += now;
+			senders[index].sendRequest(request, timeout, (Callback<O>) (result, e) -> {
+				serverStats.outstanding--;
+				serverStats.sentTimeSum -= now;
+				long completed = System.nanoTime();
+				if (e instanceof RpcOverloadException) {
+					serverStats.overloads++;
+					serverStats.overloadedUntil = completed + strategy.overloadBackoffNanos;
+					if (fallback != -1 && !stats[fallback].isOverloaded(completed)) {
+						send(fallback, -1, request, timeout, cb, completed);
+						return;
+					}
+				} else {
+					serverStats.observe(strategy, completed, completed - now);
+				}
+				cb.accept(result, e);
+			});
+		}
+	}
+
+	// region JMX
+	@JmxAttribute
+	public List<String> getServerScores() {
+		long now = System.nanoTime();
+		List<String> result = new ArrayList<>(stats.length);
+		for (ServerStats serverStats : stats) {
+			result.add(serverStats +
+				", score=" + Math.round(serverStats.score(this, now)) +
+				(serverStats.isOverloaded(now) ? ", OVERLOADED" : ""));
+		}
+		return result;
+	}
+	// endregion
+}
@@ -19,6 +19,7 @@ package io.activej.rpc.client.sender.strategy.impl;
 import io.activej.async.callback.Callback;
 import io.activej.common.annotation.ExposedInternals;
 import io.activej.common.builder.AbstractBuilder;
+import io.activej.datastream.supplier.StreamSupplier;
 import io.activej.rpc.client.RpcClientConnectionPool;
 import io.activej.rpc.client.sender.RpcSender;
 import io.activej.rpc.client.sender.strategy.RpcStrategy;
@@ -123,6 +124,15 @@ public final class RandomSampling implements RpcStrategy {
 
 		@Override
 		public <I, O> void sendRequest(I request, int timeout, Callback<O> cb) {
+			nextSender().sendRequest(request, timeout, cb);
+		}
+
+		@Override
+		public <I, O> void sendStreamRequest(I request, Callback<StreamSupplier<O>> cb) {
+			nextSender().sendStreamRequest(request, cb);
+		}
+
+		private RpcSender nextSender() {
 			lastRandomLong ^= (lastRandomLong << 21);
 			lastRandomLong ^= (lastRandomLong >>> 35);
 			lastRandomLong ^= (lastRandomLong << 4);
@@ -137,7 +147,7 @@ public final class RandomSampling implements RpcStrategy {
 					upperIndex = middle;
 				}
 			}
-			senders[lowerIndex].sendRequest(request, timeout, cb);
+			return senders[lowerIndex];
 		}
 	}
 
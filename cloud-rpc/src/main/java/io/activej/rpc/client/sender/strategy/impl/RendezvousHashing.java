@@ -20,6 +20,7 @@ import io.activej.async.callback.Callback;
 import io.activej.common.HashUtils;
 import io.activej.common.annotation.ExposedInternals;
 import io.activej.common.builder.AbstractBuilder;
+import io.activej.datastream.supplier.StreamSupplier;
 import io.activej.rpc.client.RpcClientConnectionPool;
 import io.activej.rpc.client.sender.RpcSender;
 import io.activej.rpc.client.sender.strategy.RpcStrategy;
@@ -215,6 +216,18 @@ public final class RendezvousHashing implements RpcStrategy {
 				cb.accept(null, new RpcException("No sender for request: " + request));
 			}
 		}
+
+		@Override
+		public <I, O> void sendStreamRequest(I request, Callback<StreamSupplier<O>> cb) {
+			int hash = hashFunction.applyAsInt(request);
+			RpcSender sender = hashBuckets[hash & (hashBuckets.length - 1)];
+
+			if (sender != null) {
+				sender.sendStreamRequest(request, cb);
+			} else {
+				cb.accept(null, new RpcException("No sender for request: " + request));
+			}
+		}
 	}
 
 }
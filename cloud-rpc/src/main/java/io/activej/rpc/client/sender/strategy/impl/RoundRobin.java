@@ -19,6 +19,7 @@ package io.activej.rpc.client.sender.strategy.impl;
 import io.activej.async.callback.Callback;
 import io.activej.common.annotation.ExposedInternals;
 import io.activej.common.builder.AbstractBuilder;
+import io.activej.datastream.supplier.StreamSupplier;
 import io.activej.rpc.client.RpcClientConnectionPool;
 import io.activej.rpc.client.sender.RpcSender;
 import io.activej.rpc.client.sender.Utils;
@@ -104,5 +105,12 @@ public final class RoundRobin implements RpcStrategy {
 			sender.sendRequest(request, timeout, cb);
 		}
 
+		@Override
+		public <I, O> void sendStreamRequest(I request, Callback<StreamSupplier<O>> cb) {
+			RpcSender sender = subSenders[nextSender];
+			nextSender = (nextSender + 1) % subSenders.length;
+			sender.sendStreamRequest(request, cb);
+		}
+
 	}
 }
@@ -19,6 +19,7 @@ package io.activej.rpc.client.sender.strategy.impl;
 import io.activej.async.callback.Callback;
 import io.activej.common.annotation.ExposedInternals;
 import io.activej.common.builder.AbstractBuilder;
+import io.activej.datastream.supplier.StreamSupplier;
 import io.activej.rpc.client.RpcClientConnectionPool;
 import io.activej.rpc.client.sender.RpcSender;
 import io.activej.rpc.client.sender.strategy.RpcStrategy;
@@ -126,5 +127,18 @@ public final class TypeDispatching implements RpcStrategy {
 				cb.accept(null, NO_SENDER_AVAILABLE_EXCEPTION);
 			}
 		}
+
+		@Override
+		public <I, O> void sendStreamRequest(I request, Callback<StreamSupplier<O>> cb) {
+			RpcSender sender = typeToSender.get(request.getClass());
+			if (sender == null) {
+				sender = defaultSender;
+			}
+			if (sender != null) {
+				sender.sendStreamRequest(request, cb);
+			} else {
+				cb.accept(null, NO_SENDER_AVAILABLE_EXCEPTION);
+			}
+		}
 	}
 }
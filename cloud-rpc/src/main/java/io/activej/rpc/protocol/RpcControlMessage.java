@@ -19,5 +19,13 @@ package io.activej.rpc.protocol;
 public enum RpcControlMessage {
 	CLOSE,
 	PING,
-	PONG
+	PONG,
+	/**
+	 * Sent by a server after the last item of a stream
+	 */
+	END_OF_STREAM,
+	/**
+	 * Sent by a client to stop a stream before its end
+	 */
+	CANCEL_STREAM
 }
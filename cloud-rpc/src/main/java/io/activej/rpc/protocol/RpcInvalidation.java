@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.rpc.protocol;
+
+import io.activej.serializer.annotations.Deserialize;
+import io.activej.serializer.annotations.Serialize;
+import io.activej.serializer.annotations.SerializeClass;
+
+/**
+ * A message that is pushed by a server to notify clients that cached results
+ * of a given request are no longer valid
+ */
+public final class RpcInvalidation {
+	private final Object request;
+
+	public RpcInvalidation(@Deserialize("request") Object request) {
+		this.request = request;
+	}
+
+	@Serialize
+	@SerializeClass(subclassesId = RpcMessage.SUBCLASSES_ID)
+	public Object getRequest() {
+		return request;
+	}
+
+	@Override
+	public String toString() {
+		return "RpcInvalidation{request=" + request + '}';
+	}
+}
@@ -21,21 +21,69 @@ import io.activej.serializer.annotations.Serialize;
 import io.activej.serializer.annotations.SerializeClass;
 import io.activej.serializer.annotations.SerializeNullable;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public final class RpcMessage {
 	public static final String SUBCLASSES_ID = "data";
 
+	/**
+	 * Control message types that have been added to the protocol after its initial version.
+	 * <p>
+	 * They are registered after user message types, so encoded types of user messages do not change,
+	 * and peers that do not send these messages stay compatible with each other
+	 */
+	public static final List<Class<?>> EXTENSION_TYPES = List.of(RpcStreamCredit.class, RpcInvalidation.class);
+
+	/**
+	 * An initial protocol version, which is used by default
+	 */
+	public static final int INITIAL_VERSION = 0;
+
+	/**
+	 * A protocol version in which a timeout of a request is sent along with it.
+	 * <p>
+	 * Messages of this version are prefixed with a timeout, see {@link RpcTimeoutSerializer},
+	 * so they are not compatible with messages of an {@link #INITIAL_VERSION initial version}.
+	 * This version should be enabled only after all of the clients and servers have been updated
+	 */
+	public static final int TIMEOUT_VERSION = 1;
+
 	private final int index;
 	private final Object message;
+	private final int timeout;
 
 	public RpcMessage(@Deserialize("index") int index, @Deserialize("message") Object message) {
+		this(index, message, 0);
+	}
+
+	/**
+	 * Creates a message with a given timeout.
+	 * A timeout is sent only in a {@link #TIMEOUT_VERSION timeout version} of a protocol
+	 *
+	 * @param timeout a time in milliseconds that a sender is going to wait for a response,
+	 *                or {@code 0} if there is no timeout
+	 */
+	public RpcMessage(int index, Object message, int timeout) {
 		this.index = index;
 		this.message = message;
+		this.timeout = timeout;
 	}
 
 	public RpcMessage(RpcControlMessage controlMessage) {
 		this(0, controlMessage);
 	}
 
+	/**
+	 * Returns subclasses of a message that should be registered under {@link #SUBCLASSES_ID}:
+	 * given user message types followed by {@link #EXTENSION_TYPES}
+	 */
+	public static List<Class<?>> subclassesOf(List<Class<?>> messageTypes) {
+		List<Class<?>> subclasses = new ArrayList<>(messageTypes);
+		subclasses.addAll(EXTENSION_TYPES);
+		return subclasses;
+	}
+
 	@Serialize(order = 1)
 	public int getIndex() {
 		return index;
@@ -43,7 +91,9 @@ public final class RpcMessage {
 
 	@Serialize(order = 2)
 	@SerializeClass(
-		subclassesIdx = -1, subclasses = {RpcControlMessage.class, RpcRemoteException.class},
+		subclassesIdx = -1, subclasses = {
+			RpcControlMessage.class, RpcRemoteException.class
+		},
 		subclassesId = SUBCLASSES_ID
 	)
 	@SerializeNullable
@@ -51,12 +101,17 @@ public final class RpcMessage {
 		return message;
 	}
 
+	public int getTimeout() {
+		return timeout;
+	}
+
 	@Override
 	public String toString() {
 		return
 			"RpcMessage{" +
 			"index=" + index +
 			", message=" + message +
+			(timeout != 0 ? ", timeout=" + timeout : "") +
 			'}';
 	}
 }
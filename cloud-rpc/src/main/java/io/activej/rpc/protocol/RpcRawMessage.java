@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.rpc.protocol;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.serializer.BinaryInput;
+
+/**
+ * A message that is kept in its encoded form, see {@link RpcRawSerializer}.
+ * <p>
+ * A raw message consists of an encoded type of a message, followed by an encoded message
+ * itself and by the rest of encoded {@link RpcMessage} fields. It does not include
+ * an index of {@link RpcMessage}, so that the same raw message may be forwarded
+ * with a different index.
+ */
+public final class RpcRawMessage {
+	private final Class<?> type;
+	private final ByteBuf body;
+
+	public RpcRawMessage(Class<?> type, ByteBuf body) {
+		this.type = type;
+		this.body = body;
+	}
+
+	/**
+	 * Returns a type of encoded message
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * Returns encoded bytes of this message. The returned buffer should not be modified
+	 */
+	public ByteBuf getBody() {
+		return body;
+	}
+
+	/**
+	 * Returns an input that is positioned at the beginning of an encoded message.
+	 * <p>
+	 * It may be used to read leading fields of a message (for example, a routing key)
+	 * without decoding the whole message
+	 */
+	public BinaryInput getPayload() {
+		return new BinaryInput(body.array(), body.head() + 1);
+	}
+
+	@Override
+	public String toString() {
+		return "RpcRawMessage{type=" + type.getSimpleName() + ", size=" + body.readRemaining() + '}';
+	}
+}
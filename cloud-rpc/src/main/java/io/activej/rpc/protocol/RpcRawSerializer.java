@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.rpc.protocol;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.common.builder.AbstractBuilder;
+import io.activej.datastream.csp.ChannelDeserializer;
+import io.activej.datastream.csp.SizedBinarySerializer;
+import io.activej.serializer.BinaryInput;
+import io.activej.serializer.BinaryOutput;
+import io.activej.serializer.BinarySerializer;
+import io.activej.serializer.CorruptedDataException;
+import io.activej.serializer.SerializerFactory;
+import io.activej.serializer.annotations.SerializeClass;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static io.activej.common.Checks.checkArgument;
+
+/**
+ * A serializer of {@link RpcMessage} that keeps messages of given types in their encoded form.
+ * <p>
+ * When decoded from a stream by a {@link ChannelDeserializer}, messages of raw types
+ * are represented as {@link RpcRawMessage} that hold original bytes of a message.
+ * Those bytes are written back as is when an {@link RpcRawMessage} is encoded,
+ * only an index of {@link RpcMessage} is rewritten. All the other messages
+ * (including control messages and exceptions) are encoded and decoded as usual.
+ * <p>
+ * This allows RPC routers to forward requests and responses without deserializing
+ * and serializing them again. A router is an {@code RpcServer} with a handler of {@link RpcRawMessage}
+ * that sends raw messages using an {@code RpcClient}, both of which use this serializer.
+ * Messages may be routed by their {@link RpcRawMessage#getType() types} or by leading fields of messages,
+ * that can be read using {@link RpcRawMessage#getPayload()}.
+ * <p>
+ * A timeout of a request is not a part of a raw message, it is set by an {@code RpcClient} that sends
+ * a raw message. Streaming requests cannot be forwarded.
+ * <p>
+ * <b>Message types should be the same as those of RPC clients and servers</b>
+ */
+public final class RpcRawSerializer implements SizedBinarySerializer<RpcMessage> {
+	/**
+	 * Subclasses of a message are indexed starting at {@link SerializeClass#subclassesIdx()}:
+	 * built-in subclasses first, then user message types. An index of {@code 0} is taken by a {@code null} message.
+	 * {@link RpcMessage#EXTENSION_TYPES} follow user message types, so they are never raw
+	 */
+	private static final int FIRST_SUBCLASS_INDEX;
+	private static final int BUILT_IN_SUBCLASSES;
+
+	static {
+		try {
+			SerializeClass annotation = RpcMessage.class.getMethod("getMessage").getAnnotation(SerializeClass.class);
+			FIRST_SUBCLASS_INDEX = annotation.subclassesIdx();
+			BUILT_IN_SUBCLASSES = annotation.subclasses().length;
+		} catch (NoSuchMethodException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private final List<Class<?>> messageTypes;
+	private final Class<?>[] rawTypes;
+
+	// raw types by an unsigned value of a subclass index byte
+	private final Class<?>[] rawTypesByIndexByte = new Class<?>[256];
+
+	private BinarySerializer<RpcMessage> serializer;
+	private byte[] versionPrefix;
+
+	private RpcRawSerializer(List<Class<?>> messageTypes) {
+		this.messageTypes = messageTypes;
+		this.rawTypes = messageTypes.toArray(Class<?>[]::new);
+	}
+
+	public static RpcRawSerializer create(List<Class<?>> messageTypes) {
+		return builder(messageTypes).build();
+	}
+
+	public static RpcRawSerializer create(Class<?>... messageTypes) {
+		return builder(List.of(messageTypes)).build();
+	}
+
+	public static Builder builder(List<Class<?>> messageTypes) {
+		return new RpcRawSerializer(List.copyOf(messageTypes)).new Builder();
+	}
+
+	public final class Builder extends AbstractBuilder<Builder, RpcRawSerializer> {
+		private Builder() {}
+
+		/**
+		 * Sets a serializer for messages that are not kept in encoded form.
+		 * By default, a serializer is created by a default {@link SerializerFactory}
+		 */
+		public Builder withSerializer(BinarySerializer<RpcMessage> serializer) {
+			checkNotBuilt(this);
+			RpcRawSerializer.this.serializer = serializer;
+			return this;
+		}
+
+		/**
+		 * Sets message types that are kept in encoded form. By default, all of the message types are raw types
+		 */
+		public Builder withRawMessageTypes(List<Class<?>> rawMessageTypes) {
+			checkNotBuilt(this);
+			for (Class<?> rawMessageType : rawMessageTypes) {
+				checkArgument(messageTypes.contains(rawMessageType), "Unknown message type: " + rawMessageType);
+			}
+			for (int i = 0; i < rawTypes.length; i++) {
+				rawTypes[i] = rawMessageTypes.contains(messageTypes.get(i)) ? messageTypes.get(i) : null;
+			}
+			return this;
+		}
+
+		@Override
+		protected RpcRawSerializer doBuild() {
+			if (serializer == null) {
+				serializer = SerializerFactory.builder()
+					.withSubclasses(RpcMessage.SUBCLASSES_ID, RpcMessage.subclassesOf(messageTypes))
+					.build()
+					.create(RpcMessage.class);
+			}
+			// an index and a null message take 5 bytes, a serializer writes a version byte before them
+			// if any of message types is versioned
+			byte[] probe = new byte[16];
+			int probeSize = serializer.encode(probe, 0, new RpcMessage(0, null));
+			versionPrefix = Arrays.copyOf(probe, probeSize - 5);
+
+			// a subclass index is written as a single byte, indices are assigned the same way a serializer does
+			int subclassIndex = FIRST_SUBCLASS_INDEX;
+			for (int i = 0; i < BUILT_IN_SUBCLASSES + rawTypes.length; i++) {
+				if (i >= BUILT_IN_SUBCLASSES) {
+					rawTypesByIndexByte[subclassIndex & 0xFF] = rawTypes[i - BUILT_IN_SUBCLASSES];
+				}
+				subclassIndex++;
+				if (subclassIndex == 0) {
+					subclassIndex++;
+				}
+			}
+			return RpcRawSerializer.this;
+		}
+	}
+
+	@Override
+	public void encode(BinaryOutput out, RpcMessage item) {
+		if (item.getMessage() instanceof RpcRawMessage rawMessage) {
+			ByteBuf body = rawMessage.getBody();
+			out.write(versionPrefix);
+			out.writeInt(item.getIndex());
+			out.write(body.array(), body.head(), body.readRemaining());
+			return;
+		}
+		serializer.encode(out, item);
+	}
+
+	@Override
+	public RpcMessage decode(byte[] array, int pos, int size) throws CorruptedDataException {
+		int start = pos + versionPrefix.length;
+		if (pos + size - start > 4) {
+			Class<?> rawType = rawTypesByIndexByte[array[start + 4] & 0xFF];
+			if (rawType != null) {
+				int index = new BinaryInput(array, start).readInt();
+				byte[] body = Arrays.copyOfRange(array, start + 4, pos + size);
+				return new RpcMessage(index, new RpcRawMessage(rawType, ByteBuf.wrapForReading(body)));
+			}
+		}
+		return serializer.decode(array, pos);
+	}
+
+	/**
+	 * Decodes a message without keeping it in encoded form, as a size of a message is not known
+	 */
+	@Override
+	public RpcMessage decode(BinaryInput in) throws CorruptedDataException {
+		return serializer.decode(in);
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.rpc.protocol;
+
+import io.activej.datastream.csp.SizedBinarySerializer;
+import io.activej.serializer.BinaryInput;
+import io.activej.serializer.BinaryOutput;
+import io.activej.serializer.BinarySerializer;
+import io.activej.serializer.CorruptedDataException;
+
+/**
+ * A serializer of a {@link RpcMessage#TIMEOUT_VERSION timeout version} of a protocol.
+ * <p>
+ * Each message is prefixed with a var-length timeout, and the rest of a message is encoded
+ * by a given serializer. So, a protocol version does not affect versions of message types
+ * that are defined by a given serializer.
+ */
+public final class RpcTimeoutSerializer implements SizedBinarySerializer<RpcMessage> {
+	private final BinarySerializer<RpcMessage> serializer;
+
+	private RpcTimeoutSerializer(BinarySerializer<RpcMessage> serializer) {
+		this.serializer = serializer;
+	}
+
+	public static RpcTimeoutSerializer create(BinarySerializer<RpcMessage> serializer) {
+		return new RpcTimeoutSerializer(serializer);
+	}
+
+	@Override
+	public void encode(BinaryOutput out, RpcMessage item) {
+		out.writeVarInt(item.getTimeout());
+		serializer.encode(out, item);
+	}
+
+	@Override
+	public RpcMessage decode(BinaryInput in) throws CorruptedDataException {
+		int timeout = in.readVarInt();
+		return withTimeout(serializer.decode(in), timeout);
+	}
+
+	@Override
+	public RpcMessage decode(byte[] array, int pos, int size) throws CorruptedDataException {
+		BinaryInput in = new BinaryInput(array, pos);
+		int timeout = in.readVarInt();
+		RpcMessage message = serializer instanceof SizedBinarySerializer<RpcMessage> sized ?
+			sized.decode(array, in.pos(), size - (in.pos() - pos)) :
+			serializer.decode(array, in.pos());
+		return withTimeout(message, timeout);
+	}
+
+	private static RpcMessage withTimeout(RpcMessage message, int timeout) {
+		return timeout == 0 ? message : new RpcMessage(message.getIndex(), message.getMessage(), timeout);
+	}
+}
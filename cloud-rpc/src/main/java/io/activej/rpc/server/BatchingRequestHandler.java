@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.rpc.server;
+
+import io.activej.common.collection.Try;
+import io.activej.jmx.stats.ValueStats;
+import io.activej.promise.Promise;
+import io.activej.promise.SettablePromise;
+import io.activej.reactor.Reactor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adapts {@link RpcBatchRequestHandler} to {@link RpcRequestHandler} by accumulating
+ * requests until the end of a current reactor tick or until a batch is full
+ */
+final class BatchingRequestHandler<I, O> implements RpcRequestHandler<I, O> {
+	private final Reactor reactor;
+	private final RpcBatchRequestHandler<I, O> batchHandler;
+	private final int maxBatchSize;
+	private final ValueStats batchSizes;
+
+	private List<I> requests = new ArrayList<>();
+	private List<SettablePromise<O>> promises = new ArrayList<>();
+	private boolean flushPosted;
+
+	BatchingRequestHandler(Reactor reactor, RpcBatchRequestHandler<I, O> batchHandler, int maxBatchSize, ValueStats batchSizes) {
+		this.reactor = reactor;
+		this.batchHandler = batchHandler;
+		this.maxBatchSize = maxBatchSize;
+		this.batchSizes = batchSizes;
+	}
+
+	@Override
+	public Promise<O> run(I request) {
+		SettablePromise<O> promise = new SettablePromise<>();
+		requests.add(request);
+		promises.add(promise);
+		if (requests.size() >= maxBatchSize) {
+			flush();
+		} else if (!flushPosted) {
+			flushPosted = true;
+			reactor.postLast(this::onTickEnd);
+		}
+		return promise;
+	}
+
+	private void onTickEnd() {
+		flushPosted = false;
+		if (!requests.isEmpty()) {
+			flush();
+		}
+	}
+
+	private void flush() {
+		List<I> batch = requests;
+		List<SettablePromise<O>> batchPromises = promises;
+		requests = new ArrayList<>();
+		promises = new ArrayList<>();
+		batchSizes.recordValue(batch.size());
+
+		Promise<List<Try<O>>> results;
+		try {
+			results = batchHandler.run(batch);
+		} catch (RuntimeException e) {
+			results = Promise.ofException(e);
+		}
+		results.subscribe((list, e) -> {
+			if (e == null && list.size() != batchPromises.size()) {
+				e = new IllegalStateException("Batch handler returned " + list.size() +
+					" results for " + batchPromises.size() + " requests");
+			}
+			if (e != null) {
+				for (SettablePromise<O> promise : batchPromises) {
+					promise.setException(e);
+				}
+				return;
+			}
+			for (int i = 0; i < batchPromises.size(); i++) {
+				list.get(i).consume(batchPromises.get(i)::set);
+			}
+		});
+	}
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.rpc.server;
+
+import io.activej.async.exception.AsyncTimeoutException;
+import io.activej.common.Checks;
+import io.activej.common.builder.AbstractBuilder;
+import io.activej.jmx.api.attribute.JmxAttribute;
+import io.activej.jmx.stats.EventStats;
+import io.activej.jmx.stats.ValueStats;
+import io.activej.promise.Promise;
+import io.activej.promise.SettablePromise;
+import io.activej.reactor.AbstractReactive;
+import io.activej.reactor.Reactor;
+import io.activej.rpc.protocol.RpcOverloadException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+
+import static io.activej.common.Checks.checkArgument;
+import static io.activej.reactor.Reactive.checkInReactorThread;
+
+/**
+ * Controls admission of requests to handlers of an {@link RpcServer}.
+ * <p>
+ * At most {@code maxConcurrentRequests} requests are processed by handlers at the same time,
+ * other requests wait in a queue. A request is rejected with an {@link RpcOverloadException}
+ * without invoking a handler if:
+ * <ul>
+ * <li>the queue already contains {@code maxQueueSize} requests</li>
+ * <li>a request has waited in the queue for longer than {@code maxQueueTime}.
+ * While the head of the queue is older than that, new requests are rejected right away</li>
+ * </ul>
+ * A queued request whose deadline (propagated from a client timeout) has passed
+ * is dropped without a response, as nobody awaits its result anymore.
+ *
+ * @see RpcServer.Builder#withAdmissionController(RpcAdmissionController)
+ */
+public final class RpcAdmissionController extends AbstractReactive {
+	private static final boolean CHECKS = Checks.isEnabled(RpcAdmissionController.class);
+
+	public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 1024;
+	public static final int DEFAULT_MAX_QUEUE_SIZE = 1024;
+
+	static final RpcOverloadException OVERLOAD_EXCEPTION = new RpcOverloadException("RPC server is overloaded");
+	static final AsyncTimeoutException DEADLINE_EXCEPTION = new AsyncTimeoutException("RPC request deadline has passed");
+
+	private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+	private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+	private long maxQueueTimeMillis;
+
+	private final ArrayDeque<QueuedRequest> queue = new ArrayDeque<>();
+	private int activeRequests;
+	private boolean draining;
+
+	// region JMX
+	private final EventStats rejectedRequests = EventStats.create(RpcServer.SMOOTHING_WINDOW);
+	private final EventStats expiredRequests = EventStats.create(RpcServer.SMOOTHING_WINDOW);
+	private final ValueStats queueTime = ValueStats.builder(RpcServer.SMOOTHING_WINDOW)
+		.withUnit("milliseconds")
+		.build();
+	// endregion
+
+	private RpcAdmissionController(Reactor reactor) {
+		super(reactor);
+	}
+
+	public static RpcAdmissionController create(Reactor reactor) {
+		return builder(reactor).build();
+	}
+
+	public static Builder builder(Reactor reactor) {
+		return new RpcAdmissionController(reactor).new Builder();
+	}
+
+	public final class Builder extends AbstractBuilder<Builder, RpcAdmissionController> {
+		private Builder() {}
+
+		/**
+		 * Sets a maximum number of requests that are processed by handlers at the same time
+		 */
+		public Builder withMaxConcurrentRequests(int maxConcurrentRequests) {
+			checkNotBuilt(this);
+			checkArgument(maxConcurrentRequests > 0, "Max concurrent requests must be positive");
+			RpcAdmissionController.this.maxConcurrentRequests = maxConcurrentRequests;
+			return this;
+		}
+
+		/**
+		 * Sets a maximum number of requests waiting for a handler. Requests in excess are rejected
+		 */
+		public Builder withMaxQueueSize(int maxQueueSize) {
+			checkNotBuilt(this);
+			checkArgument(maxQueueSize >= 0, "Max queue size cannot be negative");
+			RpcAdmissionController.this.maxQueueSize = maxQueueSize;
+			return this;
+		}
+
+		/**
+		 * Sets a maximum time that a request may wait for a handler.
+		 * A {@link Duration#ZERO} means that queue time is not limited
+		 */
+		public Builder withMaxQueueTime(Duration maxQueueTime) {
+			checkNotBuilt(this);
+			checkArgument(!maxQueueTime.isNegative(), "Max queue time cannot be negative");
+			RpcAdmissionController.this.maxQueueTimeMillis = maxQueueTime.toMillis();
+			return this;
+		}
+
+		@Override
+		protected RpcAdmissionController doBuild() {
+			return RpcAdmissionController.this;
+		}
+	}
+
+	/**
+	 * Passes a request to a handler as soon as it is admitted
+	 *
+	 * @param deadline a timestamp after which a result is no longer needed, or {@code 0} if there is no deadline
+	 */
+	Promise<Object> submit(Object request, long deadline, RpcRequestHandler<Object, Object> handler) {
+		if (CHECKS) checkInReactorThread(this);
+		if (activeRequests < maxConcurrentRequests && queue.isEmpty()) {
+			return run(request, handler);
+		}
+		long now = reactor.currentTimeMillis();
+		if (queue.size() >= maxQueueSize || isQueueStanding(now)) {
+			rejectedRequests.recordEvent();
+			return Promise.ofException(OVERLOAD_EXCEPTION);
+		}
+		SettablePromise<Object> promise = new SettablePromise<>();
+		queue.addLast(new QueuedRequest(request, handler, deadline, now, promise));
+		return promise;
+	}
+
+	private boolean isQueueStanding(long now) {
+		return maxQueueTimeMillis != 0 && !queue.isEmpty() && now - queue.peekFirst().timestamp > maxQueueTimeMillis;
+	}
+
+	private Promise<Object> run(Object request, RpcRequestHandler<Object, Object> handler) {
+		activeRequests++;
+		return handler.run(request)
+			.whenComplete(this::onComplete);
+	}
+
+	private void onComplete() {
+		activeRequests--;
+		if (!draining) {
+			drain();
+		}
+	}
+
+	private void drain() {
+		draining = true;
+		long now = reactor.currentTimeMillis();
+		while (activeRequests < maxConcurrentRequests && !queue.isEmpty()) {
+			QueuedRequest queued = queue.pollFirst();
+			queueTime.recordValue(now - queued.timestamp);
+			if (queued.deadline != 0 && now >= queued.deadline) {
+				expiredRequests.recordEvent();
+				queued.promise.setException(DEADLINE_EXCEPTION);
+			} else if (maxQueueTimeMillis != 0 && now - queued.timestamp > maxQueueTimeMillis) {
+				rejectedRequests.recordEvent();
+				queued.promise.setException(OVERLOAD_EXCEPTION);
+			} else {
+				run(queued.request, queued.handler).subscribe(queued.promise);
+			}
+		}
+		draining = false;
+	}
+
+	private record QueuedRequest(
+		Object request, RpcRequestHandler<Object, Object> handler, long deadline, long timestamp,
+		SettablePromise<Object> promise
+	) {
+	}
+
+	// region JMX
+	@JmxAttribute(description = "requests rejected because of overload")
+	public EventStats getRejectedRequests() {
+		return rejectedRequests;
+	}
+
+	@JmxAttribute(description = "queued requests dropped because their deadline has passed")
+	public EventStats getExpiredRequests() {
+		return expiredRequests;
+	}
+
+	@JmxAttribute(description = "time that requests have waited in the queue (in milliseconds)")
+	public ValueStats getQueueTime() {
+		return queueTime;
+	}
+
+	@JmxAttribute
+	public int getActiveRequests() {
+		return activeRequests;
+	}
+
+	@JmxAttribute
+	public int getQueueSize() {
+		return queue.size();
+	}
+
+	@JmxAttribute
+	public int getMaxConcurrentRequests() {
+		return maxConcurrentRequests;
+	}
+
+	@JmxAttribute
+	public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+		checkArgument(maxConcurrentRequests > 0, "Max concurrent requests must be positive");
+		this.maxConcurrentRequests = maxConcurrentRequests;
+		drain();
+	}
+	// endregion
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.rpc.server;
+
+import io.activej.common.collection.Try;
+import io.activej.promise.Promise;
+
+import java.util.List;
+
+/**
+ * A handler that processes several requests of the same type at once.
+ * <p>
+ * Requests that arrive to an {@link RpcServer} within a single reactor tick
+ * (up to a configured maximum batch size) are passed to the handler together.
+ * The handler should return a list of results in the same order as the requests.
+ * Each result is a {@link Try}, so that a failure of a single request
+ * does not affect other requests of the batch. If the returned promise completes
+ * exceptionally, every request of the batch fails with that exception.
+ *
+ * @param <I> class of request
+ * @param <O> class of response
+ * @see RpcServer.Builder#withBatchHandler(Class, RpcBatchRequestHandler)
+ */
+@FunctionalInterface
+public interface RpcBatchRequestHandler<I, O> {
+	Promise<List<Try<O>>> run(List<I> requests);
+}
@@ -34,6 +34,7 @@ import io.activej.reactor.nio.NioReactor;
 import io.activej.rpc.client.RpcClient;
 import io.activej.rpc.protocol.RpcControlMessage;
 import io.activej.rpc.protocol.RpcMessage;
+import io.activej.rpc.protocol.RpcTimeoutSerializer;
 import io.activej.rpc.protocol.RpcStream;
 import io.activej.serializer.BinarySerializer;
 import io.activej.serializer.SerializerFactory;
@@ -76,17 +77,22 @@ import static io.activej.common.Checks.checkState;
  */
 public final class RpcServer extends AbstractReactiveServer {
 	public static final MemSize DEFAULT_INITIAL_BUFFER_SIZE = ChannelSerializer.DEFAULT_INITIAL_BUFFER_SIZE;
+	public static final int DEFAULT_MAX_BATCH_SIZE = 256;
 
 	private MemSize initialBufferSize = DEFAULT_INITIAL_BUFFER_SIZE;
 	private @Nullable FrameFormat frameFormat;
 	private Duration autoFlushInterval = Duration.ZERO;
 
 	private final Map<Class<?>, RpcRequestHandler<?, ?>> handlers = new LinkedHashMap<>();
+	private final Map<Class<?>, RpcStreamRequestHandler<?, ?>> streamHandlers = new LinkedHashMap<>();
+	private @Nullable RpcAdmissionController admissionController;
 
 	private final List<RpcServerConnection> connections = new ArrayList<>();
 
 	private BinarySerializer<RpcMessage> requestSerializer;
 	private BinarySerializer<RpcMessage> responseSerializer;
+	private @Nullable List<Class<?>> messageTypes;
+	private int protocolVersion = RpcMessage.INITIAL_VERSION;
 
 	private SettableCallback<Void> closeCallback;
 
@@ -99,6 +105,7 @@ public final class RpcServer extends AbstractReactiveServer {
 	private final ValueStats requestHandlingTime = ValueStats.builder(SMOOTHING_WINDOW)
 		.withUnit("milliseconds")
 		.build();
+	private final ValueStats batchSizes = ValueStats.create(SMOOTHING_WINDOW);
 	private final ExceptionStats lastRequestHandlingException = ExceptionStats.create();
 	private final ExceptionStats lastProtocolError = ExceptionStats.create();
 	private boolean monitoring;
@@ -141,10 +148,11 @@ public final class RpcServer extends AbstractReactiveServer {
 		 * specified message types
 		 */
 		public Builder withMessageTypes(List<Class<?>> messageTypes) {
-			return withSerializer(SerializerFactory.builder()
-				.withSubclasses(RpcMessage.SUBCLASSES_ID, messageTypes)
-				.build()
-				.create(RpcMessage.class));
+			checkNotBuilt(this);
+			RpcServer.this.messageTypes = messageTypes;
+			RpcServer.this.requestSerializer = null;
+			RpcServer.this.responseSerializer = null;
+			return this;
 		}
 
 		/**
@@ -154,8 +162,31 @@ public final class RpcServer extends AbstractReactiveServer {
 			return withMessageTypes(List.of(messageTypes));
 		}
 
+		/**
+		 * Sets a version of a protocol. By default, an {@link RpcMessage#INITIAL_VERSION initial version} is used.
+		 * <p>
+		 * A protocol version defines an envelope of each {@link RpcMessage},
+		 * message types are encoded by a serializer for {@link RpcMessage} as is.
+		 * <p>
+		 * <b>A protocol version should match the protocol version set on {@link RpcClient}</b>
+		 *
+		 * @param protocolVersion a version of RPC protocol
+		 * @return the builder for RPC server with specified protocol version
+		 * @see RpcMessage#TIMEOUT_VERSION
+		 */
+		public Builder withProtocolVersion(int protocolVersion) {
+			checkNotBuilt(this);
+			checkArgument(protocolVersion == RpcMessage.INITIAL_VERSION || protocolVersion == RpcMessage.TIMEOUT_VERSION,
+				"Unsupported protocol version: " + protocolVersion);
+			RpcServer.this.protocolVersion = protocolVersion;
+			return this;
+		}
+
 		/**
 		 * Sets serializer for {@link RpcMessage} of this RPC server.
+		 * <p>
+		 * Message types should be registered with {@link RpcMessage#subclassesOf(List)},
+		 * otherwise stream credits and cache invalidations cannot be serialized
 		 *
 		 * @param serializer serializer for RPC message
 		 * @return the builder for RPC server with specified serializer for RPC message
@@ -253,14 +284,107 @@ public final class RpcServer extends AbstractReactiveServer {
 		 */
 		public <I, O> Builder withHandler(Class<I> requestClass, RpcRequestHandler<I, O> handler) {
 			checkNotBuilt(this);
-			checkArgument(!handlers.containsKey(requestClass), "Handler for %s has already been added", requestClass);
+			checkArgument(!handlers.containsKey(requestClass) && !streamHandlers.containsKey(requestClass),
+				"Handler for %s has already been added", requestClass);
 			handlers.put(requestClass, handler);
 			return this;
 		}
 
+		/**
+		 * Adds a batch handler for a specified request-response pair.
+		 * <p>
+		 * Requests of a given type that are received within a single reactor tick
+		 * are passed to the handler together, in batches of at most
+		 * {@link #DEFAULT_MAX_BATCH_SIZE} requests.
+		 *
+		 * @see #withBatchHandler(Class, int, RpcBatchRequestHandler)
+		 */
+		public <I, O> Builder withBatchHandler(Class<I> requestClass, RpcBatchRequestHandler<I, O> handler) {
+			return withBatchHandler(requestClass, DEFAULT_MAX_BATCH_SIZE, handler);
+		}
+
+		/**
+		 * Adds a batch handler for a specified request-response pair.
+		 *
+		 * @param requestClass a class of one of request types
+		 * @param maxBatchSize a maximum number of requests passed to the handler at once
+		 * @param handler      a handler that processes a batch of requests and
+		 *                     creates a response for each of them
+		 * @param <I>          class of request
+		 * @param <O>          class of response
+		 * @return the builder for RPC server with specified batch handler of one of request types
+		 */
+		public <I, O> Builder withBatchHandler(Class<I> requestClass, int maxBatchSize, RpcBatchRequestHandler<I, O> handler) {
+			checkNotBuilt(this);
+			checkArgument(maxBatchSize > 0, "Max batch size must be positive");
+			checkArgument(!handlers.containsKey(requestClass) && !streamHandlers.containsKey(requestClass),
+				"Handler for %s has already been added", requestClass);
+			handlers.put(requestClass, new BatchingRequestHandler<>(reactor, handler, maxBatchSize, batchSizes));
+			return this;
+		}
+
+		/**
+		 * Adds a handler for a streaming request, which is answered with a stream of items.
+		 * <p>
+		 * Items are sent over the same connection as responses to ordinary requests.
+		 * A client grants a credit for a number of items that may be sent ahead, so that
+		 * a single large stream does not starve other requests of a connection.
+		 *
+		 * @param requestClass a class of one of request types
+		 * @param handler      a handler that creates a supplier of stream items for a request
+		 * @param <I>          class of request
+		 * @param <O>          class of stream items
+		 * @return the builder for RPC server with specified stream handler of one of request types
+		 * @see RpcClient#sendStreamRequest(Object)
+		 */
+		public <I, O> Builder withStreamHandler(Class<I> requestClass, RpcStreamRequestHandler<I, O> handler) {
+			checkNotBuilt(this);
+			checkArgument(!handlers.containsKey(requestClass) && !streamHandlers.containsKey(requestClass),
+				"Handler for %s has already been added", requestClass);
+			streamHandlers.put(requestClass, handler);
+			return this;
+		}
+
+		/**
+		 * Sets an admission controller that limits a number of requests processed by handlers
+		 * at the same time and rejects requests when the server is overloaded.
+		 * <p>
+		 * Queued requests whose client-side timeout has already expired are dropped
+		 * without invoking a handler.
+		 * Streaming requests are not subject to admission control.
+		 *
+		 * @param admissionController an admission controller shared by all connections of this server
+		 * @return the builder for RPC server with specified admission controller
+		 */
+		public Builder withAdmissionController(RpcAdmissionController admissionController) {
+			checkNotBuilt(this);
+			RpcServer.this.admissionController = admissionController;
+			return this;
+		}
+
 		@Override
 		protected RpcServer doBuild() {
-			checkState(handlers.size() > 1, "No RPC handlers added");
+			if (messageTypes != null) {
+				BinarySerializer<RpcMessage> serializer = SerializerFactory.builder()
+					.withSubclasses(RpcMessage.SUBCLASSES_ID, RpcMessage.subclassesOf(messageTypes))
+					.build()
+					.create(RpcMessage.class);
+				if (requestSerializer == null) {
+					requestSerializer = serializer;
+				}
+				if (responseSerializer == null) {
+					responseSerializer = serializer;
+				}
+			}
+			if (protocolVersion == RpcMessage.TIMEOUT_VERSION) {
+				if (requestSerializer != null) {
+					requestSerializer = RpcTimeoutSerializer.create(requestSerializer);
+				}
+				if (responseSerializer != null) {
+					responseSerializer = RpcTimeoutSerializer.create(responseSerializer);
+				}
+			}
+			checkState(handlers.size() > 1 || !streamHandlers.isEmpty(), "No RPC handlers added");
 			checkState(requestSerializer != null && responseSerializer != null);
 			return super.doBuild();
 		}
@@ -270,7 +394,8 @@ public final class RpcServer extends AbstractReactiveServer {
 	protected void serve(ITcpSocket socket, InetAddress remoteAddress) {
 		RpcStream stream = new RpcStream(socket, requestSerializer, responseSerializer, initialBufferSize,
 			autoFlushInterval, frameFormat, true); // , statsSerializer, statsDeserializer, statsCompressor, statsDecompressor);
-		RpcServerConnection connection = new RpcServerConnection(reactor, this, remoteAddress, handlers, stream);
+		RpcServerConnection connection = new RpcServerConnection(reactor, this, remoteAddress, handlers, streamHandlers,
+			admissionController, stream);
 		stream.setListener(connection);
 		add(connection);
 
@@ -293,6 +418,18 @@ public final class RpcServer extends AbstractReactiveServer {
 		}
 	}
 
+	/**
+	 * Notifies all connected clients that cached results of a given request are no longer valid
+	 *
+	 * @param request a request whose results have changed
+	 * @see io.activej.rpc.client.CachingRpcClient
+	 */
+	public void invalidate(Object request) {
+		for (RpcServerConnection connection : connections) {
+			connection.sendInvalidation(request);
+		}
+	}
+
 	void add(RpcServerConnection connection) {
 		if (logger.isInfoEnabled())
 			logger.info("Client connected on {}", connection);
@@ -393,6 +530,16 @@ public final class RpcServer extends AbstractReactiveServer {
 		return requestHandlingTime;
 	}
 
+	@JmxAttribute(description = "number of requests passed to batch handlers at once")
+	public ValueStats getBatchSizes() {
+		return batchSizes;
+	}
+
+	@JmxAttribute
+	public @Nullable RpcAdmissionController getAdmissionController() {
+		return admissionController;
+	}
+
 	@JmxAttribute(description =
 		"exception that occurred because of business logic error " +
 		"(in RpcRequestHandler implementation)")
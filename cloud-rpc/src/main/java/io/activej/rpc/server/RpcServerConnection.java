@@ -16,7 +16,9 @@
 
 package io.activej.rpc.server;
 
+import io.activej.async.exception.AsyncCloseException;
 import io.activej.common.exception.MalformedDataException;
+import io.activej.datastream.consumer.AbstractStreamConsumer;
 import io.activej.datastream.supplier.StreamDataAcceptor;
 import io.activej.jmx.api.JmxRefreshable;
 import io.activej.jmx.api.attribute.JmxAttribute;
@@ -27,14 +29,18 @@ import io.activej.promise.Promise;
 import io.activej.reactor.AbstractReactive;
 import io.activej.reactor.Reactor;
 import io.activej.rpc.protocol.RpcControlMessage;
+import io.activej.rpc.protocol.RpcInvalidation;
 import io.activej.rpc.protocol.RpcMessage;
 import io.activej.rpc.protocol.RpcRemoteException;
 import io.activej.rpc.protocol.RpcStream;
+import io.activej.rpc.protocol.RpcStreamCredit;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Map;
 
 public final class RpcServerConnection extends AbstractReactive implements RpcStream.Listener, JmxRefreshable {
@@ -45,6 +51,10 @@ public final class RpcServerConnection extends AbstractReactive implements RpcSt
 	private final RpcServer rpcServer;
 	private final RpcStream stream;
 	private final Map<Class<?>, RpcRequestHandler<?, ?>> handlers;
+	private final Map<Class<?>, RpcStreamRequestHandler<?, ?>> streamHandlers;
+	private final @Nullable RpcAdmissionController admissionController;
+	private final Map<Integer, ServerStream> activeStreams = new HashMap<>();
+	private boolean senderSuspended = true;
 
 	private int activeRequests = 1;
 
@@ -60,46 +70,90 @@ public final class RpcServerConnection extends AbstractReactive implements RpcSt
 
 	RpcServerConnection(
 		Reactor reactor, RpcServer rpcServer, InetAddress remoteAddress,
-		Map<Class<?>, RpcRequestHandler<?, ?>> handlers, RpcStream stream
+		Map<Class<?>, RpcRequestHandler<?, ?>> handlers, Map<Class<?>, RpcStreamRequestHandler<?, ?>> streamHandlers,
+		@Nullable RpcAdmissionController admissionController, RpcStream stream
 	) {
 		super(reactor);
 		this.rpcServer = rpcServer;
 		this.stream = stream;
 		this.handlers = handlers;
+		this.streamHandlers = streamHandlers;
+		this.admissionController = admissionController;
 
 		// jmx
 		this.remoteAddress = remoteAddress;
 	}
 
 	@SuppressWarnings("unchecked")
-	private Promise<Object> serve(Object request) {
+	private Promise<Object> serve(Object request, long deadline) {
 		RpcRequestHandler<Object, Object> requestHandler = (RpcRequestHandler<Object, Object>) handlers.get(request.getClass());
 		if (requestHandler == null) {
 			return Promise.ofException(new MalformedDataException("Failed to process request " + request));
 		}
+		if (admissionController != null) {
+			return admissionController.submit(request, deadline, requestHandler);
+		}
 		return requestHandler.run(request);
 	}
 
 	@Override
 	public void accept(RpcMessage message) {
+		int index = message.getIndex();
+		Object messageData = message.getMessage();
+
+		if (messageData instanceof RpcStreamCredit credit) {
+			ServerStream serverStream = activeStreams.get(index);
+			if (serverStream != null) {
+				serverStream.grant(credit.getCredit());
+			}
+			return;
+		}
+		if (messageData == RpcControlMessage.CANCEL_STREAM) {
+			ServerStream serverStream = activeStreams.get(index);
+			if (serverStream != null) {
+				serverStream.cancel();
+			}
+			return;
+		}
+		if (!streamHandlers.isEmpty()) {
+			@SuppressWarnings("unchecked")
+			RpcStreamRequestHandler<Object, Object> streamHandler =
+				(RpcStreamRequestHandler<Object, Object>) streamHandlers.get(messageData.getClass());
+			if (streamHandler != null) {
+				activeRequests++;
+				ServerStream serverStream = new ServerStream(index, messageData);
+				activeStreams.put(index, serverStream);
+				streamHandler.run(messageData).streamTo(serverStream);
+				return;
+			}
+		}
+
 		activeRequests++;
 
-		int index = message.getIndex();
 		long startTime = monitoring ? System.currentTimeMillis() : 0;
+		int timeout = message.getTimeout();
+		long deadline = timeout != 0 ? reactor.currentTimeMillis() + timeout : 0;
 
-		Object messageData = message.getMessage();
-		serve(messageData)
+		serve(messageData, deadline)
 			.subscribe((result, e) -> {
 				if (startTime != 0) {
 					long value = System.currentTimeMillis() - startTime;
 					requestHandlingTime.recordValue(value);
 					rpcServer.getRequestHandlingTime().recordValue(value);
 				}
-				if (e == null) {
+				if (e == RpcAdmissionController.DEADLINE_EXCEPTION || deadline != 0 && reactor.currentTimeMillis() >= deadline) {
+					// a client has already stopped waiting for a response, so it is not sent
+					failedRequests.recordEvent();
+					rpcServer.getFailedRequests().recordEvent();
+				} else if (e == null) {
 					downstreamDataAcceptor.accept(new RpcMessage(index, result));
 
 					successfulRequests.recordEvent();
 					rpcServer.getSuccessfulRequests().recordEvent();
+				} else if (e == RpcAdmissionController.OVERLOAD_EXCEPTION) {
+					downstreamDataAcceptor.accept(new RpcMessage(index, new RpcRemoteException(e)));
+					failedRequests.recordEvent();
+					rpcServer.getFailedRequests().recordEvent();
 				} else {
 					logger.warn("Exception while processing request ID {}", index, e);
 					Object data = new RpcRemoteException(e);
@@ -128,6 +182,7 @@ public final class RpcServerConnection extends AbstractReactive implements RpcSt
 		rpcServer.getLastProtocolError().recordException(e, remoteAddress);
 		doClose();
 		stream.close();
+		cancelStreams();
 	}
 
 	@Override
@@ -136,6 +191,7 @@ public final class RpcServerConnection extends AbstractReactive implements RpcSt
 		rpcServer.getLastProtocolError().recordException(e, remoteAddress);
 		doClose();
 		stream.close();
+		cancelStreams();
 	}
 
 	@Override
@@ -149,12 +205,28 @@ public final class RpcServerConnection extends AbstractReactive implements RpcSt
 	@Override
 	public void onSenderReady(StreamDataAcceptor<RpcMessage> acceptor) {
 		this.downstreamDataAcceptor = acceptor;
+		senderSuspended = false;
 		stream.receiverResume();
+		if (!activeStreams.isEmpty()) {
+			for (ServerStream serverStream : new ArrayList<>(activeStreams.values())) {
+				serverStream.updateState();
+			}
+		}
 	}
 
 	@Override
 	public void onSenderSuspended() {
+		senderSuspended = true;
 		stream.receiverSuspend();
+		for (ServerStream serverStream : activeStreams.values()) {
+			serverStream.suspend();
+		}
+	}
+
+	private void cancelStreams() {
+		for (ServerStream serverStream : new ArrayList<>(activeStreams.values())) {
+			serverStream.cancel();
+		}
 	}
 
 	private void sendError(RpcMessage errorMessage, Object messageData, @Nullable Exception e) {
@@ -170,12 +242,91 @@ public final class RpcServerConnection extends AbstractReactive implements RpcSt
 		downstreamDataAcceptor = $ -> {};
 	}
 
+	void sendInvalidation(Object request) {
+		if (downstreamDataAcceptor != null) {
+			downstreamDataAcceptor.accept(new RpcMessage(0, new RpcInvalidation(request)));
+		}
+	}
+
 	public void shutdown() {
 		if (downstreamDataAcceptor != null) {
 			downstreamDataAcceptor.accept(new RpcMessage(RpcControlMessage.CLOSE));
 		}
 	}
 
+	/**
+	 * A server side of a streaming request.
+	 * <p>
+	 * Items are sent only while a client has granted enough credit for them
+	 * and the connection is not suspended.
+	 */
+	private final class ServerStream extends AbstractStreamConsumer<Object> {
+		private final int index;
+		private final Object request;
+		private final StreamDataAcceptor<Object> acceptor = this::sendItem;
+		private int credit;
+		private boolean cancelled;
+
+		ServerStream(int index, Object request) {
+			this.index = index;
+			this.request = request;
+		}
+
+		void grant(int credit) {
+			this.credit += credit;
+			updateState();
+		}
+
+		void updateState() {
+			if (credit > 0 && !senderSuspended) {
+				resume(acceptor);
+			} else {
+				suspend();
+			}
+		}
+
+		void cancel() {
+			cancelled = true;
+			closeEx(new AsyncCloseException("Stream has been cancelled"));
+		}
+
+		private void sendItem(Object item) {
+			downstreamDataAcceptor.accept(new RpcMessage(index, item));
+			if (--credit == 0) {
+				suspend();
+			}
+		}
+
+		@Override
+		protected void onStarted() {
+			updateState();
+		}
+
+		@Override
+		protected void onEndOfStream() {
+			downstreamDataAcceptor.accept(new RpcMessage(index, RpcControlMessage.END_OF_STREAM));
+			successfulRequests.recordEvent();
+			rpcServer.getSuccessfulRequests().recordEvent();
+			acknowledge();
+		}
+
+		@Override
+		protected void onError(Exception e) {
+			if (cancelled) return;
+			logger.warn("Exception while processing stream ID {}", index, e);
+			sendError(new RpcMessage(index, new RpcRemoteException(e)), request, e);
+		}
+
+		@Override
+		protected void onComplete() {
+			activeStreams.remove(index);
+			if (--activeRequests == 0) {
+				doClose();
+				stream.sendEndOfStream();
+			}
+		}
+	}
+
 	// jmx
 	public void startMonitoring() {
 		monitoring = true;
@@ -223,6 +374,7 @@ public final class RpcServerConnection extends AbstractReactive implements RpcSt
 			"RpcServerConnection{" +
 			"address=" + remoteAddress +
 			", active=" + activeRequests +
+			", streams=" + activeStreams.size() +
 			", successes=" + successfulRequests.getTotalCount() +
 			", failures=" + failedRequests.getTotalCount() +
 			'}';
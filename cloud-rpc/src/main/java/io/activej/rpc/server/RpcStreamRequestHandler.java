@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.rpc.server;
+
+import io.activej.datastream.supplier.StreamSupplier;
+
+/**
+ * A handler of streaming requests.
+ * <p>
+ * Items of a returned supplier are sent to a client as they are produced,
+ * as long as the client has granted enough credit for them.
+ *
+ * @param <I> class of request
+ * @param <O> class of stream items
+ * @see RpcServer.Builder#withStreamHandler(Class, RpcStreamRequestHandler)
+ */
+@FunctionalInterface
+public interface RpcStreamRequestHandler<I, O> {
+	StreamSupplier<O> run(I request);
+}
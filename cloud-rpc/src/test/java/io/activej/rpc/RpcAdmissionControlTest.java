@@ -0,0 +1,136 @@
+package io.activej.rpc;
+
+import io.activej.async.exception.AsyncTimeoutException;
+import io.activej.async.function.AsyncSupplier;
+import io.activej.promise.Promise;
+import io.activej.promise.Promises;
+import io.activej.promise.SettablePromise;
+import io.activej.reactor.Reactor;
+import io.activej.reactor.nio.NioReactor;
+import io.activej.rpc.client.RpcClient;
+import io.activej.rpc.protocol.RpcOverloadException;
+import io.activej.rpc.server.RpcAdmissionController;
+import io.activej.rpc.server.RpcServer;
+import io.activej.test.rules.ByteBufRule;
+import io.activej.test.rules.ClassBuilderConstantsRule;
+import io.activej.test.rules.EventloopRule;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.activej.promise.TestUtils.await;
+import static io.activej.rpc.client.sender.strategy.RpcStrategies.server;
+import static io.activej.rpc.protocol.RpcMessage.TIMEOUT_VERSION;
+import static io.activej.test.TestUtils.getFreePort;
+import static org.junit.Assert.*;
+
+public final class RpcAdmissionControlTest {
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@Rule
+	public final ClassBuilderConstantsRule classBuilderConstantsRule = new ClassBuilderConstantsRule();
+
+	private final List<String> handled = new ArrayList<>();
+	private final List<SettablePromise<String>> pending = new ArrayList<>();
+	private final SettablePromise<Void> handlerCalled = new SettablePromise<>();
+
+	private NioReactor reactor;
+	private RpcAdmissionController admissionController;
+	private RpcServer server;
+	private RpcClient client;
+
+	@Before
+	public void setUp() throws Exception {
+		int port = getFreePort();
+		reactor = Reactor.getCurrentReactor();
+
+		admissionController = RpcAdmissionController.builder(reactor)
+			.withMaxConcurrentRequests(1)
+			.withMaxQueueSize(1)
+			.build();
+
+		server = RpcServer.builder(reactor)
+			.withMessageTypes(String.class)
+			.withProtocolVersion(TIMEOUT_VERSION)
+			.withHandler(String.class, request -> {
+				handled.add(request);
+				SettablePromise<String> promise = new SettablePromise<>();
+				pending.add(promise);
+				handlerCalled.trySet(null);
+				return promise.map(result -> result + request);
+			})
+			.withAdmissionController(admissionController)
+			.withListenPort(port)
+			.build();
+
+		client = RpcClient.builder(reactor)
+			.withMessageTypes(String.class)
+			.withProtocolVersion(TIMEOUT_VERSION)
+			.withStrategy(server(new InetSocketAddress(port)))
+			.build();
+
+		server.listen();
+	}
+
+	@Test
+	public void testOverloadedRequestIsRejected() {
+		List<Object> results = await(withClient(() -> {
+			Promise<Object> first = recover(client.sendRequest("first"));
+			Promise<Object> second = recover(client.sendRequest("second"));
+			Promise<Object> third = recover(client.sendRequest("third"));
+			return third
+				.whenResult(() -> {
+					assertEquals(List.of("first"), handled);
+					assertEquals(1, admissionController.getQueueSize());
+					pending.get(0).set("Hello, ");
+				})
+				.then(() -> first)
+				.whenResult(() -> pending.get(1).set("Hello, "))
+				.then(() -> Promises.toList(first, second, third));
+		}));
+
+		assertEquals("Hello, first", results.get(0));
+		assertEquals("Hello, second", results.get(1));
+		assertTrue(results.get(2) instanceof RpcOverloadException);
+		assertEquals(1, admissionController.getRejectedRequests().getTotalCount());
+	}
+
+	@Test
+	public void testExpiredRequestIsDropped() {
+		List<Object> results = await(withClient(() -> {
+			Promise<Object> first = recover(client.sendRequest("first"));
+			return handlerCalled
+				.then(() -> recover(client.sendRequest("second", 50)))
+				.then(second -> Promises.delay(50)
+					.whenResult(() -> pending.get(0).set("Hello, "))
+					.then(() -> first)
+					.map(firstResult -> List.of(firstResult, second)));
+		}));
+
+		assertEquals("Hello, first", results.get(0));
+		assertTrue(results.get(1) instanceof AsyncTimeoutException);
+		assertEquals(List.of("first"), handled);
+		assertEquals(1, admissionController.getExpiredRequests().getTotalCount());
+	}
+
+	private static Promise<Object> recover(Promise<Object> promise) {
+		return promise.then((result, e) -> Promise.of(e == null ? result : e));
+	}
+
+	private <T> Promise<T> withClient(AsyncSupplier<T> action) {
+		return client.start()
+			.then(action::get)
+			.then((result, e) -> client.stop()
+				.then(server::close)
+				.then(() -> Promise.of(result, e)));
+	}
+}
@@ -0,0 +1,111 @@
+package io.activej.rpc;
+
+import io.activej.common.collection.Try;
+import io.activej.promise.Promise;
+import io.activej.promise.Promises;
+import io.activej.reactor.Reactor;
+import io.activej.reactor.nio.NioReactor;
+import io.activej.rpc.client.RpcClient;
+import io.activej.rpc.protocol.RpcRemoteException;
+import io.activej.rpc.server.RpcServer;
+import io.activej.test.rules.ByteBufRule;
+import io.activej.test.rules.ClassBuilderConstantsRule;
+import io.activej.test.rules.EventloopRule;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static io.activej.promise.TestUtils.await;
+import static io.activej.rpc.client.sender.strategy.RpcStrategies.server;
+import static io.activej.test.TestUtils.getFreePort;
+import static org.junit.Assert.*;
+
+public final class RpcBatchHandlerTest {
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@Rule
+	public final ClassBuilderConstantsRule classBuilderConstantsRule = new ClassBuilderConstantsRule();
+
+	private final List<Integer> batchSizes = new ArrayList<>();
+
+	@Test
+	public void testRequestsAreBatchedWithinTick() {
+		List<Try<String>> results = sendRequests(RpcServer.DEFAULT_MAX_BATCH_SIZE, 10);
+
+		assertEquals("Hello, 0", results.get(0).get());
+		assertEquals("Hello, 9", results.get(9).get());
+		assertTrue(batchSizes.size() < 10);
+		assertEquals(10, batchSizes.stream().mapToInt(Integer::intValue).sum());
+	}
+
+	@Test
+	public void testMaxBatchSize() {
+		List<Try<String>> results = sendRequests(3, 10);
+
+		assertEquals(10, results.size());
+		assertTrue(batchSizes.stream().allMatch(size -> size <= 3));
+		assertEquals(10, batchSizes.stream().mapToInt(Integer::intValue).sum());
+	}
+
+	@Test
+	public void testErrorIsolation() {
+		List<Try<String>> results = sendRequests(RpcServer.DEFAULT_MAX_BATCH_SIZE, 10);
+
+		for (int i = 0; i < 10; i++) {
+			Try<String> result = results.get(i);
+			if (i == 5) {
+				assertTrue(result.getException() instanceof RpcRemoteException);
+			} else {
+				assertEquals("Hello, " + i, result.get());
+			}
+		}
+	}
+
+	private List<Try<String>> sendRequests(int maxBatchSize, int count) {
+		int port = getFreePort();
+		NioReactor reactor = Reactor.getCurrentReactor();
+		List<Class<?>> messageTypes = List.of(String.class);
+
+		RpcServer server = RpcServer.builder(reactor)
+			.withMessageTypes(messageTypes)
+			.withBatchHandler(String.class, maxBatchSize, (List<String> requests) -> {
+				batchSizes.add(requests.size());
+				List<Try<String>> results = new ArrayList<>();
+				for (String request : requests) {
+					results.add(request.equals("5") ?
+						Try.ofException(new IllegalArgumentException("Bad request")) :
+						Try.of("Hello, " + request));
+				}
+				return Promise.of(results);
+			})
+			.withListenPort(port)
+			.build();
+
+		RpcClient client = RpcClient.builder(reactor)
+			.withMessageTypes(messageTypes)
+			.withStrategy(server(new InetSocketAddress(port)))
+			.build();
+
+		try {
+			server.listen();
+		} catch (Exception e) {
+			throw new AssertionError(e);
+		}
+
+		return await(client.start()
+			.then(() -> Promises.toList(IntStream.range(0, count)
+				.mapToObj(i -> client.<String, String>sendRequest(String.valueOf(i)).toTry())))
+			.then(results -> client.stop()
+				.then(server::close)
+				.map($ -> results)));
+	}
+}
@@ -0,0 +1,126 @@
+package io.activej.rpc;
+
+import io.activej.async.function.AsyncSupplier;
+import io.activej.promise.Promise;
+import io.activej.promise.Promises;
+import io.activej.reactor.Reactor;
+import io.activej.reactor.nio.NioReactor;
+import io.activej.rpc.client.RpcClient;
+import io.activej.rpc.protocol.RpcRawMessage;
+import io.activej.rpc.protocol.RpcRawSerializer;
+import io.activej.rpc.protocol.RpcRemoteException;
+import io.activej.rpc.server.RpcServer;
+import io.activej.test.rules.ByteBufRule;
+import io.activej.test.rules.ClassBuilderConstantsRule;
+import io.activej.test.rules.EventloopRule;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.activej.promise.TestUtils.await;
+import static io.activej.promise.TestUtils.awaitException;
+import static io.activej.rpc.client.sender.strategy.RpcStrategies.server;
+import static io.activej.rpc.client.sender.strategy.RpcStrategies.sharding;
+import static io.activej.test.TestUtils.getFreePort;
+import static org.junit.Assert.*;
+
+public final class RpcRawForwardingTest {
+	private static final List<Class<?>> MESSAGE_TYPES = List.of(String.class, Integer.class);
+
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@Rule
+	public final ClassBuilderConstantsRule classBuilderConstantsRule = new ClassBuilderConstantsRule();
+
+	private final List<RpcServer> backends = new ArrayList<>();
+	private final List<Class<?>> routedTypes = new ArrayList<>();
+	private RpcServer router;
+	private RpcClient routerClient;
+	private RpcClient client;
+
+	@Before
+	public void setUp() throws Exception {
+		NioReactor reactor = Reactor.getCurrentReactor();
+
+		List<InetSocketAddress> backendAddresses = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			int port = getFreePort();
+			String name = "backend " + i;
+			RpcServer backend = RpcServer.builder(reactor)
+				.withMessageTypes(MESSAGE_TYPES)
+				.withHandler(String.class, request -> request.isEmpty() ?
+					Promise.ofException(new Exception("Empty request")) :
+					Promise.of(name + ": Hello, " + request))
+				.withHandler(Integer.class, request -> Promise.of(name + ": " + request))
+				.withListenPort(port)
+				.build();
+			backend.listen();
+			backends.add(backend);
+			backendAddresses.add(new InetSocketAddress(port));
+		}
+
+		RpcRawSerializer rawSerializer = RpcRawSerializer.create(MESSAGE_TYPES);
+		// strings go to the first backend, integers are sharded by their values
+		routerClient = RpcClient.builder(reactor)
+			.withSerializer(rawSerializer)
+			.withStrategy(sharding((RpcRawMessage request) ->
+					request.getType() == String.class ? 0 : request.getPayload().readInt() % 2,
+				server(backendAddresses.get(0)), server(backendAddresses.get(1))))
+			.build();
+
+		int routerPort = getFreePort();
+		router = RpcServer.builder(reactor)
+			.withSerializer(rawSerializer)
+			.withHandler(RpcRawMessage.class, request -> {
+				routedTypes.add(request.getType());
+				return routerClient.sendRequest(request, 1000);
+			})
+			.withListenPort(routerPort)
+			.build();
+		router.listen();
+
+		client = RpcClient.builder(reactor)
+			.withMessageTypes(MESSAGE_TYPES)
+			.withStrategy(server(new InetSocketAddress(routerPort)))
+			.build();
+	}
+
+	@Test
+	public void testRequestsAreForwarded() {
+		List<String> results = await(withClients(() -> Promises.toList(
+			client.<String, String>sendRequest("world", 1000),
+			client.<Integer, String>sendRequest(1, 1000),
+			client.<Integer, String>sendRequest(2, 1000))));
+
+		assertEquals(List.of("backend 0: Hello, world", "backend 1: 1", "backend 0: 2"), results);
+		assertEquals(List.of(String.class, Integer.class, Integer.class), routedTypes);
+	}
+
+	@Test
+	public void testRemoteExceptionIsForwarded() {
+		Exception e = awaitException(withClients(() -> client.sendRequest("", 1000)));
+
+		assertTrue(e instanceof RpcRemoteException);
+		assertTrue(e.getMessage().contains("Empty request"));
+	}
+
+	private <T> Promise<T> withClients(AsyncSupplier<T> action) {
+		return routerClient.start()
+			.then(client::start)
+			.then(action::get)
+			.then((result, e) -> client.stop()
+				.then(routerClient::stop)
+				.then(router::close)
+				.then(() -> Promises.all(backends.stream().map(RpcServer::close)))
+				.then(() -> Promise.of(result, e)));
+	}
+}
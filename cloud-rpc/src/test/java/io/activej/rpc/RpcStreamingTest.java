@@ -0,0 +1,149 @@
+package io.activej.rpc;
+
+import io.activej.async.function.AsyncSupplier;
+import io.activej.datastream.consumer.StreamConsumer;
+import io.activej.datastream.consumer.StreamConsumers;
+import io.activej.datastream.supplier.StreamSuppliers;
+import io.activej.promise.Promise;
+import io.activej.promise.Promises;
+import io.activej.reactor.Reactor;
+import io.activej.reactor.nio.NioReactor;
+import io.activej.rpc.client.RpcClient;
+import io.activej.rpc.protocol.RpcRemoteException;
+import io.activej.rpc.server.RpcServer;
+import io.activej.test.rules.ByteBufRule;
+import io.activej.test.rules.ClassBuilderConstantsRule;
+import io.activej.test.rules.EventloopRule;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static io.activej.promise.TestUtils.await;
+import static io.activej.promise.TestUtils.awaitException;
+import static io.activej.rpc.client.sender.strategy.RpcStrategies.server;
+import static io.activej.test.TestUtils.getFreePort;
+import static org.junit.Assert.*;
+
+public final class RpcStreamingTest {
+	private static final int STREAM_CREDIT = 16;
+
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@Rule
+	public final ClassBuilderConstantsRule classBuilderConstantsRule = new ClassBuilderConstantsRule();
+
+	private final AtomicInteger produced = new AtomicInteger();
+
+	private RpcServer server;
+	private RpcClient client;
+
+	@Before
+	public void setUp() throws Exception {
+		int port = getFreePort();
+		NioReactor reactor = Reactor.getCurrentReactor();
+		List<Class<?>> messageTypes = List.of(String.class, Integer.class);
+
+		server = RpcServer.builder(reactor)
+			.withMessageTypes(messageTypes)
+			.withHandler(String.class, request -> Promise.of("Hello, " + request))
+			.withStreamHandler(Integer.class, count -> {
+				if (count < 0) {
+					return StreamSuppliers.closingWithError(new IllegalArgumentException("Negative count"));
+				}
+				return StreamSuppliers.ofIterator(countingIterator(count));
+			})
+			.withListenPort(port)
+			.build();
+
+		client = RpcClient.builder(reactor)
+			.withMessageTypes(messageTypes)
+			.withStrategy(server(new InetSocketAddress(port)))
+			.withStreamCredit(STREAM_CREDIT)
+			.build();
+
+		server.listen();
+	}
+
+	@Test
+	public void testStream() {
+		List<Integer> result = await(withClient(() -> client.<Integer, Integer>sendStreamRequest(10_000).toList()
+			.whenResult(() ->
+				assertEquals(0, client.getRequestStatsPerConnection().values().iterator().next().getActiveStreams()))));
+
+		assertEquals(IntStream.range(0, 10_000).boxed().toList(), result);
+	}
+
+	@Test
+	public void testStreamsAreInterleavedWithRequests() {
+		List<Object> results = await(withClient(() -> Promises.toList(
+			client.<Integer, Integer>sendStreamRequest(1_000).toList(),
+			client.<Integer, Integer>sendStreamRequest(1_000).toList(),
+			client.sendRequest("World"))));
+
+		assertEquals(1_000, ((List<?>) results.get(0)).size());
+		assertEquals(1_000, ((List<?>) results.get(1)).size());
+		assertEquals("Hello, World", results.get(2));
+	}
+
+	@Test
+	public void testSlowConsumerIsBoundedByCredit() {
+		StreamConsumer<Integer> idle = StreamConsumers.idle();
+		Exception e = awaitException(withClient(() -> {
+			Promise<Void> streamPromise = client.<Integer, Integer>sendStreamRequest(10_000).streamTo(idle);
+			// a response to an ordinary request is not blocked by a stream that is not consumed
+			return client.<String, String>sendRequest("World")
+				.whenResult(response -> {
+					assertEquals("Hello, World", response);
+					assertEquals(STREAM_CREDIT, produced.get());
+					idle.closeEx(new Exception("Cancelled"));
+				})
+				.then(() -> streamPromise);
+		}));
+
+		assertEquals("Cancelled", e.getMessage());
+		assertEquals(STREAM_CREDIT, produced.get());
+	}
+
+	@Test
+	public void testStreamError() {
+		Exception e = awaitException(withClient(() -> client.<Integer, Integer>sendStreamRequest(-1).toList()));
+
+		assertTrue(e instanceof RpcRemoteException);
+	}
+
+	private <T> Promise<T> withClient(AsyncSupplier<T> action) {
+		return client.start()
+			.then(action::get)
+			.then((result, e) -> client.stop()
+				.then(server::close)
+				.then(() -> Promise.of(result, e)));
+	}
+
+	private Iterator<Integer> countingIterator(int count) {
+		return new Iterator<>() {
+			int i;
+
+			@Override
+			public boolean hasNext() {
+				return i < count;
+			}
+
+			@Override
+			public Integer next() {
+				produced.incrementAndGet();
+				return i++;
+			}
+		};
+	}
+}
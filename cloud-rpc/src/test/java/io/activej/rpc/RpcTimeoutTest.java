@@ -2,6 +2,7 @@ package io.activej.rpc;
 
 import io.activej.async.exception.AsyncTimeoutException;
 import io.activej.promise.Promise;
+import io.activej.promise.Promises;
 import io.activej.reactor.Reactor;
 import io.activej.reactor.nio.NioReactor;
 import io.activej.rpc.client.RpcClient;
@@ -23,6 +24,7 @@ import java.util.concurrent.Executors;
 import static io.activej.promise.TestUtils.await;
 import static io.activej.promise.TestUtils.awaitException;
 import static io.activej.rpc.client.sender.strategy.RpcStrategies.server;
+import static io.activej.rpc.protocol.RpcMessage.TIMEOUT_VERSION;
 import static io.activej.test.TestUtils.getFreePort;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -56,6 +58,7 @@ public final class RpcTimeoutTest {
 
 		server = RpcServer.builder(reactor)
 			.withMessageTypes(messageTypes)
+			.withProtocolVersion(TIMEOUT_VERSION)
 			.withHandler(String.class,
 				request -> Promise.ofBlocking(executor, () -> {
 					Thread.sleep(SERVER_DELAY);
@@ -66,6 +69,7 @@ public final class RpcTimeoutTest {
 
 		client = RpcClient.builder(reactor)
 			.withMessageTypes(messageTypes)
+			.withProtocolVersion(TIMEOUT_VERSION)
 			.withStrategy(server(new InetSocketAddress(port)))
 			.build();
 
@@ -106,4 +110,19 @@ public final class RpcTimeoutTest {
 
 		assertThat(exception, instanceOf(AsyncTimeoutException.class));
 	}
+
+	@Test
+	public void expiredResponseIsNotSent() {
+		int timeout = SERVER_DELAY / 2;
+		Exception exception = awaitException(client.start()
+			.then(() -> client.sendRequest(DATA, timeout))
+			.then(($, e) -> Promises.delay(SERVER_DELAY * 2)
+				.then(client::stop)
+				.then(server::close)
+				.then($2 -> Promise.ofException(e))));
+
+		assertThat(exception, instanceOf(AsyncTimeoutException.class));
+		assertEquals(0, server.getSuccessfulRequests().getTotalCount());
+		assertEquals(1, server.getFailedRequests().getTotalCount());
+	}
 }
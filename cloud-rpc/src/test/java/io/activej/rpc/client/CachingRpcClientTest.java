@@ -0,0 +1,249 @@
+package io.activej.rpc.client;
+
+import io.activej.async.callback.Callback;
+import io.activej.async.exception.AsyncTimeoutException;
+import io.activej.common.MemSize;
+import io.activej.promise.Promise;
+import io.activej.promise.Promises;
+import io.activej.reactor.Reactor;
+import io.activej.reactor.nio.NioReactor;
+import io.activej.rpc.server.RpcServer;
+import io.activej.test.rules.ByteBufRule;
+import io.activej.test.rules.ClassBuilderConstantsRule;
+import io.activej.test.rules.EventloopRule;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.activej.promise.TestUtils.await;
+import static io.activej.reactor.Reactor.getCurrentReactor;
+import static io.activej.rpc.client.sender.strategy.RpcStrategies.server;
+import static io.activej.test.TestUtils.getFreePort;
+import static org.junit.Assert.*;
+
+public final class CachingRpcClientTest {
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@Rule
+	public final ClassBuilderConstantsRule classBuilderConstantsRule = new ClassBuilderConstantsRule();
+
+	private final StubClient stub = new StubClient();
+
+	@Test
+	public void testResultIsCached() {
+		CachingRpcClient client = CachingRpcClient.builder(getCurrentReactor(), stub)
+			.withCacheableType(String.class, Duration.ofMinutes(1))
+			.build();
+
+		assertEquals("Hello, World", send(client, "World"));
+		assertEquals("Hello, World", send(client, "World"));
+		assertEquals("Hello, Alice", send(client, "Alice"));
+		assertEquals(List.of("World", "Alice"), stub.requests);
+		assertEquals(1, client.getGeneralRequestStats().getCacheHits().getTotalCount());
+		assertEquals(2, client.getGeneralRequestStats().getCacheMisses().getTotalCount());
+		assertEquals(2, client.getCachedEntries());
+	}
+
+	@Test
+	public void testNonCacheableTypesArePassedThrough() {
+		CachingRpcClient client = CachingRpcClient.builder(getCurrentReactor(), stub)
+			.withCacheableType(Integer.class, Duration.ofMinutes(1))
+			.build();
+
+		send(client, "World");
+		send(client, "World");
+		assertEquals(2, stub.requests.size());
+		assertEquals(0, client.getCachedEntries());
+	}
+
+	@Test
+	public void testExpiredResultIsRequestedAgain() {
+		CachingRpcClient client = CachingRpcClient.builder(getCurrentReactor(), stub)
+			.withCacheableType(String.class, Duration.ofMillis(10))
+			.build();
+
+		send(client, "World");
+		await(Promises.delay(20));
+		send(client, "World");
+		assertEquals(2, stub.requests.size());
+	}
+
+	@Test
+	public void testIdenticalInFlightRequestsAreCoalesced() {
+		stub.deferred = true;
+		CachingRpcClient client = CachingRpcClient.builder(getCurrentReactor(), stub)
+			.withCacheableType(String.class, Duration.ofMinutes(1))
+			.build();
+
+		Promise<String> first = client.sendRequest("World");
+		Promise<String> second = client.sendRequest("World");
+		Promise<String> third = client.sendRequest("World");
+		assertEquals(1, stub.callbacks.size());
+		assertEquals(1, client.getInFlightRequests());
+
+		stub.callbacks.get(0).accept("Hello, World", null);
+		assertEquals("Hello, World", first.getResult());
+		assertEquals("Hello, World", second.getResult());
+		assertEquals("Hello, World", third.getResult());
+		assertEquals(2, client.getGeneralRequestStats().getCoalescedRequests().getTotalCount());
+	}
+
+	@Test
+	public void testCoalescedRequestTimesOutOnItsOwn() {
+		stub.deferred = true;
+		CachingRpcClient client = CachingRpcClient.builder(getCurrentReactor(), stub)
+			.withCacheableType(String.class, Duration.ofMinutes(1))
+			.build();
+
+		Promise<String> first = client.sendRequest("World", 10_000);
+		Promise<String> second = client.sendRequest("World", 10);
+		await(Promises.delay(30));
+		assertTrue(second.getException() instanceof AsyncTimeoutException);
+		assertFalse(first.isComplete());
+
+		stub.callbacks.get(0).accept("Hello, World", null);
+		assertEquals("Hello, World", first.getResult());
+		assertEquals(1, stub.requests.size());
+	}
+
+	@Test
+	public void testCoalescedRequestWithLongerTimeoutIsSentAgain() {
+		stub.deferred = true;
+		CachingRpcClient client = CachingRpcClient.builder(getCurrentReactor(), stub)
+			.withCacheableType(String.class, Duration.ofMinutes(1))
+			.build();
+
+		Promise<String> first = client.sendRequest("World", 10);
+		Promise<String> second = client.sendRequest("World", 10_000);
+		Promise<String> third = client.sendRequest("World", 10_000);
+		AsyncTimeoutException exception = new AsyncTimeoutException("RPC request has timed out");
+		stub.callbacks.get(0).accept(null, exception);
+		assertSame(exception, first.getException());
+		assertFalse(second.isComplete());
+		assertFalse(third.isComplete());
+		assertEquals(2, stub.requests.size());
+		assertTrue(stub.timeouts.get(1) <= 10_000);
+
+		stub.callbacks.get(1).accept("Hello, World", null);
+		assertEquals("Hello, World", second.getResult());
+		assertEquals("Hello, World", third.getResult());
+	}
+
+	@Test
+	public void testFailedResultIsNotCached() {
+		stub.deferred = true;
+		CachingRpcClient client = CachingRpcClient.builder(getCurrentReactor(), stub)
+			.withCacheableType(String.class, Duration.ofMinutes(1))
+			.build();
+
+		Promise<String> first = client.sendRequest("World");
+		Promise<String> second = client.sendRequest("World");
+		Exception exception = new Exception("Failed");
+		stub.callbacks.get(0).accept(null, exception);
+		assertSame(exception, first.getException());
+		assertSame(exception, second.getException());
+		assertEquals(0, client.getCachedEntries());
+	}
+
+	@Test
+	public void testInvalidationDuringRequest() {
+		stub.deferred = true;
+		CachingRpcClient client = CachingRpcClient.builder(getCurrentReactor(), stub)
+			.withCacheableType(String.class, Duration.ofMinutes(1))
+			.build();
+
+		Promise<String> promise = client.sendRequest("World");
+		client.invalidate("World");
+		stub.callbacks.get(0).accept("Hello, World", null);
+		assertEquals("Hello, World", promise.getResult());
+		assertEquals(0, client.getCachedEntries());
+	}
+
+	@Test
+	public void testCacheIsBoundedBySize() {
+		CachingRpcClient client = CachingRpcClient.builder(getCurrentReactor(), stub)
+			.withCacheableType(String.class, Duration.ofMinutes(1))
+			.withMaxCacheSize(MemSize.kilobytes(1))
+			.withWeigher((request, result) -> 100)
+			.build();
+
+		for (int i = 0; i < 100; i++) {
+			send(client, "World " + i);
+		}
+		assertTrue(client.getCachedBytes() <= 1024);
+		assertTrue(client.getEvictions() > 0);
+	}
+
+	@Test
+	public void testServerInvalidation() throws Exception {
+		int port = getFreePort();
+		NioReactor reactor = Reactor.getCurrentReactor();
+		List<String> handled = new ArrayList<>();
+		RpcServer server = RpcServer.builder(reactor)
+			.withMessageTypes(String.class)
+			.withHandler(String.class, request -> {
+				handled.add(request);
+				return Promise.of("Hello, " + request);
+			})
+			.withListenPort(port)
+			.build();
+		RpcClient rpcClient = RpcClient.builder(reactor)
+			.withMessageTypes(String.class)
+			.withStrategy(server(new InetSocketAddress(port)))
+			.build();
+		CachingRpcClient client = CachingRpcClient.builder(reactor, rpcClient)
+			.withCacheableType(String.class, Duration.ofMinutes(1))
+			.withServerInvalidation(rpcClient)
+			.build();
+		server.listen();
+
+		String result = await(rpcClient.start()
+			.then(() -> client.<String, String>sendRequest("World"))
+			.then(() -> client.<String, String>sendRequest("World"))
+			.whenResult(() -> {
+				assertEquals(1, handled.size());
+				server.invalidate("World");
+			})
+			.then(() -> Promises.delay(10))
+			.whenResult(() -> assertEquals(0, client.getCachedEntries()))
+			.then(() -> client.<String, String>sendRequest("World"))
+			.then((res, e) -> rpcClient.stop()
+				.then(server::close)
+				.then(() -> Promise.of(res, e))));
+
+		assertEquals("Hello, World", result);
+		assertEquals(2, handled.size());
+	}
+
+	private static String send(CachingRpcClient client, String request) {
+		return await(client.sendRequest(request));
+	}
+
+	private static final class StubClient implements IRpcClient {
+		final List<Object> requests = new ArrayList<>();
+		final List<Integer> timeouts = new ArrayList<>();
+		final List<Callback<Object>> callbacks = new ArrayList<>();
+		boolean deferred;
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public <I, O> void sendRequest(I request, int timeout, Callback<O> cb) {
+			requests.add(request);
+			timeouts.add(timeout);
+			if (deferred) {
+				callbacks.add((Callback<Object>) cb);
+			} else {
+				cb.accept((O) ("Hello, " + request), null);
+			}
+		}
+	}
+}
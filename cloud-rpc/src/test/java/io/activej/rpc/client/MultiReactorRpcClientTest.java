@@ -0,0 +1,179 @@
+package io.activej.rpc.client;
+
+import io.activej.async.function.AsyncSupplier;
+import io.activej.eventloop.Eventloop;
+import io.activej.promise.Promise;
+import io.activej.rpc.server.RpcServer;
+import io.activej.test.rules.ByteBufRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static io.activej.common.exception.FatalErrorHandlers.rethrow;
+import static io.activej.rpc.client.sender.strategy.RpcStrategies.server;
+import static io.activej.test.TestUtils.getFreePort;
+import static org.junit.Assert.*;
+
+public final class MultiReactorRpcClientTest {
+	private static final int WORKERS = 2;
+
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	private InetSocketAddress address;
+	private RpcServer server;
+	private final List<Eventloop> eventloops = new ArrayList<>();
+	private final List<RpcClient> workerClients = new ArrayList<>();
+	private RpcClient sharedClient;
+	private Eventloop foreignEventloop;
+
+	@Before
+	public void setUp() throws Exception {
+		address = new InetSocketAddress("localhost", getFreePort());
+		Eventloop serverEventloop = startEventloop();
+		server = RpcServer.builder(serverEventloop)
+			.withMessageTypes(String.class, Integer.class)
+			.withHandler(String.class, request -> Promise.of("Hello, " + request))
+			.withHandler(Integer.class, request -> Promise.of(request + 1))
+			.withListenAddresses(address)
+			.build();
+		serverEventloop.submit(server::listen).get();
+
+		for (int i = 0; i < WORKERS; i++) {
+			Eventloop eventloop = startEventloop();
+			workerClients.add(startClient(eventloop));
+		}
+		sharedClient = startClient(eventloops.get(1));
+		foreignEventloop = startEventloop();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		for (RpcClient client : workerClients) {
+			((Eventloop) client.getReactor()).submit(client::stop).get();
+		}
+		((Eventloop) sharedClient.getReactor()).submit(sharedClient::stop).get();
+		((Eventloop) server.getReactor()).submit(server::close).get();
+		for (Eventloop eventloop : eventloops) {
+			eventloop.keepAlive(false);
+			Thread thread = eventloop.getEventloopThread();
+			if (thread != null) {
+				thread.join();
+			}
+		}
+	}
+
+	@Test
+	public void testRequestsAreSentByClientOfCallingReactor() {
+		MultiReactorRpcClient client = MultiReactorRpcClient.create(workerClients);
+
+		for (int i = 0; i < WORKERS; i++) {
+			String name = "worker " + i;
+			assertEquals("Hello, " + name, await(eventloops.get(i + 1), () -> client.sendRequest(name, 1000)));
+		}
+
+		assertEquals(WORKERS, client.getLocalRequests());
+		assertEquals(0, client.getForeignRequests());
+		for (RpcClient workerClient : workerClients) {
+			assertEquals(1, workerClient.getGeneralRequestsStats().getTotalRequests().getTotalCount());
+		}
+		assertEquals(WORKERS, client.getTotalRequests());
+		assertEquals(WORKERS, client.getConnectionsPerWorker().size());
+	}
+
+	@Test
+	public void testSharedRequestTypes() {
+		MultiReactorRpcClient client = MultiReactorRpcClient.builder(workerClients)
+			.withSharedClient(sharedClient)
+			.withSharedRequestType(Integer.class)
+			.build();
+
+		for (int i = 0; i < WORKERS; i++) {
+			Eventloop eventloop = eventloops.get(i + 1);
+			assertEquals(11, (int) await(eventloop, () -> client.sendRequest(10, 1000)));
+			assertEquals("Hello, world", await(eventloop, () -> client.sendRequest("world", 1000)));
+		}
+
+		assertEquals(WORKERS, client.getSharedRequests());
+		assertEquals(WORKERS, client.getLocalRequests());
+		assertEquals(WORKERS, sharedClient.getGeneralRequestsStats().getTotalRequests().getTotalCount());
+		for (RpcClient workerClient : workerClients) {
+			assertEquals(1, workerClient.getGeneralRequestsStats().getTotalRequests().getTotalCount());
+		}
+		assertEquals(2 * WORKERS, client.getTotalRequests());
+		assertEquals(WORKERS + 1, client.getActiveConnections());
+	}
+
+	@Test
+	public void testRequestsFromForeignReactorAreDistributed() {
+		MultiReactorRpcClient client = MultiReactorRpcClient.create(workerClients);
+
+		for (int i = 0; i < 2 * WORKERS; i++) {
+			assertEquals("Hello, foreign", await(foreignEventloop, () -> client.sendRequest("foreign", 1000)));
+		}
+
+		assertEquals(2 * WORKERS, client.getForeignRequests());
+		for (RpcClient workerClient : workerClients) {
+			assertEquals(2, workerClient.getGeneralRequestsStats().getTotalRequests().getTotalCount());
+		}
+		assertEquals(1, client.getForeignReactors());
+	}
+
+	@Test
+	public void testSharedRequestsFromForeignReactor() {
+		MultiReactorRpcClient client = MultiReactorRpcClient.builder(workerClients)
+			.withSharedClient(sharedClient)
+			.withSharedRequestType(Integer.class)
+			.build();
+
+		for (int i = 0; i < WORKERS; i++) {
+			assertEquals(11, (int) await(foreignEventloop, () -> client.sendRequest(10, 1000)));
+			assertEquals("Hello, foreign", await(foreignEventloop, () -> client.sendRequest("foreign", 1000)));
+		}
+
+		assertEquals(2 * WORKERS, client.getForeignRequests());
+		assertEquals(WORKERS, sharedClient.getGeneralRequestsStats().getTotalRequests().getTotalCount());
+		assertEquals(1, client.getForeignReactors());
+	}
+
+	@Test
+	public void testBuilderValidation() {
+		assertThrows(IllegalStateException.class, () -> MultiReactorRpcClient.builder(workerClients)
+			.withSharedRequestType(Integer.class)
+			.build());
+		assertThrows(IllegalArgumentException.class, () -> MultiReactorRpcClient.create(List.of(workerClients.get(0), sharedClient)));
+	}
+
+	private Eventloop startEventloop() {
+		Eventloop eventloop = Eventloop.builder()
+			.withFatalErrorHandler(rethrow())
+			.build();
+		eventloop.keepAlive(true);
+		new Thread(eventloop).start();
+		eventloops.add(eventloop);
+		return eventloop;
+	}
+
+	private RpcClient startClient(Eventloop eventloop) throws Exception {
+		RpcClient client = RpcClient.builder(eventloop)
+			.withMessageTypes(String.class, Integer.class)
+			.withStrategy(server(address))
+			.build();
+		eventloop.submit(client::start).get();
+		return client;
+	}
+
+	private static <T> T await(Eventloop eventloop, AsyncSupplier<T> supplier) {
+		try {
+			return eventloop.submit(supplier::get).get();
+		} catch (InterruptedException | ExecutionException e) {
+			throw new AssertionError(e);
+		}
+	}
+}
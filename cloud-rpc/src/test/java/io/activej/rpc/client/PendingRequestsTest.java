@@ -0,0 +1,143 @@
+package io.activej.rpc.client;
+
+import io.activej.async.callback.Callback;
+import org.junit.Test;
+
+import java.util.*;
+
+import static io.activej.rpc.client.PendingRequests.NO_DEADLINE;
+import static org.junit.Assert.*;
+
+public final class PendingRequestsTest {
+
+	@Test
+	public void testPutAndRemove() {
+		PendingRequests pendingRequests = new PendingRequests();
+		Callback<Object> cb1 = (result, e) -> {};
+		Callback<Object> cb2 = (result, e) -> {};
+
+		pendingRequests.put(1, cb1, NO_DEADLINE);
+		pendingRequests.put(2, cb2, NO_DEADLINE);
+		assertEquals(2, pendingRequests.size());
+
+		assertNull(pendingRequests.remove(3));
+		assertSame(cb2, pendingRequests.remove(2));
+		assertNull(pendingRequests.remove(2));
+		assertSame(cb1, pendingRequests.remove(1));
+		assertTrue(pendingRequests.isEmpty());
+	}
+
+	@Test
+	public void testLongLivedRequestAmongSequentialOnes() {
+		PendingRequests pendingRequests = new PendingRequests();
+		Callback<Object> longLived = (result, e) -> {};
+		pendingRequests.put(0, longLived, NO_DEADLINE);
+
+		Deque<Integer> window = new ArrayDeque<>();
+		Map<Integer, Callback<?>> expected = new HashMap<>();
+		for (int index = 1; index < 100_000; index++) {
+			Callback<Object> cb = (result, e) -> {};
+			pendingRequests.put(index, cb, NO_DEADLINE);
+			expected.put(index, cb);
+			window.addLast(index);
+			if (window.size() > 100) {
+				int removed = window.pollFirst();
+				assertSame(expected.remove(removed), pendingRequests.remove(removed));
+			}
+		}
+		assertEquals(101, pendingRequests.size());
+		for (Map.Entry<Integer, Callback<?>> entry : expected.entrySet()) {
+			assertSame(entry.getValue(), pendingRequests.remove(entry.getKey()));
+		}
+		assertSame(longLived, pendingRequests.remove(0));
+		assertTrue(pendingRequests.isEmpty());
+	}
+
+	@Test
+	public void testRandomRemovalsAndOverflow() {
+		PendingRequests pendingRequests = new PendingRequests();
+		Random random = new Random(0);
+		Map<Integer, Callback<?>> expected = new HashMap<>();
+		int index = Integer.MAX_VALUE - 5_000;
+		for (int i = 0; i < 10_000; i++, index++) {
+			Callback<Object> cb = (result, e) -> {};
+			pendingRequests.put(index, cb, NO_DEADLINE);
+			expected.put(index, cb);
+			if (random.nextBoolean()) {
+				List<Integer> keys = new ArrayList<>(expected.keySet());
+				int key = keys.get(random.nextInt(keys.size()));
+				assertSame(expected.remove(key), pendingRequests.remove(key));
+			}
+		}
+		assertEquals(expected.size(), pendingRequests.size());
+		for (Map.Entry<Integer, Callback<?>> entry : expected.entrySet()) {
+			assertSame(entry.getValue(), pendingRequests.remove(entry.getKey()));
+		}
+		assertTrue(pendingRequests.isEmpty());
+	}
+
+	@Test
+	public void testExpire() {
+		PendingRequests pendingRequests = new PendingRequests();
+		List<Integer> expired = new ArrayList<>();
+		for (int index = 0; index < 10; index++) {
+			int finalIndex = index;
+			pendingRequests.put(index, (result, e) -> expired.add(finalIndex), index % 2 == 0 ? 100 + index : NO_DEADLINE);
+		}
+
+		assertEquals(100, pendingRequests.expire(99, cb -> fail()));
+		assertEquals(104, pendingRequests.expire(103, cb -> cb.accept(null, null)));
+		assertEquals(List.of(0, 2), expired);
+		assertEquals(NO_DEADLINE, pendingRequests.expire(200, cb -> cb.accept(null, null)));
+		assertEquals(List.of(0, 2, 4, 6, 8), expired);
+		assertEquals(5, pendingRequests.size());
+
+		List<Callback<?>> drained = new ArrayList<>();
+		pendingRequests.drain(drained::add);
+		assertEquals(5, drained.size());
+		assertTrue(pendingRequests.isEmpty());
+	}
+
+	@Test
+	public void testRingShrinksAfterBurst() {
+		PendingRequests pendingRequests = new PendingRequests();
+		List<Integer> expired = new ArrayList<>();
+		for (int index = 0; index < 10_000; index++) {
+			int finalIndex = index;
+			pendingRequests.put(index, (result, e) -> expired.add(finalIndex), index < 9_990 ? 100 : 200);
+		}
+		int burstCapacity = pendingRequests.capacity();
+
+		assertEquals(200, pendingRequests.expire(100, cb -> cb.accept(null, null)));
+		assertEquals(9_990, expired.size());
+		assertEquals(10, pendingRequests.size());
+		assertTrue(pendingRequests.capacity() < burstCapacity);
+
+		// requests remain addressable after a ring is shrunk
+		for (int index = 10_000; index < 10_100; index++) {
+			pendingRequests.put(index, (result, e) -> {}, NO_DEADLINE);
+		}
+		for (int index = 9_990; index < 10_100; index++) {
+			assertNotNull(pendingRequests.remove(index));
+		}
+		assertTrue(pendingRequests.isEmpty());
+	}
+
+	@Test
+	public void testExpireAfterOverflow() {
+		PendingRequests pendingRequests = new PendingRequests();
+		List<Integer> expired = new ArrayList<>();
+		pendingRequests.put(0, (result, e) -> expired.add(0), 100);
+		for (int index = 1; index < 1_000; index++) {
+			int finalIndex = index;
+			pendingRequests.put(index, (result, e) -> expired.add(finalIndex), 200);
+			if (index > 10) assertNotNull(pendingRequests.remove(index - 10));
+		}
+
+		assertEquals(200, pendingRequests.expire(100, cb -> cb.accept(null, null)));
+		assertEquals(List.of(0), expired);
+		assertEquals(NO_DEADLINE, pendingRequests.expire(200, cb -> cb.accept(null, null)));
+		assertEquals(11, expired.size());
+		assertTrue(pendingRequests.isEmpty());
+	}
+}
@@ -0,0 +1,176 @@
+package io.activej.rpc.client.sender;
+
+import io.activej.async.callback.Callback;
+import io.activej.rpc.client.sender.helper.RpcClientConnectionPoolStub;
+import io.activej.rpc.client.sender.helper.RpcSenderStub;
+import io.activej.rpc.client.sender.strategy.RpcStrategy;
+import io.activej.rpc.client.sender.strategy.impl.ConsistentHashing;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.activej.rpc.client.sender.Callbacks.assertNoCalls;
+import static io.activej.rpc.client.sender.strategy.RpcStrategies.consistentHashing;
+import static io.activej.rpc.client.sender.strategy.RpcStrategies.server;
+import static io.activej.test.TestUtils.getFreePort;
+import static org.junit.Assert.*;
+
+@SuppressWarnings("ConstantConditions")
+public class RpcStrategyConsistentHashingTest {
+	private static final String HOST = "localhost";
+	private static final int KEYS = 10_000;
+
+	private InetSocketAddress address1;
+	private InetSocketAddress address2;
+	private InetSocketAddress address3;
+	private InetSocketAddress address4;
+
+	@Before
+	public void setUp() {
+		address1 = new InetSocketAddress(HOST, getFreePort());
+		address2 = new InetSocketAddress(HOST, getFreePort());
+		address3 = new InetSocketAddress(HOST, getFreePort());
+		address4 = new InetSocketAddress(HOST, getFreePort());
+	}
+
+	@Test
+	public void itShouldDistributeCallsEvenly() {
+		RpcClientConnectionPoolStub pool = new RpcClientConnectionPoolStub();
+		RpcSenderStub connection1 = new RpcSenderStub();
+		RpcSenderStub connection2 = new RpcSenderStub();
+		RpcSenderStub connection3 = new RpcSenderStub();
+		pool.put(address1, connection1);
+		pool.put(address2, connection2);
+		pool.put(address3, connection3);
+		RpcSender sender = consistentHashing(RpcMessageDataStubWithKey::key, address1, address2, address3)
+			.createSender(pool);
+
+		for (int i = 0; i < KEYS; i++) {
+			sender.sendRequest(new RpcMessageDataStubWithKey(i), 50, assertNoCalls());
+		}
+
+		double delta = KEYS / 3.0 * 0.15;
+		assertEquals(KEYS / 3.0, connection1.getRequests(), delta);
+		assertEquals(KEYS / 3.0, connection2.getRequests(), delta);
+		assertEquals(KEYS / 3.0, connection3.getRequests(), delta);
+	}
+
+	@Test
+	public void itShouldRemapOnlyKeysOfInactiveShard() {
+		RpcClientConnectionPoolStub pool = new RpcClientConnectionPoolStub();
+		pool.put(address1, new RecordingSender(1));
+		pool.put(address2, new RecordingSender(2));
+		pool.put(address3, new RecordingSender(3));
+		RpcStrategy strategy = ConsistentHashing.builder(RpcMessageDataStubWithKey::key)
+			.withShard(1, server(address1))
+			.withShard(2, server(address2))
+			.withShard(3, server(address3))
+			.build();
+
+		Map<Integer, Integer> before = route(strategy.createSender(pool));
+		pool.remove(address1);
+		Map<Integer, Integer> after = route(strategy.createSender(pool));
+
+		for (int key = 0; key < KEYS; key++) {
+			if (before.get(key) != 1) {
+				assertEquals(before.get(key), after.get(key));
+			} else {
+				assertNotEquals(1, (int) after.get(key));
+			}
+		}
+	}
+
+	@Test
+	public void itShouldMoveKeysOnlyToAddedShard() {
+		RpcClientConnectionPoolStub pool = new RpcClientConnectionPoolStub();
+		pool.put(address1, new RecordingSender(1));
+		pool.put(address2, new RecordingSender(2));
+		pool.put(address3, new RecordingSender(3));
+		pool.put(address4, new RecordingSender(4));
+
+		Map<Integer, Integer> before = route(ConsistentHashing.builder(RpcMessageDataStubWithKey::key)
+			.withShard(1, server(address1))
+			.withShard(2, server(address2))
+			.withShard(3, server(address3))
+			.build()
+			.createSender(pool));
+		Map<Integer, Integer> after = route(ConsistentHashing.builder(RpcMessageDataStubWithKey::key)
+			.withShard(1, server(address1))
+			.withShard(2, server(address2))
+			.withShard(3, server(address3))
+			.withShard(4, server(address4))
+			.build()
+			.createSender(pool));
+
+		int moved = 0;
+		for (int key = 0; key < KEYS; key++) {
+			if (!before.get(key).equals(after.get(key))) {
+				assertEquals(4, (int) after.get(key));
+				moved++;
+			}
+		}
+		assertEquals(KEYS / 4.0, moved, KEYS / 4.0 * 0.2);
+	}
+
+	@Test
+	public void itShouldSpillHotKeyOverWithBoundedLoad() {
+		RpcClientConnectionPoolStub pool = new RpcClientConnectionPoolStub();
+		RpcSenderStub connection1 = new RpcSenderStub();
+		RpcSenderStub connection2 = new RpcSenderStub();
+		RpcSenderStub connection3 = new RpcSenderStub();
+		pool.put(address1, connection1);
+		pool.put(address2, connection2);
+		pool.put(address3, connection3);
+		RpcSender sender = ConsistentHashing.builder(RpcMessageDataStubWithKey::key)
+			.withShards(address1, address2, address3)
+			.withBoundedLoad(1.25)
+			.build()
+			.createSender(pool);
+
+		// stub senders never respond, so requests stay outstanding
+		int requests = 3000;
+		for (int i = 0; i < requests; i++) {
+			sender.sendRequest(new RpcMessageDataStubWithKey(42), 50, assertNoCalls());
+		}
+
+		int capacity = (int) Math.ceil(1.25 * requests / 3);
+		assertTrue(connection1.getRequests() <= capacity);
+		assertTrue(connection2.getRequests() <= capacity);
+		assertTrue(connection3.getRequests() <= capacity);
+	}
+
+	@Test
+	public void itShouldNotBeCreatedWhenNotEnoughShardsAreActive() {
+		RpcClientConnectionPoolStub pool = new RpcClientConnectionPoolStub();
+		pool.put(address1, new RpcSenderStub());
+		RpcStrategy strategy = ConsistentHashing.builder(RpcMessageDataStubWithKey::key)
+			.withShards(address1, address2, address3)
+			.withMinActiveShards(2)
+			.build();
+
+		assertNull(strategy.createSender(pool));
+	}
+
+	private static Map<Integer, Integer> route(RpcSender sender) {
+		Map<Integer, Integer> result = new HashMap<>();
+		for (int key = 0; key < KEYS; key++) {
+			int k = key;
+			sender.<RpcMessageDataStubWithKey, Integer>sendRequest(new RpcMessageDataStubWithKey(key), 50,
+				(shardId, e) -> result.put(k, shardId));
+		}
+		return result;
+	}
+
+	private record RecordingSender(int shardId) implements RpcSender {
+		@SuppressWarnings("unchecked")
+		@Override
+		public <I, O> void sendRequest(I request, int timeout, Callback<O> cb) {
+			cb.accept((O) (Integer) shardId, null);
+		}
+	}
+
+	private record RpcMessageDataStubWithKey(int key) {}
+}
@@ -0,0 +1,214 @@
+package io.activej.rpc.client.sender;
+
+import io.activej.async.callback.Callback;
+import io.activej.rpc.client.sender.helper.RpcClientConnectionPoolStub;
+import io.activej.rpc.client.sender.helper.RpcMessageDataStub;
+import io.activej.rpc.client.sender.helper.RpcSenderStub;
+import io.activej.rpc.client.sender.strategy.RpcStrategy;
+import io.activej.rpc.client.sender.strategy.impl.LatencyAware;
+import io.activej.rpc.protocol.RpcOverloadException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static io.activej.rpc.client.sender.Callbacks.assertNoCalls;
+import static io.activej.rpc.client.sender.Callbacks.ignore;
+import static io.activej.rpc.client.sender.strategy.RpcStrategies.*;
+import static io.activej.test.TestUtils.getFreePort;
+import static org.junit.Assert.*;
+
+@SuppressWarnings("ConstantConditions")
+public class RpcStrategyLatencyAwareTest {
+
+	private static final String HOST = "localhost";
+
+	private InetSocketAddress address1;
+	private InetSocketAddress address2;
+	private InetSocketAddress address3;
+
+	@Before
+	public void setUp() {
+		address1 = new InetSocketAddress(HOST, getFreePort());
+		address2 = new InetSocketAddress(HOST, getFreePort());
+		address3 = new InetSocketAddress(HOST, getFreePort());
+	}
+
+	@Test
+	public void itShouldAvoidServersWithManyOutstandingRequests() {
+		RpcClientConnectionPoolStub pool = new RpcClientConnectionPoolStub();
+		RpcSenderStub connection1 = new RpcSenderStub();
+		ImmediateSender connection2 = new ImmediateSender(0);
+		pool.put(address1, connection1);
+		pool.put(address2, connection2);
+		// a latency of a non-responding server is assumed to be much higher than any observed latency
+		RpcSender sender = LatencyAware.builder(servers(address1, address2))
+			.withInitialLatency(Duration.ofSeconds(1))
+			.build()
+			.createSender(pool);
+
+		Object data = new RpcMessageDataStub();
+		for (int i = 0; i < 1000; i++) {
+			sender.sendRequest(data, 50, ignore());
+		}
+
+		// first server never responds, so its requests pile up
+		assertTrue(connection1.getRequests() < 10);
+		assertEquals(1000, connection1.getRequests() + connection2.requests);
+	}
+
+	@Test
+	public void itShouldPreferFasterServers() {
+		RpcClientConnectionPoolStub pool = new RpcClientConnectionPoolStub();
+		ImmediateSender slow = new ImmediateSender(2);
+		ImmediateSender fast = new ImmediateSender(0);
+		pool.put(address1, slow);
+		pool.put(address2, fast);
+		LatencyAware strategy = LatencyAware.builder(servers(address1, address2))
+			.withRandom(new Random(0))
+			.build();
+		RpcSender sender = strategy.createSender(pool);
+
+		Object data = new RpcMessageDataStub();
+		for (int i = 0; i < 100; i++) {
+			sender.sendRequest(data, 50, ignore());
+		}
+
+		assertTrue(fast.requests > 90);
+		assertEquals(2, strategy.getServerScores().size());
+	}
+
+	@Test
+	public void itShouldAvoidStalledServers() throws InterruptedException {
+		RpcClientConnectionPoolStub pool = new RpcClientConnectionPoolStub();
+		StallingSender stalling = new StallingSender();
+		ImmediateSender slow = new ImmediateSender(2);
+		pool.put(address1, stalling);
+		pool.put(address2, slow);
+		RpcSender sender = LatencyAware.builder(servers(address1, address2))
+			.withDecayTime(Duration.ofMillis(1))
+			.build()
+			.createSender(pool);
+
+		Object data = new RpcMessageDataStub();
+		// a stalling server responds fast once and then stops responding
+		while (stalling.requests < 2) {
+			sender.sendRequest(data, 50, ignore());
+		}
+		// an observed latency of a stalled server would have decayed by now
+		Thread.sleep(50);
+
+		for (int i = 0; i < 20; i++) {
+			sender.sendRequest(data, 50, ignore());
+		}
+
+		assertEquals(2, stalling.requests);
+	}
+
+	@Test
+	public void itShouldRetryOverloadedRequestOnAnotherServer() {
+		RpcClientConnectionPoolStub pool = new RpcClientConnectionPoolStub();
+		OverloadedSender overloaded = new OverloadedSender();
+		ImmediateSender connection2 = new ImmediateSender(0);
+		pool.put(address1, overloaded);
+		pool.put(address2, connection2);
+		LatencyAware strategy = LatencyAware.builder(servers(address1, address2))
+			.withOverloadBackoff(Duration.ofMinutes(1))
+			.build();
+		RpcSender sender = strategy.createSender(pool);
+
+		List<Exception> exceptions = new ArrayList<>();
+		Object data = new RpcMessageDataStub();
+		for (int i = 0; i < 100; i++) {
+			sender.sendRequest(data, 50, (result, e) -> {
+				if (e != null) exceptions.add(e);
+			});
+		}
+
+		assertTrue(exceptions.isEmpty());
+		assertEquals(100, connection2.requests);
+		// once rejected, the overloaded server is avoided during a backoff period
+		assertTrue(overloaded.requests <= 1);
+		assertTrue(strategy.getServerScores().stream().anyMatch(score -> score.endsWith("OVERLOADED")));
+	}
+
+	@Test
+	public void itShouldPropagateOverloadIfAllServersAreOverloaded() {
+		RpcClientConnectionPoolStub pool = new RpcClientConnectionPoolStub();
+		pool.put(address1, new OverloadedSender());
+		pool.put(address2, new OverloadedSender());
+		RpcSender sender = latencyAware(servers(address1, address2)).createSender(pool);
+
+		List<Exception> exceptions = new ArrayList<>();
+		sender.sendRequest(new RpcMessageDataStub(), 50, (result, e) -> exceptions.add(e));
+
+		assertEquals(1, exceptions.size());
+		assertTrue(exceptions.get(0) instanceof RpcOverloadException);
+	}
+
+	@Test
+	public void itShouldNotBeCreatedWhenThereAreNoActiveSubSenders() {
+		RpcClientConnectionPoolStub pool = new RpcClientConnectionPoolStub();
+		RpcStrategy strategy = latencyAware(servers(address1, address2, address3));
+
+		assertNull(strategy.createSender(pool));
+	}
+
+	@Test
+	public void itShouldUseSingleActiveSubSenderDirectly() {
+		RpcClientConnectionPoolStub pool = new RpcClientConnectionPoolStub();
+		RpcSenderStub connection = new RpcSenderStub();
+		pool.put(address3, connection);
+		RpcSender sender = latencyAware(servers(address1, address2, address3)).createSender(pool);
+
+		sender.sendRequest(new RpcMessageDataStub(), 50, assertNoCalls());
+		assertEquals(1, connection.getRequests());
+	}
+
+	private static final class ImmediateSender implements RpcSender {
+		private final long delayMillis;
+		int requests;
+
+		ImmediateSender(long delayMillis) {
+			this.delayMillis = delayMillis;
+		}
+
+		@Override
+		public <I, O> void sendRequest(I request, int timeout, Callback<O> cb) {
+			requests++;
+			if (delayMillis != 0) {
+				try {
+					Thread.sleep(delayMillis);
+				} catch (InterruptedException e) {
+					throw new AssertionError(e);
+				}
+			}
+			cb.accept(null, null);
+		}
+	}
+
+	private static final class StallingSender implements RpcSender {
+		int requests;
+
+		@Override
+		public <I, O> void sendRequest(I request, int timeout, Callback<O> cb) {
+			if (requests++ == 0) {
+				cb.accept(null, null);
+			}
+		}
+	}
+
+	private static final class OverloadedSender implements RpcSender {
+		int requests;
+
+		@Override
+		public <I, O> void sendRequest(I request, int timeout, Callback<O> cb) {
+			requests++;
+			cb.accept(null, new RpcOverloadException("Overloaded"));
+		}
+	}
+}
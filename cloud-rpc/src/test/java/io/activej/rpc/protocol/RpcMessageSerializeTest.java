@@ -3,6 +3,8 @@ package io.activej.rpc.protocol;
 import io.activej.codegen.DefiningClassLoader;
 import io.activej.serializer.BinarySerializer;
 import io.activej.serializer.SerializerFactory;
+import io.activej.serializer.annotations.Deserialize;
+import io.activej.serializer.annotations.Serialize;
 import io.activej.serializer.annotations.SerializeRecord;
 import io.activej.test.rules.ByteBufRule;
 import io.activej.test.rules.ClassBuilderConstantsRule;
@@ -10,10 +12,10 @@ import org.junit.ClassRule;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.List;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 public final class RpcMessageSerializeTest {
 
@@ -44,4 +46,92 @@ public final class RpcMessageSerializeTest {
 		TestRpcMessageData messageData2 = (TestRpcMessageData) message2.getMessage();
 		assertEquals(messageData1.s, messageData2.s);
 	}
+
+	@Test
+	public void testEncodedMessageTypesAreStable() {
+		BinarySerializer<RpcMessage> serializer = SerializerFactory.builder()
+			.withSubclasses(RpcMessage.SUBCLASSES_ID, RpcMessage.subclassesOf(List.of(TestRpcMessageData.class)))
+			.build()
+			.create(DefiningClassLoader.create(), RpcMessage.class);
+
+		byte[] buf = new byte[1000];
+		serializer.encode(buf, 0, new RpcMessage(1, new TestRpcMessageData("TestMessageData")));
+		assertEquals(2, buf[4]);
+		RpcMessage userMessage = serializer.decode(buf, 0);
+		assertTrue(userMessage.getMessage() instanceof TestRpcMessageData);
+
+		serializer.encode(buf, 0, new RpcMessage(1, new RpcStreamCredit(10)));
+		RpcMessage message = serializer.decode(buf, 0);
+		assertTrue(message.getMessage() instanceof RpcStreamCredit);
+
+		serializer.encode(buf, 0, new RpcMessage(0, new RpcInvalidation(new TestRpcMessageData("TestMessageData"))));
+		message = serializer.decode(buf, 0);
+		assertTrue(message.getMessage() instanceof RpcInvalidation);
+	}
+
+	@Test
+	public void testTimeoutIsSerializedOnlyInTimeoutVersion() {
+		BinarySerializer<RpcMessage> serializer = createSerializer(TestRpcMessageData.class);
+		BinarySerializer<RpcMessage> timeoutSerializer = RpcTimeoutSerializer.create(serializer);
+		byte[] buf = new byte[1000];
+		RpcMessage message = new RpcMessage(1, new TestRpcMessageData("TestMessageData"), 100);
+
+		int size = serializer.encode(buf, 0, message);
+		assertEquals(0, serializer.decode(buf, 0).getTimeout());
+
+		assertEquals(size + 1, timeoutSerializer.encode(buf, 0, message));
+		RpcMessage decoded = timeoutSerializer.decode(buf, 0);
+		assertEquals(1, decoded.getIndex());
+		assertEquals(100, decoded.getTimeout());
+	}
+
+	@Test
+	public void testVersionsOfMessageTypesAreKept() {
+		BinarySerializer<RpcMessage> baselineSerializer = SerializerFactory.builder()
+			.withSubclasses(RpcMessage.SUBCLASSES_ID, List.of(VersionedMessageData.class))
+			.build()
+			.create(DefiningClassLoader.create(), RpcMessage.class);
+		BinarySerializer<RpcMessage> serializer = createSerializer(VersionedMessageData.class);
+		RpcMessage message = new RpcMessage(1, new VersionedMessageData("TestMessageData", 42));
+
+		byte[] expected = new byte[1000];
+		int expectedSize = baselineSerializer.encode(expected, 0, message);
+		byte[] buf = new byte[1000];
+		assertEquals(expectedSize, serializer.encode(buf, 0, message));
+		assertArrayEquals(Arrays.copyOf(expected, expectedSize), Arrays.copyOf(buf, expectedSize));
+		assertEquals(42, ((VersionedMessageData) serializer.decode(expected, 0).getMessage()).getAdded());
+
+		int size = RpcTimeoutSerializer.create(serializer).encode(buf, 0, new RpcMessage(1, message.getMessage(), 100));
+		RpcMessage decoded = RpcTimeoutSerializer.create(baselineSerializer).decode(buf, 0);
+		assertEquals(expectedSize + 1, size);
+		assertEquals(100, decoded.getTimeout());
+		assertEquals(42, ((VersionedMessageData) decoded.getMessage()).getAdded());
+	}
+
+	public static final class VersionedMessageData {
+		private final String s;
+		private final int added;
+
+		public VersionedMessageData(@Deserialize("s") String s, @Deserialize("added") int added) {
+			this.s = s;
+			this.added = added;
+		}
+
+		@Serialize(order = 1)
+		public String getS() {
+			return s;
+		}
+
+		@Serialize(order = 2, added = 1)
+		public int getAdded() {
+			return added;
+		}
+	}
+
+	private static BinarySerializer<RpcMessage> createSerializer(Class<?> messageType) {
+		return SerializerFactory.builder()
+			.withSubclasses(RpcMessage.SUBCLASSES_ID, RpcMessage.subclassesOf(List.of(messageType)))
+			.build()
+			.create(DefiningClassLoader.create(), RpcMessage.class);
+	}
 }
@@ -0,0 +1,113 @@
+package io.activej.rpc.protocol;
+
+import io.activej.serializer.BinarySerializer;
+import io.activej.serializer.SerializerFactory;
+import io.activej.test.rules.ClassBuilderConstantsRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public final class RpcRawSerializerTest {
+	private static final List<Class<?>> MESSAGE_TYPES = List.of(String.class, Integer.class);
+
+	@Rule
+	public final ClassBuilderConstantsRule classBuilderConstantsRule = new ClassBuilderConstantsRule();
+
+	@Test
+	public void testRawMessageIsEncodedWithNewIndex() {
+		BinarySerializer<RpcMessage> serializer = SerializerFactory.builder()
+			.withSubclasses(RpcMessage.SUBCLASSES_ID, MESSAGE_TYPES)
+			.build()
+			.create(RpcMessage.class);
+		RpcRawSerializer rawSerializer = RpcRawSerializer.builder(MESSAGE_TYPES)
+			.withSerializer(serializer)
+			.withRawMessageTypes(List.of(String.class))
+			.build();
+
+		byte[] original = new byte[100];
+		int size = serializer.encode(original, 0, new RpcMessage(1, "Hello"));
+		RpcMessage decoded = rawSerializer.decode(original, 0, size);
+		assertEquals(1, decoded.getIndex());
+		RpcRawMessage rawMessage = (RpcRawMessage) decoded.getMessage();
+		assertEquals(String.class, rawMessage.getType());
+		assertEquals("Hello", rawMessage.getPayload().readUTF8());
+
+		byte[] forwarded = new byte[100];
+		int forwardedSize = rawSerializer.encode(forwarded, 0, new RpcMessage(42, rawMessage));
+		byte[] expected = new byte[100];
+		int expectedSize = serializer.encode(expected, 0, new RpcMessage(42, "Hello"));
+		assertArrayEquals(Arrays.copyOf(expected, expectedSize), Arrays.copyOf(forwarded, forwardedSize));
+
+		// messages of other types are decoded as usual
+		size = serializer.encode(original, 0, new RpcMessage(2, 123));
+		assertEquals(123, rawSerializer.decode(original, 0, size).getMessage());
+	}
+
+	@Test
+	public void testRawTypesAreRecognizedByTheirIndices() {
+		List<Class<?>> messageTypes = List.of(String.class, Integer.class, Long.class, Double.class, Boolean.class);
+		List<Object> messages = List.of("Hello", 1, 2L, 3.0, true);
+		BinarySerializer<RpcMessage> serializer = SerializerFactory.builder()
+			.withSubclasses(RpcMessage.SUBCLASSES_ID, RpcMessage.subclassesOf(messageTypes))
+			.build()
+			.create(RpcMessage.class);
+		RpcRawSerializer rawSerializer = RpcRawSerializer.builder(messageTypes)
+			.withSerializer(serializer)
+			.withRawMessageTypes(List.of(String.class, Long.class, Boolean.class))
+			.build();
+
+		byte[] buf = new byte[100];
+		for (int i = 0; i < messages.size(); i++) {
+			Object message = messages.get(i);
+			int size = serializer.encode(buf, 0, new RpcMessage(i, message));
+			RpcMessage decoded = rawSerializer.decode(buf, 0, size);
+			assertEquals(i, decoded.getIndex());
+			if (i % 2 == 0) {
+				assertEquals(messageTypes.get(i), ((RpcRawMessage) decoded.getMessage()).getType());
+			} else {
+				assertEquals(message, decoded.getMessage());
+			}
+		}
+	}
+
+	@Test
+	public void testRawMessageOfVersionedTypeWithTimeout() {
+		List<Class<?>> messageTypes = List.of(RpcMessageSerializeTest.VersionedMessageData.class);
+		RpcTimeoutSerializer serializer = RpcTimeoutSerializer.create(SerializerFactory.builder()
+			.withSubclasses(RpcMessage.SUBCLASSES_ID, RpcMessage.subclassesOf(messageTypes))
+			.build()
+			.create(RpcMessage.class));
+		RpcTimeoutSerializer rawSerializer = RpcTimeoutSerializer.create(RpcRawSerializer.create(messageTypes));
+
+		byte[] original = new byte[100];
+		int size = serializer.encode(original, 0, new RpcMessage(1, new RpcMessageSerializeTest.VersionedMessageData("Hello", 42), 100));
+		RpcMessage decoded = rawSerializer.decode(original, 0, size);
+		assertEquals(1, decoded.getIndex());
+		assertEquals(100, decoded.getTimeout());
+		RpcRawMessage rawMessage = (RpcRawMessage) decoded.getMessage();
+		assertEquals(RpcMessageSerializeTest.VersionedMessageData.class, rawMessage.getType());
+
+		byte[] forwarded = new byte[100];
+		rawSerializer.encode(forwarded, 0, new RpcMessage(42, rawMessage, 200));
+		RpcMessage message = serializer.decode(forwarded, 0);
+		assertEquals(42, message.getIndex());
+		assertEquals(200, message.getTimeout());
+		assertEquals(42, ((RpcMessageSerializeTest.VersionedMessageData) message.getMessage()).getAdded());
+	}
+
+	@Test
+	public void testControlMessagesAreNotRaw() {
+		RpcRawSerializer rawSerializer = RpcRawSerializer.create(MESSAGE_TYPES);
+
+		byte[] array = new byte[100];
+		int size = rawSerializer.encode(array, 0, new RpcMessage(RpcControlMessage.CLOSE));
+		assertSame(RpcControlMessage.CLOSE, rawSerializer.decode(array, 0, size).getMessage());
+
+		size = rawSerializer.encode(array, 0, new RpcMessage(3, null));
+		assertNull(rawSerializer.decode(array, 0, size).getMessage());
+	}
+}
@@ -562,8 +562,15 @@ public final class ClassGenerator<T> {
 		cw.visitEnd();
 
 		byte[] bytecode = cw.toByteArray();
+		boolean selfContained = constantMap.isEmpty() &&
+			fieldConstants.values().stream().allMatch(constant -> isJvmPrimitive(constant.value));
 
 		return new GeneratedBytecode(className, bytecode) {
+			@Override
+			public boolean isSelfContained() {
+				return selfContained;
+			}
+
 			@Override
 			protected void touchGeneratedClass(Class<?> generatedClass) {
 				try {
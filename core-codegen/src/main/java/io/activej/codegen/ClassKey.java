@@ -16,7 +16,14 @@
 
 package io.activej.codegen;
 
-import java.util.Arrays;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+import static io.activej.codegen.ClassGenerator.PACKAGE_PREFIX;
 
 /**
  * A key that is used as a cache key in a {@link DefiningClassLoader}.
@@ -24,6 +31,12 @@ import java.util.Arrays;
  * Represents some superclass with an array of parameters.
  */
 public final class ClassKey<T> {
+	/**
+	 * A version of a format of persistent class names, it should be changed whenever
+	 * a description of key parameters changes
+	 */
+	private static final int PERSISTENT_NAME_VERSION = 2;
+
 	private final Class<T> clazz;
 	private final Object[] parameters;
 
@@ -45,6 +58,92 @@ public final class ClassKey<T> {
 		return parameters;
 	}
 
+	/**
+	 * Returns a name of a class for this key that stays the same across application restarts,
+	 * so that bytecode of the class may be persisted by an {@link IBytecodeStorage}.
+	 * <p>
+	 * Only parameters that are strings, classes, boxed primitives, enums,
+	 * as well as lists, sets, maps and arrays of those are supported.
+	 * Elements of sets and entries of maps are described in a sorted order.
+	 * <p>
+	 * A name also depends on a version of this library (if known), so that bytecode
+	 * that is persisted by a previous version is not loaded after an upgrade.
+	 *
+	 * @return a persistent class name, or {@code null} if some of the parameters are not supported
+	 */
+	public @Nullable String getPersistentClassName() {
+		StringBuilder sb = new StringBuilder()
+			.append(PERSISTENT_NAME_VERSION).append(':')
+			.append(ClassKey.class.getPackage().getImplementationVersion()).append(':')
+			.append(clazz.getName());
+		for (Object parameter : parameters) {
+			if (!describe(sb, parameter)) return null;
+		}
+		byte[] digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException e) {
+			throw new AssertionError(e);
+		}
+		return PACKAGE_PREFIX + clazz.getName() + '_' + HexFormat.of().formatHex(digest, 0, 10);
+	}
+
+	private static boolean describe(StringBuilder sb, @Nullable Object value) {
+		if (value == null) {
+			sb.append('n');
+		} else if (value instanceof String string) {
+			sb.append('s').append(string.length()).append(':').append(string);
+		} else if (value instanceof Class<?> cls) {
+			sb.append('c').append(cls.getName()).append(';');
+		} else if (value instanceof Enum<?> e) {
+			sb.append('e').append(e.getDeclaringClass().getName()).append('.').append(e.name()).append(';');
+		} else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte ||
+				   value instanceof Boolean || value instanceof Character || value instanceof Float || value instanceof Double) {
+			sb.append('p').append(value.getClass().getSimpleName()).append(':').append(value).append(';');
+		} else if (value instanceof List<?> list) {
+			return describeAll(sb, '[', list, ']');
+		} else if (value instanceof Set<?> set) {
+			List<String> elements = new ArrayList<>(set.size());
+			for (Object element : set) {
+				StringBuilder elementSb = new StringBuilder();
+				if (!describe(elementSb, element)) return false;
+				elements.add(elementSb.toString());
+			}
+			appendSorted(sb, '{', elements, '}');
+		} else if (value instanceof Map<?, ?> map) {
+			List<String> entries = new ArrayList<>(map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				StringBuilder entrySb = new StringBuilder();
+				if (!describe(entrySb, entry.getKey()) || !describe(entrySb, entry.getValue())) return false;
+				entries.add(entrySb.toString());
+			}
+			appendSorted(sb, '<', entries, '>');
+		} else if (value instanceof Object[] array) {
+			return describeAll(sb, '(', Arrays.asList(array), ')');
+		} else {
+			return false;
+		}
+		return true;
+	}
+
+	private static void appendSorted(StringBuilder sb, char open, List<String> descriptions, char close) {
+		Collections.sort(descriptions);
+		sb.append(open);
+		for (String description : descriptions) {
+			sb.append(description);
+		}
+		sb.append(close);
+	}
+
+	private static boolean describeAll(StringBuilder sb, char open, Collection<?> values, char close) {
+		sb.append(open);
+		for (Object value : values) {
+			if (!describe(sb, value)) return false;
+		}
+		sb.append(close);
+		return true;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.codegen;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * A read-only bytecode storage that loads bytecode from resources of a class loader,
+ * such as bytecode that is pre-generated at build time and packaged into a jar
+ *
+ * @see ClassPregenerator
+ */
+public final class ClassPathBytecodeStorage extends AbstractBytecodeStorage {
+	public static final String DEFAULT_PREFIX = "META-INF/activej/codegen/";
+
+	private static final String CLASS_FILE_EXTENSION = ".class";
+
+	private final ClassLoader classLoader;
+	private final String prefix;
+
+	private ClassPathBytecodeStorage(ClassLoader classLoader, String prefix) {
+		this.classLoader = classLoader;
+		this.prefix = prefix;
+	}
+
+	/**
+	 * Creates a new {@link IBytecodeStorage} that loads bytecode from resources
+	 * of a context class loader under a {@link #DEFAULT_PREFIX default prefix}
+	 *
+	 * @return a new instance of a {@code ClassPathBytecodeStorage}
+	 */
+	public static ClassPathBytecodeStorage create() {
+		return create(Thread.currentThread().getContextClassLoader());
+	}
+
+	/**
+	 * Creates a new {@link IBytecodeStorage} that loads bytecode from resources
+	 * of a given class loader under a {@link #DEFAULT_PREFIX default prefix}
+	 *
+	 * @param classLoader a class loader to load bytecode resources from
+	 * @return a new instance of a {@code ClassPathBytecodeStorage}
+	 */
+	public static ClassPathBytecodeStorage create(ClassLoader classLoader) {
+		return create(classLoader, DEFAULT_PREFIX);
+	}
+
+	/**
+	 * Creates a new {@link IBytecodeStorage} that loads bytecode from resources
+	 * of a given class loader under a given prefix
+	 *
+	 * @param classLoader a class loader to load bytecode resources from
+	 * @param prefix      a prefix of bytecode resources, such as a directory path
+	 * @return a new instance of a {@code ClassPathBytecodeStorage}
+	 */
+	public static ClassPathBytecodeStorage create(ClassLoader classLoader, String prefix) {
+		return new ClassPathBytecodeStorage(classLoader, prefix);
+	}
+
+	@Override
+	protected Optional<InputStream> getInputStream(String className) {
+		return Optional.ofNullable(classLoader.getResourceAsStream(prefix + className + CLASS_FILE_EXTENSION));
+	}
+
+	@Override
+	protected Optional<OutputStream> getOutputStream(String className) {
+		return Optional.empty();
+	}
+}
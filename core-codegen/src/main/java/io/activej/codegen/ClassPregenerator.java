@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.codegen;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Generates classes ahead of time, so that at runtime they are loaded
+ * by a {@link ClassPathBytecodeStorage} instead of being generated.
+ * <p>
+ * Pregeneration is meant to be run as a build step once classes are compiled,
+ * for example, by {@code exec-maven-plugin} at {@code process-classes} phase,
+ * with an output directory set to a directory of compiled classes, so that
+ * pre-generated bytecode is packaged into a jar.
+ * <p>
+ * Each {@link Task} should ensure classes by either {@link DefiningClassLoader#ensureClass(String, java.util.function.Supplier) class names}
+ * or {@link DefiningClassLoader#ensureClass(ClassKey, java.util.function.Supplier) class keys} the same way as they are ensured at runtime.
+ * Classes that are missing from a storage at runtime are generated as usual.
+ * <p>
+ * At runtime, a {@link DefiningClassLoader} should be built with a {@link ClassPathBytecodeStorage}
+ * and {@link DefiningClassLoader.Builder#withPersistentClassKeys() persistent class keys} enabled.
+ */
+public final class ClassPregenerator {
+
+	/**
+	 * A task that ensures classes that should be pre-generated
+	 */
+	public interface Task {
+		void pregenerate(DefiningClassLoader classLoader) throws Exception;
+	}
+
+	/**
+	 * Runs given tasks, saving bytecode of ensured classes to a given output directory
+	 * under a {@link ClassPathBytecodeStorage#DEFAULT_PREFIX default prefix}
+	 *
+	 * @param outputDir an output directory, such as a directory of compiled classes
+	 * @param tasks     tasks that ensure classes to be pre-generated
+	 */
+	public static void pregenerate(Path outputDir, List<? extends Task> tasks) throws Exception {
+		Path storageDir = outputDir.resolve(ClassPathBytecodeStorage.DEFAULT_PREFIX);
+		Files.createDirectories(storageDir);
+		DefiningClassLoader classLoader = DefiningClassLoader.builder()
+			.withBytecodeStorage(FileBytecodeStorage.create(storageDir))
+			.withPersistentClassKeys()
+			.build();
+		for (Task task : tasks) {
+			task.pregenerate(classLoader);
+		}
+	}
+
+	/**
+	 * Usage: {@code ClassPregenerator <output directory> [<task class name>...]}
+	 * <p>
+	 * If no task class names are given, tasks are located by a {@link ServiceLoader}
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length == 0) {
+			throw new IllegalArgumentException("Usage: ClassPregenerator <output directory> [<task class name>...]");
+		}
+		List<Task> tasks = new ArrayList<>();
+		if (args.length == 1) {
+			ServiceLoader.load(Task.class).forEach(tasks::add);
+		} else {
+			for (int i = 1; i < args.length; i++) {
+				tasks.add((Task) Class.forName(args[i]).getConstructor().newInstance());
+			}
+		}
+		pregenerate(Path.of(args[0]), tasks);
+	}
+}
@@ -61,6 +61,7 @@ public final class DefiningClassLoader extends ClassLoader implements DefiningCl
 	private final Map<ClassKey<?>, AtomicReference<Class<?>>> cachedClasses = new ConcurrentHashMap<>();
 
 	private @Nullable IBytecodeStorage bytecodeStorage;
+	private boolean persistentClassKeys;
 
 	private Path debugOutputDir = DEFAULT_DEBUG_OUTPUT_DIR;
 
@@ -115,6 +116,20 @@ public final class DefiningClassLoader extends ClassLoader implements DefiningCl
 			return this;
 		}
 
+		/**
+		 * Enables persistent caching of classes that are ensured by {@link ClassKey class keys}
+		 * which have a {@link ClassKey#getPersistentClassName() persistent class name}.
+		 * <p>
+		 * By default, only classes ensured by class names are persisted. This should only be enabled
+		 * for a storage of classes that are pre-generated by the same version of a generating code,
+		 * such as a {@link ClassPathBytecodeStorage}, see {@link ClassPregenerator}
+		 */
+		public Builder withPersistentClassKeys() {
+			checkNotBuilt(this);
+			DefiningClassLoader.this.persistentClassKeys = true;
+			return this;
+		}
+
 		/**
 		 * Writes all classes to the specified directory once a class is defined.
 		 * <p>
@@ -164,11 +179,22 @@ public final class DefiningClassLoader extends ClassLoader implements DefiningCl
 	}
 
 	/**
-	 * Ensures that a class of a given name is present
+	 * Ensures that a class of a given key is present
+	 * <p>
+	 * If a persistent {@link IBytecodeStorage} is set, {@link Builder#withPersistentClassKeys() persistent class keys} are enabled
+	 * and a key has a {@link ClassKey#getPersistentClassName() persistent class name},
+	 * a class is also looked up in and saved to the storage by that name, same as by {@link #ensureClass(String, BiFunction)}
 	 *
-	 * @see #ensureClass(String, BiFunction)
+	 * @see #ensureClass(ClassKey, Function)
 	 */
 	public <T> Class<T> ensureClass(ClassKey<T> key, Supplier<ClassGenerator<T>> classGenerator) {
+		if (bytecodeStorage != null && persistentClassKeys) {
+			String className = key.getPersistentClassName();
+			if (className != null) {
+				return ensureCachedClass(key, () ->
+					ensureClass(className, (classLoader, name) -> classGenerator.get().generateBytecode(classLoader, name)));
+			}
+		}
 		return ensureClass(key, classLoader -> classGenerator.get().generateBytecode(classLoader));
 	}
 
@@ -204,6 +230,7 @@ public final class DefiningClassLoader extends ClassLoader implements DefiningCl
 	 * <p>
 	 * If a persistent {@link IBytecodeStorage} is set, a generated bytecode would be stored in the storage. This way
 	 * the cache would survive application restarts, which would allow optimizing startup time.
+	 * A bytecode that refers to runtime constants is not stored, see {@link GeneratedBytecode#isSelfContained()}.
 	 *
 	 * @param className       a desired name of a class
 	 * @param bytecodeBuilder factory that creates a {@link GeneratedBytecode} out of {@code this} {@link DefiningClassLoader}
@@ -228,7 +255,7 @@ public final class DefiningClassLoader extends ClassLoader implements DefiningCl
 
 			try (GeneratedBytecode generatedBytecode = bytecodeBuilder.apply(this, className)) {
 				Class<T> generatedClass = (Class<T>) generatedBytecode.generateClass(this);
-				if (bytecodeStorage != null) {
+				if (bytecodeStorage != null && generatedBytecode.isSelfContained()) {
 					bytecodeStorage.saveBytecode(className, generatedBytecode.getBytecode());
 				}
 				return generatedClass;
@@ -252,15 +279,21 @@ public final class DefiningClassLoader extends ClassLoader implements DefiningCl
 	 * @return an ensured class
 	 */
 	public <T> Class<T> ensureClass(ClassKey<T> key, Function<ClassLoader, GeneratedBytecode> bytecodeBuilder) {
+		return ensureCachedClass(key, () -> {
+			try (GeneratedBytecode generatedBytecode = bytecodeBuilder.apply(this)) {
+				return generatedBytecode.generateClass(this);
+			}
+		});
+	}
+
+	private <T> Class<T> ensureCachedClass(ClassKey<T> key, Supplier<Class<?>> classSupplier) {
 		AtomicReference<Class<?>> reference = cachedClasses.computeIfAbsent(key, k -> new AtomicReference<>());
 		Class<?> generatedClass = reference.get();
 		if (generatedClass == null) {
 			synchronized (reference) {
 				generatedClass = reference.get();
 				if (generatedClass == null) {
-					try (GeneratedBytecode generatedBytecode = bytecodeBuilder.apply(this)) {
-						generatedClass = generatedBytecode.generateClass(this);
-					}
+					generatedClass = classSupplier.get();
 					reference.set(generatedClass);
 				}
 			}
@@ -36,6 +36,14 @@ public class GeneratedBytecode implements AutoCloseable {
 		return bytecode;
 	}
 
+	/**
+	 * Returns whether this bytecode may be defined in another JVM,
+	 * that is, whether it does not refer to any runtime constants of this JVM
+	 */
+	public boolean isSelfContained() {
+		return true;
+	}
+
 	public final Class<?> generateClass(DefiningClassLoader classLoader) {
 		Class<?> generatedClass = classLoader.defineClass(className, bytecode);
 		touchGeneratedClass(generatedClass);
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.codegen.expression;
+
+import io.activej.codegen.ClassGenerator;
+import io.activej.codegen.expression.impl.Let;
+import io.activej.codegen.expression.impl.VarArg;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static io.activej.codegen.expression.Expressions.*;
+
+/**
+ * An implementation of a single abstract method of a functional interface,
+ * defined as a function of argument expressions
+ * <p>
+ * A lambda may be {@link #invoke invoked} from another expression, in which case its body
+ * is inlined into a calling method, or materialized as a class that implements the functional interface.
+ * Lambdas composed by {@link #andThen}, {@link #and}, {@link #or} and {@link #negate} are fused
+ * into a single method, so that intermediate primitive values are not boxed when primitive-specialized
+ * functional interfaces, like {@link java.util.function.ToLongFunction} or {@link java.util.function.IntPredicate}, are used
+ * <p>
+ * Instances of materialized lambdas implement {@link Materialized} and remember the lambda they were generated from.
+ * Calls of a functional method on such an instance used as a {@link Expressions#value(Object) constant}
+ * are inlined as well
+ * <p>
+ * A body of a lambda should depend only on its arguments and constants
+ */
+public final class Lambda {
+	public static final String LAMBDA_FIELD = "$LAMBDA";
+
+	private final Class<?> functionalInterface;
+	private final Method method;
+	private final Function<List<Expression>, Expression> body;
+
+	/**
+	 * A marker of instances generated by {@link #toClassGenerator()}, only calls on such
+	 * instances are considered for inlining
+	 */
+	public interface Materialized {
+		Lambda getLambda();
+	}
+
+	private Lambda(Class<?> functionalInterface, Method method, Function<List<Expression>, Expression> body) {
+		this.functionalInterface = functionalInterface;
+		this.method = method;
+		this.body = body;
+	}
+
+	public static Lambda of(Class<?> functionalInterface, Supplier<Expression> body) {
+		return of(functionalInterface, 0, args -> body.get());
+	}
+
+	public static Lambda of(Class<?> functionalInterface, UnaryOperator<Expression> body) {
+		return of(functionalInterface, 1, args -> body.apply(args.get(0)));
+	}
+
+	public static Lambda of(Class<?> functionalInterface, BinaryOperator<Expression> body) {
+		return of(functionalInterface, 2, args -> body.apply(args.get(0), args.get(1)));
+	}
+
+	private static Lambda of(Class<?> functionalInterface, int arity, Function<List<Expression>, Expression> body) {
+		Method method = functionalMethod(functionalInterface);
+		if (method.getParameterCount() != arity) {
+			throw new IllegalArgumentException("Method " + method + " has " + method.getParameterCount() + " parameters, " +
+				"while lambda has " + arity);
+		}
+		return new Lambda(functionalInterface, method, body);
+	}
+
+	/**
+	 * Returns a lambda that a given generated instance was materialized from, if any
+	 */
+	public static @Nullable Lambda ofInstance(Object instance) {
+		return instance instanceof Materialized materialized ? materialized.getLambda() : null;
+	}
+
+	public Class<?> getFunctionalInterface() {
+		return functionalInterface;
+	}
+
+	public Method getMethod() {
+		return method;
+	}
+
+	public int getArity() {
+		return method.getParameterCount();
+	}
+
+	/**
+	 * Returns an expression that evaluates a body of this lambda in place, with given arguments
+	 * <p>
+	 * Each argument is evaluated exactly once and is converted to a type of the corresponding parameter,
+	 * the result is converted to a return type of the functional method
+	 */
+	public Expression invoke(Expression... arguments) {
+		return invoke(List.of(arguments));
+	}
+
+	public Expression invoke(List<Expression> arguments) {
+		return cast(inline(arguments), method.getReturnType());
+	}
+
+	/**
+	 * Returns a lambda of a given functional interface that passes a result of this lambda to another one
+	 */
+	public Lambda andThen(Class<?> functionalInterface, Lambda after) {
+		if (after.getArity() != 1) {
+			throw new IllegalArgumentException("Lambda should have a single parameter: " + after.method);
+		}
+		return of(functionalInterface, getArity(), args -> after.inline(List.of(invoke(args))));
+	}
+
+	public Lambda and(Lambda other) {
+		checkPredicates(other);
+		return new Lambda(functionalInterface, method, args -> Expressions.and(invoke(args), other.invoke(args)));
+	}
+
+	public Lambda or(Lambda other) {
+		checkPredicates(other);
+		return new Lambda(functionalInterface, method, args -> Expressions.or(invoke(args), other.invoke(args)));
+	}
+
+	public Lambda negate() {
+		checkPredicates(this);
+		return new Lambda(functionalInterface, method, args -> not(invoke(args)));
+	}
+
+	/**
+	 * Returns a class generator of a class that implements the functional interface with this lambda
+	 */
+	public <T> ClassGenerator<T> toClassGenerator() {
+		List<Expression> args = new ArrayList<>();
+		for (int i = 0; i < method.getParameterCount(); i++) {
+			args.add(arg(i));
+		}
+		//noinspection unchecked
+		return ClassGenerator.builder((Class<T>) functionalInterface, Materialized.class)
+			.withStaticFinalField(LAMBDA_FIELD, Lambda.class, value(this))
+			.withMethod("getLambda", Lambda.class, List.of(), staticField(LAMBDA_FIELD))
+			.withMethod(method.getName(), method.getReturnType(), List.of(method.getParameterTypes()),
+				cast(body.apply(args), method.getReturnType()))
+			.build();
+	}
+
+	private Expression inline(List<Expression> arguments) {
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		if (arguments.size() != parameterTypes.length) {
+			throw new IllegalArgumentException("Method " + method + " has " + parameterTypes.length + " parameters, " +
+				"while " + arguments.size() + " arguments are given");
+		}
+		List<Expression> bound = new ArrayList<>(arguments.size());
+		List<Expression> casted = new ArrayList<>(arguments.size());
+		for (int i = 0; i < parameterTypes.length; i++) {
+			Expression argument = arguments.get(i);
+			if (argument instanceof Let || argument instanceof VarArg) {
+				bound.add(argument);
+			} else {
+				bound.add(null);
+				casted.add(cast(argument, parameterTypes[i]));
+			}
+		}
+		if (casted.isEmpty()) {
+			return body.apply(bound);
+		}
+		return let(casted, variables -> {
+			List<Expression> args = new ArrayList<>(bound);
+			for (int i = 0, j = 0; i < args.size(); i++) {
+				if (args.get(i) == null) {
+					args.set(i, variables[j++]);
+				}
+			}
+			return body.apply(args);
+		});
+	}
+
+	private void checkPredicates(Lambda other) {
+		if (method.getReturnType() != boolean.class || other.method.getReturnType() != boolean.class) {
+			throw new IllegalArgumentException("Both lambdas should return boolean");
+		}
+		if (getArity() != other.getArity()) {
+			throw new IllegalArgumentException("Lambdas should have the same number of parameters");
+		}
+	}
+
+	private static Method functionalMethod(Class<?> functionalInterface) {
+		if (!functionalInterface.isInterface()) {
+			throw new IllegalArgumentException("Not an interface: " + functionalInterface.getName());
+		}
+		Method found = null;
+		for (Method method : functionalInterface.getMethods()) {
+			if (!Modifier.isAbstract(method.getModifiers()) || isObjectMethod(method)) continue;
+			if (found != null) {
+				throw new IllegalArgumentException("Not a functional interface: " + functionalInterface.getName());
+			}
+			found = method;
+		}
+		if (found == null) {
+			throw new IllegalArgumentException("Not a functional interface: " + functionalInterface.getName());
+		}
+		return found;
+	}
+
+	private static boolean isObjectMethod(Method method) {
+		try {
+			Object.class.getMethod(method.getName(), method.getParameterTypes());
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Lambda{" + functionalInterface.getName() + '.' + method.getName() +
+			Arrays.toString(method.getParameterTypes()) + '}';
+	}
+}
@@ -18,6 +18,7 @@ package io.activej.codegen.expression.impl;
 
 import io.activej.codegen.Context;
 import io.activej.codegen.expression.Expression;
+import io.activej.codegen.expression.Lambda;
 import io.activej.common.annotation.ExposedInternals;
 import org.objectweb.asm.Type;
 
@@ -35,6 +36,12 @@ public final class Call implements Expression {
 
 	@Override
 	public Type load(Context ctx) {
+		if (owner instanceof Constant constant && constant.value instanceof Lambda.Materialized materialized) {
+			Lambda lambda = materialized.getLambda();
+			if (lambda.getMethod().getName().equals(methodName) && lambda.getArity() == arguments.length) {
+				return lambda.invoke(arguments).load(ctx);
+			}
+		}
 		return ctx.invoke(owner, methodName, arguments);
 	}
 }
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.record;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import static io.activej.common.Checks.checkArgument;
+
+/**
+ * An open-addressing hash map keyed directly on some fields of records,
+ * as defined by a {@link RecordHashStrategy}
+ * <p>
+ * Lookups are performed with a record itself, so that no separate key objects are created.
+ * A record that is used to insert a new entry is stored as a key of this entry
+ * and should not be modified afterwards
+ * <p>
+ * Null values are not permitted
+ */
+public final class RecordHashMap<V> {
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private final RecordHashStrategy strategy;
+
+	private Record[] keys;
+	private Object[] values;
+	private int[] hashes;
+	private int mask;
+	private int threshold;
+	private int size;
+
+	private RecordHashMap(RecordHashStrategy strategy, int capacity) {
+		this.strategy = strategy;
+		allocate(capacity);
+	}
+
+	public static <V> RecordHashMap<V> create(RecordHashStrategy strategy) {
+		return new RecordHashMap<>(strategy, DEFAULT_CAPACITY);
+	}
+
+	public static <V> RecordHashMap<V> create(RecordHashStrategy strategy, int expectedSize) {
+		checkArgument(expectedSize >= 0, "Expected size cannot be negative");
+		return new RecordHashMap<>(strategy, capacityFor(expectedSize));
+	}
+
+	public @Nullable V get(Record key) {
+		int index = indexOf(key, strategy.hashCode(key));
+		//noinspection unchecked
+		return index >= 0 ? (V) values[index] : null;
+	}
+
+	public boolean containsKey(Record key) {
+		return indexOf(key, strategy.hashCode(key)) >= 0;
+	}
+
+	public @Nullable V put(Record key, V value) {
+		checkArgument(value != null, "Null values are not permitted");
+		int hash = strategy.hashCode(key);
+		int index = indexOf(key, hash);
+		if (index >= 0) {
+			//noinspection unchecked
+			V previous = (V) values[index];
+			values[index] = value;
+			return previous;
+		}
+		insert(~index, key, hash, value);
+		return null;
+	}
+
+	public V computeIfAbsent(Record key, Function<? super Record, ? extends V> mappingFunction) {
+		int hash = strategy.hashCode(key);
+		int index = indexOf(key, hash);
+		if (index >= 0) {
+			//noinspection unchecked
+			return (V) values[index];
+		}
+		V value = mappingFunction.apply(key);
+		checkArgument(value != null, "Null values are not permitted");
+		insert(~index, key, hash, value);
+		return value;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void forEach(BiConsumer<? super Record, ? super V> action) {
+		Record[] keys = this.keys;
+		for (int i = 0; i < keys.length; i++) {
+			Record key = keys[i];
+			if (key != null) {
+				//noinspection unchecked
+				action.accept(key, (V) values[i]);
+			}
+		}
+	}
+
+	public void clear() {
+		if (size == 0) return;
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = null;
+			values[i] = null;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Returns an index of a slot that holds a given key,
+	 * or a bitwise complement of an index of a free slot where the key should be inserted
+	 */
+	private int indexOf(Record key, int hash) {
+		Record[] keys = this.keys;
+		int[] hashes = this.hashes;
+		int mask = this.mask;
+		int index = hash & mask;
+		while (true) {
+			Record existing = keys[index];
+			if (existing == null) return ~index;
+			if (hashes[index] == hash && strategy.equals(existing, key)) return index;
+			index = (index + 1) & mask;
+		}
+	}
+
+	private void insert(int index, Record key, int hash, Object value) {
+		keys[index] = key;
+		values[index] = value;
+		hashes[index] = hash;
+		if (++size > threshold) {
+			rehash();
+		}
+	}
+
+	private void rehash() {
+		Record[] oldKeys = this.keys;
+		Object[] oldValues = this.values;
+		int[] oldHashes = this.hashes;
+		allocate(oldKeys.length * 2);
+		for (int i = 0; i < oldKeys.length; i++) {
+			Record key = oldKeys[i];
+			if (key == null) continue;
+			int hash = oldHashes[i];
+			int index = hash & mask;
+			while (keys[index] != null) {
+				index = (index + 1) & mask;
+			}
+			keys[index] = key;
+			values[index] = oldValues[i];
+			hashes[index] = hash;
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new Record[capacity];
+		values = new Object[capacity];
+		hashes = new int[capacity];
+		mask = capacity - 1;
+		threshold = capacity / 4 * 3;
+	}
+
+	private static int capacityFor(int expectedSize) {
+		int capacity = DEFAULT_CAPACITY;
+		while (capacity / 4 * 3 < expectedSize) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		forEach((key, value) -> {
+			if (sb.length() > 1) sb.append(", ");
+			sb.append(key).append('=').append(value);
+		});
+		return sb.append('}').toString();
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.record;
+
+/**
+ * A generated normalized key prefix of records of a single {@link RecordScheme}
+ * <p>
+ * Prefixes compared as unsigned longs are ordered consistently with a record comparator:
+ * if a prefix of one record is less than a prefix of another, the first record is less than the second one.
+ * Records with equal prefixes should be compared by a comparator, unless the prefix is {@link #isComplete() complete}
+ *
+ * @see RecordScheme#keyPrefix(java.util.List)
+ */
+public interface RecordKeyPrefix {
+	long prefix(Record record);
+
+	/**
+	 * Returns whether prefixes fully determine the order of records,
+	 * so that records with equal prefixes are equal with respect to a comparator
+	 */
+	boolean isComplete();
+}
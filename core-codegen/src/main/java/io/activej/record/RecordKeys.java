@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.record;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Hashing, equality and key normalization primitives used by generated
+ * {@link RecordHashStrategy} and {@link RecordKeyPrefix} classes,
+ * as well as a sort that uses normalized key prefixes
+ */
+public final class RecordKeys {
+	public static final long SEED = 0x2d358dccaa6c78a5L;
+
+	private static final long P0 = 0xa0761d6478bd642fL;
+	private static final long P1 = 0xe7037ed1a0b428dbL;
+	private static final long P2 = 0x8ebc6af09c88c6e3L;
+
+	private static final int INSERTION_SORT_THRESHOLD = 16;
+
+	// region hashing
+	public static long hash(long h, long value) {
+		return mum(h ^ P0, value ^ P1);
+	}
+
+	public static long hash(long h, int value) {
+		return hash(h, (long) value);
+	}
+
+	public static long hash(long h, short value) {
+		return hash(h, (long) value);
+	}
+
+	public static long hash(long h, char value) {
+		return hash(h, (long) value);
+	}
+
+	public static long hash(long h, byte value) {
+		return hash(h, (long) value);
+	}
+
+	public static long hash(long h, boolean value) {
+		return hash(h, value ? 1L : 0L);
+	}
+
+	public static long hash(long h, float value) {
+		return hash(h, (long) Float.floatToIntBits(value));
+	}
+
+	public static long hash(long h, double value) {
+		return hash(h, Double.doubleToLongBits(value));
+	}
+
+	public static long hash(long h, Object value) {
+		return hash(h, (long) Objects.hashCode(value));
+	}
+
+	public static int finish(long h) {
+		h = mum(h, P2);
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private static long mum(long a, long b) {
+		return Math.multiplyHigh(a, b) ^ (a * b);
+	}
+	// endregion
+
+	// region equality
+	public static boolean equals(long left, long right) {
+		return left == right;
+	}
+
+	public static boolean equals(int left, int right) {
+		return left == right;
+	}
+
+	public static boolean equals(short left, short right) {
+		return left == right;
+	}
+
+	public static boolean equals(char left, char right) {
+		return left == right;
+	}
+
+	public static boolean equals(byte left, byte right) {
+		return left == right;
+	}
+
+	public static boolean equals(boolean left, boolean right) {
+		return left == right;
+	}
+
+	public static boolean equals(float left, float right) {
+		return Float.floatToIntBits(left) == Float.floatToIntBits(right);
+	}
+
+	public static boolean equals(double left, double right) {
+		return Double.doubleToLongBits(left) == Double.doubleToLongBits(right);
+	}
+
+	public static boolean equals(Object left, Object right) {
+		return Objects.equals(left, right);
+	}
+	// endregion
+
+	// region normalization
+	public static long normalize(boolean value) {
+		return value ? 1L : 0L;
+	}
+
+	public static long normalize(byte value) {
+		return (value ^ Byte.MIN_VALUE) & 0xFFL;
+	}
+
+	public static long normalize(short value) {
+		return (value ^ Short.MIN_VALUE) & 0xFFFFL;
+	}
+
+	public static long normalize(char value) {
+		return value;
+	}
+
+	public static long normalize(int value) {
+		return (value ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+	}
+
+	public static long normalize(long value) {
+		return value ^ Long.MIN_VALUE;
+	}
+
+	public static long normalize(float value) {
+		int bits = Float.floatToIntBits(value);
+		return (bits ^ ((bits >> 31) | Integer.MIN_VALUE)) & 0xFFFFFFFFL;
+	}
+
+	public static long normalize(double value) {
+		long bits = Double.doubleToLongBits(value);
+		return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+	}
+
+	public static long charAt(String value, int index) {
+		return index < value.length() ? value.charAt(index) : 0L;
+	}
+	// endregion
+
+	/**
+	 * Sorts a range of records, comparing their normalized key prefixes first
+	 * and falling back to a comparator only when prefixes are equal and incomplete
+	 * <p>
+	 * The sort is stable
+	 */
+	public static void sort(Record[] records, int from, int to, RecordKeyPrefix keyPrefix, Comparator<Record> comparator) {
+		int size = to - from;
+		if (size < 2) return;
+		long[] prefixes = new long[size];
+		Record[] sorted = new Record[size];
+		for (int i = 0; i < size; i++) {
+			Record record = records[from + i];
+			prefixes[i] = keyPrefix.prefix(record);
+			sorted[i] = record;
+		}
+		Comparator<Record> tieBreaker = keyPrefix.isComplete() ? null : comparator;
+		mergeSort(prefixes, sorted, prefixes.clone(), sorted.clone(), 0, size, tieBreaker);
+		System.arraycopy(sorted, 0, records, from, size);
+	}
+
+	private static void mergeSort(long[] prefixes, Record[] records, long[] tmpPrefixes, Record[] tmpRecords,
+		int from, int to, Comparator<Record> tieBreaker
+	) {
+		if (to - from <= INSERTION_SORT_THRESHOLD) {
+			for (int i = from + 1; i < to; i++) {
+				long prefix = prefixes[i];
+				Record record = records[i];
+				int j = i - 1;
+				while (j >= from && compare(prefixes[j], records[j], prefix, record, tieBreaker) > 0) {
+					prefixes[j + 1] = prefixes[j];
+					records[j + 1] = records[j];
+					j--;
+				}
+				prefixes[j + 1] = prefix;
+				records[j + 1] = record;
+			}
+			return;
+		}
+		int mid = (from + to) >>> 1;
+		// halves are sorted into temporary arrays and then merged back
+		mergeSort(tmpPrefixes, tmpRecords, prefixes, records, from, mid, tieBreaker);
+		mergeSort(tmpPrefixes, tmpRecords, prefixes, records, mid, to, tieBreaker);
+		for (int i = from, l = from, r = mid; i < to; i++) {
+			if (r >= to || l < mid && compare(tmpPrefixes[l], tmpRecords[l], tmpPrefixes[r], tmpRecords[r], tieBreaker) <= 0) {
+				prefixes[i] = tmpPrefixes[l];
+				records[i] = tmpRecords[l++];
+			} else {
+				prefixes[i] = tmpPrefixes[r];
+				records[i] = tmpRecords[r++];
+			}
+		}
+	}
+
+	private static int compare(long leftPrefix, Record left, long rightPrefix, Record right, Comparator<Record> tieBreaker) {
+		int result = Long.compareUnsigned(leftPrefix, rightPrefix);
+		if (result != 0 || tieBreaker == null) return result;
+		return tieBreaker.compare(left, right);
+	}
+}
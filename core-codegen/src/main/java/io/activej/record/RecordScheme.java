@@ -54,6 +54,8 @@ public final class RecordScheme {
 	private final LinkedHashMap<String, Type> fieldToType;
 	private final LinkedHashMap<String, Integer> fieldToIndex;
 
+	private final List<String> hashCodeEqualsFields;
+
 	private final @Nullable Comparator<Record> comparator;
 	private final @Nullable List<String> comparatorFields;
 
@@ -172,6 +174,7 @@ public final class RecordScheme {
 		this.fieldsList = Arrays.asList(this.fields);
 		this.typesList = Arrays.asList(this.types);
 		this.recordClassFields = builder.recordClassFields;
+		this.hashCodeEqualsFields = List.copyOf(hashCodeEqualsFields);
 		this.comparator = comparator;
 		this.comparatorFields = builder.comparatorFields;
 		this.classLoader = builder.classLoader;
@@ -349,6 +352,172 @@ public final class RecordScheme {
 		return comparatorFields;
 	}
 
+	public List<String> getHashCodeEqualsFields() {
+		return hashCodeEqualsFields;
+	}
+
+	/**
+	 * Returns a generated hashing strategy over the fields used in {@code hashCode} and {@code equals} of records
+	 */
+	public RecordHashStrategy hashStrategy() {
+		return hashStrategy(hashCodeEqualsFields);
+	}
+
+	public RecordHashStrategy hashStrategy(String... fields) {
+		return hashStrategy(List.of(fields));
+	}
+
+	/**
+	 * Returns a generated hashing strategy over given fields of records
+	 * <p>
+	 * Unlike {@link Record#hashCode()}, field values are combined with a multiply-fold mixing,
+	 * so that hash codes are well distributed across all bits and may be used by open-addressing hash tables
+	 *
+	 * @see RecordHashMap
+	 */
+	public RecordHashStrategy hashStrategy(List<String> fields) {
+		checkFields(fields);
+		return classLoader.ensureClassAndCreateInstance(
+			ClassKey.of(RecordHashStrategy.class, recordClass, fields),
+			() -> ClassGenerator.builder(RecordHashStrategy.class)
+				.withMethod("hashCode", int.class, List.of(Record.class),
+					hashStrategyHashCode(fields))
+				.withMethod("equals", boolean.class, List.of(Record.class, Record.class),
+					and(fields.stream()
+						.map(field -> staticCall(RecordKeys.class, "equals",
+							property(cast(arg(0), recordClass), field),
+							property(cast(arg(1), recordClass), field)))))
+				.build());
+	}
+
+	/**
+	 * Returns a generated normalized key prefix over the comparator fields
+	 *
+	 * @throws IllegalStateException if comparator fields are not defined
+	 */
+	public RecordKeyPrefix keyPrefix() {
+		if (comparatorFields == null) {
+			throw new IllegalStateException("Comparator fields are not defined");
+		}
+		return keyPrefix(comparatorFields);
+	}
+
+	public RecordKeyPrefix keyPrefix(String... fields) {
+		return keyPrefix(List.of(fields));
+	}
+
+	/**
+	 * Returns a generated normalized key prefix over given fields of records
+	 * <p>
+	 * The fields are packed into 64 bits in order, each normalized so that unsigned comparison
+	 * of the prefixes is consistent with a comparator over the same fields.
+	 * Nullable fields take an extra leading bit, strings contribute their leading characters.
+	 * A field that does not fit is truncated, and fields of other types end the prefix
+	 *
+	 * @see RecordKeys#sort
+	 */
+	public RecordKeyPrefix keyPrefix(List<String> fields) {
+		checkFields(fields);
+		List<Expression> segments = new ArrayList<>();
+		boolean complete = true;
+		int remaining = Long.SIZE;
+		for (String field : fields) {
+			if (remaining == 0) {
+				complete = false;
+				break;
+			}
+			Type type = getFieldType(field);
+			Expression property = property(cast(arg(0), recordClass), field);
+			Class<?> primitiveType = type instanceof Class<?> cls ? primitiveType(cls) : null;
+			if (primitiveType != null) {
+				if (primitiveType != type) {
+					segments.add(prefixSegment(ifNull(property, value(0L), value(1L)), 1, remaining));
+					remaining--;
+					if (remaining == 0) {
+						complete = false;
+						break;
+					}
+					property = ifNull(property, value(0L), staticCall(RecordKeys.class, "normalize", cast(property, primitiveType)));
+				} else {
+					property = staticCall(RecordKeys.class, "normalize", property);
+				}
+				int width = prefixWidth(primitiveType);
+				segments.add(prefixSegment(property, width, remaining));
+				if (width > remaining) {
+					complete = false;
+					break;
+				}
+				remaining -= width;
+			} else if (type == String.class) {
+				segments.add(prefixSegment(ifNull(property, value(0L), value(1L)), 1, remaining));
+				remaining--;
+				for (int i = 0; remaining > 0; i++) {
+					segments.add(prefixSegment(
+						ifNull(property, value(0L), staticCall(RecordKeys.class, "charAt", property, value(i))),
+						Character.SIZE, remaining));
+					remaining -= Math.min(Character.SIZE, remaining);
+				}
+				complete = false;
+				break;
+			} else {
+				complete = false;
+				break;
+			}
+		}
+		boolean isComplete = complete;
+		return classLoader.ensureClassAndCreateInstance(
+			ClassKey.of(RecordKeyPrefix.class, recordClass, fields),
+			() -> ClassGenerator.builder(RecordKeyPrefix.class)
+				.withMethod("prefix", long.class, List.of(Record.class),
+					segments.stream()
+						.reduce((segment1, segment2) -> bitOr(segment1, segment2))
+						.orElse(value(0L)))
+				.withMethod("isComplete", value(isComplete))
+				.build());
+	}
+
+	private Expression hashStrategyHashCode(List<String> fields) {
+		Expression hash = value(RecordKeys.SEED);
+		for (String field : fields) {
+			hash = staticCall(RecordKeys.class, "hash", hash, property(cast(arg(0), recordClass), field));
+		}
+		return staticCall(RecordKeys.class, "finish", hash);
+	}
+
+	private static Expression prefixSegment(Expression normalized, int width, int remaining) {
+		return width <= remaining ?
+			shl(normalized, value(remaining - width)) :
+			ushr(normalized, value(width - remaining));
+	}
+
+	private static @Nullable Class<?> primitiveType(Class<?> type) {
+		if (type.isPrimitive()) return type == void.class ? null : type;
+		if (type == Boolean.class) return boolean.class;
+		if (type == Character.class) return char.class;
+		if (type == Byte.class) return byte.class;
+		if (type == Short.class) return short.class;
+		if (type == Integer.class) return int.class;
+		if (type == Long.class) return long.class;
+		if (type == Float.class) return float.class;
+		if (type == Double.class) return double.class;
+		return null;
+	}
+
+	private static int prefixWidth(Class<?> primitiveType) {
+		if (primitiveType == boolean.class) return 1;
+		if (primitiveType == byte.class) return Byte.SIZE;
+		if (primitiveType == short.class || primitiveType == char.class) return Short.SIZE;
+		if (primitiveType == int.class || primitiveType == float.class) return Integer.SIZE;
+		return Long.SIZE;
+	}
+
+	private void checkFields(List<String> fields) {
+		for (String field : fields) {
+			getRecordClassField(field);
+		}
+		checkUnique(fields);
+	}
+
 	public int size() {
 		return fields.length;
 	}
@@ -0,0 +1,124 @@
+package io.activej.codegen;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static io.activej.codegen.expression.Expressions.value;
+import static org.junit.Assert.*;
+
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class ClassPregeneratorTest {
+	private static final String CLASS_NAME = "io.activej.codegen.PregeneratedSupplier";
+	private static final ClassKey<Supplier> CLASS_KEY = ClassKey.of(Supplier.class, "pregenerated", List.of(1, 2));
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testPregeneratedClassesAreLoaded() throws Exception {
+		Path outputDir = temporaryFolder.newFolder().toPath();
+		ClassPregenerator.pregenerate(outputDir, List.of(
+			classLoader -> classLoader.ensureClass(CLASS_NAME, () -> supplierOf("by name")),
+			classLoader -> classLoader.ensureClass(CLASS_KEY, () -> supplierOf("by key"))));
+
+		DefiningClassLoader classLoader = runtimeClassLoader(outputDir);
+		Class<Supplier> byName = classLoader.ensureClass(CLASS_NAME, failingSupplier());
+		Class<Supplier> byKey = classLoader.ensureClass(CLASS_KEY, failingSupplier());
+
+		assertEquals("by name", byName.getConstructor().newInstance().get());
+		assertEquals("by key", byKey.getConstructor().newInstance().get());
+		assertEquals(CLASS_KEY.getPersistentClassName(), byKey.getName());
+		assertSame(byKey, classLoader.ensureClass(CLASS_KEY, failingSupplier()));
+	}
+
+	@Test
+	public void testMissingClassIsGenerated() throws Exception {
+		Path outputDir = temporaryFolder.newFolder().toPath();
+		ClassPregenerator.pregenerate(outputDir, List.of());
+
+		DefiningClassLoader classLoader = runtimeClassLoader(outputDir);
+		Class<Supplier> byName = classLoader.ensureClass(CLASS_NAME, () -> supplierOf("generated"));
+		assertEquals("generated", byName.getConstructor().newInstance().get());
+	}
+
+	@Test
+	public void testRuntimeConstantsAreNotPersisted() throws Exception {
+		Path outputDir = temporaryFolder.newFolder().toPath();
+		ClassPregenerator.pregenerate(outputDir, List.of(
+			classLoader -> classLoader.ensureClass(CLASS_NAME, () -> ClassGenerator.builder(Supplier.class)
+				.withMethod("get", value(new ArrayList<>(), List.class))
+				.build())));
+
+		assertFalse(Files.exists(outputDir.resolve(ClassPathBytecodeStorage.DEFAULT_PREFIX + CLASS_NAME + ".class")));
+	}
+
+	@Test
+	public void testClassKeysAreNotPersistedByDefault() throws Exception {
+		Path storageDir = temporaryFolder.newFolder().toPath();
+		DefiningClassLoader classLoader = DefiningClassLoader.builder()
+			.withBytecodeStorage(FileBytecodeStorage.create(storageDir))
+			.build();
+		Class<Supplier> byKey = classLoader.ensureClass(CLASS_KEY, () -> supplierOf("by key"));
+
+		assertNotEquals(CLASS_KEY.getPersistentClassName(), byKey.getName());
+		try (var files = Files.list(storageDir)) {
+			assertEquals(0, files.count());
+		}
+	}
+
+	@Test
+	public void testPersistentClassName() {
+		assertEquals(
+			ClassKey.of(Supplier.class, String.class, List.of("a", "b")).getPersistentClassName(),
+			ClassKey.of(Supplier.class, String.class, List.of("a", "b")).getPersistentClassName());
+		assertNotEquals(
+			ClassKey.of(Supplier.class, List.of("a", "b")).getPersistentClassName(),
+			ClassKey.of(Supplier.class, List.of("ab")).getPersistentClassName());
+		assertNotEquals(
+			ClassKey.of(Supplier.class, List.of("a")).getPersistentClassName(),
+			ClassKey.of(Supplier.class, Set.of("a")).getPersistentClassName());
+		assertNull(ClassKey.of(Supplier.class, new Object()).getPersistentClassName());
+
+		// sets and maps are described regardless of their iteration order
+		assertEquals(
+			ClassKey.of(Supplier.class, new LinkedHashSet<>(List.of(String.class, Integer.class))).getPersistentClassName(),
+			ClassKey.of(Supplier.class, new LinkedHashSet<>(List.of(Integer.class, String.class))).getPersistentClassName());
+		Map<Object, Object> map1 = new LinkedHashMap<>();
+		map1.put(String.class, "a");
+		map1.put(Integer.class, "b");
+		Map<Object, Object> map2 = new LinkedHashMap<>();
+		map2.put(Integer.class, "b");
+		map2.put(String.class, "a");
+		assertEquals(
+			ClassKey.of(Supplier.class, map1).getPersistentClassName(),
+			ClassKey.of(Supplier.class, map2).getPersistentClassName());
+	}
+
+	private static DefiningClassLoader runtimeClassLoader(Path outputDir) throws Exception {
+		URLClassLoader resources = new URLClassLoader(new URL[]{outputDir.toUri().toURL()}, null);
+		return DefiningClassLoader.builder()
+			.withBytecodeStorage(ClassPathBytecodeStorage.create(resources))
+			.withPersistentClassKeys()
+			.build();
+	}
+
+	private static ClassGenerator<Supplier> supplierOf(String value) {
+		return ClassGenerator.builder(Supplier.class)
+			.withMethod("get", value(value))
+			.build();
+	}
+
+	private static Supplier<ClassGenerator<Supplier>> failingSupplier() {
+		return () -> {
+			throw new AssertionError();
+		};
+	}
+}
@@ -0,0 +1,119 @@
+package io.activej.codegen.expression;
+
+import io.activej.codegen.ClassGenerator;
+import io.activej.codegen.DefiningClassLoader;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.function.*;
+
+import static io.activej.codegen.expression.Expressions.*;
+import static org.junit.Assert.*;
+
+public class LambdaTest {
+	private static final DefiningClassLoader CLASS_LOADER = DefiningClassLoader.create();
+
+	@Before
+	public void setUp() {
+		ClassGenerator.clearStaticConstants();
+	}
+
+	@Test
+	public void testPrimitiveFunctionalInterfaces() {
+		Lambda length = Lambda.of(ToLongFunction.class, s -> cast(call(cast(s, String.class), "length"), long.class));
+		Lambda isEven = Lambda.of(IntPredicate.class, i -> isEq(bitAnd(i, value(1)), value(0)));
+		Lambda sum = Lambda.of(LongBinaryOperator.class, (a, b) -> add(a, b));
+
+		ToLongFunction<String> lengthFn = create(length);
+		IntPredicate isEvenFn = create(isEven);
+		LongBinaryOperator sumFn = create(sum);
+
+		assertEquals(3L, lengthFn.applyAsLong("abc"));
+		assertTrue(isEvenFn.test(2));
+		assertFalse(isEvenFn.test(3));
+		assertEquals(5L, sumFn.applyAsLong(2L, 3L));
+	}
+
+	@Test
+	public void testFusion() {
+		Lambda length = Lambda.of(ToLongFunction.class, s -> cast(call(cast(s, String.class), "length"), long.class));
+		Lambda greaterThan3 = Lambda.of(LongPredicate.class, l -> isGt(l, value(3L)));
+		Lambda lessThan6 = Lambda.of(LongPredicate.class, l -> isLt(l, value(6L)));
+
+		Lambda fused = length.andThen(Predicate.class, greaterThan3.and(lessThan6));
+		Predicate<String> predicate = create(fused);
+		assertFalse(predicate.test("abc"));
+		assertTrue(predicate.test("abcd"));
+		assertTrue(predicate.test("abcde"));
+		assertFalse(predicate.test("abcdef"));
+
+		Predicate<String> negated = create(length.andThen(Predicate.class, greaterThan3.negate().or(lessThan6.negate())));
+		assertTrue(negated.test("abc"));
+		assertFalse(negated.test("abcd"));
+		assertTrue(negated.test("abcdef"));
+	}
+
+	@Test
+	public void testInvoke() {
+		Lambda sum = Lambda.of(IntBinaryOperator.class, (a, b) -> add(a, b));
+		Supplier<Integer> supplier = ClassGenerator.builder(Supplier.class)
+			.withMethod("get", sum.invoke(value(1), sum.invoke(value(2), value(3))))
+			.build()
+			.generateClassAndCreateInstance(CLASS_LOADER);
+		assertEquals(6, supplier.get().intValue());
+	}
+
+	@Test
+	public void testArgumentsAreEvaluatedOnce() {
+		Lambda square = Lambda.of(IntUnaryOperator.class, i -> mul(i, i));
+		IntSupplier supplier = ClassGenerator.builder(IntSupplier.class)
+			.withField("counter", int.class)
+			.withMethod("getAsInt", square.invoke(sequence(
+				set(property(self(), "counter"), add(property(self(), "counter"), value(1))),
+				property(self(), "counter"))))
+			.build()
+			.generateClassAndCreateInstance(CLASS_LOADER);
+		assertEquals(1, supplier.getAsInt());
+		assertEquals(4, supplier.getAsInt());
+		assertEquals(9, supplier.getAsInt());
+	}
+
+	@Test
+	public void testInstanceCallsAreInlined() {
+		Lambda isPositive = Lambda.of(IntPredicate.class, i -> isGt(i, value(0)));
+		IntPredicate isPositiveFn = create(isPositive);
+		assertSame(isPositive, Lambda.ofInstance(isPositiveFn));
+		assertNull(Lambda.ofInstance(new Object()));
+		assertTrue(isPositiveFn instanceof Lambda.Materialized);
+
+		IntPredicate isNonPositive = ClassGenerator.builder(IntPredicate.class)
+			.withMethod("test", not(call(value(isPositiveFn), "test", arg(0))))
+			.build()
+			.generateClassAndCreateInstance(CLASS_LOADER);
+		assertTrue(isNonPositive.test(0));
+		assertFalse(isNonPositive.test(1));
+
+		for (Field field : isNonPositive.getClass().getDeclaredFields()) {
+			assertFalse(IntPredicate.class.isAssignableFrom(field.getType()));
+		}
+	}
+
+	@Test
+	public void testInvalidLambdas() {
+		assertThrows(IllegalArgumentException.class, () -> Lambda.of(Object.class, () -> value(1)));
+		assertThrows(IllegalArgumentException.class, () -> Lambda.of(List.class, () -> value(1)));
+		assertThrows(IllegalArgumentException.class, () -> Lambda.of(IntPredicate.class, () -> value(true)));
+
+		Lambda isPositive = Lambda.of(IntPredicate.class, i -> isGt(i, value(0)));
+		Lambda sum = Lambda.of(IntBinaryOperator.class, (a, b) -> add(a, b));
+		assertThrows(IllegalArgumentException.class, () -> isPositive.and(sum));
+		assertThrows(IllegalArgumentException.class, () -> isPositive.andThen(IntBinaryOperator.class, sum));
+		assertThrows(IllegalArgumentException.class, () -> sum.invoke(value(1)));
+	}
+
+	private static <T> T create(Lambda lambda) {
+		return lambda.<T>toClassGenerator().generateClassAndCreateInstance(CLASS_LOADER);
+	}
+}
@@ -0,0 +1,221 @@
+package io.activej.record;
+
+import io.activej.codegen.ClassGenerator;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class RecordKeysTest {
+
+	@Before
+	public void setUp() {
+		ClassGenerator.clearStaticConstants();
+	}
+
+	@Test
+	public void testHashStrategy() {
+		RecordScheme scheme = RecordScheme.builder()
+			.withField("id", int.class)
+			.withField("name", String.class)
+			.withField("value", double.class)
+			.build();
+
+		RecordHashStrategy strategy = scheme.hashStrategy("id", "name");
+		Record record1 = scheme.recordOfArray(1, "a", 1.0);
+		Record record2 = scheme.recordOfArray(1, "a", 2.0);
+		Record record3 = scheme.recordOfArray(1, "b", 1.0);
+		Record record4 = scheme.recordOfArray(1, null, 1.0);
+
+		assertTrue(strategy.equals(record1, record2));
+		assertEquals(strategy.hashCode(record1), strategy.hashCode(record2));
+		assertFalse(strategy.equals(record1, record3));
+		assertFalse(strategy.equals(record1, record4));
+		assertFalse(strategy.equals(record4, record1));
+		assertTrue(strategy.equals(record4, scheme.recordOfArray(1, null, 2.0)));
+
+		RecordHashStrategy doubleStrategy = scheme.hashStrategy("value");
+		assertFalse(doubleStrategy.equals(scheme.recordOfArray(1, "a", 0.0), scheme.recordOfArray(1, "a", -0.0)));
+		assertTrue(doubleStrategy.equals(scheme.recordOfArray(1, "a", Double.NaN), scheme.recordOfArray(1, "a", Double.NaN)));
+
+		RecordHashStrategy defaultStrategy = scheme.hashStrategy();
+		assertFalse(defaultStrategy.equals(record1, record2));
+		assertTrue(defaultStrategy.equals(record1, scheme.recordOfArray(1, "a", 1.0)));
+	}
+
+	@Test
+	public void testHashDistribution() {
+		RecordScheme scheme = RecordScheme.builder()
+			.withField("id", int.class)
+			.build();
+		RecordHashStrategy strategy = scheme.hashStrategy();
+
+		Set<Integer> lowBits = new HashSet<>();
+		for (int i = 0; i < 1024; i++) {
+			lowBits.add(strategy.hashCode(scheme.recordOfArray(i << 16)) & 1023);
+		}
+		assertTrue(lowBits.size() > 512);
+	}
+
+	@Test
+	public void testHashMap() {
+		RecordScheme scheme = RecordScheme.builder()
+			.withField("key", long.class)
+			.withField("group", String.class)
+			.withField("value", int.class)
+			.build();
+		RecordHashMap<int[]> map = RecordHashMap.create(scheme.hashStrategy("key", "group"));
+
+		Map<List<Object>, Integer> expected = new HashMap<>();
+		Random random = new Random(0);
+		for (int i = 0; i < 10_000; i++) {
+			long key = random.nextInt(100);
+			String group = "group" + random.nextInt(10);
+			int value = random.nextInt(1000);
+			Record record = scheme.recordOfArray(key, group, value);
+
+			map.computeIfAbsent(record, $ -> new int[1])[0] += value;
+			expected.merge(List.of(key, group), value, Integer::sum);
+		}
+
+		assertEquals(expected.size(), map.size());
+		Map<List<Object>, Integer> actual = new HashMap<>();
+		map.forEach((record, sum) -> actual.put(List.of(record.getLong("key"), record.get("group")), sum[0]));
+		assertEquals(expected, actual);
+
+		Record probe = scheme.recordOfArray(1L, "group1", -1);
+		assertTrue(map.containsKey(probe));
+		assertEquals(expected.get(List.of(1L, "group1")).intValue(), map.get(probe)[0]);
+		assertNull(map.get(scheme.recordOfArray(1L, "unknown", 0)));
+
+		int[] replacement = new int[1];
+		assertNotNull(map.put(probe, replacement));
+		assertSame(replacement, map.get(probe));
+		assertEquals(expected.size(), map.size());
+
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertNull(map.get(probe));
+	}
+
+	@Test
+	public void testKeyPrefix() {
+		RecordScheme scheme = RecordScheme.builder()
+			.withField("int", int.class)
+			.withField("boolean", boolean.class)
+			.withField("short", short.class)
+			.withField("byte", byte.class)
+			.build();
+
+		RecordKeyPrefix keyPrefix = scheme.keyPrefix("int", "boolean", "short", "byte");
+		assertTrue(keyPrefix.isComplete());
+
+		Record record1 = scheme.recordOfArray(-1, true, (short) 10, (byte) 1);
+		Record record2 = scheme.recordOfArray(0, false, (short) -10, (byte) -1);
+		Record record3 = scheme.recordOfArray(0, true, (short) -10, (byte) -1);
+		Record record4 = scheme.recordOfArray(0, true, (short) 10, (byte) -1);
+		Record record5 = scheme.recordOfArray(0, true, (short) 10, (byte) 1);
+		assertOrdered(keyPrefix, record1, record2, record3, record4, record5);
+		assertEquals(keyPrefix.prefix(record5), keyPrefix.prefix(scheme.recordOfArray(0, true, (short) 10, (byte) 1)));
+	}
+
+	@Test
+	public void testKeyPrefixTruncation() {
+		RecordScheme scheme = RecordScheme.builder()
+			.withField("long", long.class)
+			.withField("double", double.class)
+			.withField("string", String.class)
+			.withField("boxed", Integer.class)
+			.withField("list", List.class)
+			.build();
+
+		RecordKeyPrefix longPrefix = scheme.keyPrefix("long");
+		assertTrue(longPrefix.isComplete());
+		assertOrdered(longPrefix,
+			scheme.recordOfArray(Long.MIN_VALUE, 0.0, null, null, null),
+			scheme.recordOfArray(-1L, 0.0, null, null, null),
+			scheme.recordOfArray(0L, 0.0, null, null, null),
+			scheme.recordOfArray(Long.MAX_VALUE, 0.0, null, null, null));
+
+		RecordKeyPrefix doublePrefix = scheme.keyPrefix("double", "long");
+		assertFalse(doublePrefix.isComplete());
+		assertOrdered(doublePrefix,
+			scheme.recordOfArray(0L, Double.NEGATIVE_INFINITY, null, null, null),
+			scheme.recordOfArray(0L, -1.5, null, null, null),
+			scheme.recordOfArray(0L, -0.0, null, null, null),
+			scheme.recordOfArray(0L, 0.0, null, null, null),
+			scheme.recordOfArray(0L, 1e-300, null, null, null),
+			scheme.recordOfArray(0L, Double.POSITIVE_INFINITY, null, null, null),
+			scheme.recordOfArray(0L, Double.NaN, null, null, null));
+
+		RecordKeyPrefix boxedPrefix = scheme.keyPrefix("boxed", "string");
+		assertFalse(boxedPrefix.isComplete());
+		assertOrdered(boxedPrefix,
+			scheme.recordOfArray(0L, 0.0, null, null, null),
+			scheme.recordOfArray(0L, 0.0, null, -1, null),
+			scheme.recordOfArray(0L, 0.0, null, 1, null),
+			scheme.recordOfArray(0L, 0.0, "", 1, null),
+			scheme.recordOfArray(0L, 0.0, "a", 1, null));
+
+		RecordKeyPrefix stringPrefix = scheme.keyPrefix("string");
+		Record ab = scheme.recordOfArray(0L, 0.0, "abcdefgh", null, null);
+		Record ac = scheme.recordOfArray(0L, 0.0, "abcdefgz", null, null);
+		assertEquals(stringPrefix.prefix(ab), stringPrefix.prefix(ac));
+		assertTrue(Long.compareUnsigned(
+			stringPrefix.prefix(scheme.recordOfArray(0L, 0.0, "ab", null, null)),
+			stringPrefix.prefix(scheme.recordOfArray(0L, 0.0, "b", null, null))) < 0);
+
+		RecordKeyPrefix listPrefix = scheme.keyPrefix("list");
+		assertFalse(listPrefix.isComplete());
+		assertEquals(0L, listPrefix.prefix(scheme.recordOfArray(0L, 0.0, null, null, List.of(1))));
+	}
+
+	@Test
+	public void testSort() {
+		RecordScheme scheme = RecordScheme.builder()
+			.withField("id", int.class)
+			.withField("name", String.class)
+			.withField("seq", int.class)
+			.withComparatorFields("name", "id")
+			.build();
+
+		Random random = new Random(0);
+		Record[] records = new Record[1000];
+		for (int i = 0; i < records.length; i++) {
+			records[i] = scheme.recordOfArray(
+				random.nextInt(10),
+				random.nextInt(10) == 0 ? null : "name " + random.nextInt(20),
+				i);
+		}
+		Record[] expected = records.clone();
+		Arrays.sort(expected, 100, 900, scheme.getRecordComparator());
+
+		RecordKeys.sort(records, 100, 900, scheme.keyPrefix(), scheme.getRecordComparator());
+		assertArrayEquals(expected, records);
+
+		Record[] byId = expected.clone();
+		Comparator<Record> idComparator = Comparator.comparingInt(record -> record.getInt("id"));
+		Arrays.sort(byId, idComparator);
+		RecordKeys.sort(expected, 0, expected.length, scheme.keyPrefix("id"), (r1, r2) -> {throw new AssertionError();});
+		assertArrayEquals(byId, expected);
+	}
+
+	@Test
+	public void testUnknownField() {
+		RecordScheme scheme = RecordScheme.builder()
+			.withField("id", int.class)
+			.build();
+
+		assertThrows(IllegalArgumentException.class, () -> scheme.hashStrategy("unknown"));
+		assertThrows(IllegalArgumentException.class, () -> scheme.keyPrefix("id", "id"));
+		assertThrows(IllegalStateException.class, scheme::keyPrefix);
+	}
+
+	private static void assertOrdered(RecordKeyPrefix keyPrefix, Record... records) {
+		for (int i = 1; i < records.length; i++) {
+			assertTrue(Long.compareUnsigned(keyPrefix.prefix(records[i - 1]), keyPrefix.prefix(records[i])) < 0);
+		}
+	}
+}
@@ -18,6 +18,7 @@ package io.activej.datastream.csp;
 
 import io.activej.bytebuf.ByteBuf;
 import io.activej.bytebuf.ByteBufs;
+import io.activej.common.Checks;
 import io.activej.common.builder.AbstractBuilder;
 import io.activej.common.exception.MalformedDataException;
 import io.activej.common.exception.TruncatedDataException;
@@ -29,25 +30,45 @@ import io.activej.datastream.supplier.AbstractStreamSupplier;
 import io.activej.datastream.supplier.StreamSupplier;
 import io.activej.serializer.BinarySerializer;
 import io.activej.serializer.CorruptedDataException;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayDeque;
+import java.util.List;
+
+import static io.activej.common.Checks.checkArgument;
 import static io.activej.reactor.Reactive.checkInReactorThread;
 import static java.lang.String.format;
 
 /**
  * An adapter that converts a {@link ChannelSupplier} of {@link ByteBuf ByteBufs} to a {@link StreamSupplier} of some type,
  * that is deserialized from incoming binary data using given {@link BinarySerializer}.
+ * <p>
+ * If a given serializer is a {@link SizedBinarySerializer}, it is also provided with a size of each item.
+ * <p>
+ * If instance reuse is enabled, items that are passed back via {@link #recycle(Object)} once they are
+ * processed downstream are reused for decoding of subsequent items,
+ * see {@link BinarySerializer#decode(byte[], int, Object)}.
  */
 public final class ChannelDeserializer<T> extends AbstractStreamSupplier<T>
 	implements WithChannelToStream<ChannelDeserializer<T>, ByteBuf, T> {
+	private static final boolean CHECKS = Checks.isEnabled(ChannelDeserializer.class);
+
 	private ChannelSupplier<ByteBuf> input;
-	private final BinarySerializer<T> valueSerializer;
+	private final @Nullable BinarySerializer<T> valueSerializer;
+	private final @Nullable SizedBinarySerializer<T> sizedValueSerializer;
+	private final @Nullable BinarySerializer<List<T>> batchSerializer;
 
 	private final ByteBufs bufs = new ByteBufs();
 
 	private boolean explicitEndOfStream = false;
 
-	private ChannelDeserializer(BinarySerializer<T> valueSerializer) {
+	private int maxRecycledItems;
+	private final ArrayDeque<T> recycledItems = new ArrayDeque<>();
+
+	private ChannelDeserializer(@Nullable BinarySerializer<T> valueSerializer, @Nullable BinarySerializer<List<T>> batchSerializer) {
 		this.valueSerializer = valueSerializer;
+		this.sizedValueSerializer = valueSerializer instanceof SizedBinarySerializer<T> sized ? sized : null;
+		this.batchSerializer = batchSerializer;
 	}
 
 	/**
@@ -61,7 +82,30 @@ public final class ChannelDeserializer<T> extends AbstractStreamSupplier<T>
 	 * Creates a builder of the deserializer for type T
 	 */
 	public static <T> ChannelDeserializer<T>.Builder builder(BinarySerializer<T> valueSerializer) {
-		return new ChannelDeserializer<>(valueSerializer).new Builder();
+		return new ChannelDeserializer<>(valueSerializer, null).new Builder();
+	}
+
+	/**
+	 * Creates a new instance of the deserializer for type T
+	 * that deserializes batches of items
+	 *
+	 * @see #batchBuilder(BinarySerializer)
+	 */
+	public static <T> ChannelDeserializer<T> createBatched(BinarySerializer<List<T>> batchSerializer) {
+		return ChannelDeserializer.batchBuilder(batchSerializer).build();
+	}
+
+	/**
+	 * Creates a builder of the deserializer for type T
+	 * that deserializes batches of items, written by a {@link ChannelSerializer} in a batch mode.
+	 * Items of each batch are sent downstream one by one.
+	 * <p>
+	 * Instance reuse is not applicable to a batch mode
+	 *
+	 * @param batchSerializer a serializer of lists of items, such as a columnar one
+	 */
+	public static <T> ChannelDeserializer<T>.Builder batchBuilder(BinarySerializer<List<T>> batchSerializer) {
+		return new ChannelDeserializer<>(null, batchSerializer).new Builder();
 	}
 
 	public final class Builder extends AbstractBuilder<Builder, ChannelDeserializer<T>> {
@@ -78,6 +122,18 @@ public final class ChannelDeserializer<T> extends AbstractStreamSupplier<T>
 			return this;
 		}
 
+		/**
+		 * Enables reuse of items that are passed back via {@link #recycle(Object)}
+		 *
+		 * @param maxRecycledItems a maximum number of recycled items that are kept for reuse
+		 */
+		public Builder withInstanceReuse(int maxRecycledItems) {
+			checkNotBuilt(this);
+			checkArgument(maxRecycledItems >= 0, "Maximum number of recycled items cannot be negative");
+			ChannelDeserializer.this.maxRecycledItems = maxRecycledItems;
+			return this;
+		}
+
 		@Override
 		protected ChannelDeserializer<T> doBuild() {
 			return ChannelDeserializer.this;
@@ -175,8 +231,7 @@ public final class ChannelDeserializer<T> extends AbstractStreamSupplier<T>
 				}
 
 				if (firstBufRemaining >= messageSize) {
-					T item = valueSerializer.decode(array, pos + headerSize);
-					send(item);
+					decodeAndSend(array, pos + headerSize, messageSize - headerSize);
 					if (firstBufRemaining != messageSize) {
 						firstBuf.moveHead(messageSize);
 					} else {
@@ -204,14 +259,43 @@ public final class ChannelDeserializer<T> extends AbstractStreamSupplier<T>
 			return -1;
 		}
 
-		bufs.consume(messageSize, buf -> {
-			T item = valueSerializer.decode(buf.array(), buf.head() + headerSize);
-			send(item);
-		});
+		bufs.consume(messageSize, buf -> decodeAndSend(buf.array(), buf.head() + headerSize, messageSize - headerSize));
 
 		return 1;
 	}
 
+	private void decodeAndSend(byte[] array, int pos, int size) {
+		if (batchSerializer != null) {
+			for (T item : batchSerializer.decode(array, pos)) {
+				send(item);
+			}
+			return;
+		}
+		send(decode(array, pos, size));
+	}
+
+	private T decode(byte[] array, int pos, int size) {
+		if (sizedValueSerializer != null) {
+			return sizedValueSerializer.decode(array, pos, size);
+		}
+		T reuse = recycledItems.pollLast();
+		return reuse == null ?
+			valueSerializer.decode(array, pos) :
+			valueSerializer.decode(array, pos, reuse);
+	}
+
+	/**
+	 * Passes back an item that has been fully processed downstream and is no longer referenced,
+	 * so that it may be reused for decoding of subsequent items.
+	 * Has no effect unless instance reuse is enabled
+	 */
+	public void recycle(T item) {
+		if (CHECKS) checkInReactorThread(this);
+		if (recycledItems.size() < maxRecycledItems) {
+			recycledItems.addLast(item);
+		}
+	}
+
 	private static int readEncodedSize(byte[] array, int pos, byte b) {
 		if (b < 0) {
 			int dataSize = b & 0x7f;
@@ -285,5 +369,6 @@ public final class ChannelDeserializer<T> extends AbstractStreamSupplier<T>
 	@Override
 	protected void onCleanup() {
 		bufs.recycle();
+		recycledItems.clear();
 	}
 }
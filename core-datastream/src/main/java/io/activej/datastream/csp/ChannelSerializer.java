@@ -34,6 +34,8 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.BiConsumer;
 
 import static io.activej.common.Checks.checkArgument;
@@ -62,7 +64,9 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 
 	public static final MemSize DEFAULT_INITIAL_BUFFER_SIZE = MemSize.kilobytes(16);
 
-	private final BinarySerializer<T> serializer;
+	private final @Nullable BinarySerializer<T> serializer;
+	private final @Nullable BinarySerializer<List<T>> batchSerializer;
+	private final int batchSize;
 
 	private MemSize initialBufferSize = DEFAULT_INITIAL_BUFFER_SIZE;
 	private byte @Nullable [] explicitEndOfStream;
@@ -76,8 +80,10 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 	private final ArrayDeque<ByteBuf> bufs = new ArrayDeque<>();
 	private boolean sending;
 
-	private ChannelSerializer(BinarySerializer<T> serializer) {
+	private ChannelSerializer(@Nullable BinarySerializer<T> serializer, @Nullable BinarySerializer<List<T>> batchSerializer, int batchSize) {
 		this.serializer = serializer;
+		this.batchSerializer = batchSerializer;
+		this.batchSize = batchSize;
 	}
 
 	/**
@@ -91,7 +97,35 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 	 * Creates a builder of the serializer for type T
 	 */
 	public static <T> ChannelSerializer<T>.Builder builder(BinarySerializer<T> serializer) {
-		return new ChannelSerializer<>(serializer).new Builder();
+		return new ChannelSerializer<>(serializer, null, 0).new Builder();
+	}
+
+	/**
+	 * Creates a new instance of the serializer for type T
+	 * that serializes items in batches of a given size
+	 *
+	 * @see #batchBuilder(BinarySerializer, int)
+	 */
+	public static <T> ChannelSerializer<T> createBatched(BinarySerializer<List<T>> batchSerializer, int batchSize) {
+		return ChannelSerializer.batchBuilder(batchSerializer, batchSize).build();
+	}
+
+	/**
+	 * Creates a builder of the serializer for type T
+	 * that serializes items in batches of a given size.
+	 * <p>
+	 * Each batch is framed as a single message, so it should be read
+	 * by a {@link ChannelDeserializer} in a batch mode.
+	 * A batch is serialized once it is full, or once an auto flush interval elapses and at the end of stream,
+	 * whichever comes first. Auto flush with a zero interval flushes serialized batches only
+	 * and does not cut a partial batch. A serialization error is reported for each item of a failed batch
+	 *
+	 * @param batchSerializer a serializer of lists of items, such as a columnar one
+	 * @param batchSize       a maximum number of items in a batch
+	 */
+	public static <T> ChannelSerializer<T>.Builder batchBuilder(BinarySerializer<List<T>> batchSerializer, int batchSize) {
+		checkArgument(batchSize > 0, "Batch size must be positive");
+		return new ChannelSerializer<>(null, batchSerializer, batchSize).new Builder();
 	}
 
 	public final class Builder extends AbstractBuilder<Builder, ChannelSerializer<T>> {
@@ -199,6 +233,9 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 		bufs.forEach(ByteBuf::recycle);
 		bufs.clear();
 		input.buf = nullify(input.buf, ByteBuf::recycle);
+		if (input.batch != null) {
+			input.batch.clear();
+		}
 	}
 
 	private void send() {
@@ -239,6 +276,8 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 	public final class Input implements StreamDataAcceptor<T> {
 		private final BinarySerializer<T> serializer;
 
+		private @Nullable List<T> batch;
+
 		private ByteBuf buf = null;
 		private int estimatedDataSize;
 		private int estimatedHeaderSize;
@@ -255,10 +294,39 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 			this.initialBufferSize = initialBufferSize;
 			this.autoFlushIntervalMillis = autoFlushInterval == null ? Integer.MAX_VALUE : (int) autoFlushInterval.toMillis();
 			this.serializationErrorHandler = serializationErrorHandler;
+			this.batch = batchSerializer == null ? null : new ArrayList<>(batchSize);
 		}
 
 		@Override
 		public void accept(T item) {
+			if (batch != null) {
+				batch.add(item);
+				if (batch.size() >= batchSize) {
+					encodeBatch();
+				} else if (!flushPosted && autoFlushIntervalMillis > 0 && autoFlushIntervalMillis < Integer.MAX_VALUE) {
+					postFlush();
+				}
+				return;
+			}
+			Exception e = encode(serializer, item);
+			if (e != null) {
+				onSerializationError(item, e);
+			}
+		}
+
+		private void encodeBatch() {
+			assert batch != null && batchSerializer != null;
+			List<T> items = batch;
+			batch = new ArrayList<>(batchSize);
+			Exception e = encode(batchSerializer, items);
+			if (e != null) {
+				for (T item : items) {
+					onSerializationError(item, e);
+				}
+			}
+		}
+
+		private <V> @Nullable Exception encode(BinarySerializer<V> serializer, V value) {
 			int positionBegin;
 			int positionData;
 			int positionEnd;
@@ -269,13 +337,12 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 				positionBegin = buf.tail();
 				positionData = positionBegin + estimatedHeaderSize;
 				try {
-					positionEnd = serializer.encode(buf.array(), positionData, item);
+					positionEnd = serializer.encode(buf.array(), positionData, value);
 				} catch (ArrayIndexOutOfBoundsException e) {
 					enlargeBuffer();
 					continue;
 				} catch (Exception e) {
-					onSerializationError(item, e);
-					return;
+					return e;
 				}
 				break;
 			}
@@ -285,6 +352,7 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 				reestimate(positionBegin, positionData, dataSize);
 			}
 			writeSize(buf.array(), positionBegin, dataSize);
+			return null;
 		}
 
 		private void writeSize(byte[] buf, int pos, int size) {
@@ -314,7 +382,7 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 		}
 
 		private void ensureBuffer() {
-			flush();
+			flushBuffer();
 			buf = ByteBufPool.allocate(max(initialBufferSize, requiredRemainingSize));
 			if (!flushPosted) {
 				postFlush();
@@ -323,7 +391,7 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 
 		private void enlargeBuffer() {
 			int writeRemaining = buf.writeRemaining();
-			flush();
+			flushBuffer();
 			buf = ByteBufPool.allocate(max(initialBufferSize, writeRemaining + (writeRemaining >>> 1) + 1));
 		}
 
@@ -363,7 +431,7 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 			if (autoFlushIntervalMillis <= 0) {
 				reactor.postLast(() -> {
 					flushPosted = false;
-					flush();
+					flushBuffer();
 				});
 			} else if (autoFlushIntervalMillis < Integer.MAX_VALUE) {
 				reactor.delayBackground(autoFlushIntervalMillis, () -> {
@@ -374,6 +442,13 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 		}
 
 		private void flush() {
+			if (batch != null && !batch.isEmpty()) {
+				encodeBatch();
+			}
+			flushBuffer();
+		}
+
+		private void flushBuffer() {
 			if (buf == null) return;
 			if (buf.canRead()) {
 				if (!bufs.isEmpty()) {
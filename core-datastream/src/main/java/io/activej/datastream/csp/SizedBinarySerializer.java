@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.datastream.csp;
+
+import io.activej.serializer.BinarySerializer;
+import io.activej.serializer.CorruptedDataException;
+
+/**
+ * A {@link BinarySerializer} that is aware of a size of each encoded item.
+ * <p>
+ * When used by a {@link ChannelDeserializer}, items are decoded with
+ * {@link #decode(byte[], int, int)}, so that an item may be decoded
+ * without parsing its contents up to the end.
+ */
+public interface SizedBinarySerializer<T> extends BinarySerializer<T> {
+	T decode(byte[] array, int pos, int size) throws CorruptedDataException;
+}
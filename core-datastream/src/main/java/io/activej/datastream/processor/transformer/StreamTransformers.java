@@ -3,13 +3,34 @@ package io.activej.datastream.processor.transformer;
 import io.activej.common.annotation.StaticFactories;
 import io.activej.datastream.processor.transformer.impl.*;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 import static io.activej.common.Checks.checkState;
 
 @StaticFactories(StreamTransformer.class)
 public class StreamTransformers {
+	/**
+	 * Turns a final-field object graph of a predicate or a function into monomorphic classes.
+	 * Instances that cannot be specialized are kept as is.
+	 * <p>
+	 * New classes are defined on each call, so it should only be used for long-lived graphs
+	 * that are shared by the transformers passed to {@link #filter(Predicate)} or {@link #mapper(Function)}.
+	 * <b>Depends on {@code ActiveJ-Specializer} module</b>
+	 */
+	@SuppressWarnings("unchecked")
+	public static <F> F specialize(F fn) {
+		UnaryOperator<Object> specializer;
+		try {
+			Class<?> aClass = Class.forName("io.activej.specializer.Utils$GraphSpecializer");
+			specializer = (UnaryOperator<Object>) aClass.getConstructor().newInstance();
+		} catch (InvocationTargetException | NoSuchMethodException | IllegalAccessException | ClassNotFoundException | InstantiationException e) {
+			throw new UnsupportedOperationException("Cannot access ActiveJ Specializer", e);
+		}
+		return (F) specializer.apply(fn);
+	}
 
 	/**
 	 * An identity transformer that does not change the elements.
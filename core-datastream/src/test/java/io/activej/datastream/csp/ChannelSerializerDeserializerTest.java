@@ -1,20 +1,37 @@
 package io.activej.datastream.csp;
 
+import io.activej.bytebuf.ByteBuf;
+import io.activej.bytebuf.ByteBufs;
 import io.activej.common.MemSize;
+import io.activej.datastream.consumer.StreamConsumers;
 import io.activej.datastream.consumer.ToListStreamConsumer;
+import io.activej.datastream.supplier.StreamSupplier;
 import io.activej.datastream.supplier.StreamSuppliers;
+import io.activej.promise.Promises;
+import io.activej.serializer.BinarySerializer;
 import io.activej.serializer.BinarySerializers;
+import io.activej.serializer.SerializerFactory;
+import io.activej.serializer.annotations.Serialize;
+import io.activej.serializer.annotations.SerializeRecord;
 import io.activej.test.rules.ByteBufRule;
 import io.activej.test.rules.EventloopRule;
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
 
 import static io.activej.promise.TestUtils.await;
 import static org.junit.Assert.assertArrayEquals;
+import static java.util.Collections.newSetFromMap;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public final class ChannelSerializerDeserializerTest {
 	@ClassRule
@@ -64,4 +81,121 @@ public final class ChannelSerializerDeserializerTest {
 			assertArrayEquals(byteArrays.get(i), deserialized.get(i));
 		}
 	}
+
+	public static final class MutableItem {
+		@Serialize
+		public int id;
+
+		@Serialize
+		public ArrayList<String> tags = new ArrayList<>();
+	}
+
+	@Test
+	public void instanceReuse() {
+		BinarySerializer<MutableItem> serializer = SerializerFactory.builder()
+			.withInstanceReuse(true)
+			.build()
+			.create(MutableItem.class);
+
+		List<MutableItem> items = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			MutableItem item = new MutableItem();
+			item.id = i;
+			item.tags.add("tag " + i);
+			items.add(item);
+		}
+
+		ChannelDeserializer<MutableItem> deserializer = ChannelDeserializer.builder(serializer)
+			.withInstanceReuse(10)
+			.build();
+
+		List<Integer> ids = new ArrayList<>();
+		List<String> tags = new ArrayList<>();
+		Set<MutableItem> instances = newSetFromMap(new IdentityHashMap<>());
+		await(StreamSuppliers.ofIterable(items)
+			.transformWith(ChannelSerializer.create(serializer))
+			.transformWith(deserializer)
+			.streamTo(StreamConsumers.ofConsumer(item -> {
+				ids.add(item.id);
+				tags.addAll(item.tags);
+				instances.add(item);
+				deserializer.recycle(item);
+			})));
+
+		assertEquals(1000, ids.size());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i, (int) ids.get(i));
+			assertEquals("tag " + i, tags.get(i));
+		}
+		assertTrue(instances.size() < 10);
+	}
+
+	@SerializeRecord
+	public record Event(int id, long timestamp, String category) {}
+
+	@Test
+	public void batches() {
+		BinarySerializer<List<Event>> batchSerializer = SerializerFactory.defaultInstance().createColumnar(Event.class);
+
+		List<Event> events = new ArrayList<>();
+		for (int i = 0; i < 1005; i++) {
+			events.add(new Event(i, 1_600_000_000_000L + i, "category " + i % 3));
+		}
+
+		ToListStreamConsumer<Event> consumer = ToListStreamConsumer.create();
+
+		await(StreamSuppliers.ofIterable(events)
+			.transformWith(ChannelSerializer.batchBuilder(batchSerializer, 100)
+				.withInitialBufferSize(MemSize.bytes(1))
+				.withExplicitEndOfStream()
+				.build())
+			.transformWith(ChannelDeserializer.batchBuilder(batchSerializer)
+				.withExplicitEndOfStream()
+				.build())
+			.streamTo(consumer));
+
+		assertEquals(events, consumer.getList());
+	}
+
+	@Test
+	public void batchesAreNotCutOnEachTick() {
+		BinarySerializer<List<Event>> batchSerializer = SerializerFactory.defaultInstance().createColumnar(Event.class);
+
+		List<Event> events = new ArrayList<>();
+		for (int i = 0; i < 250; i++) {
+			events.add(new Event(i, 1_600_000_000_000L + i, "category " + i % 3));
+		}
+		// items arrive in chunks of 10 on separate reactor ticks
+		Iterator<StreamSupplier<Event>> chunks = IntStream.range(0, 25)
+			.mapToObj(i -> StreamSuppliers.ofPromise(Promises.delay(1L, StreamSuppliers.ofIterable(events.subList(i * 10, i * 10 + 10)))))
+			.iterator();
+
+		List<ByteBuf> bufs = await(StreamSuppliers.concat(chunks)
+			.transformWith(ChannelSerializer.batchBuilder(batchSerializer, 100)
+				.withAutoFlushInterval(Duration.ZERO)
+				.build())
+			.toList());
+
+		ByteBufs queue = new ByteBufs();
+		bufs.forEach(queue::add);
+		byte[] bytes = queue.takeRemaining().asArray();
+
+		List<Integer> batchSizes = new ArrayList<>();
+		List<Event> decoded = new ArrayList<>();
+		int pos = 0;
+		while (pos < bytes.length) {
+			int size = 0;
+			for (int shift = 0; ; shift += 7) {
+				byte b = bytes[pos++];
+				size |= (b & 0x7F) << shift;
+				if (b >= 0) break;
+			}
+			List<Event> batch = batchSerializer.decode(bytes, pos);
+			pos += size;
+			batchSizes.add(batch.size());
+			decoded.addAll(batch);
+		}
+		assertEquals(List.of(100, 100, 50), batchSizes);
+		assertEquals(events, decoded);
+	}
 }
@@ -92,6 +92,17 @@ public final class CachedDnsClient extends AbstractReactive
 			return this;
 		}
 
+		/**
+		 * Enables refreshing of popular entries before they expire
+		 *
+		 * @see DnsCache.Builder#withRefreshAhead(double, int)
+		 */
+		public Builder withRefreshAhead(double ratio, int minHits) {
+			checkNotBuilt(this);
+			cache.setRefreshAhead(ratio, minHits);
+			return this;
+		}
+
 		@Override
 		protected CachedDnsClient doBuild() {
 			return CachedDnsClient.this;
@@ -114,7 +125,7 @@ public final class CachedDnsClient extends AbstractReactive
 
 				DnsQueryCacheResult cacheResult = cache.tryToResolve(query);
 				if (cacheResult != null) {
-					if (cacheResult.doesNeedRefreshing() && !refreshingNow.add(query)) {
+					if (cacheResult.doesNeedRefreshing() && !refreshingNow.contains(query)) {
 						reactor.execute(() -> refresh(query));
 					}
 					return cacheResult.getResponseAsPromise();
@@ -152,11 +163,15 @@ public final class CachedDnsClient extends AbstractReactive
 			return;
 		}
 		logger.trace("Refreshing {}", query);
-		client.resolve(query)
-			.subscribe((response, e) -> {
-				addToCache(query, response, e);
-				refreshingNow.remove(query);
-			});
+		Promise<DnsResponse> resolve = client.resolve(query);
+		if (!resolve.isComplete() && pending.putIfAbsent(query, resolve) == null) {
+			// misses of the same query that happen during refresh join it
+			resolve.subscribe(($, e) -> pending.remove(query));
+		}
+		resolve.subscribe((response, e) -> {
+			addToCache(query, response, e);
+			refreshingNow.remove(query);
+		});
 	}
 
 	@Override
@@ -43,6 +43,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import static io.activej.common.Checks.checkArgument;
 import static io.activej.reactor.Reactive.checkInReactorThread;
 
 /**
@@ -63,6 +64,8 @@ public final class DnsCache extends AbstractReactive {
 	private long timedOutExpiration = DEFAULT_TIMED_OUT_EXPIRATION.toMillis();
 	private long hardExpirationDelta = DEFAULT_HARD_EXPIRATION_DELTA.toMillis();
 	private long maxTtl = Long.MAX_VALUE;
+	private double refreshAheadRatio;
+	private int refreshAheadMinHits;
 
 	private final AtomicBoolean cleaningUpNow = new AtomicBoolean(false);
 	private final PriorityQueue<CachedDnsQueryResult> expirations = new PriorityQueue<>();
@@ -123,6 +126,19 @@ public final class DnsCache extends AbstractReactive {
 			return this;
 		}
 
+		/**
+		 * Enables refreshing of popular entries before they expire, so that
+		 * frequently resolved domains are never resolved on a request path
+		 *
+		 * @param ratio   a part of TTL after which an entry needs refreshing, between 0 and 1
+		 * @param minHits a minimum number of hits of an entry for it to be refreshed ahead of expiration
+		 */
+		public Builder withRefreshAhead(double ratio, int minHits) {
+			checkNotBuilt(this);
+			setRefreshAhead(ratio, minHits);
+			return this;
+		}
+
 		@Override
 		protected DnsCache doBuild() {
 			return DnsCache.this;
@@ -157,6 +173,9 @@ public final class DnsCache extends AbstractReactive {
 		} else if (isSoftExpired(cachedResult)) {
 			logger.trace("{} soft TTL expired", query);
 			return new DnsQueryCacheResult(result, true);
+		} else if (++cachedResult.hits >= refreshAheadMinHits && now.currentTimeMillis() >= cachedResult.refreshAheadTime) {
+			logger.trace("{} is popular and needs to be refreshed ahead of expiration", query);
+			return new DnsQueryCacheResult(result, true);
 		}
 		return new DnsQueryCacheResult(result, false);
 	}
@@ -176,20 +195,26 @@ public final class DnsCache extends AbstractReactive {
 	 */
 	public void add(DnsQuery query, DnsResponse response) {
 		if (CHECKS) checkInReactorThread(this);
-		long expirationTime = now.currentTimeMillis();
+		long currentTime = now.currentTimeMillis();
+		long expirationTime = currentTime;
+		long refreshAheadTime = Long.MAX_VALUE;
 		if (response.isSuccessful()) {
 			assert response.getRecord() != null; // where are my advanced contracts so that the IDE would know it's true here without an assertion?
 			long minTtl = response.getRecord().getMinTtl() * 1000L;
 			if (minTtl == 0) {
 				return;
 			}
-			expirationTime += Math.min(minTtl, maxTtl);
+			long ttl = Math.min(minTtl, maxTtl);
+			expirationTime += ttl;
+			if (refreshAheadRatio != 0) {
+				refreshAheadTime = currentTime + (long) (ttl * refreshAheadRatio);
+			}
 		} else {
 			expirationTime += response.getErrorCode() == ResponseErrorCode.TIMED_OUT ?
 				timedOutExpiration :
 				errorCacheExpiration;
 		}
-		CachedDnsQueryResult cachedResult = new CachedDnsQueryResult(response, expirationTime);
+		CachedDnsQueryResult cachedResult = new CachedDnsQueryResult(response, expirationTime, refreshAheadTime);
 		CachedDnsQueryResult old = cache.put(query, cachedResult);
 		expirations.add(cachedResult);
 
@@ -264,6 +289,23 @@ public final class DnsCache extends AbstractReactive {
 		}
 	}
 
+	void setRefreshAhead(double ratio, int minHits) {
+		checkArgument(ratio > 0 && ratio < 1, "Refresh ahead ratio must be between 0 and 1");
+		checkArgument(minHits >= 0, "Minimum number of hits cannot be negative");
+		this.refreshAheadRatio = ratio;
+		this.refreshAheadMinHits = minHits;
+	}
+
+	@JmxAttribute
+	public double getRefreshAheadRatio() {
+		return refreshAheadRatio;
+	}
+
+	@JmxAttribute
+	public int getRefreshAheadMinHits() {
+		return refreshAheadMinHits;
+	}
+
 	@JmxAttribute(reducer = JmxReducerSum.class)
 	public int getDomainsCount() {
 		return cache.size();
@@ -423,10 +465,13 @@ public final class DnsCache extends AbstractReactive {
 	public static final class CachedDnsQueryResult implements Comparable<CachedDnsQueryResult> {
 		@Nullable DnsResponse response;
 		final long expirationTime;
+		final long refreshAheadTime;
+		int hits;
 
-		CachedDnsQueryResult(@Nullable DnsResponse response, long expirationTime) {
+		CachedDnsQueryResult(@Nullable DnsResponse response, long expirationTime, long refreshAheadTime) {
 			this.response = response;
 			this.expirationTime = expirationTime;
+			this.refreshAheadTime = refreshAheadTime;
 		}
 
 		@Override
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.dns;
+
+import io.activej.common.Checks;
+import io.activej.dns.protocol.DnsProtocol.ResponseErrorCode;
+import io.activej.dns.protocol.DnsQuery;
+import io.activej.dns.protocol.DnsQueryException;
+import io.activej.dns.protocol.DnsResponse;
+import io.activej.jmx.api.attribute.JmxAttribute;
+import io.activej.jmx.stats.EventStats;
+import io.activej.promise.Promise;
+import io.activej.promise.SettablePromise;
+import io.activej.reactor.AbstractReactive;
+import io.activej.reactor.Reactor;
+import io.activej.reactor.jmx.ReactiveJmxBeanWithStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+
+import static io.activej.common.Checks.checkArgument;
+import static io.activej.reactor.Reactive.checkInReactorThread;
+
+/**
+ * Implementation of {@link IDnsClient} that fails over between several upstream DNS clients.
+ * <p>
+ * A query is sent to a preferred upstream. If it times out or the upstream fails
+ * (as opposed to giving a definitive answer, like a name error), the query is retried
+ * using the next upstream. An upstream that answers becomes preferred for subsequent queries.
+ */
+public final class FailoverDnsClient extends AbstractReactive
+	implements IDnsClient, ReactiveJmxBeanWithStats {
+	private static final Logger logger = LoggerFactory.getLogger(FailoverDnsClient.class);
+	private static final boolean CHECKS = Checks.isEnabled(FailoverDnsClient.class);
+
+	private static final Duration SMOOTHING_WINDOW = Duration.ofMinutes(1);
+
+	private final List<IDnsClient> upstreams;
+	private int preferred;
+
+	// region JMX
+	private final EventStats failovers = EventStats.create(SMOOTHING_WINDOW);
+	// endregion
+
+	private FailoverDnsClient(Reactor reactor, List<IDnsClient> upstreams) {
+		super(reactor);
+		this.upstreams = upstreams;
+	}
+
+	public static FailoverDnsClient create(Reactor reactor, IDnsClient... upstreams) {
+		return create(reactor, List.of(upstreams));
+	}
+
+	public static FailoverDnsClient create(Reactor reactor, List<IDnsClient> upstreams) {
+		checkArgument(!upstreams.isEmpty(), "No upstream DNS clients");
+		return new FailoverDnsClient(reactor, List.copyOf(upstreams));
+	}
+
+	@Override
+	public Promise<DnsResponse> resolve(DnsQuery query) {
+		if (CHECKS) checkInReactorThread(this);
+		DnsResponse fromQuery = IDnsClient.resolveFromQuery(query);
+		if (fromQuery != null) {
+			return Promise.of(fromQuery);
+		}
+		SettablePromise<DnsResponse> promise = new SettablePromise<>();
+		resolve(query, preferred, 0, promise);
+		return promise;
+	}
+
+	private void resolve(DnsQuery query, int index, int attempt, SettablePromise<DnsResponse> promise) {
+		upstreams.get(index).resolve(query)
+			.subscribe((response, e) -> {
+				boolean failover = e != null && isFailoverNeeded(e);
+				if (!failover || attempt == upstreams.size() - 1) {
+					if (!failover) {
+						preferred = index;
+					}
+					promise.set(response, e);
+					return;
+				}
+				int next = (index + 1) % upstreams.size();
+				logger.trace("Upstream #{} failed to resolve {}, trying upstream #{}", index, query, next, e);
+				failovers.recordEvent();
+				resolve(query, next, attempt + 1, promise);
+			});
+	}
+
+	private static boolean isFailoverNeeded(Exception e) {
+		if (e instanceof DnsQueryException queryException) {
+			ResponseErrorCode errorCode = queryException.getResult().getErrorCode();
+			return errorCode != ResponseErrorCode.NAME_ERROR && errorCode != ResponseErrorCode.NO_DATA;
+		}
+		return !(e instanceof IllegalArgumentException);
+	}
+
+	@Override
+	public void close() {
+		for (IDnsClient upstream : upstreams) {
+			upstream.close();
+		}
+	}
+
+	// region JMX
+	@JmxAttribute(description = "queries that were retried using another upstream")
+	public EventStats getFailovers() {
+		return failovers;
+	}
+
+	@JmxAttribute
+	public int getPreferredUpstream() {
+		return preferred;
+	}
+	// endregion
+}
@@ -0,0 +1,686 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.common.Checks;
+import io.activej.common.MemSize;
+import io.activej.common.builder.AbstractBuilder;
+import io.activej.common.collection.WTinyLfuCache;
+import io.activej.jmx.api.attribute.JmxAttribute;
+import io.activej.jmx.api.attribute.JmxOperation;
+import io.activej.jmx.stats.EventStats;
+import io.activej.promise.Promise;
+import io.activej.reactor.AbstractReactive;
+import io.activej.reactor.Reactor;
+import io.activej.reactor.jmx.ReactiveJmxBeanWithStats;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+
+import static io.activej.http.HttpHeaderValue.ofDecimal;
+import static io.activej.http.HttpHeaders.*;
+import static io.activej.http.HttpMethod.GET;
+import static io.activej.reactor.Reactive.checkInReactorThread;
+
+/**
+ * A servlet decorator that caches responses of an underlying servlet in memory.
+ * <p>
+ * Responses are cached by request method, full URL and values of request headers listed
+ * in a {@code Vary} header of a response. Bodies are kept as pooled {@link ByteBuf}s
+ * in a byte-bounded {@link WTinyLfuCache}, cached responses share a body by means of {@link ByteBuf#slice()}.
+ * <p>
+ * Freshness of a response is determined by {@code Cache-Control} ({@code s-maxage}, {@code max-age}),
+ * {@code Expires} and {@code Age} headers of a response. Stale responses that carry {@code ETag}
+ * or {@code Last-Modified} validators are revalidated with a conditional request to the underlying servlet.
+ * Within a {@code stale-while-revalidate} period a stale response is served right away
+ * while being revalidated in background.
+ * <p>
+ * Concurrent misses for the same key are collapsed into a single call to the underlying servlet.
+ * <p>
+ * Only {@code GET} responses are cached; successful responses to unsafe requests invalidate cached
+ * responses for the same URL. Responses with streamed bodies are cached only if they declare
+ * a {@code Content-Length} that does not exceed a {@link Builder#withMaxEntrySize maximum entry size}.
+ */
+public final class CachingServlet extends AbstractReactive
+	implements AsyncServlet, ReactiveJmxBeanWithStats {
+	private static final Logger logger = LoggerFactory.getLogger(CachingServlet.class);
+	private static final boolean CHECKS = Checks.isEnabled(CachingServlet.class);
+
+	public static final MemSize DEFAULT_MAX_CACHE_SIZE = MemSize.megabytes(64);
+	public static final MemSize DEFAULT_MAX_ENTRY_SIZE = MemSize.megabytes(1);
+	public static final Duration DEFAULT_TTL = Duration.ZERO;
+	public static final Duration DEFAULT_STALE_WHILE_REVALIDATE = Duration.ZERO;
+
+	private static final Duration SMOOTHING_WINDOW = Duration.ofMinutes(1);
+
+	/**
+	 * A rough estimation of memory that is occupied by a cached entry besides its body and headers
+	 */
+	private static final int ENTRY_OVERHEAD = 128;
+
+	private static final Set<Integer> CACHEABLE_CODES = Set.of(200, 203, 204, 300, 301, 308, 404, 405, 410, 414, 501);
+	private static final Set<HttpHeader> NOT_STORED_HEADERS = Set.of(
+		CONNECTION, KEEP_ALIVE, TRANSFER_ENCODING, CONTENT_LENGTH, AGE, SET_COOKIE, PROXY_AUTHENTICATE, UPGRADE);
+	private static final Set<HttpHeader> CONDITIONAL_HEADERS = Set.of(
+		IF_NONE_MATCH, IF_MODIFIED_SINCE, IF_MATCH, IF_UNMODIFIED_SINCE, IF_RANGE, RANGE);
+
+	private final AsyncServlet next;
+
+	private long maxCacheSize = DEFAULT_MAX_CACHE_SIZE.toLong();
+	private int maxEntrySize = DEFAULT_MAX_ENTRY_SIZE.toInt();
+	private long defaultTtl = DEFAULT_TTL.toMillis();
+	private long defaultStaleWhileRevalidate = DEFAULT_STALE_WHILE_REVALIDATE.toMillis();
+
+	private WTinyLfuCache<String, CachedResponse> cache;
+	private final Map<String, Variants> variants = new HashMap<>();
+	private final Map<String, Promise<@Nullable CachedResponse>> pending = new HashMap<>();
+
+	// region JMX
+	private final EventStats hits = EventStats.create(SMOOTHING_WINDOW);
+	private final EventStats staleHits = EventStats.create(SMOOTHING_WINDOW);
+	private final EventStats misses = EventStats.create(SMOOTHING_WINDOW);
+	private final EventStats collapsedMisses = EventStats.create(SMOOTHING_WINDOW);
+	private final EventStats revalidations = EventStats.create(SMOOTHING_WINDOW);
+	private final EventStats notModified = EventStats.create(SMOOTHING_WINDOW);
+	private final EventStats uncacheable = EventStats.create(SMOOTHING_WINDOW);
+	private final EventStats servedBytes = EventStats.create(SMOOTHING_WINDOW);
+	// endregion
+
+	private CachingServlet(Reactor reactor, AsyncServlet next) {
+		super(reactor);
+		this.next = next;
+	}
+
+	public static CachingServlet create(Reactor reactor, AsyncServlet next) {
+		return builder(reactor, next).build();
+	}
+
+	public static Builder builder(Reactor reactor, AsyncServlet next) {
+		return new CachingServlet(reactor, next).new Builder();
+	}
+
+	public static Function<AsyncServlet, AsyncServlet> decorator(Reactor reactor) {
+		return next -> create(reactor, next);
+	}
+
+	public final class Builder extends AbstractBuilder<Builder, CachingServlet> {
+		private Builder() {}
+
+		/**
+		 * Sets a maximum total size of cached responses
+		 */
+		public Builder withMaxCacheSize(MemSize maxCacheSize) {
+			checkNotBuilt(this);
+			CachingServlet.this.maxCacheSize = maxCacheSize.toLong();
+			return this;
+		}
+
+		/**
+		 * Sets a maximum body size of a single cached response, larger responses are not cached
+		 */
+		public Builder withMaxEntrySize(MemSize maxEntrySize) {
+			checkNotBuilt(this);
+			CachingServlet.this.maxEntrySize = maxEntrySize.toInt();
+			return this;
+		}
+
+		/**
+		 * Sets a freshness lifetime for responses that do not specify an explicit expiration time
+		 */
+		public Builder withDefaultTtl(Duration defaultTtl) {
+			checkNotBuilt(this);
+			CachingServlet.this.defaultTtl = defaultTtl.toMillis();
+			return this;
+		}
+
+		/**
+		 * Sets a period after expiration during which a stale response may be served while being
+		 * revalidated in background, for responses that do not specify a {@code stale-while-revalidate} directive
+		 */
+		public Builder withStaleWhileRevalidate(Duration staleWhileRevalidate) {
+			checkNotBuilt(this);
+			CachingServlet.this.defaultStaleWhileRevalidate = staleWhileRevalidate.toMillis();
+			return this;
+		}
+
+		@Override
+		protected CachingServlet doBuild() {
+			cache = WTinyLfuCache.<String, CachedResponse>builder(maxCacheSize)
+				.withWeigher((key, response) -> 2L * key.length() + response.size)
+				.withRemovalListener(CachingServlet.this::onRemoval)
+				.build();
+			return CachingServlet.this;
+		}
+	}
+
+	@Override
+	public Promise<HttpResponse> serve(HttpRequest request) throws Exception {
+		if (CHECKS) checkInReactorThread(this);
+		HttpMethod method = request.getMethod();
+		if (method != GET) {
+			if (method == HttpMethod.HEAD || method == HttpMethod.OPTIONS || method == HttpMethod.TRACE) {
+				return next.serve(request);
+			}
+			String url = request.getFullUrl();
+			return next.serve(request)
+				.whenResult(response -> {
+					if (response.getCode() < 400) invalidate(url);
+				});
+		}
+
+		CacheControl requestCacheControl = CacheControl.parse(request);
+		if (requestCacheControl.noStore) {
+			return next.serve(request);
+		}
+
+		String url = request.getFullUrl();
+		Variants variants = this.variants.get(url);
+		String key = variants == null ? url : variants.keyOf(url, request);
+		boolean forceRevalidation = requestCacheControl.noCache || requestCacheControl.maxAge == 0;
+
+		long now = reactor.currentTimeMillis();
+		CachedResponse cached = cache.get(key);
+		if (cached != null && !forceRevalidation) {
+			if (cached.isFresh(now)) {
+				hits.recordEvent();
+				return Promise.of(cached.toResponse(request, now));
+			}
+			if (cached.canServeStale(now)) {
+				staleHits.recordEvent();
+				// a response is built before revalidation, which may replace the cached response right away
+				HttpResponse response = cached.toResponse(request, now);
+				if (!pending.containsKey(key)) {
+					revalidateInBackground(key, url, request, cached);
+				}
+				return Promise.of(response);
+			}
+		}
+
+		Promise<@Nullable CachedResponse> pendingResponse = pending.get(key);
+		if (pendingResponse != null) {
+			collapsedMisses.recordEvent();
+			return pendingResponse
+				.then(response -> response != null ?
+					Promise.of(response.toResponse(request, reactor.currentTimeMillis())) :
+					next.serve(request));
+		}
+
+		if (cached != null && cached.hasValidators()) {
+			revalidations.recordEvent();
+			return fetch(key, url, copyOf(request), cached)
+				.then(response -> {
+					if (response.getCode() != 304) return Promise.of(response);
+					response.recycle();
+					// cached response could have been evicted while being revalidated
+					return cache.peek(key) == cached ?
+						Promise.of(cached.toResponse(request, reactor.currentTimeMillis())) :
+						next.serve(request);
+				});
+		}
+
+		misses.recordEvent();
+		return fetch(key, url, request, null);
+	}
+
+	private void revalidateInBackground(String key, String url, HttpRequest request, CachedResponse stale) {
+		revalidations.recordEvent();
+		HttpRequest revalidationRequest = copyOf(request);
+		fetch(key, url, revalidationRequest, stale.hasValidators() ? stale : null)
+			.whenResult(HttpResponse::recycle)
+			.whenException(e -> logger.warn("Failed to revalidate {}", key, e));
+	}
+
+	private Promise<HttpResponse> fetch(String key, String url, HttpRequest request, @Nullable CachedResponse stale) {
+		if (stale != null) {
+			if (stale.etag != null) request.headers.add(IF_NONE_MATCH, HttpHeaderValue.of(stale.etag));
+			if (stale.lastModified != null) request.headers.add(IF_MODIFIED_SINCE, HttpHeaderValue.ofInstant(stale.lastModified));
+		}
+
+		Promise<HttpResponse> responsePromise = serveNext(request);
+		Promise<@Nullable CachedResponse> cachedPromise = responsePromise
+			.then(response -> onResponse(key, url, request, response, stale));
+		if (!cachedPromise.isComplete()) {
+			pending.put(key, cachedPromise);
+			cachedPromise.whenComplete(() -> pending.remove(key));
+		}
+		// a response is returned only after its body is loaded into cache
+		return cachedPromise.then(() -> responsePromise);
+	}
+
+	private Promise<HttpResponse> serveNext(HttpRequest request) {
+		try {
+			return next.serve(request);
+		} catch (Exception e) {
+			return Promise.ofException(e);
+		}
+	}
+
+	private Promise<@Nullable CachedResponse> onResponse(String key, String url, HttpRequest request, HttpResponse response,
+		@Nullable CachedResponse stale) {
+		long now = reactor.currentTimeMillis();
+		if (response.getCode() == 304 && stale != null) {
+			notModified.recordEvent();
+			stale.refresh(response, now);
+			return Promise.of(cache.peek(key) == stale ? stale : null);
+		}
+
+		CacheControl cacheControl = CacheControl.parse(response);
+		if (!isCacheable(request, response, cacheControl)) {
+			uncacheable.recordEvent();
+			return Promise.of(null);
+		}
+
+		List<HttpHeader> varyHeaders = List.of();
+		String varyHeader = response.getHeader(VARY);
+		if (varyHeader != null) {
+			varyHeaders = parseVary(varyHeader);
+			if (varyHeaders == null) {
+				uncacheable.recordEvent();
+				return Promise.of(null);
+			}
+		}
+
+		if (response.body == null && response.bodyStream == null) {
+			return Promise.of(store(url, request, varyHeaders, response, ByteBuf.empty(), cacheControl, now));
+		}
+		if (!response.hasBody()) {
+			Integer contentLength = response.getHeader(CONTENT_LENGTH, HttpHeaderValue::toPositiveInt);
+			if (contentLength == null || contentLength > maxEntrySize) {
+				uncacheable.recordEvent();
+				return Promise.of(null);
+			}
+		}
+
+		List<HttpHeader> finalVaryHeaders = varyHeaders;
+		return response.loadBody(maxEntrySize)
+			.map(body -> {
+				if (body.readRemaining() > maxEntrySize) {
+					uncacheable.recordEvent();
+					return null;
+				}
+				return store(url, request, finalVaryHeaders, response, body.slice(), cacheControl, now);
+			});
+	}
+
+	private boolean isCacheable(HttpRequest request, HttpResponse response, CacheControl cacheControl) {
+		if (!CACHEABLE_CODES.contains(response.getCode())) return false;
+		if (cacheControl.noStore || cacheControl.isPrivate) return false;
+		if (response.hasHeader(SET_COOKIE)) return false;
+		if (request.hasHeader(AUTHORIZATION) && !cacheControl.isPublic && cacheControl.sMaxAge == -1) return false;
+		return cacheControl.sMaxAge > 0 || cacheControl.maxAge > 0 || response.hasHeader(EXPIRES) ||
+			response.hasHeader(ETAG) || response.hasHeader(LAST_MODIFIED) ||
+			(!cacheControl.mustRevalidate && (cacheControl.staleWhileRevalidate > 0 || defaultStaleWhileRevalidate > 0)) ||
+			(defaultTtl > 0 && !cacheControl.noCache);
+	}
+
+	private @Nullable CachedResponse store(String url, HttpRequest request, List<HttpHeader> varyHeaders,
+		HttpResponse response, ByteBuf body, CacheControl cacheControl, long now) {
+		Variants variants = this.variants.get(url);
+		if (variants != null && !variants.varyHeaders.equals(varyHeaders)) {
+			// previous variants are keyed by other headers and would never be looked up again
+			invalidate(url);
+			variants = null;
+		}
+		if (variants == null) {
+			variants = new Variants(varyHeaders);
+			this.variants.put(url, variants);
+		}
+		String key = variants.keyOf(url, request);
+		variants.keys.add(key);
+
+		CachedResponse cachedResponse = new CachedResponse(url, response, body, cacheControl, now);
+		cache.put(key, cachedResponse);
+		return cache.peek(key) == cachedResponse ? cachedResponse : null;
+	}
+
+	private void onRemoval(String key, CachedResponse cachedResponse) {
+		cachedResponse.body.recycle();
+		Variants variants = this.variants.get(cachedResponse.url);
+		if (variants != null && !cache.containsKey(key)) {
+			variants.keys.remove(key);
+			if (variants.keys.isEmpty()) {
+				this.variants.remove(cachedResponse.url);
+			}
+		}
+	}
+
+	/**
+	 * @return {@code null} if a response varies on all the request headers and cannot be cached
+	 */
+	private static @Nullable List<HttpHeader> parseVary(String varyHeader) {
+		List<HttpHeader> varyHeaders = new ArrayList<>();
+		for (String name : varyHeader.split(",")) {
+			name = name.trim();
+			if (name.isEmpty()) continue;
+			if (name.equals("*")) return null;
+			varyHeaders.add(HttpHeaders.of(name));
+		}
+		return varyHeaders;
+	}
+
+	private void invalidate(String url) {
+		Variants variants = this.variants.remove(url);
+		if (variants == null) return;
+		for (String key : new ArrayList<>(variants.keys)) {
+			cache.invalidate(key);
+		}
+	}
+
+	private static HttpRequest copyOf(HttpRequest request) {
+		HttpRequest copy = HttpRequest.builder(request.getMethod(), request.getFullUrl()).build();
+		for (Map.Entry<HttpHeader, HttpHeaderValue> entry : request.getHeaders()) {
+			HttpHeader header = entry.getKey();
+			if (CONDITIONAL_HEADERS.contains(header)) continue;
+			copy.headers.add(header, HttpHeaderValue.ofBytes(entry.getValue().getBuf().asArray()));
+		}
+		if (request.isRemoteAddressSet()) {
+			copy.setRemoteAddress(request.getRemoteAddress());
+		}
+		return copy;
+	}
+
+	private final class CachedResponse {
+		final String url;
+		final int code;
+		final HttpHeader[] headers;
+		final HttpHeaderValue[] values;
+		final ByteBuf body;
+		final int size;
+
+		final @Nullable String etag;
+		final @Nullable Instant lastModified;
+
+		long responseTime;
+		long initialAge;
+		long freshnessLifetime;
+		long staleWhileRevalidate;
+
+		CachedResponse(String url, HttpResponse response, ByteBuf body, CacheControl cacheControl, long now) {
+			this.url = url;
+			this.code = response.getCode();
+			this.body = body;
+
+			List<HttpHeader> headers = new ArrayList<>();
+			List<HttpHeaderValue> values = new ArrayList<>();
+			int size = ENTRY_OVERHEAD + body.readRemaining();
+			for (Map.Entry<HttpHeader, HttpHeaderValue> entry : response.getHeaders()) {
+				HttpHeader header = entry.getKey();
+				if (NOT_STORED_HEADERS.contains(header)) continue;
+				byte[] value = entry.getValue().getBuf().asArray();
+				headers.add(header);
+				values.add(HttpHeaderValue.ofBytes(value));
+				size += header.size() + value.length;
+			}
+			this.headers = headers.toArray(new HttpHeader[0]);
+			this.values = values.toArray(new HttpHeaderValue[0]);
+			this.size = size;
+			this.etag = response.getHeader(ETAG);
+			this.lastModified = response.getHeader(LAST_MODIFIED, HttpHeaderValue::toInstant);
+
+			updateFreshness(response, cacheControl, now);
+		}
+
+		boolean hasValidators() {
+			return etag != null || lastModified != null;
+		}
+
+		long age(long now) {
+			return initialAge + Math.max(0, now - responseTime);
+		}
+
+		boolean isFresh(long now) {
+			return age(now) < freshnessLifetime;
+		}
+
+		boolean canServeStale(long now) {
+			return age(now) < freshnessLifetime + staleWhileRevalidate;
+		}
+
+		void refresh(HttpResponse notModifiedResponse, long now) {
+			CacheControl cacheControl = CacheControl.parse(notModifiedResponse);
+			if (cacheControl.maxAge == -1 && cacheControl.sMaxAge == -1 && !notModifiedResponse.hasHeader(EXPIRES)) {
+				responseTime = now;
+				initialAge = 0;
+				return;
+			}
+			updateFreshness(notModifiedResponse, cacheControl, now);
+		}
+
+		private void updateFreshness(HttpResponse response, CacheControl cacheControl, long now) {
+			Integer age = response.getHeader(AGE, HttpHeaderValue::toPositiveInt);
+			this.responseTime = now;
+			this.initialAge = age == null ? 0 : age * 1000L;
+
+			if (cacheControl.noCache) {
+				freshnessLifetime = 0;
+			} else if (cacheControl.sMaxAge != -1) {
+				freshnessLifetime = cacheControl.sMaxAge * 1000L;
+			} else if (cacheControl.maxAge != -1) {
+				freshnessLifetime = cacheControl.maxAge * 1000L;
+			} else {
+				Instant expires = response.getHeader(EXPIRES, HttpHeaderValue::toInstant);
+				if (expires != null) {
+					Instant date = response.getHeader(DATE, HttpHeaderValue::toInstant);
+					long dateMillis = date != null ? date.toEpochMilli() : now;
+					freshnessLifetime = Math.max(0, expires.toEpochMilli() - dateMillis);
+				} else {
+					freshnessLifetime = defaultTtl;
+				}
+			}
+
+			if (cacheControl.mustRevalidate) {
+				staleWhileRevalidate = 0;
+			} else if (cacheControl.staleWhileRevalidate != -1) {
+				staleWhileRevalidate = cacheControl.staleWhileRevalidate * 1000L;
+			} else {
+				staleWhileRevalidate = defaultStaleWhileRevalidate;
+			}
+		}
+
+		HttpResponse toResponse(HttpRequest request, long now) {
+			HttpResponse.Builder builder = isNotModified(request) ?
+				HttpResponse.ofCode(304) :
+				HttpResponse.ofCode(code).withBody(body.slice());
+			for (int i = 0; i < headers.length; i++) {
+				builder.withHeader(headers[i], values[i]);
+			}
+			builder.withHeader(AGE, ofDecimal((int) (age(now) / 1000L)));
+			HttpResponse response = builder.build();
+			if (response.body != null) servedBytes.recordEvents(response.body.readRemaining());
+			return response;
+		}
+
+		private boolean isNotModified(HttpRequest request) {
+			if (code != 200) return false;
+			String ifNoneMatch = request.getHeader(IF_NONE_MATCH);
+			if (ifNoneMatch != null) {
+				return etag != null && matchesEtag(ifNoneMatch, etag);
+			}
+			if (lastModified != null) {
+				Instant ifModifiedSince = request.getHeader(IF_MODIFIED_SINCE, HttpHeaderValue::toInstant);
+				return ifModifiedSince != null && !lastModified.isAfter(ifModifiedSince);
+			}
+			return false;
+		}
+	}
+
+	static boolean matchesEtag(String ifNoneMatch, String etag) {
+		String opaqueEtag = stripWeak(etag);
+		for (String candidate : ifNoneMatch.split(",")) {
+			candidate = candidate.trim();
+			if (candidate.equals("*") || stripWeak(candidate).equals(opaqueEtag)) return true;
+		}
+		return false;
+	}
+
+	private static String stripWeak(String etag) {
+		return etag.startsWith("W/") ? etag.substring(2) : etag;
+	}
+
+	private static final class Variants {
+		final Set<String> keys = new HashSet<>();
+		final List<HttpHeader> varyHeaders;
+
+		Variants(List<HttpHeader> varyHeaders) {
+			this.varyHeaders = varyHeaders;
+		}
+
+		String keyOf(String url, HttpRequest request) {
+			if (varyHeaders.isEmpty()) return url;
+			StringBuilder sb = new StringBuilder(url);
+			for (HttpHeader header : varyHeaders) {
+				String value = request.getHeader(header);
+				sb.append('\n').append(value == null ? "" : value);
+			}
+			return sb.toString();
+		}
+	}
+
+	private record CacheControl(
+		boolean noStore, boolean noCache, boolean isPrivate, boolean isPublic, boolean mustRevalidate,
+		long maxAge, long sMaxAge, long staleWhileRevalidate
+	) {
+		static final CacheControl EMPTY = new CacheControl(false, false, false, false, false, -1, -1, -1);
+
+		static CacheControl parse(HttpMessage message) {
+			StringBuilder sb = new StringBuilder();
+			message.forEachHeader(CACHE_CONTROL, value -> {
+				if (!sb.isEmpty()) sb.append(',');
+				sb.append(value);
+				return true;
+			});
+			boolean pragmaNoCache = message instanceof HttpRequest && "no-cache".equalsIgnoreCase(message.getHeader(PRAGMA));
+			if (sb.isEmpty()) {
+				return pragmaNoCache ? new CacheControl(false, true, false, false, false, -1, -1, -1) : EMPTY;
+			}
+
+			boolean noStore = false, noCache = pragmaNoCache, isPrivate = false, isPublic = false, mustRevalidate = false;
+			long maxAge = -1, sMaxAge = -1, staleWhileRevalidate = -1;
+			for (String directive : sb.toString().split(",")) {
+				directive = directive.trim().toLowerCase();
+				int eq = directive.indexOf('=');
+				String name = eq == -1 ? directive : directive.substring(0, eq).trim();
+				switch (name) {
+					case "no-store" -> noStore = true;
+					case "no-cache" -> noCache = true;
+					case "private" -> isPrivate = true;
+					case "public" -> isPublic = true;
+					case "must-revalidate", "proxy-revalidate" -> mustRevalidate = true;
+					case "max-age" -> maxAge = parseSeconds(directive, eq);
+					case "s-maxage" -> sMaxAge = parseSeconds(directive, eq);
+					case "stale-while-revalidate" -> staleWhileRevalidate = parseSeconds(directive, eq);
+				}
+			}
+			return new CacheControl(noStore, noCache, isPrivate, isPublic, mustRevalidate, maxAge, sMaxAge, staleWhileRevalidate);
+		}
+
+		private static long parseSeconds(String directive, int eq) {
+			if (eq == -1) return -1;
+			String value = directive.substring(eq + 1).trim();
+			if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+				value = value.substring(1, value.length() - 1);
+			}
+			try {
+				return Math.max(0, Long.parseLong(value));
+			} catch (NumberFormatException ignored) {
+				return -1;
+			}
+		}
+	}
+
+	@JmxOperation
+	public void clear() {
+		cache.clear();
+		variants.clear();
+	}
+
+	@JmxAttribute
+	public EventStats getHits() {
+		return hits;
+	}
+
+	@JmxAttribute
+	public EventStats getStaleHits() {
+		return staleHits;
+	}
+
+	@JmxAttribute
+	public EventStats getMisses() {
+		return misses;
+	}
+
+	@JmxAttribute
+	public EventStats getCollapsedMisses() {
+		return collapsedMisses;
+	}
+
+	@JmxAttribute
+	public EventStats getRevalidations() {
+		return revalidations;
+	}
+
+	@JmxAttribute
+	public EventStats getNotModified() {
+		return notModified;
+	}
+
+	@JmxAttribute
+	public EventStats getUncacheable() {
+		return uncacheable;
+	}
+
+	@JmxAttribute
+	public EventStats getServedBytes() {
+		return servedBytes;
+	}
+
+	@JmxAttribute
+	public int getCachedEntries() {
+		return cache.size();
+	}
+
+	@JmxAttribute
+	public long getCachedBytes() {
+		return cache.getWeightedSize();
+	}
+
+	@JmxAttribute
+	public long getEvictions() {
+		return cache.getEvictionCount();
+	}
+
+	@JmxAttribute
+	public long getMaxCacheSize() {
+		return cache.getMaximumWeight();
+	}
+
+	@JmxAttribute
+	public void setMaxCacheSize(long maxCacheSize) {
+		cache.setMaximumWeight(maxCacheSize);
+	}
+
+	@JmxAttribute
+	public int getPendingRequests() {
+		return pending.size();
+	}
+}
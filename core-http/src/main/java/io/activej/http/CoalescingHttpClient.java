@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.common.Checks;
+import io.activej.common.MemSize;
+import io.activej.common.builder.AbstractBuilder;
+import io.activej.jmx.api.attribute.JmxAttribute;
+import io.activej.jmx.stats.EventStats;
+import io.activej.promise.Promise;
+import io.activej.promise.SettablePromise;
+import io.activej.reactor.AbstractReactive;
+import io.activej.reactor.Reactor;
+import io.activej.reactor.jmx.ReactiveJmxBeanWithStats;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.activej.http.HttpMethod.GET;
+import static io.activej.reactor.Reactive.checkInReactorThread;
+
+/**
+ * An {@link IHttpClient} decorator that coalesces identical in-flight {@code GET} requests
+ * into a single request to an underlying client.
+ * <p>
+ * Requests are considered identical if they have the same full URL and the same headers.
+ * A request joins an in-flight request until the response headers of the latter are received.
+ * If any requests have joined, the response body is loaded and each of the joined requests
+ * receives its own copy of the response that shares the body by means of {@link ByteBuf#slice()}.
+ * <p>
+ * Just like responses of {@link HttpClient}, the copies are valid only until the end of the current
+ * reactor tick and are recycled afterwards.
+ */
+public final class CoalescingHttpClient extends AbstractReactive
+	implements IHttpClient, ReactiveJmxBeanWithStats {
+	private static final boolean CHECKS = Checks.isEnabled(CoalescingHttpClient.class);
+
+	private static final Duration SMOOTHING_WINDOW = Duration.ofMinutes(1);
+
+	private final IHttpClient next;
+
+	private int maxBodySize;
+
+	private final Map<String, InFlight> inFlight = new HashMap<>();
+
+	// region JMX
+	private final EventStats requests = EventStats.create(SMOOTHING_WINDOW);
+	private final EventStats coalesced = EventStats.create(SMOOTHING_WINDOW);
+	// endregion
+
+	private CoalescingHttpClient(Reactor reactor, IHttpClient next) {
+		super(reactor);
+		this.next = next;
+	}
+
+	public static CoalescingHttpClient create(Reactor reactor, IHttpClient next) {
+		return builder(reactor, next).build();
+	}
+
+	public static Builder builder(Reactor reactor, IHttpClient next) {
+		return new CoalescingHttpClient(reactor, next).new Builder();
+	}
+
+	public final class Builder extends AbstractBuilder<Builder, CoalescingHttpClient> {
+		private Builder() {}
+
+		/**
+		 * Sets a maximum size of a body that is loaded in order to be shared among coalesced requests
+		 */
+		public Builder withMaxBodySize(MemSize maxBodySize) {
+			checkNotBuilt(this);
+			CoalescingHttpClient.this.maxBodySize = maxBodySize.toInt();
+			return this;
+		}
+
+		@Override
+		protected CoalescingHttpClient doBuild() {
+			return CoalescingHttpClient.this;
+		}
+	}
+
+	@Override
+	public Promise<HttpResponse> request(HttpRequest request) {
+		if (CHECKS) checkInReactorThread(this);
+		requests.recordEvent();
+		if (request.getMethod() != GET || request.body != null || request.bodyStream != null) {
+			return next.request(request);
+		}
+
+		String key = keyOf(request);
+		InFlight existing = inFlight.get(key);
+		if (existing != null) {
+			coalesced.recordEvent();
+			request.recycle();
+			SettablePromise<HttpResponse> promise = new SettablePromise<>();
+			existing.followers.add(promise);
+			return promise;
+		}
+
+		InFlight leader = new InFlight();
+		inFlight.put(key, leader);
+		return next.request(request)
+			.then((response, e) -> {
+				inFlight.remove(key);
+				List<SettablePromise<HttpResponse>> followers = leader.followers;
+				if (e != null) {
+					for (SettablePromise<HttpResponse> follower : followers) {
+						follower.setException(e);
+					}
+					return Promise.ofException(e);
+				}
+				if (followers.isEmpty()) {
+					return Promise.of(response);
+				}
+				return (maxBodySize == 0 ? response.loadBody() : response.loadBody(maxBodySize))
+					.then((body, e2) -> {
+						if (e2 != null) {
+							for (SettablePromise<HttpResponse> follower : followers) {
+								follower.setException(e2);
+							}
+							return Promise.ofException(e2);
+						}
+						for (SettablePromise<HttpResponse> follower : followers) {
+							HttpResponse copy = copyOf(response, body);
+							follower.set(copy);
+							reactor.post(copy::recycle);
+						}
+						return Promise.of(response);
+					});
+			});
+	}
+
+	private static String keyOf(HttpRequest request) {
+		StringBuilder sb = new StringBuilder(request.getFullUrl());
+		for (Map.Entry<HttpHeader, HttpHeaderValue> entry : request.getHeaders()) {
+			sb.append('\n').append(entry.getKey()).append(": ").append(entry.getValue());
+		}
+		return sb.toString();
+	}
+
+	private static HttpResponse copyOf(HttpResponse response, ByteBuf body) {
+		HttpResponse.Builder builder = HttpResponse.ofCode(response.getCode()).withBody(body.slice());
+		for (Map.Entry<HttpHeader, HttpHeaderValue> entry : response.getHeaders()) {
+			builder.withHeader(entry.getKey(), HttpHeaderValue.ofBytes(entry.getValue().getBuf().asArray()));
+		}
+		return builder.build();
+	}
+
+	private static final class InFlight {
+		final List<SettablePromise<HttpResponse>> followers = new ArrayList<>();
+	}
+
+	// region JMX
+	@JmxAttribute
+	public EventStats getRequests() {
+		return requests;
+	}
+
+	@JmxAttribute(description = "requests that joined an identical in-flight request")
+	public EventStats getCoalesced() {
+		return coalesced;
+	}
+
+	@JmxAttribute
+	public int getInFlightRequests() {
+		return inFlight.size();
+	}
+	// endregion
+}
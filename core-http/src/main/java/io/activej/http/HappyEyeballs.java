@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.http;
+
+import io.activej.dns.IDnsClient;
+import io.activej.dns.protocol.DnsResponse;
+import io.activej.net.socket.tcp.TcpSocket;
+import io.activej.promise.Promise;
+import io.activej.promise.SettablePromise;
+import io.activej.reactor.net.SocketSettings;
+import io.activej.reactor.nio.NioReactor;
+import io.activej.reactor.schedule.ScheduledRunnable;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A "happy eyeballs" (RFC 8305) connection establishment for dual-stack hosts.
+ * <p>
+ * IPv6 and IPv4 addresses are resolved concurrently. If IPv6 addresses are resolved first, they are
+ * connected to right away. If IPv4 addresses are resolved first, IPv6 addresses are awaited
+ * only for a short resolution delay. Addresses of the other family are added to a running race
+ * as soon as they are resolved. Connection attempts to resolved addresses
+ * (with families interleaved) are started one after another, each following attempt
+ * is started either after a connection attempt delay or as soon as a previous attempt fails.
+ * The first established connection wins, and the others are closed.
+ */
+final class HappyEyeballs {
+	static final long RESOLUTION_DELAY_MILLIS = 50;
+
+	/**
+	 * Resolves addresses of a family that should be connected to first.
+	 * Addresses of the other family are set to a given promise once they are resolved,
+	 * or an empty array is set if there are none
+	 */
+	static Promise<DnsResponse> resolve(
+		NioReactor reactor, IDnsClient dnsClient, String host, SettablePromise<InetAddress[]> otherAddresses
+	) {
+		Promise<DnsResponse> ipv6 = dnsClient.resolve6(host);
+		Promise<DnsResponse> ipv4 = dnsClient.resolve4(host);
+		SettablePromise<DnsResponse> result = new SettablePromise<>();
+		ScheduledRunnable[] resolutionDelay = new ScheduledRunnable[1];
+		Runnable onResolved = () -> {
+			if (result.isComplete()) return;
+			if (addressesOf(ipv6).length != 0) {
+				// IPv6 addresses are connected to right away, IPv4 addresses are added to a race later
+				complete(result, ipv6, ipv4, otherAddresses, resolutionDelay[0]);
+			} else if (ipv6.isComplete()) {
+				if (ipv4.isComplete()) {
+					complete(result, ipv4, ipv6, otherAddresses, resolutionDelay[0]);
+				}
+			} else if (addressesOf(ipv4).length != 0 && resolutionDelay[0] == null) {
+				resolutionDelay[0] = reactor.delay(RESOLUTION_DELAY_MILLIS, () -> {
+					if (result.isComplete()) return;
+					complete(result, ipv4, ipv6, otherAddresses, null);
+				});
+			}
+		};
+		ipv6.subscribe(($, e) -> onResolved.run());
+		ipv4.subscribe(($, e) -> onResolved.run());
+		return result;
+	}
+
+	private static void complete(
+		SettablePromise<DnsResponse> result, Promise<DnsResponse> first, Promise<DnsResponse> other,
+		SettablePromise<InetAddress[]> otherAddresses, @Nullable ScheduledRunnable resolutionDelay
+	) {
+		if (resolutionDelay != null) resolutionDelay.cancel();
+		first.subscribe(result::set);
+		other.subscribe(($, e) -> otherAddresses.set(addressesOf(other)));
+	}
+
+	private static InetAddress[] addressesOf(Promise<DnsResponse> promise) {
+		if (!promise.isResult() || !promise.getResult().isSuccessful()) {
+			return new InetAddress[0];
+		}
+		//noinspection ConstantConditions - response is successful
+		return promise.getResult().getRecord().getIps();
+	}
+
+	/**
+	 * Connects to the first of given addresses that accepts a connection.
+	 * Other addresses are added to a race once they are resolved
+	 */
+	static Promise<TcpSocket> connect(
+		NioReactor reactor, List<InetSocketAddress> addresses, Promise<List<InetSocketAddress>> otherAddresses,
+		long attemptDelayMillis, long connectTimeoutMillis, SocketSettings socketSettings,
+		Consumer<InetSocketAddress> onAttempt
+	) {
+		Race race = new Race(reactor, addresses, attemptDelayMillis, connectTimeoutMillis, socketSettings, onAttempt);
+		race.attempt();
+		otherAddresses.subscribe((others, e) -> race.add(e == null ? others : List.of()));
+		return race.result;
+	}
+
+	static List<InetSocketAddress> socketAddresses(InetAddress[] inetAddresses, int port) {
+		List<InetSocketAddress> addresses = new ArrayList<>(inetAddresses.length);
+		for (InetAddress inetAddress : inetAddresses) {
+			addresses.add(new InetSocketAddress(inetAddress, port));
+		}
+		return addresses;
+	}
+
+	private static final class Race {
+		final NioReactor reactor;
+		final List<InetSocketAddress> addresses;
+		final long attemptDelayMillis;
+		final long connectTimeoutMillis;
+		final SocketSettings socketSettings;
+		final Consumer<InetSocketAddress> onAttempt;
+		final SettablePromise<TcpSocket> result = new SettablePromise<>();
+
+		int next;
+		int pending;
+		boolean resolving = true;
+		@Nullable Exception lastException;
+		@Nullable ScheduledRunnable nextAttempt;
+
+		Race(
+			NioReactor reactor, List<InetSocketAddress> addresses, long attemptDelayMillis,
+			long connectTimeoutMillis, SocketSettings socketSettings, Consumer<InetSocketAddress> onAttempt
+		) {
+			this.reactor = reactor;
+			this.addresses = new ArrayList<>(addresses);
+			this.attemptDelayMillis = attemptDelayMillis;
+			this.connectTimeoutMillis = connectTimeoutMillis;
+			this.socketSettings = socketSettings;
+			this.onAttempt = onAttempt;
+		}
+
+		void attempt() {
+			if (nextAttempt != null) {
+				nextAttempt.cancel();
+				nextAttempt = null;
+			}
+			if (result.isComplete() || next == addresses.size()) return;
+			InetSocketAddress address = addresses.get(next++);
+			if (next < addresses.size()) {
+				nextAttempt = reactor.delay(attemptDelayMillis, this::attempt);
+			}
+			pending++;
+			onAttempt.accept(address);
+			TcpSocket.connect(reactor, address, connectTimeoutMillis, socketSettings)
+				.subscribe((socket, e) -> {
+					pending--;
+					if (e == null) {
+						if (result.trySet(socket)) {
+							if (nextAttempt != null) nextAttempt.cancel();
+						} else {
+							socket.close();
+						}
+						return;
+					}
+					if (result.isComplete()) return;
+					lastException = e;
+					if (next < addresses.size()) {
+						attempt();
+					} else if (pending == 0 && !resolving) {
+						result.setException(e);
+					}
+				});
+		}
+
+		void add(List<InetSocketAddress> others) {
+			resolving = false;
+			if (result.isComplete()) return;
+			// an address of the first family has already been attempted,
+			// so addresses of the other family are interleaved with the remaining ones, starting with the other family
+			List<InetSocketAddress> remaining = new ArrayList<>(addresses.subList(next, addresses.size()));
+			addresses.subList(next, addresses.size()).clear();
+			for (int i = 0; i < Math.max(remaining.size(), others.size()); i++) {
+				if (i < others.size()) addresses.add(others.get(i));
+				if (i < remaining.size()) addresses.add(remaining.get(i));
+			}
+			if (nextAttempt != null || next == addresses.size()) {
+				if (pending == 0 && nextAttempt == null && lastException != null) {
+					result.setException(lastException);
+				}
+				return;
+			}
+			if (pending == 0) {
+				attempt();
+			} else {
+				nextAttempt = reactor.delay(attemptDelayMillis, this::attempt);
+			}
+		}
+	}
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.http;
+
+import io.activej.async.exception.AsyncCloseException;
+import io.activej.bytebuf.ByteBuf;
+import io.activej.common.Checks;
+import io.activej.common.builder.AbstractBuilder;
+import io.activej.csp.supplier.ChannelSupplier;
+import io.activej.jmx.api.attribute.JmxAttribute;
+import io.activej.jmx.stats.EventStats;
+import io.activej.jmx.stats.ValueStats;
+import io.activej.promise.Promise;
+import io.activej.promise.SettablePromise;
+import io.activej.reactor.AbstractReactive;
+import io.activej.reactor.Reactor;
+import io.activej.reactor.jmx.ReactiveJmxBeanWithStats;
+import io.activej.reactor.schedule.ScheduledRunnable;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+import static io.activej.common.Checks.checkArgument;
+import static io.activej.http.HttpMethod.GET;
+import static io.activej.http.HttpMethod.HEAD;
+import static io.activej.reactor.Reactive.checkInReactorThread;
+
+/**
+ * An {@link IHttpClient} decorator that sends a hedged duplicate of a request
+ * if the original request has not been responded within a hedge delay.
+ * <p>
+ * The hedge delay is a configured percentile of recently observed response latencies,
+ * bounded by a {@link Builder#withMinDelay minimum} and a {@link Builder#withMaxDelay maximum} delay.
+ * Until enough latencies are observed, the maximum delay is used.
+ * <p>
+ * Whichever response arrives first is returned, and the other request is aborted. If it is sent
+ * by {@link HttpClient}, a connection that waits for its response is closed, and if its response has already
+ * arrived, its body stream is closed instead of being read.
+ * If a host resolves to several addresses, {@link HttpClient} sends a hedged request to an address
+ * other than the one that the original request has been sent to.
+ * <p>
+ * Only {@code GET} and {@code HEAD} requests without a body stream are hedged.
+ * The number of hedged requests is limited by a {@link Builder#withMaxHedgeRatio ratio} of all the requests,
+ * so that a slow upstream is not overloaded with duplicates.
+ */
+public final class HedgingHttpClient extends AbstractReactive
+	implements IHttpClient, ReactiveJmxBeanWithStats {
+	private static final boolean CHECKS = Checks.isEnabled(HedgingHttpClient.class);
+
+	public static final double DEFAULT_PERCENTILE = 0.95;
+	public static final Duration DEFAULT_MIN_DELAY = Duration.ofMillis(1);
+	public static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(1);
+	public static final double DEFAULT_MAX_HEDGE_RATIO = 0.1;
+	public static final int DEFAULT_SAMPLE_SIZE = 1024;
+
+	private static final Duration SMOOTHING_WINDOW = Duration.ofMinutes(1);
+	private static final AsyncCloseException HEDGE_LOST = new AsyncCloseException("Response to a hedged request is not needed");
+
+	/**
+	 * A maximum number of hedges that may be accumulated in a budget while there are no slow requests
+	 */
+	private static final double MAX_HEDGE_BUDGET = 10;
+
+	private final IHttpClient next;
+
+	private double percentile = DEFAULT_PERCENTILE;
+	private long minDelay = DEFAULT_MIN_DELAY.toMillis();
+	private long maxDelay = DEFAULT_MAX_DELAY.toMillis();
+	private double maxHedgeRatio = DEFAULT_MAX_HEDGE_RATIO;
+
+	private long[] latencies = new long[DEFAULT_SAMPLE_SIZE];
+	private long latenciesCount;
+	private long hedgeDelay;
+	private double hedgeBudget;
+
+	// region JMX
+	private final EventStats requests = EventStats.create(SMOOTHING_WINDOW);
+	private final EventStats hedges = EventStats.create(SMOOTHING_WINDOW);
+	private final EventStats hedgesWon = EventStats.create(SMOOTHING_WINDOW);
+	private final EventStats hedgesOverBudget = EventStats.create(SMOOTHING_WINDOW);
+	private final ValueStats latency = ValueStats.builder(SMOOTHING_WINDOW)
+		.withUnit("ms")
+		.withRate()
+		.build();
+	private final ValueStats latencyWon = ValueStats.builder(SMOOTHING_WINDOW)
+		.withUnit("ms")
+		.build();
+	// endregion
+
+	private HedgingHttpClient(Reactor reactor, IHttpClient next) {
+		super(reactor);
+		this.next = next;
+	}
+
+	public static HedgingHttpClient create(Reactor reactor, IHttpClient next) {
+		return builder(reactor, next).build();
+	}
+
+	public static Builder builder(Reactor reactor, IHttpClient next) {
+		return new HedgingHttpClient(reactor, next).new Builder();
+	}
+
+	public final class Builder extends AbstractBuilder<Builder, HedgingHttpClient> {
+		private Builder() {}
+
+		/**
+		 * Sets a percentile of observed latencies that is used as a hedge delay
+		 */
+		public Builder withPercentile(double percentile) {
+			checkNotBuilt(this);
+			checkArgument(percentile > 0 && percentile < 1, "Percentile should be in range (0, 1)");
+			HedgingHttpClient.this.percentile = percentile;
+			return this;
+		}
+
+		public Builder withMinDelay(Duration minDelay) {
+			checkNotBuilt(this);
+			HedgingHttpClient.this.minDelay = minDelay.toMillis();
+			return this;
+		}
+
+		/**
+		 * Sets a maximum hedge delay, which is also used until enough latencies are observed
+		 */
+		public Builder withMaxDelay(Duration maxDelay) {
+			checkNotBuilt(this);
+			HedgingHttpClient.this.maxDelay = maxDelay.toMillis();
+			return this;
+		}
+
+		/**
+		 * Sets a maximum ratio of hedged requests to all the requests
+		 */
+		public Builder withMaxHedgeRatio(double maxHedgeRatio) {
+			checkNotBuilt(this);
+			checkArgument(maxHedgeRatio >= 0 && maxHedgeRatio <= 1, "Hedge ratio should be in range [0, 1]");
+			HedgingHttpClient.this.maxHedgeRatio = maxHedgeRatio;
+			return this;
+		}
+
+		/**
+		 * Sets a number of the most recent latencies that a hedge delay is computed from
+		 */
+		public Builder withSampleSize(int sampleSize) {
+			checkNotBuilt(this);
+			checkArgument(sampleSize >= 16, "Sample size should not be less than 16");
+			HedgingHttpClient.this.latencies = new long[sampleSize];
+			return this;
+		}
+
+		@Override
+		protected HedgingHttpClient doBuild() {
+			checkArgument(minDelay <= maxDelay, "Minimum delay should not be greater than maximum delay");
+			hedgeDelay = maxDelay;
+			return HedgingHttpClient.this;
+		}
+	}
+
+	@Override
+	public Promise<HttpResponse> request(HttpRequest request) {
+		if (CHECKS) checkInReactorThread(this);
+		requests.recordEvent();
+		hedgeBudget = Math.min(hedgeBudget + maxHedgeRatio, MAX_HEDGE_BUDGET);
+		HttpMethod method = request.getMethod();
+		if (method != GET && method != HEAD || request.bodyStream != null) {
+			return next.request(request);
+		}
+		Hedge hedge = new Hedge(request, copyOf(request));
+		hedge.start();
+		return hedge.promise;
+	}
+
+	private void recordLatency(long value) {
+		latency.recordValue(value);
+		latencies[(int) (latenciesCount++ % latencies.length)] = value;
+		if (latenciesCount >= latencies.length / 4 && latenciesCount % (latencies.length / 16) == 0) {
+			long[] sorted = Arrays.copyOf(latencies, (int) Math.min(latenciesCount, latencies.length));
+			Arrays.sort(sorted);
+			long delay = sorted[(int) (percentile * (sorted.length - 1))];
+			hedgeDelay = Math.max(minDelay, Math.min(maxDelay, delay));
+		}
+	}
+
+	private static HttpRequest copyOf(HttpRequest request) {
+		HttpRequest copy = HttpRequest.builder(request.getMethod(), request.getFullUrl()).build();
+		for (Map.Entry<HttpHeader, HttpHeaderValue> entry : request.getHeaders()) {
+			copy.headers.add(entry.getKey(), HttpHeaderValue.ofBytes(entry.getValue().getBuf().asArray()));
+		}
+		if (request.body != null) {
+			copy.body = request.body.slice();
+		}
+		return copy;
+	}
+
+	private static void discard(HttpResponse response) {
+		ChannelSupplier<ByteBuf> bodyStream = response.bodyStream;
+		if (bodyStream != null) {
+			response.bodyStream = null;
+			bodyStream.closeEx(HEDGE_LOST);
+		}
+	}
+
+	private final class Hedge {
+		final SettablePromise<HttpResponse> promise = new SettablePromise<>();
+		final long startTimestamp = reactor.currentTimeMillis();
+		final HttpRequest original;
+
+		@Nullable HttpRequest copy;
+		@Nullable HttpRequest hedgedRequest;
+		@Nullable ScheduledRunnable hedgeTimer;
+		long hedgeTimestamp;
+		long completeTimestamp;
+		int pending;
+
+		Hedge(HttpRequest original, HttpRequest copy) {
+			this.original = original;
+			this.copy = copy;
+		}
+
+		void start() {
+			send(original, false);
+			if (!promise.isComplete()) {
+				hedgeTimer = reactor.delay(hedgeDelay, this::hedge);
+			}
+		}
+
+		void hedge() {
+			hedgeTimer = null;
+			HttpRequest copy = this.copy;
+			assert copy != null;
+			this.copy = null;
+			if (hedgeBudget < 1) {
+				hedgesOverBudget.recordEvent();
+				copy.recycle();
+				return;
+			}
+			hedgeBudget--;
+			hedges.recordEvent();
+			hedgeTimestamp = reactor.currentTimeMillis();
+			HttpClientConnection connection = original.clientConnection;
+			if (connection != null) {
+				copy.excludedAddress = connection.getRemoteAddress();
+			}
+			hedgedRequest = copy;
+			send(copy, true);
+		}
+
+		void send(HttpRequest request, boolean hedged) {
+			pending++;
+			next.request(request)
+				.subscribe((response, e) -> onComplete(response, e, hedged));
+		}
+
+		void onComplete(@Nullable HttpResponse response, @Nullable Exception e, boolean hedged) {
+			pending--;
+			long now = reactor.currentTimeMillis();
+			if (e == null) {
+				recordLatency(now - (hedged ? hedgeTimestamp : startTimestamp));
+			}
+			if (promise.isComplete()) {
+				if (e == null) {
+					if (!hedged) latencyWon.recordValue(now - completeTimestamp);
+					discard(response);
+				}
+				return;
+			}
+			if (e == null || pending == 0) {
+				cancelHedge();
+				completeTimestamp = now;
+				if (hedged && e == null) hedgesWon.recordEvent();
+				promise.set(response, e);
+				if (pending != 0) {
+					// a loser is not waited for, so that it does not hold a connection and server resources
+					HttpRequest loser = hedged ? original : hedgedRequest;
+					assert loser != null;
+					loser.abort(HEDGE_LOST);
+				}
+			}
+		}
+
+		void cancelHedge() {
+			if (hedgeTimer != null) {
+				hedgeTimer.cancel();
+				hedgeTimer = null;
+			}
+			if (copy != null) {
+				copy.recycle();
+				copy = null;
+			}
+		}
+	}
+
+	// region JMX
+	@JmxAttribute
+	public EventStats getRequests() {
+		return requests;
+	}
+
+	@JmxAttribute(description = "hedged duplicates of requests that have been sent")
+	public EventStats getHedges() {
+		return hedges;
+	}
+
+	@JmxAttribute(description = "hedged duplicates that have been responded earlier than original requests")
+	public EventStats getHedgesWon() {
+		return hedgesWon;
+	}
+
+	@JmxAttribute(description = "hedged duplicates that have not been sent because hedge ratio has been exceeded")
+	public EventStats getHedgesOverBudget() {
+		return hedgesOverBudget;
+	}
+
+	@JmxAttribute(description = "latency of successful responses")
+	public ValueStats getLatency() {
+		return latency;
+	}
+
+	@JmxAttribute(description = "time between a response to a hedged duplicate and a late response to an original request")
+	public ValueStats getLatencyWon() {
+		return latencyWon;
+	}
+
+	@JmxAttribute
+	public double getHedgeRate() {
+		long requestsCount = requests.getTotalCount();
+		return requestsCount == 0 ? 0 : (double) hedges.getTotalCount() / requestsCount;
+	}
+
+	@JmxAttribute
+	public long getHedgeDelay() {
+		return hedgeDelay;
+	}
+
+	@JmxAttribute
+	public double getPercentile() {
+		return percentile;
+	}
+
+	@JmxAttribute
+	public void setPercentile(double percentile) {
+		checkArgument(percentile > 0 && percentile < 1, "Percentile should be in range (0, 1)");
+		this.percentile = percentile;
+	}
+
+	@JmxAttribute
+	public double getMaxHedgeRatio() {
+		return maxHedgeRatio;
+	}
+
+	@JmxAttribute
+	public void setMaxHedgeRatio(double maxHedgeRatio) {
+		checkArgument(maxHedgeRatio >= 0 && maxHedgeRatio <= 1, "Hedge ratio should be in range [0, 1]");
+		this.maxHedgeRatio = maxHedgeRatio;
+	}
+	// endregion
+}
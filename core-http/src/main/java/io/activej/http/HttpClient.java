@@ -89,6 +89,7 @@ public final class HttpClient extends AbstractNioReactive
 	public static final MemSize MAX_BODY_SIZE = ApplicationSettings.getMemSize(HttpClient.class, "maxBodySize", MemSize.ZERO);
 	public static final MemSize MAX_WEB_SOCKET_MESSAGE_SIZE = ApplicationSettings.getMemSize(HttpClient.class, "maxWebSocketMessageSize", MemSize.megabytes(1));
 	public static final int MAX_KEEP_ALIVE_REQUESTS = ApplicationSettings.getInt(HttpClient.class, "maxKeepAliveRequests", 0);
+	public static final Duration DEFAULT_CONNECTION_ATTEMPT_DELAY = Duration.ofMillis(250);
 
 	public static final HttpHeaderValue UPGRADE_HEADER = HttpHeaderValue.ofBytes(encodeAscii("Upgrade"));
 	public static final HttpHeaderValue WEBSOCKET_HEADER = HttpHeaderValue.ofBytes(encodeAscii("Websocket"));
@@ -114,6 +115,9 @@ public final class HttpClient extends AbstractNioReactive
 	int maxBodySize = MAX_BODY_SIZE.toInt();
 	int maxWebSocketMessageSize = MAX_WEB_SOCKET_MESSAGE_SIZE.toInt();
 	int maxKeepAliveRequests = MAX_KEEP_ALIVE_REQUESTS;
+	@Nullable PerMessageDeflate perMessageDeflate;
+	private boolean happyEyeballs;
+	private long connectionAttemptDelayMillis = DEFAULT_CONNECTION_ATTEMPT_DELAY.toMillis();
 
 	// SSL
 	private SSLContext sslContext;
@@ -389,6 +393,41 @@ public final class HttpClient extends AbstractNioReactive
 			return this;
 		}
 
+		/**
+		 * Offers a {@code permessage-deflate} extension to servers in web socket requests
+		 */
+		public Builder withPerMessageDeflate(PerMessageDeflate perMessageDeflate) {
+			checkNotBuilt(this);
+			HttpClient.this.perMessageDeflate = perMessageDeflate;
+			return this;
+		}
+
+		/**
+		 * Enables "happy eyeballs" (RFC 8305) connection establishment.
+		 * <p>
+		 * Both IPv6 and IPv4 addresses of a host are resolved, and connection attempts to
+		 * the resolved addresses are raced, so that an unreachable address or address family
+		 * does not delay a connection for the whole connect timeout
+		 *
+		 * @see #withHappyEyeballs(Duration)
+		 */
+		public Builder withHappyEyeballs() {
+			return withHappyEyeballs(DEFAULT_CONNECTION_ATTEMPT_DELAY);
+		}
+
+		/**
+		 * Enables "happy eyeballs" (RFC 8305) connection establishment
+		 *
+		 * @param connectionAttemptDelay a delay after which a next connection attempt is started,
+		 *                               if a previous one has neither succeeded nor failed
+		 */
+		public Builder withHappyEyeballs(Duration connectionAttemptDelay) {
+			checkNotBuilt(this);
+			HttpClient.this.happyEyeballs = true;
+			HttpClient.this.connectionAttemptDelayMillis = connectionAttemptDelay.toMillis();
+			return this;
+		}
+
 		public Builder withInspector(Inspector inspector) {
 			checkNotBuilt(this);
 			HttpClient.this.inspector = inspector;
@@ -503,6 +542,9 @@ public final class HttpClient extends AbstractNioReactive
 		request.headers.addIfAbsent(CONNECTION, UPGRADE_HEADER);
 		request.headers.addIfAbsent(UPGRADE, WEBSOCKET_HEADER);
 		request.headers.addIfAbsent(SEC_WEBSOCKET_VERSION, WEBSOCKET_VERSION_HEADER);
+		if (perMessageDeflate != null) {
+			request.headers.addIfAbsent(SEC_WEBSOCKET_EXTENSIONS, HttpHeaderValue.of(perMessageDeflate.offer()));
+		}
 
 		//noinspection unchecked
 		return (Promise<IWebSocket>) doRequest(request, true);
@@ -524,8 +566,9 @@ public final class HttpClient extends AbstractNioReactive
 		int colonIndex = hostAndPort.lastIndexOf(':');
 		String host = colonIndex == -1 ? hostAndPort : hostAndPort.substring(0, colonIndex);
 
+		SettablePromise<InetAddress[]> otherAddresses = happyEyeballs ? new SettablePromise<>() : null;
 		++pendingResolves;
-		return dnsClient.resolve4(host)
+		return (happyEyeballs ? HappyEyeballs.resolve(reactor, dnsClient, host, otherAddresses) : dnsClient.resolve4(host))
 			.then((v, e) -> handleShutdown(v, e, --pendingResolves))
 			.thenCallback(
 				(dnsResponse, cb) -> {
@@ -535,8 +578,13 @@ public final class HttpClient extends AbstractNioReactive
 						cb.setException(new HttpException(new DnsQueryException(dnsResponse)));
 						return;
 					}
+					if (request.abortException != null) {
+						request.recycleBody();
+						cb.setException(request.abortException);
+						return;
+					}
 					//noinspection ConstantConditions - dnsResponse is successful (not null)
-					doSend(request, dnsResponse.getRecord().getIps(), isWebSocket).subscribe(cb);
+					doSend(request, dnsResponse.getRecord().getIps(), otherAddresses, isWebSocket).subscribe(cb);
 				},
 				(e, cb) -> {
 					if (inspector != null) inspector.onResolveError(request, e);
@@ -545,16 +593,35 @@ public final class HttpClient extends AbstractNioReactive
 				});
 	}
 
-	private Promise<?> doSend(HttpRequest request, InetAddress[] inetAddresses, boolean isWebSocket) {
-		InetAddress inetAddress = inetAddresses[(inetAddressIdx++ & Integer.MAX_VALUE) % inetAddresses.length];
-		InetSocketAddress address = new InetSocketAddress(inetAddress, request.getUrl().getPort());
+	private Promise<?> doSend(
+		HttpRequest request, InetAddress[] inetAddresses, @Nullable Promise<InetAddress[]> otherAddresses, boolean isWebSocket
+	) {
+		List<InetSocketAddress> candidates;
+		InetSocketAddress address;
+		InetSocketAddress excludedAddress = request.excludedAddress;
+		if (happyEyeballs) {
+			candidates = HappyEyeballs.socketAddresses(inetAddresses, request.getUrl().getPort());
+			if (excludedAddress != null && candidates.size() > 1 && candidates.remove(excludedAddress)) {
+				candidates.add(excludedAddress);
+			}
+			address = candidates.get(0);
+		} else {
+			InetAddress inetAddress = inetAddresses[(inetAddressIdx++ & Integer.MAX_VALUE) % inetAddresses.length];
+			if (excludedAddress != null && inetAddresses.length > 1 && inetAddress.equals(excludedAddress.getAddress())) {
+				inetAddress = inetAddresses[(inetAddressIdx++ & Integer.MAX_VALUE) % inetAddresses.length];
+			}
+			address = new InetSocketAddress(inetAddress, request.getUrl().getPort());
+			candidates = List.of(address);
+		}
 
-		HttpClientConnection keepAliveConnection = takeKeepAliveConnection(address);
-		if (keepAliveConnection != null) {
-			if (isWebSocket) {
-				return keepAliveConnection.sendWebSocketRequest(request);
-			} else {
-				return keepAliveConnection.send(request);
+		for (InetSocketAddress candidate : candidates) {
+			HttpClientConnection keepAliveConnection = takeKeepAliveConnection(candidate);
+			if (keepAliveConnection != null) {
+				if (isWebSocket) {
+					return keepAliveConnection.sendWebSocketRequest(request);
+				} else {
+					return keepAliveConnection.send(request);
+				}
 			}
 		}
 
@@ -564,12 +631,29 @@ public final class HttpClient extends AbstractNioReactive
 			throw new IllegalArgumentException("Cannot send Secure Request without SSL enabled");
 		}
 
-		if (inspector != null) inspector.onConnecting(request, address);
 		++pendingConnects;
-		return TcpSocket.connect(reactor, address, connectTimeoutMillis, socketSettings)
+		Promise<TcpSocket> connectPromise;
+		if (happyEyeballs) {
+			assert otherAddresses != null;
+			int port = request.getUrl().getPort();
+			connectPromise = HappyEyeballs.connect(reactor, candidates, otherAddresses.map(ips -> HappyEyeballs.socketAddresses(ips, port)),
+				connectionAttemptDelayMillis, connectTimeoutMillis, socketSettings,
+				candidate -> {
+					if (inspector != null) inspector.onConnecting(request, candidate);
+				});
+		} else {
+			if (inspector != null) inspector.onConnecting(request, address);
+			connectPromise = TcpSocket.connect(reactor, address, connectTimeoutMillis, socketSettings);
+		}
+		return connectPromise
 			.then((v, e) -> handleShutdown(v, e, --pendingConnects))
 			.then(
 				tcpSocket -> {
+					if (request.abortException != null) {
+						tcpSocket.close();
+						request.recycleBody();
+						return Promise.ofException(request.abortException);
+					}
 					TcpSocket.Inspector socketInspector = isSecure ? this.socketInspector : socketSslInspector;
 					if (socketInspector != null) {
 						socketInspector.onConnect(tcpSocket);
@@ -585,7 +669,7 @@ public final class HttpClient extends AbstractNioReactive
 							sslContext, sslExecutor) :
 						tcpSocket;
 
-					HttpClientConnection connection = new HttpClientConnection(reactor, this, socket, address);
+					HttpClientConnection connection = new HttpClientConnection(reactor, this, socket, tcpSocket.getRemoteAddress());
 
 					if (inspector != null) inspector.onConnect(request, connection);
 
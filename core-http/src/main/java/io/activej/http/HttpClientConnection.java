@@ -37,6 +37,7 @@ import static io.activej.common.Utils.nullify;
 import static io.activej.csp.supplier.ChannelSuppliers.concat;
 import static io.activej.http.HttpHeaderValue.ofBytes;
 import static io.activej.http.HttpHeaders.CONNECTION;
+import static io.activej.http.HttpHeaders.SEC_WEBSOCKET_EXTENSIONS;
 import static io.activej.http.HttpHeaders.SEC_WEBSOCKET_KEY;
 import static io.activej.http.HttpMessage.MUST_LOAD_BODY;
 import static io.activej.http.HttpUtils.*;
@@ -91,6 +92,7 @@ public final class HttpClientConnection extends AbstractHttpConnection {
 	private static final byte[] VALID_START_LINE_PREFIX = encodeAscii("HTTP/1.");
 
 	private @Nullable SettablePromise<HttpResponse> promise;
+	private @Nullable HttpRequest request;
 	private final HttpClient client;
 	private final @Nullable Inspector inspector;
 
@@ -134,6 +136,7 @@ public final class HttpClientConnection extends AbstractHttpConnection {
 		if (promise != null) {
 			SettablePromise<HttpResponse> promise = this.promise;
 			this.promise = null;
+			this.request = null;
 			promise.setException(e);
 		}
 	}
@@ -220,6 +223,7 @@ public final class HttpClientConnection extends AbstractHttpConnection {
 
 		SettablePromise<HttpResponse> promise = this.promise;
 		this.promise = null;
+		this.request = null;
 		//noinspection ConstantConditions
 		promise.set(response);
 	}
@@ -309,6 +313,23 @@ public final class HttpClientConnection extends AbstractHttpConnection {
 					ByteBuf::recycle,
 					false);
 
+				String extensions = res.getHeader(SEC_WEBSOCKET_EXTENSIONS);
+				if (extensions != null) {
+					PerMessageDeflate perMessageDeflate = client.perMessageDeflate;
+					try {
+						if (perMessageDeflate == null) {
+							throw new HttpException("Unexpected web socket extension: " + extensions);
+						}
+						PerMessageDeflate.Agreement agreement = perMessageDeflate.acceptResponse(extensions);
+						encoder.setCompressor(perMessageDeflate.createCompressor(agreement.clientNoContextTakeover()));
+						decoder.setDecompressor(perMessageDeflate.createDecompressor(agreement.serverNoContextTakeover()));
+					} catch (HttpException e) {
+						closeEx(e);
+						cb.setException(e);
+						return;
+					}
+				}
+
 				bindWebSocketTransformers(encoder, decoder);
 
 				cb.set(new WebSocket(
@@ -317,7 +338,8 @@ public final class HttpClientConnection extends AbstractHttpConnection {
 					res.takeBodyStream().transformWith(decoder),
 					buffer.getConsumer().transformWith(encoder),
 					decoder::onProtocolError,
-					maxWebSocketMessageSize
+					maxWebSocketMessageSize,
+					encoder
 				));
 			})
 			.whenException(e -> closeEx(translateToHttpException(e)));
@@ -406,6 +428,8 @@ public final class HttpClientConnection extends AbstractHttpConnection {
 		assert !isClosed();
 		SettablePromise<HttpResponse> promise = new SettablePromise<>();
 		this.promise = promise;
+		this.request = request;
+		request.clientConnection = this;
 		(pool = client.poolReadWrite).addLastNode(this);
 		poolTimestamp = reactor.currentTimeMillis();
 
@@ -429,6 +453,15 @@ public final class HttpClientConnection extends AbstractHttpConnection {
 		return promise;
 	}
 
+	/**
+	 * Closes this connection if a given request is still waiting for a response on it
+	 */
+	void abort(HttpRequest request, Exception e) {
+		if (this.request == request) {
+			closeEx(e);
+		}
+	}
+
 	/**
 	 * After closing this connection it removes it from its connections cache and recycles
 	 * Http response.
@@ -439,6 +472,7 @@ public final class HttpClientConnection extends AbstractHttpConnection {
 		if (promise != null) {
 			SettablePromise<HttpResponse> promise = this.promise;
 			this.promise = null;
+			this.request = null;
 			promise.setException(new AsyncCloseException("Connection closed"));
 		}
 		if (pool == client.poolKeepAlive) {
@@ -18,6 +18,8 @@ package io.activej.http;
 
 import io.activej.bytebuf.ByteBuf;
 import io.activej.common.Checks;
+import io.activej.csp.supplier.ChannelSupplier;
+import io.activej.csp.supplier.ChannelSuppliers;
 import io.activej.http.HttpHeaderValue.HttpHeaderValueOfSimpleCookies;
 import io.activej.http.MultipartByteBufsDecoder.AsyncMultipartDataHandler;
 import io.activej.promise.Promise;
@@ -26,6 +28,7 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.Nullable;
 
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -62,6 +65,11 @@ public final class HttpRequest extends HttpMessage implements ToPromise<HttpRequ
 	private Map<String, String> queryParameters;
 	private Map<String, String> postParameters;
 
+	// client side, a connection this request is being sent over
+	@Nullable HttpClientConnection clientConnection;
+	@Nullable Exception abortException;
+	@Nullable InetSocketAddress excludedAddress;
+
 	HttpRequest(HttpVersion version, HttpMethod method, UrlParser url, @Nullable HttpServerConnection connection) {
 		super(version);
 		this.method = method;
@@ -105,6 +113,17 @@ public final class HttpRequest extends HttpMessage implements ToPromise<HttpRequ
 		}
 	}
 
+	/**
+	 * Aborts a request sent by {@link HttpClient}: a connection that is waiting for a response
+	 * to this request is closed, and a request that is still being resolved or connected is not sent
+	 */
+	void abort(Exception e) {
+		abortException = e;
+		if (clientConnection != null) {
+			clientConnection.abort(this, e);
+		}
+	}
+
 	@Contract(pure = true)
 	public HttpMethod getMethod() {
 		return method;
@@ -266,16 +285,40 @@ public final class HttpRequest extends HttpMessage implements ToPromise<HttpRequ
 
 	public Promise<Void> handleMultipart(AsyncMultipartDataHandler multipartDataHandler) {
 		if (CHECKS) checkState(!isRecycled());
+		String boundary = getMultipartBoundary();
+		if (boundary == null) {
+			return Promise.ofException(HttpError.ofCode(400, "Content type is not multipart/form-data"));
+		}
+		return MultipartByteBufsDecoder.create(boundary)
+			.split(takeBodyStream(), multipartDataHandler);
+	}
+
+	/**
+	 * Takes a body stream of this request and returns a channel of multipart parts,
+	 * data of each part is streamed from the body stream without buffering.
+	 *
+	 * @see MultipartReader
+	 */
+	public ChannelSupplier<MultipartPart> takeMultipartParts() {
+		if (CHECKS) checkState(!isRecycled());
+		String boundary = getMultipartBoundary();
+		if (boundary == null) {
+			return ChannelSuppliers.ofException(HttpError.ofCode(400, "Content type is not multipart/form-data"));
+		}
+		return MultipartByteBufsDecoder.create(boundary)
+			.splitParts(takeBodyStream());
+	}
+
+	@Nullable String getMultipartBoundary() {
 		String contentType = getHeader(CONTENT_TYPE);
 		if (contentType == null || !contentType.startsWith("multipart/form-data; boundary=")) {
-			return Promise.ofException(HttpError.ofCode(400, "Content type is not multipart/form-data"));
+			return null;
 		}
 		String boundary = contentType.substring(30);
 		if (boundary.startsWith("\"") && boundary.endsWith("\"")) {
 			boundary = boundary.substring(1, boundary.length() - 1);
 		}
-		return MultipartByteBufsDecoder.create(boundary)
-			.split(takeBodyStream(), multipartDataHandler);
+		return boundary;
 	}
 
 	int getPos() {
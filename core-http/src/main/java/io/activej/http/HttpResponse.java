@@ -114,6 +114,8 @@ public final class HttpResponse extends HttpMessage implements ToPromise<HttpRes
 
 	private int code;
 
+	private @Nullable HttpResponseTemplate template;
+
 	private @Nullable Map<String, HttpCookie> parsedCookies;
 
 	HttpResponse(HttpVersion version, int code, @Nullable HttpClientConnection connection) {
@@ -134,6 +136,17 @@ public final class HttpResponse extends HttpMessage implements ToPromise<HttpRes
 		return builder().withCode(code);
 	}
 
+	/**
+	 * Creates a response which status line and headers are written from a given template
+	 *
+	 * @see HttpResponseTemplate
+	 */
+	public static Builder ofTemplate(HttpResponseTemplate template) {
+		HttpResponse response = new HttpResponse(HTTP_1_1, template.getCode());
+		response.template = template;
+		return response.new Builder();
+	}
+
 	public static Builder ok200() {
 		return ofCode(200);
 	}
@@ -342,13 +355,28 @@ public final class HttpResponse extends HttpMessage implements ToPromise<HttpRes
 
 	@Override
 	protected int estimateSize() {
-		return estimateSize(LONGEST_FIRST_LINE_SIZE);
+		HttpResponseTemplate template = this.template;
+		if (template == null) {
+			return estimateSize(LONGEST_FIRST_LINE_SIZE);
+		}
+		if (template.getCode() == code) {
+			return estimateSize(template.size());
+		}
+		return estimateSize(LONGEST_FIRST_LINE_SIZE + template.headersSize());
 	}
 
 	@Override
 	protected void writeTo(ByteBuf buf) {
 		if (CHECKS) checkState(!isRecycled());
-		writeCodeMessage(buf, code);
+		HttpResponseTemplate template = this.template;
+		if (template == null) {
+			writeCodeMessage(buf, code);
+		} else if (template.getCode() == code) {
+			template.writeTo(buf);
+		} else {
+			writeCodeMessage(buf, code);
+			template.writeHeadersTo(buf);
+		}
 		writeHeaders(buf);
 	}
 
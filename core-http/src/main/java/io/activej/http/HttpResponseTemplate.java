@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.common.builder.AbstractBuilder;
+import io.activej.reactor.Reactor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static io.activej.bytebuf.ByteBufStrings.encodeAscii;
+import static io.activej.common.Checks.checkArgument;
+import static io.activej.http.HttpHeaderValue.ofBytes;
+import static io.activej.http.HttpHeaders.*;
+
+/**
+ * A template of a response which status line and headers are encoded once,
+ * so that they are written into a response with a single copy of bytes.
+ * <p>
+ * A template may also contain a {@code Date} header. The rendered date is cached and shared by all the templates,
+ * it is refreshed once per second based on a timestamp of a current reactor.
+ * <p>
+ * If a code of a response is changed, a status line of a new code is written followed by headers of a template.
+ * <p>
+ * Headers of a template are not visible via {@link HttpMessage#getHeader} of a response and should not be
+ * added to a response once again. {@code Connection}, {@code Content-Length}, {@code Transfer-Encoding}
+ * and {@code Content-Encoding} headers are managed by connections and cannot be a part of a template.
+ * <p>
+ * Templates are immutable and can be shared between reactors.
+ */
+public final class HttpResponseTemplate {
+	private static final Set<HttpHeader> FORBIDDEN_HEADERS = Set.of(
+		CONNECTION, CONTENT_LENGTH, TRANSFER_ENCODING, CONTENT_ENCODING, DATE);
+
+	private static final byte[] DATE_PREFIX = encodeAscii("\r\nDate: ");
+	private static final int DATE_SIZE = 29;
+	static final int DATE_LINE_SIZE = DATE_PREFIX.length + DATE_SIZE;
+
+	private static volatile CachedDate cachedDate = new CachedDate(0);
+
+	private final int code;
+	private byte[] bytes;
+	private int statusLineSize;
+	private boolean withDate;
+
+	private HttpResponseTemplate(int code) {
+		this.code = code;
+	}
+
+	public static HttpResponseTemplate of(int code) {
+		return builder(code).build();
+	}
+
+	public static Builder builder(int code) {
+		checkArgument(code >= 100 && code < 600, "Code should be in range [100, 600)");
+		return new HttpResponseTemplate(code).new Builder();
+	}
+
+	public final class Builder extends AbstractBuilder<Builder, HttpResponseTemplate> {
+		private final List<HttpHeader> headers = new ArrayList<>();
+		private final List<byte[]> values = new ArrayList<>();
+
+		private Builder() {}
+
+		public Builder withHeader(HttpHeader header, String value) {
+			return withHeader(header, encodeAscii(value));
+		}
+
+		public Builder withHeader(HttpHeader header, byte[] value) {
+			checkNotBuilt(this);
+			checkArgument(!FORBIDDEN_HEADERS.contains(header), () -> "Header '" + header + "' cannot be a part of a template");
+			headers.add(header);
+			values.add(value);
+			return this;
+		}
+
+		public Builder withHeader(HttpHeader header, HttpHeaderValue value) {
+			return withHeader(header, value.getBuf().asArray());
+		}
+
+		/**
+		 * Adds a {@code Date} header with a current date to the responses
+		 */
+		public Builder withDate() {
+			checkNotBuilt(this);
+			HttpResponseTemplate.this.withDate = true;
+			return this;
+		}
+
+		@Override
+		protected HttpResponseTemplate doBuild() {
+			HttpResponse response = new HttpResponse(HttpVersion.HTTP_1_1, code);
+			for (int i = 0; i < headers.size(); i++) {
+				response.headers.add(headers.get(i), ofBytes(values.get(i)));
+			}
+			ByteBuf buf = ByteBuf.wrapForWriting(new byte[response.estimateSize()]);
+			response.writeTo(buf);
+			// trailing CR,LF,CR,LF are written by a response itself
+			bytes = Arrays.copyOf(buf.array(), buf.tail() - 4);
+			statusLineSize = 0;
+			while (statusLineSize < bytes.length && bytes[statusLineSize] != '\r') {
+				statusLineSize++;
+			}
+			return HttpResponseTemplate.this;
+		}
+	}
+
+	public HttpResponse.Builder response() {
+		return HttpResponse.ofTemplate(this);
+	}
+
+	public int getCode() {
+		return code;
+	}
+
+	int size() {
+		return withDate ? bytes.length + DATE_LINE_SIZE : bytes.length;
+	}
+
+	int headersSize() {
+		return size() - statusLineSize;
+	}
+
+	void writeTo(ByteBuf buf) {
+		writeTo(buf, 0);
+	}
+
+	/**
+	 * Writes headers of a template without a status line, so that they follow a status line of another code
+	 */
+	void writeHeadersTo(ByteBuf buf) {
+		writeTo(buf, statusLineSize);
+	}
+
+	private void writeTo(ByteBuf buf, int from) {
+		byte[] array = buf.array();
+		int offset = buf.tail();
+		System.arraycopy(bytes, from, array, offset, bytes.length - from);
+		offset += bytes.length - from;
+		if (withDate) {
+			byte[] date = getDateLine();
+			System.arraycopy(date, 0, array, offset, date.length);
+			offset += date.length;
+		}
+		buf.tail(offset);
+	}
+
+	private static byte[] getDateLine() {
+		Reactor reactor = Reactor.getCurrentReactorOrNull();
+		long epochSeconds = (reactor != null ? reactor.currentTimeMillis() : System.currentTimeMillis()) / 1000L;
+		CachedDate cachedDate = HttpResponseTemplate.cachedDate;
+		if (cachedDate.epochSeconds != epochSeconds) {
+			cachedDate = new CachedDate(epochSeconds);
+			HttpResponseTemplate.cachedDate = cachedDate;
+		}
+		return cachedDate.line;
+	}
+
+	private static final class CachedDate {
+		final long epochSeconds;
+		final byte[] line;
+
+		CachedDate(long epochSeconds) {
+			this.epochSeconds = epochSeconds;
+			this.line = new byte[DATE_LINE_SIZE];
+			System.arraycopy(DATE_PREFIX, 0, line, 0, DATE_PREFIX.length);
+			HttpDate.render(epochSeconds, line, DATE_PREFIX.length);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "HttpResponseTemplate{code=" + code + ", withDate=" + withDate + '}';
+	}
+}
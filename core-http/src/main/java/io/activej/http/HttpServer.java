@@ -34,9 +34,11 @@ import io.activej.reactor.nio.NioReactor;
 import io.activej.reactor.schedule.ScheduledRunnable;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.reflect.InvocationTargetException;
 import java.net.InetAddress;
 import java.time.Duration;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
 
@@ -54,6 +56,8 @@ public final class HttpServer extends AbstractReactiveServer {
 	public static final MemSize MAX_WEB_SOCKET_MESSAGE_SIZE = ApplicationSettings.getMemSize(HttpServer.class, "maxWebSocketMessageSize", MemSize.megabytes(1));
 	public static final int MAX_KEEP_ALIVE_REQUESTS = ApplicationSettings.getInt(HttpServer.class, "maxKeepAliveRequests", 0);
 
+	private static UnaryOperator<Object> servletPostprocessor = UnaryOperator.identity();
+
 	private final AsyncServlet servlet;
 	private HttpExceptionFormatter errorFormatter = HttpExceptionFormatter.COMMON_FORMATTER;
 
@@ -231,7 +235,21 @@ public final class HttpServer extends AbstractReactiveServer {
 	}
 
 	public static Builder builder(NioReactor reactor, AsyncServlet servlet) {
-		return new HttpServer(reactor, servlet).new Builder();
+		return new HttpServer(reactor, (AsyncServlet) servletPostprocessor.apply(servlet)).new Builder();
+	}
+
+	/**
+	 * Enables specialization of root servlets of subsequently created servers,
+	 * so that final-field servlet trees are turned into monomorphic classes. <b>Depends on {@code ActiveJ-Specializer} module</b>
+	 */
+	@SuppressWarnings("unchecked")
+	public static void useSpecializer() {
+		try {
+			Class<?> aClass = Class.forName("io.activej.specializer.Utils$GraphSpecializer");
+			servletPostprocessor = (UnaryOperator<Object>) aClass.getConstructor().newInstance();
+		} catch (InvocationTargetException | NoSuchMethodException | IllegalAccessException | ClassNotFoundException | InstantiationException e) {
+			throw new UnsupportedOperationException("Cannot access ActiveJ Specializer", e);
+		}
 	}
 
 	public final class Builder extends AbstractReactiveServer.Builder<Builder, HttpServer> {
@@ -82,24 +82,30 @@ public final class MultipartByteBufsDecoder implements ByteBufsDecoder<Multipart
 	}
 
 	private Promise<Map<String, String>> getContentDispositionFields(MultipartFrame frame) {
-		Map<String, String> headers = frame.getHeaders();
-		assert headers != null;
+		try {
+			return Promise.of(parseContentDisposition(frame.getHeaders()));
+		} catch (MalformedHttpException e) {
+			return Promise.ofException(e);
+		}
+	}
+
+	static Map<String, String> parseContentDisposition(Map<String, String> headers) throws MalformedHttpException {
 		String header = headers.get("content-disposition");
 		if (header == null) {
-			return Promise.ofException(new MalformedHttpException("Headers had no Content-Disposition"));
+			throw new MalformedHttpException("Headers had no Content-Disposition");
 		}
 		String[] headerParts = header.split(";");
 		if (headerParts.length == 0 || !"form-data".equals(headerParts[0].trim())) {
-			return Promise.ofException(new MalformedHttpException("Content-Disposition type is not 'form-data'"));
+			throw new MalformedHttpException("Content-Disposition type is not 'form-data'");
 		}
-		return Promise.of(Arrays.stream(headerParts)
+		return Arrays.stream(headerParts)
 			.skip(1)
 			.map(part -> part.trim().split("=", 2))
 			.collect(toMap(s -> s[0], s -> {
 				String value = s.length == 1 ? "" : s[1];
 				// stripping double quotation
 				return value.substring(1, value.length() - 1);
-			})));
+			}));
 	}
 
 	private Promise<Void> doSplit(
@@ -150,6 +156,19 @@ public final class MultipartByteBufsDecoder implements ByteBufsDecoder<Multipart
 			.mapException(HttpUtils::translateToHttpException);
 	}
 
+	/**
+	 * Splits a binary channel into a channel of multipart parts without buffering the data of parts.
+	 * <p>
+	 * Data of each part should be consumed before the next part is requested,
+	 * otherwise the remaining data of a part is skipped.
+	 *
+	 * @see MultipartPart
+	 * @see MultipartReader
+	 */
+	public ChannelSupplier<MultipartPart> splitParts(ChannelSupplier<ByteBuf> source) {
+		return new MultipartPartsSupplier(BinaryChannelSupplier.of(source).decodeStream(this), 0, 0, null);
+	}
+
 	private boolean sawCrlf = true;
 	private boolean finished = false;
 
@@ -194,9 +213,7 @@ public final class MultipartByteBufsDecoder implements ByteBufsDecoder<Multipart
 					if (readingHeaders.isEmpty()) {
 						break;
 					}
-					return MultipartFrame.of(readingHeaders.stream()
-						.map(s -> s.split(":\\s?", 2))
-						.collect(toMap(s -> s[0].toLowerCase(), s -> s[1])));
+					return MultipartFrame.ofRawHeaders(readingHeaders);
 				}
 			} else {
 				sawCrlf = true;
@@ -260,19 +277,28 @@ public final class MultipartByteBufsDecoder implements ByteBufsDecoder<Multipart
 
 	public static final class MultipartFrame implements Recyclable {
 		private @Nullable ByteBuf data;
-		private final @Nullable Map<String, String> headers;
+		private @Nullable Map<String, String> headers;
+		private @Nullable List<String> rawHeaders;
 
-		private MultipartFrame(@Nullable ByteBuf data, @Nullable Map<String, String> headers) {
+		private MultipartFrame(@Nullable ByteBuf data, @Nullable Map<String, String> headers, @Nullable List<String> rawHeaders) {
 			this.data = data;
 			this.headers = headers;
+			this.rawHeaders = rawHeaders;
 		}
 
 		public static MultipartFrame of(ByteBuf data) {
-			return new MultipartFrame(data, null);
+			return new MultipartFrame(data, null, null);
 		}
 
 		public static MultipartFrame of(Map<String, String> headers) {
-			return new MultipartFrame(null, headers);
+			return new MultipartFrame(null, headers, null);
+		}
+
+		/**
+		 * Creates a frame of header lines that are parsed only when {@link #getHeaders()} is called
+		 */
+		static MultipartFrame ofRawHeaders(List<String> rawHeaders) {
+			return new MultipartFrame(null, null, rawHeaders);
 		}
 
 		public boolean isData() {
@@ -284,10 +310,16 @@ public final class MultipartByteBufsDecoder implements ByteBufsDecoder<Multipart
 		}
 
 		public boolean isHeaders() {
-			return headers != null;
+			return headers != null || rawHeaders != null;
 		}
 
 		public Map<String, String> getHeaders() {
+			if (headers == null && rawHeaders != null) {
+				headers = rawHeaders.stream()
+					.map(s -> s.split(":\\s?", 2))
+					.collect(toMap(s -> s[0].toLowerCase(), s -> s[1]));
+				rawHeaders = null;
+			}
 			return headers;
 		}
 
@@ -298,7 +330,7 @@ public final class MultipartByteBufsDecoder implements ByteBufsDecoder<Multipart
 
 		@Override
 		public String toString() {
-			return isHeaders() ? "headers" + headers : "" + data;
+			return isHeaders() ? "headers" + getHeaders() : "" + data;
 		}
 	}
 
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.bytebuf.ByteBufs;
+import io.activej.csp.consumer.ChannelConsumer;
+import io.activej.csp.consumer.ChannelConsumers;
+import io.activej.csp.supplier.ChannelSupplier;
+import io.activej.http.MultipartByteBufsDecoder.MultipartFrame;
+import io.activej.promise.Promise;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+import static io.activej.common.Checks.checkState;
+
+/**
+ * A single part of a multipart body.
+ * <p>
+ * Headers of a part are parsed only when they are requested.
+ * Data of a part is a {@link ChannelSupplier} that reads the underlying body stream directly,
+ * so it can be streamed into a file or a file system (for example, via {@code ChannelFileWriter}
+ * or a consumer returned by {@code IFileSystem.upload}) with backpressure and without buffering the whole part.
+ */
+public final class MultipartPart {
+	private final MultipartFrame headers;
+	private @Nullable Map<String, String> contentDisposition;
+	private @Nullable ChannelSupplier<ByteBuf> data;
+
+	MultipartPart(MultipartFrame headers, ChannelSupplier<ByteBuf> data) {
+		this.headers = headers;
+		this.data = data;
+	}
+
+	/**
+	 * Returns headers of this part, header names are lowercase
+	 */
+	public Map<String, String> getHeaders() {
+		return headers.getHeaders();
+	}
+
+	public @Nullable String getHeader(String name) {
+		return getHeaders().get(name.toLowerCase());
+	}
+
+	public @Nullable String getContentType() {
+		return getHeader("content-type");
+	}
+
+	/**
+	 * Returns a {@code name} parameter of a {@code Content-Disposition} header
+	 *
+	 * @throws MalformedHttpException if this part has no valid {@code form-data} content disposition
+	 */
+	public @Nullable String getFieldName() throws MalformedHttpException {
+		return getContentDisposition().get("name");
+	}
+
+	/**
+	 * Returns a {@code filename} parameter of a {@code Content-Disposition} header,
+	 * or {@code null} if this part is not a file
+	 *
+	 * @throws MalformedHttpException if this part has no valid {@code form-data} content disposition
+	 */
+	public @Nullable String getFileName() throws MalformedHttpException {
+		return getContentDisposition().get("filename");
+	}
+
+	public boolean isFile() throws MalformedHttpException {
+		return getFileName() != null;
+	}
+
+	private Map<String, String> getContentDisposition() throws MalformedHttpException {
+		if (contentDisposition == null) {
+			contentDisposition = MultipartByteBufsDecoder.parseContentDisposition(getHeaders());
+		}
+		return contentDisposition;
+	}
+
+	/**
+	 * Transfers the ownership of data of this part to the caller, it can be called only once.
+	 */
+	public ChannelSupplier<ByteBuf> takeData() {
+		checkState(data != null, "Data of a part is already consumed");
+		ChannelSupplier<ByteBuf> data = this.data;
+		this.data = null;
+		return data;
+	}
+
+	public Promise<Void> streamTo(ChannelConsumer<ByteBuf> consumer) {
+		return takeData().streamTo(consumer);
+	}
+
+	public Promise<Void> streamTo(Promise<? extends ChannelConsumer<ByteBuf>> consumer) {
+		return takeData().streamTo(ChannelConsumers.ofPromise(consumer));
+	}
+
+	/**
+	 * Collects data of this part into a single {@link ByteBuf}, should be used only for small parts, like form fields
+	 */
+	public Promise<ByteBuf> loadData(int maxSize) {
+		return takeData().toCollector(ByteBufs.collector(maxSize));
+	}
+
+	@Override
+	public String toString() {
+		return "MultipartPart{headers=" + headers + '}';
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.common.exception.InvalidSizeException;
+import io.activej.csp.consumer.ChannelConsumers;
+import io.activej.csp.supplier.AbstractChannelSupplier;
+import io.activej.csp.supplier.ChannelSupplier;
+import io.activej.http.MultipartByteBufsDecoder.MultipartFrame;
+import io.activej.promise.Promise;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A channel of multipart parts, data of each part is read from the channel of multipart frames on demand.
+ * Size limits are checked as the data is read, a violation closes the whole channel.
+ */
+final class MultipartPartsSupplier extends AbstractChannelSupplier<MultipartPart> {
+	interface Inspector {
+		void onPart(MultipartPart part);
+
+		void onData(int size);
+
+		void onSizeLimitExceeded(InvalidSizeException e);
+	}
+
+	private final ChannelSupplier<MultipartFrame> frames;
+	private final long maxPartSize;
+	private final long maxTotalSize;
+	private final @Nullable Inspector inspector;
+
+	private boolean started;
+	private @Nullable MultipartFrame nextHeaders;
+	private @Nullable PartData current;
+	private long totalSize;
+
+	MultipartPartsSupplier(ChannelSupplier<MultipartFrame> frames, long maxPartSize, long maxTotalSize, @Nullable Inspector inspector) {
+		super(frames);
+		this.frames = frames;
+		this.maxPartSize = maxPartSize;
+		this.maxTotalSize = maxTotalSize;
+		this.inspector = inspector;
+	}
+
+	@Override
+	protected Promise<MultipartPart> doGet() {
+		PartData current = this.current;
+		if (current != null && !current.finished) {
+			return current.streamTo(ChannelConsumers.recycling())
+				.then(this::nextPart);
+		}
+		return nextPart();
+	}
+
+	private Promise<MultipartPart> nextPart() {
+		if (isClosed()) return Promise.ofException(getException());
+		if (!started) {
+			started = true;
+			return sanitize(frames.get())
+				.then(frame -> {
+					if (frame == null) return Promise.of(null);
+					if (frame.isHeaders()) return Promise.of(createPart(frame));
+					frame.recycle();
+					Exception e = new MalformedHttpException("First frame had no headers");
+					closeEx(e);
+					return Promise.ofException(e);
+				});
+		}
+		MultipartFrame headers = this.nextHeaders;
+		if (headers == null) {
+			current = null;
+			return Promise.of(null);
+		}
+		this.nextHeaders = null;
+		return Promise.of(createPart(headers));
+	}
+
+	private MultipartPart createPart(MultipartFrame headers) {
+		PartData data = new PartData();
+		current = data;
+		MultipartPart part = new MultipartPart(headers, data);
+		if (inspector != null) inspector.onPart(part);
+		return part;
+	}
+
+	private final class PartData extends AbstractChannelSupplier<ByteBuf> {
+		boolean finished;
+		long size;
+
+		PartData() {
+			super(MultipartPartsSupplier.this);
+		}
+
+		@Override
+		protected Promise<ByteBuf> doGet() {
+			if (finished) return Promise.of(null);
+			return sanitize(frames.get())
+				.then(frame -> {
+					if (frame == null || frame.isHeaders()) {
+						finished = true;
+						nextHeaders = frame;
+						return Promise.of(null);
+					}
+					ByteBuf buf = frame.getData();
+					int bufSize = buf.readRemaining();
+					size += bufSize;
+					totalSize += bufSize;
+					if (maxPartSize != 0 && size > maxPartSize) {
+						return onSizeLimitExceeded(buf, new InvalidSizeException("Size of a part exceeds " + maxPartSize + " bytes"));
+					}
+					if (maxTotalSize != 0 && totalSize > maxTotalSize) {
+						return onSizeLimitExceeded(buf, new InvalidSizeException("Size of multipart data exceeds " + maxTotalSize + " bytes"));
+					}
+					if (inspector != null) inspector.onData(bufSize);
+					return Promise.of(buf);
+				});
+		}
+
+		private Promise<ByteBuf> onSizeLimitExceeded(ByteBuf buf, InvalidSizeException e) {
+			buf.recycle();
+			if (inspector != null) inspector.onSizeLimitExceeded(e);
+			closeEx(e);
+			return Promise.ofException(e);
+		}
+	}
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.common.Checks;
+import io.activej.common.MemSize;
+import io.activej.common.builder.AbstractBuilder;
+import io.activej.common.exception.InvalidSizeException;
+import io.activej.csp.binary.BinaryChannelSupplier;
+import io.activej.csp.consumer.ChannelConsumers;
+import io.activej.csp.supplier.ChannelSupplier;
+import io.activej.csp.supplier.ChannelSuppliers;
+import io.activej.http.MultipartByteBufsDecoder.AsyncMultipartDataHandler;
+import io.activej.jmx.api.attribute.JmxAttribute;
+import io.activej.jmx.stats.EventStats;
+import io.activej.promise.Promise;
+import io.activej.reactor.AbstractReactive;
+import io.activej.reactor.Reactor;
+import io.activej.reactor.jmx.ReactiveJmxBeanWithStats;
+
+import java.time.Duration;
+
+import static io.activej.reactor.Reactive.checkInReactorThread;
+
+/**
+ * Reads multipart bodies of requests part by part, streaming data of each part
+ * straight from a request body stream, so that only a few buffers are held in memory at once
+ * regardless of a size of an upload.
+ * <p>
+ * Sizes of separate parts and a total size of multipart data are limited as the data is read,
+ * an {@link InvalidSizeException} is raised as soon as a limit is exceeded and the request body stream is closed.
+ */
+public final class MultipartReader extends AbstractReactive
+	implements ReactiveJmxBeanWithStats {
+	private static final boolean CHECKS = Checks.isEnabled(MultipartReader.class);
+
+	private static final Duration SMOOTHING_WINDOW = Duration.ofMinutes(1);
+
+	private long maxPartSize;
+	private long maxTotalSize;
+
+	private int activeReads;
+
+	// region JMX
+	private final EventStats reads = EventStats.create(SMOOTHING_WINDOW);
+	private final EventStats parts = EventStats.create(SMOOTHING_WINDOW);
+	private final EventStats bytes = EventStats.builder(SMOOTHING_WINDOW)
+		.withRateUnit("bytes")
+		.build();
+	private final EventStats sizeLimitsExceeded = EventStats.create(SMOOTHING_WINDOW);
+
+	private final MultipartPartsSupplier.Inspector inspector = new MultipartPartsSupplier.Inspector() {
+		@Override
+		public void onPart(MultipartPart part) {
+			parts.recordEvent();
+		}
+
+		@Override
+		public void onData(int size) {
+			bytes.recordEvents(size);
+		}
+
+		@Override
+		public void onSizeLimitExceeded(InvalidSizeException e) {
+			sizeLimitsExceeded.recordEvent();
+		}
+	};
+	// endregion
+
+	private MultipartReader(Reactor reactor) {
+		super(reactor);
+	}
+
+	public static MultipartReader create(Reactor reactor) {
+		return builder(reactor).build();
+	}
+
+	public static Builder builder(Reactor reactor) {
+		return new MultipartReader(reactor).new Builder();
+	}
+
+	public final class Builder extends AbstractBuilder<Builder, MultipartReader> {
+		private Builder() {}
+
+		/**
+		 * Sets a maximum size of data of a single part
+		 */
+		public Builder withMaxPartSize(MemSize maxPartSize) {
+			checkNotBuilt(this);
+			MultipartReader.this.maxPartSize = maxPartSize.toLong();
+			return this;
+		}
+
+		/**
+		 * Sets a maximum total size of data of all parts
+		 */
+		public Builder withMaxTotalSize(MemSize maxTotalSize) {
+			checkNotBuilt(this);
+			MultipartReader.this.maxTotalSize = maxTotalSize.toLong();
+			return this;
+		}
+
+		@Override
+		protected MultipartReader doBuild() {
+			return MultipartReader.this;
+		}
+	}
+
+	/**
+	 * Takes a body stream of a multipart request and returns a channel of its parts.
+	 * <p>
+	 * Data of each part should be consumed before the next part is requested,
+	 * otherwise the remaining data of a part is skipped.
+	 */
+	public ChannelSupplier<MultipartPart> read(HttpRequest request) {
+		if (CHECKS) checkInReactorThread(this);
+		String boundary = request.getMultipartBoundary();
+		if (boundary == null) {
+			request.recycleBody();
+			return ChannelSuppliers.ofException(HttpError.ofCode(400, "Content type is not multipart/form-data"));
+		}
+		return read(request.takeBodyStream(), boundary);
+	}
+
+	public ChannelSupplier<MultipartPart> read(ChannelSupplier<ByteBuf> source, String boundary) {
+		if (CHECKS) checkInReactorThread(this);
+		reads.recordEvent();
+		activeReads++;
+		MultipartByteBufsDecoder decoder = MultipartByteBufsDecoder.create(boundary);
+		return new MultipartPartsSupplier(
+			BinaryChannelSupplier.of(source).decodeStream(decoder)
+				.withEndOfStream(eos -> eos.whenComplete(() -> activeReads--)),
+			maxPartSize, maxTotalSize, inspector);
+	}
+
+	/**
+	 * Streams each part of a multipart request into a consumer provided by a given handler,
+	 * parts are streamed one after another.
+	 */
+	public Promise<Void> split(HttpRequest request, AsyncMultipartDataHandler dataHandler) {
+		ChannelSupplier<MultipartPart> parts = read(request);
+		return parts.streamTo(ChannelConsumers.ofAsyncConsumer(part -> {
+				String fieldName;
+				String fileName;
+				try {
+					fieldName = part.getFieldName();
+					fileName = part.getFileName();
+				} catch (MalformedHttpException e) {
+					return Promise.ofException(e);
+				}
+				return part.streamTo(fileName == null ?
+					dataHandler.handleField(fieldName) :
+					dataHandler.handleFile(fieldName, fileName));
+			}))
+			.mapException(HttpUtils::translateToHttpException);
+	}
+
+	// region JMX
+	@JmxAttribute(description = "multipart bodies that have been read")
+	public EventStats getReads() {
+		return reads;
+	}
+
+	@JmxAttribute
+	public EventStats getParts() {
+		return parts;
+	}
+
+	@JmxAttribute(description = "throughput of data of parts")
+	public EventStats getBytes() {
+		return bytes;
+	}
+
+	@JmxAttribute
+	public EventStats getSizeLimitsExceeded() {
+		return sizeLimitsExceeded;
+	}
+
+	@JmxAttribute
+	public int getActiveReads() {
+		return activeReads;
+	}
+
+	@JmxAttribute
+	public long getMaxPartSize() {
+		return maxPartSize;
+	}
+
+	@JmxAttribute
+	public void setMaxPartSize(long maxPartSize) {
+		this.maxPartSize = maxPartSize;
+	}
+
+	@JmxAttribute
+	public long getMaxTotalSize() {
+		return maxTotalSize;
+	}
+
+	@JmxAttribute
+	public void setMaxTotalSize(long maxTotalSize) {
+		this.maxTotalSize = maxTotalSize;
+	}
+	// endregion
+}
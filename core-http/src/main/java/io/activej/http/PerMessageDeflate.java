@@ -0,0 +1,303 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.bytebuf.ByteBufPool;
+import io.activej.common.MemSize;
+import io.activej.common.builder.AbstractBuilder;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static io.activej.common.Checks.checkArgument;
+import static io.activej.http.WebSocketConstants.MESSAGE_TOO_BIG;
+
+/**
+ * Settings of a {@code permessage-deflate} web socket extension (RFC 7692).
+ * <p>
+ * Server and client context takeover may be disabled, in which case a compression context
+ * is reset after each message. This trades compression ratio for memory and allows peers
+ * to keep no state between messages.
+ * <p>
+ * Only the default LZ77 window of 15 bits is supported, offers that require a smaller
+ * server window are declined.
+ */
+public final class PerMessageDeflate {
+	static final String EXTENSION_NAME = "permessage-deflate";
+
+	private static final String SERVER_NO_CONTEXT_TAKEOVER = "server_no_context_takeover";
+	private static final String CLIENT_NO_CONTEXT_TAKEOVER = "client_no_context_takeover";
+	private static final String SERVER_MAX_WINDOW_BITS = "server_max_window_bits";
+	private static final String CLIENT_MAX_WINDOW_BITS = "client_max_window_bits";
+	private static final int MAX_WINDOW_BITS = 15;
+
+	// rfc 7692 section 7.2.1
+	private static final byte[] TAIL = {0, 0, (byte) 0xFF, (byte) 0xFF};
+
+	static final WebSocketException INVALID_COMPRESSED_DATA = new WebSocketException(1007, "Invalid compressed data");
+
+	public static final MemSize DEFAULT_COMPRESSION_THRESHOLD = MemSize.bytes(64);
+
+	private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+	private int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD.toInt();
+	private boolean serverNoContextTakeover;
+	private boolean clientNoContextTakeover;
+
+	private PerMessageDeflate() {
+	}
+
+	public static PerMessageDeflate create() {
+		return builder().build();
+	}
+
+	public static Builder builder() {
+		return new PerMessageDeflate().new Builder();
+	}
+
+	public final class Builder extends AbstractBuilder<Builder, PerMessageDeflate> {
+		private Builder() {}
+
+		public Builder withCompressionLevel(int compressionLevel) {
+			checkNotBuilt(this);
+			checkArgument(compressionLevel >= -1 && compressionLevel <= 9, "Compression level should be in range [-1, 9]");
+			PerMessageDeflate.this.compressionLevel = compressionLevel;
+			return this;
+		}
+
+		/**
+		 * Sets a minimum size of a message that is compressed, smaller messages are sent as is
+		 */
+		public Builder withCompressionThreshold(MemSize compressionThreshold) {
+			checkNotBuilt(this);
+			PerMessageDeflate.this.compressionThreshold = compressionThreshold.toInt();
+			return this;
+		}
+
+		/**
+		 * Requests a server to reset its compression context after each message
+		 */
+		public Builder withServerNoContextTakeover(boolean serverNoContextTakeover) {
+			checkNotBuilt(this);
+			PerMessageDeflate.this.serverNoContextTakeover = serverNoContextTakeover;
+			return this;
+		}
+
+		/**
+		 * Requests a client to reset its compression context after each message
+		 */
+		public Builder withClientNoContextTakeover(boolean clientNoContextTakeover) {
+			checkNotBuilt(this);
+			PerMessageDeflate.this.clientNoContextTakeover = clientNoContextTakeover;
+			return this;
+		}
+
+		@Override
+		protected PerMessageDeflate doBuild() {
+			return PerMessageDeflate.this;
+		}
+	}
+
+	/**
+	 * Parameters of an accepted extension
+	 */
+	record Agreement(boolean serverNoContextTakeover, boolean clientNoContextTakeover) {
+		@Override
+		public String toString() {
+			return EXTENSION_NAME +
+				(serverNoContextTakeover ? "; " + SERVER_NO_CONTEXT_TAKEOVER : "") +
+				(clientNoContextTakeover ? "; " + CLIENT_NO_CONTEXT_TAKEOVER : "");
+		}
+	}
+
+	/**
+	 * Chooses the first acceptable offer of a client
+	 *
+	 * @param header a value of {@code Sec-WebSocket-Extensions} request header
+	 * @return an agreement or {@code null} if no acceptable offer is found
+	 */
+	@Nullable Agreement acceptOffer(@Nullable String header) {
+		if (header == null) return null;
+		offers:
+		for (String offer : header.split(",")) {
+			String[] params = offer.split(";");
+			if (!EXTENSION_NAME.equalsIgnoreCase(params[0].trim())) continue;
+			boolean serverNoContextTakeover = this.serverNoContextTakeover;
+			boolean clientNoContextTakeover = this.clientNoContextTakeover;
+			for (int i = 1; i < params.length; i++) {
+				String[] param = params[i].trim().split("=", 2);
+				String name = param[0].trim();
+				switch (name) {
+					case SERVER_NO_CONTEXT_TAKEOVER -> serverNoContextTakeover = true;
+					case CLIENT_NO_CONTEXT_TAKEOVER -> clientNoContextTakeover = true;
+					case SERVER_MAX_WINDOW_BITS -> {
+						if (param.length != 2 || windowBits(param[1]) != MAX_WINDOW_BITS) continue offers;
+					}
+					case CLIENT_MAX_WINDOW_BITS -> {
+						// a smaller window of a client is fine for an inflater
+					}
+					default -> {
+						continue offers;
+					}
+				}
+			}
+			return new Agreement(serverNoContextTakeover, clientNoContextTakeover);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns a value of {@code Sec-WebSocket-Extensions} header to be sent by a client
+	 */
+	String offer() {
+		return new Agreement(serverNoContextTakeover, clientNoContextTakeover).toString();
+	}
+
+	/**
+	 * Parses a response of a server to an offer of a client
+	 *
+	 * @param header a value of {@code Sec-WebSocket-Extensions} response header
+	 * @throws HttpException if a server has responded with parameters that were not offered
+	 */
+	Agreement acceptResponse(String header) throws HttpException {
+		String[] params = header.split(";");
+		if (!EXTENSION_NAME.equalsIgnoreCase(params[0].trim()) || header.indexOf(',') != -1) {
+			throw new HttpException("Unsupported web socket extension: " + header);
+		}
+		boolean serverNoContextTakeover = false;
+		boolean clientNoContextTakeover = false;
+		for (int i = 1; i < params.length; i++) {
+			String[] param = params[i].trim().split("=", 2);
+			switch (param[0].trim()) {
+				case SERVER_NO_CONTEXT_TAKEOVER -> serverNoContextTakeover = true;
+				case CLIENT_NO_CONTEXT_TAKEOVER -> clientNoContextTakeover = true;
+				case SERVER_MAX_WINDOW_BITS -> {
+					// a smaller window of a server is fine for an inflater
+				}
+				default -> throw new HttpException("Unsupported parameter of permessage-deflate extension: " + params[i]);
+			}
+		}
+		return new Agreement(serverNoContextTakeover, clientNoContextTakeover);
+	}
+
+	private static int windowBits(String value) {
+		try {
+			return Integer.parseInt(value.trim().replace("\"", ""));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	Compressor createCompressor(boolean noContextTakeover) {
+		return new Compressor(new Deflater(compressionLevel, true), compressionThreshold, noContextTakeover);
+	}
+
+	Decompressor createDecompressor(boolean noContextTakeover) {
+		return new Decompressor(new Inflater(true), noContextTakeover);
+	}
+
+	static final class Compressor {
+		private final Deflater deflater;
+		private final int threshold;
+		private final boolean noContextTakeover;
+
+		Compressor(Deflater deflater, int threshold, boolean noContextTakeover) {
+			this.deflater = deflater;
+			this.threshold = threshold;
+			this.noContextTakeover = noContextTakeover;
+		}
+
+		/**
+		 * Whether a message which first frame has a given payload should be compressed
+		 */
+		boolean shouldCompress(ByteBuf firstPayload, boolean isLastFrame) {
+			return !isLastFrame || firstPayload.readRemaining() >= threshold;
+		}
+
+		ByteBuf compress(ByteBuf payload, boolean isLastFrame) {
+			deflater.setInput(payload.array(), payload.head(), payload.readRemaining());
+			ByteBuf buf = ByteBufPool.allocate(payload.readRemaining() + TAIL.length + 8);
+			while (true) {
+				int count = deflater.deflate(buf.array(), buf.tail(), buf.writeRemaining(), Deflater.SYNC_FLUSH);
+				buf.moveTail(count);
+				if (buf.canWrite()) break;
+				buf = ByteBufPool.ensureWriteRemaining(buf, buf.readRemaining());
+			}
+			payload.recycle();
+			if (isLastFrame) {
+				assert buf.readRemaining() >= TAIL.length;
+				buf.tail(buf.tail() - TAIL.length);
+				if (noContextTakeover) deflater.reset();
+			}
+			return buf;
+		}
+
+		void close() {
+			deflater.end();
+		}
+	}
+
+	static final class Decompressor {
+		private final Inflater inflater;
+		private final boolean noContextTakeover;
+
+		private long messageSize;
+
+		Decompressor(Inflater inflater, boolean noContextTakeover) {
+			this.inflater = inflater;
+			this.noContextTakeover = noContextTakeover;
+		}
+
+		ByteBuf decompress(ByteBuf payload, boolean isLastFrame, long maxMessageSize) throws WebSocketException {
+			if (isLastFrame) {
+				payload = ByteBufPool.ensureWriteRemaining(payload, TAIL.length);
+				payload.put(TAIL);
+			}
+			inflater.setInput(payload.array(), payload.head(), payload.readRemaining());
+			ByteBuf buf = ByteBufPool.allocate(payload.readRemaining() * 2 + 16);
+			try {
+				while (true) {
+					int count = inflater.inflate(buf.array(), buf.tail(), buf.writeRemaining());
+					buf.moveTail(count);
+					if (messageSize + buf.readRemaining() > maxMessageSize) {
+						buf.recycle();
+						throw MESSAGE_TOO_BIG;
+					}
+					if (buf.canWrite() && (inflater.needsInput() || inflater.finished())) break;
+					buf = ByteBufPool.ensureWriteRemaining(buf, buf.readRemaining());
+				}
+			} catch (DataFormatException e) {
+				buf.recycle();
+				throw INVALID_COMPRESSED_DATA;
+			} finally {
+				payload.recycle();
+			}
+			messageSize += buf.readRemaining();
+			if (isLastFrame) {
+				messageSize = 0;
+				if (noContextTakeover) inflater.reset();
+			}
+			return buf;
+		}
+
+		void close() {
+			inflater.end();
+		}
+	}
+}
@@ -58,6 +58,7 @@ public final class WebSocket extends AbstractAsyncCloseable implements IWebSocke
 	private final ChannelSupplier<Frame> frameInput;
 	private final ChannelConsumer<Frame> frameOutput;
 	private final int maxMessageSize;
+	private final WebSocketFramesToBufs encoder;
 
 	private @Nullable SettablePromise<?> readPromise;
 	private @Nullable SettablePromise<Void> writePromise;
@@ -68,7 +69,8 @@ public final class WebSocket extends AbstractAsyncCloseable implements IWebSocke
 		ChannelSupplier<Frame> frameInput,
 		ChannelConsumer<Frame> frameOutput,
 		Consumer<WebSocketException> onProtocolError,
-		int maxMessageSize
+		int maxMessageSize,
+		WebSocketFramesToBufs encoder
 	) {
 		this.request = request;
 		this.response = response;
@@ -76,6 +78,7 @@ public final class WebSocket extends AbstractAsyncCloseable implements IWebSocke
 		this.frameOutput = sanitize(frameOutput);
 		this.onProtocolError = onProtocolError;
 		this.maxMessageSize = maxMessageSize;
+		this.encoder = encoder;
 	}
 
 	@Override
@@ -154,6 +157,23 @@ public final class WebSocket extends AbstractAsyncCloseable implements IWebSocke
 		return doWrite(() -> frameOutput.accept(frame), frame);
 	}
 
+	/**
+	 * Writes an already framed message, bypassing frame encoding.
+	 * <p>
+	 * Unlike other writes, framed writes may be issued concurrently with each other
+	 * and with an ongoing write of a message or a frame
+	 *
+	 * @see WebSocketBroadcaster
+	 */
+	Promise<Void> writeFramed(ByteBuf framedBuf) {
+		if (CHECKS) checkInReactorThread(this);
+		if (isClosed()) {
+			framedBuf.recycle();
+			return Promise.ofException(getException());
+		}
+		return encoder.sendFramed(framedBuf);
+	}
+
 	@Override
 	public HttpRequest getRequest() {
 		return request;
@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.common.Checks;
+import io.activej.common.builder.AbstractBuilder;
+import io.activej.http.IWebSocket.Message;
+import io.activej.jmx.api.attribute.JmxAttribute;
+import io.activej.jmx.stats.EventStats;
+import io.activej.reactor.AbstractReactive;
+import io.activej.reactor.Reactor;
+import io.activej.reactor.jmx.ReactiveJmxBeanWithStats;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static io.activej.bytebuf.ByteBuf.wrapForReading;
+import static io.activej.common.Checks.checkArgument;
+import static io.activej.http.IWebSocket.Message.MessageType.TEXT;
+import static io.activej.http.WebSocketConstants.OpCode.OP_BINARY;
+import static io.activej.http.WebSocketConstants.OpCode.OP_TEXT;
+import static io.activej.reactor.Reactive.checkInReactorThread;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Broadcasts messages to a set of server web sockets.
+ * <p>
+ * Each message is framed only once, all subscribers receive slices of the same framed buffer.
+ * Broadcast messages are never compressed, even if a {@code permessage-deflate} extension is negotiated,
+ * as compression contexts differ between connections.
+ * <p>
+ * A subscriber that has too many messages pending to be written is considered a slow consumer.
+ * Depending on settings, either slow consumers are closed or messages to them are dropped.
+ */
+public final class WebSocketBroadcaster extends AbstractReactive
+	implements ReactiveJmxBeanWithStats {
+	private static final boolean CHECKS = Checks.isEnabled(WebSocketBroadcaster.class);
+
+	private static final Duration SMOOTHING_WINDOW = Duration.ofMinutes(1);
+
+	public static final int DEFAULT_MAX_PENDING_MESSAGES = 64;
+
+	static final WebSocketException SLOW_CONSUMER = new WebSocketException(1008, "Slow consumer");
+
+	private final Map<WebSocket, Subscriber> subscribers = new LinkedHashMap<>();
+
+	private int maxPendingMessages = DEFAULT_MAX_PENDING_MESSAGES;
+	private boolean dropMessages;
+
+	// region JMX
+	private final EventStats broadcasts = EventStats.create(SMOOTHING_WINDOW);
+	private final EventStats deliveries = EventStats.create(SMOOTHING_WINDOW);
+	private final EventStats droppedMessages = EventStats.create(SMOOTHING_WINDOW);
+	private final EventStats slowConsumersClosed = EventStats.create(SMOOTHING_WINDOW);
+	// endregion
+
+	private WebSocketBroadcaster(Reactor reactor) {
+		super(reactor);
+	}
+
+	public static WebSocketBroadcaster create(Reactor reactor) {
+		return builder(reactor).build();
+	}
+
+	public static Builder builder(Reactor reactor) {
+		return new WebSocketBroadcaster(reactor).new Builder();
+	}
+
+	public final class Builder extends AbstractBuilder<Builder, WebSocketBroadcaster> {
+		private Builder() {}
+
+		/**
+		 * Sets a maximum number of messages that may be pending to be written to a single subscriber
+		 */
+		public Builder withMaxPendingMessages(int maxPendingMessages) {
+			checkNotBuilt(this);
+			checkArgument(maxPendingMessages > 0, "Maximum number of pending messages should be positive");
+			WebSocketBroadcaster.this.maxPendingMessages = maxPendingMessages;
+			return this;
+		}
+
+		/**
+		 * Whether messages to slow consumers should be dropped instead of closing slow consumers
+		 */
+		public Builder withDropMessages(boolean dropMessages) {
+			checkNotBuilt(this);
+			WebSocketBroadcaster.this.dropMessages = dropMessages;
+			return this;
+		}
+
+		@Override
+		protected WebSocketBroadcaster doBuild() {
+			return WebSocketBroadcaster.this;
+		}
+	}
+
+	/**
+	 * Adds a server web socket to subscribers. Closed web sockets and web sockets
+	 * that failed to receive a message are unsubscribed automatically.
+	 */
+	public void subscribe(IWebSocket webSocket) {
+		if (CHECKS) checkInReactorThread(this);
+		checkArgument(webSocket instanceof WebSocket, "Only web sockets accepted by a server can be subscribed");
+		subscribers.putIfAbsent((WebSocket) webSocket, new Subscriber((WebSocket) webSocket));
+	}
+
+	public boolean unsubscribe(IWebSocket webSocket) {
+		if (CHECKS) checkInReactorThread(this);
+		//noinspection SuspiciousMethodCalls
+		return subscribers.remove(webSocket) != null;
+	}
+
+	/**
+	 * Sends a message to all the subscribers.
+	 * A message is recycled after it has been sent.
+	 *
+	 * @return a number of subscribers the message has been sent to
+	 */
+	public int broadcast(Message message) {
+		if (CHECKS) checkInReactorThread(this);
+		broadcasts.recordEvent();
+		ByteBuf framedBuf = message.getType() == TEXT ?
+			WebSocketFramesToBufs.encodeFrame(wrapForReading(message.getText().getBytes(UTF_8)), OP_TEXT, true, false, false) :
+			WebSocketFramesToBufs.encodeFrame(message.getBuf(), OP_BINARY, true, false, false);
+
+		int sent = 0;
+		for (Iterator<Subscriber> it = subscribers.values().iterator(); it.hasNext(); ) {
+			Subscriber subscriber = it.next();
+			WebSocket webSocket = subscriber.webSocket;
+			if (subscriber.failed || webSocket.isClosed()) {
+				it.remove();
+				continue;
+			}
+			if (subscriber.pendingMessages >= maxPendingMessages) {
+				if (dropMessages) {
+					droppedMessages.recordEvent();
+					continue;
+				}
+				slowConsumersClosed.recordEvent();
+				it.remove();
+				webSocket.closeEx(SLOW_CONSUMER);
+				continue;
+			}
+			subscriber.pendingMessages++;
+			webSocket.writeFramed(framedBuf.slice())
+				.whenComplete(($, e) -> {
+					subscriber.pendingMessages--;
+					// a web socket may have been closed by a peer, while not yet closed locally
+					if (e != null) subscriber.failed = true;
+				});
+			sent++;
+		}
+		framedBuf.recycle();
+		deliveries.recordEvents(sent);
+		return sent;
+	}
+
+	private static final class Subscriber {
+		final WebSocket webSocket;
+		int pendingMessages;
+		boolean failed;
+
+		Subscriber(WebSocket webSocket) {
+			this.webSocket = webSocket;
+		}
+	}
+
+	// region JMX
+	@JmxAttribute
+	public EventStats getBroadcasts() {
+		return broadcasts;
+	}
+
+	@JmxAttribute(description = "messages sent to individual subscribers")
+	public EventStats getDeliveries() {
+		return deliveries;
+	}
+
+	@JmxAttribute(description = "messages that were not sent to slow consumers")
+	public EventStats getDroppedMessages() {
+		return droppedMessages;
+	}
+
+	@JmxAttribute
+	public EventStats getSlowConsumersClosed() {
+		return slowConsumersClosed;
+	}
+
+	@JmxAttribute
+	public int getSubscribers() {
+		return subscribers.size();
+	}
+
+	@JmxAttribute
+	public int getMaxPendingMessages() {
+		return maxPendingMessages;
+	}
+
+	@JmxAttribute
+	public void setMaxPendingMessages(int maxPendingMessages) {
+		checkArgument(maxPendingMessages > 0, "Maximum number of pending messages should be positive");
+		this.maxPendingMessages = maxPendingMessages;
+	}
+	// endregion
+}
@@ -30,6 +30,7 @@ import io.activej.csp.process.AbstractCommunicatingProcess;
 import io.activej.http.IWebSocket.Frame;
 import io.activej.promise.Promise;
 import io.activej.promise.SettablePromise;
+import org.jetbrains.annotations.Nullable;
 
 import java.nio.charset.CharacterCodingException;
 import java.util.function.Consumer;
@@ -66,6 +67,9 @@ public final class WebSocketBufsToFrames extends AbstractCommunicatingProcess
 	private boolean waitingForFin;
 	private WebSocketConstants.OpCode currentOpCode;
 
+	private PerMessageDeflate.@Nullable Decompressor decompressor;
+	private boolean decompressing;
+
 	private final ByteBufs frameBufs = new ByteBufs();
 	private final ByteBufs controlMessageBufs = new ByteBufs();
 
@@ -80,6 +84,10 @@ public final class WebSocketBufsToFrames extends AbstractCommunicatingProcess
 		return new WebSocketBufsToFrames(maxMessageSize, onPing, onPong, maskRequired);
 	}
 
+	void setDecompressor(PerMessageDeflate.Decompressor decompressor) {
+		this.decompressor = decompressor;
+	}
+
 	@Override
 	public BinaryChannelInput getInput() {
 		return input -> {
@@ -121,11 +129,6 @@ public final class WebSocketBufsToFrames extends AbstractCommunicatingProcess
 	private void processOpCode() {
 		input.decode(SINGLE_BYTE_DECODER)
 			.whenResult(firstByte -> {
-				if ((firstByte & RSV_MASK) != 0) {
-					onProtocolError(RESERVED_BITS_SET);
-					return;
-				}
-
 				byte opCodeByte = (byte) (firstByte & OP_CODE_MASK);
 				currentOpCode = fromOpCodeByte(opCodeByte);
 				if (currentOpCode == null) {
@@ -133,6 +136,13 @@ public final class WebSocketBufsToFrames extends AbstractCommunicatingProcess
 					return;
 				}
 
+				int rsv = firstByte & RSV_MASK;
+				if (rsv != 0 && (rsv != RSV1 || decompressor == null ||
+					currentOpCode.isControlCode() || currentOpCode == OP_CONTINUATION)) {
+					onProtocolError(RESERVED_BITS_SET);
+					return;
+				}
+
 				isFin = firstByte < 0;
 				if (currentOpCode.isControlCode()) {
 					if (!isFin) {
@@ -153,7 +163,7 @@ public final class WebSocketBufsToFrames extends AbstractCommunicatingProcess
 						onProtocolError(UNEXPECTED_CONTINUATION);
 						return;
 					}
-
+					decompressing = rsv != 0;
 				}
 				waitingForFin = !isFin;
 
@@ -242,7 +252,17 @@ public final class WebSocketBufsToFrames extends AbstractCommunicatingProcess
 		if (currentOpCode.isControlCode()) {
 			processControlPayload();
 		} else {
-			output.accept(new Frame(opToFrameType(currentOpCode), frameBufs.takeRemaining(), isFin))
+			ByteBuf payload = frameBufs.takeRemaining();
+			if (decompressing) {
+				assert decompressor != null;
+				try {
+					payload = decompressor.decompress(payload, isFin, maxMessageSize);
+				} catch (WebSocketException e) {
+					onProtocolError(e);
+					return;
+				}
+			}
+			output.accept(new Frame(opToFrameType(currentOpCode), payload, isFin))
 				.whenResult(this::processOpCode);
 		}
 	}
@@ -320,6 +340,10 @@ public final class WebSocketBufsToFrames extends AbstractCommunicatingProcess
 		}
 		frameBufs.recycle();
 		controlMessageBufs.recycle();
+		if (decompressor != null) {
+			decompressor.close();
+			decompressor = null;
+		}
 	}
 
 }
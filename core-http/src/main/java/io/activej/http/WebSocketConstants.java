@@ -44,6 +44,9 @@ public final class WebSocketConstants {
 	static final HttpError NOT_A_WEB_SOCKET_REQUEST = HttpError.ofCode(400, "Not a websocket request");
 	// endregion
 
+	// permessage-deflate extension marks first frames of compressed messages with RSV1 bit
+	static final byte RSV1 = 0b01000000;
+
 	static final String MAGIC_STRING = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
 
 	public enum OpCode {
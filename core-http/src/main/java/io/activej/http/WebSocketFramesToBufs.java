@@ -34,9 +34,12 @@ import io.activej.promise.Promise;
 import io.activej.promise.SettablePromise;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
 import static io.activej.common.Checks.checkState;
+import static io.activej.common.Utils.nullify;
 import static io.activej.http.HttpUtils.frameToOpType;
 import static io.activej.http.IWebSocket.Frame.FrameType.*;
 import static io.activej.http.WebSocketConstants.*;
@@ -60,6 +63,12 @@ public final class WebSocketFramesToBufs extends AbstractCommunicatingProcess
 	private boolean closing;
 	private boolean waitingForFin;
 
+	private PerMessageDeflate.@Nullable Compressor compressor;
+	private boolean compressing;
+
+	private @Nullable List<ByteBuf> deferredFramedBufs;
+	private @Nullable SettablePromise<Void> deferredPromise;
+
 	private WebSocketFramesToBufs(boolean masked) {
 		this.masked = masked;
 	}
@@ -68,6 +77,10 @@ public final class WebSocketFramesToBufs extends AbstractCommunicatingProcess
 		return new WebSocketFramesToBufs(masked);
 	}
 
+	void setCompressor(PerMessageDeflate.Compressor compressor) {
+		this.compressor = compressor;
+	}
+
 	@SuppressWarnings("ConstantConditions") //check input for clarity
 	@Override
 	public ChannelInput<Frame> getInput() {
@@ -103,18 +116,25 @@ public final class WebSocketFramesToBufs extends AbstractCommunicatingProcess
 				frame -> {
 					if (CHECKS) checkFrameOrder(frame);
 
-					return doAccept(encodeData(frame));
+					boolean firstFrame = !waitingForFin;
+					waitingForFin = !frame.isLastFrame();
+					Promise<Void> promise = doAccept(encodeData(frame, firstFrame));
+					if (!waitingForFin && deferredFramedBufs != null) flushDeferred();
+					return promise;
 				}))
 			.then(() -> sendCloseFrame(REGULAR_CLOSE))
 			.whenResult(this::completeProcess);
 	}
 
-	private ByteBuf doEncode(ByteBuf payload, OpCode opCode, boolean isLastFrame) {
+	static ByteBuf encodeFrame(ByteBuf payload, OpCode opCode, boolean isLastFrame, boolean compressed, boolean masked) {
 		int bufSize = payload.readRemaining();
 		int lenSize = bufSize < 126 ? 1 : bufSize < 65536 ? 3 : 9;
 
 		ByteBuf framedBuf = ByteBufPool.allocate(1 + lenSize + (masked ? 4 : 0) + bufSize);
-		framedBuf.writeByte(isLastFrame ? (byte) (opCode.getCode() | 0x80) : opCode.getCode());
+		byte firstByte = opCode.getCode();
+		if (isLastFrame) firstByte |= (byte) 0x80;
+		if (compressed) firstByte |= RSV1;
+		framedBuf.writeByte(firstByte);
 		if (lenSize == 1) {
 			framedBuf.writeByte((byte) bufSize);
 		} else if (lenSize == 3) {
@@ -139,8 +159,24 @@ public final class WebSocketFramesToBufs extends AbstractCommunicatingProcess
 		return framedBuf;
 	}
 
-	private ByteBuf encodeData(Frame frame) {
-		return doEncode(frame.getPayload(), frameToOpType(frame.getType()), frame.isLastFrame());
+	private ByteBuf doEncode(ByteBuf payload, OpCode opCode, boolean isLastFrame) {
+		return encodeFrame(payload, opCode, isLastFrame, false, masked);
+	}
+
+	private ByteBuf encodeData(Frame frame, boolean firstFrame) {
+		ByteBuf payload = frame.getPayload();
+		boolean isLastFrame = frame.isLastFrame();
+		if (compressor == null) {
+			return doEncode(payload, frameToOpType(frame.getType()), isLastFrame);
+		}
+		if (firstFrame) {
+			compressing = compressor.shouldCompress(payload, isLastFrame);
+		}
+		if (compressing) {
+			payload = compressor.compress(payload, isLastFrame);
+		}
+		// only the first frame of a compressed message has RSV1 bit set
+		return encodeFrame(payload, frameToOpType(frame.getType()), isLastFrame, firstFrame && compressing, masked);
 	}
 
 	private ByteBuf encodePong(ByteBuf buf) {
@@ -180,6 +216,46 @@ public final class WebSocketFramesToBufs extends AbstractCommunicatingProcess
 		}
 	}
 
+	/**
+	 * Sends an already framed unmasked message.
+	 * <p>
+	 * If a fragmented message is being sent at the moment, the framed message
+	 * is deferred until the last frame of the fragmented message is sent
+	 */
+	Promise<Void> sendFramed(ByteBuf framedBuf) {
+		checkInReactorThread(this);
+		checkState(!masked, "Framed messages cannot be masked");
+		if (!waitingForFin) {
+			return doAccept(framedBuf);
+		}
+		if (deferredFramedBufs == null) {
+			deferredFramedBufs = new ArrayList<>();
+			deferredPromise = new SettablePromise<>();
+		}
+		deferredFramedBufs.add(framedBuf);
+		return deferredPromise;
+	}
+
+	private void flushDeferred() {
+		List<ByteBuf> framedBufs = deferredFramedBufs;
+		SettablePromise<Void> promise = deferredPromise;
+		assert framedBufs != null && promise != null;
+		deferredFramedBufs = null;
+		deferredPromise = null;
+		Promise<Void> lastPromise = Promise.complete();
+		for (ByteBuf framedBuf : framedBufs) {
+			lastPromise = doAccept(framedBuf);
+		}
+		lastPromise.subscribe(promise::trySet);
+	}
+
+	private void recycleDeferred(Exception e) {
+		if (deferredFramedBufs == null) return;
+		deferredFramedBufs.forEach(ByteBuf::recycle);
+		deferredFramedBufs = null;
+		deferredPromise = nullify(deferredPromise, SettablePromise::setException, e);
+	}
+
 	void sendPong(ByteBuf payload) {
 		checkInReactorThread(this);
 		doAccept(encodePong(payload));
@@ -189,6 +265,7 @@ public final class WebSocketFramesToBufs extends AbstractCommunicatingProcess
 		checkInReactorThread(this);
 		if (closing) return Promise.complete();
 		closing = true;
+		recycleDeferred(e);
 		return doAccept(encodeClose(e == STATUS_CODE_MISSING ? EMPTY_CLOSE : e))
 			.then(() -> doAccept(null))
 			.whenComplete(() -> closeSentPromise.trySet(null));
@@ -198,15 +275,18 @@ public final class WebSocketFramesToBufs extends AbstractCommunicatingProcess
 		FrameType type = frame.getType();
 		if (!waitingForFin) {
 			checkState(type == TEXT || type == BINARY);
-			if (!frame.isLastFrame()) waitingForFin = true;
 		} else {
 			checkState(type == CONTINUATION);
-			if (frame.isLastFrame()) waitingForFin = false;
 		}
 	}
 
 	@Override
 	protected void doClose(Exception e) {
+		recycleDeferred(e);
+		if (compressor != null) {
+			compressor.close();
+			compressor = null;
+		}
 		if (output == null || input == null) return;
 
 		WebSocketException exception;
@@ -25,6 +25,7 @@ import io.activej.promise.Promise;
 import io.activej.promise.SettableCallback;
 import io.activej.reactor.AbstractReactive;
 import io.activej.reactor.Reactor;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
 
@@ -48,14 +49,24 @@ import static io.activej.reactor.Reactive.checkInReactorThread;
  * <p>
  * If a response has code different from {@code 101}, it will be sent as is and the resulted promise will be completed
  * exceptionally.
+ * <p>
+ * If {@link PerMessageDeflate} settings are provided, a {@code permessage-deflate} extension is negotiated
+ * with clients that offer it.
  */
 public abstract class WebSocketServlet extends AbstractReactive
 	implements AsyncServlet {
 	private static final boolean CHECKS = Checks.isEnabled(WebSocketServlet.class);
 
+	private final @Nullable PerMessageDeflate perMessageDeflate;
+
 	protected WebSocketServlet(Reactor reactor) {
+		this(reactor, null);
+	}
+
+	protected WebSocketServlet(Reactor reactor, @Nullable PerMessageDeflate perMessageDeflate) {
 		super(reactor);
 		checkState(IWebSocket.ENABLED, "Web sockets are disabled by application settings");
+		this.perMessageDeflate = perMessageDeflate;
 	}
 
 	protected Promise<HttpResponse> onRequest(HttpRequest request) {
@@ -97,6 +108,15 @@ public abstract class WebSocketServlet extends AbstractReactive
 							ByteBuf::recycle,
 							true);
 
+						if (perMessageDeflate != null) {
+							PerMessageDeflate.Agreement agreement = perMessageDeflate.acceptOffer(request.getHeader(SEC_WEBSOCKET_EXTENSIONS));
+							if (agreement != null) {
+								response.headers.add(SEC_WEBSOCKET_EXTENSIONS, HttpHeaderValue.of(agreement.toString()));
+								encoder.setCompressor(perMessageDeflate.createCompressor(agreement.serverNoContextTakeover()));
+								decoder.setDecompressor(perMessageDeflate.createDecompressor(agreement.clientNoContextTakeover()));
+							}
+						}
+
 						bindWebSocketTransformers(rawStream, encoder, decoder);
 
 						onWebSocket(new WebSocket(
@@ -105,7 +125,8 @@ public abstract class WebSocketServlet extends AbstractReactive
 							rawStream.transformWith(decoder),
 							buffer.getConsumer().transformWith(encoder),
 							decoder::onProtocolError,
-							request.maxBodySize
+							request.maxBodySize,
+							encoder
 						));
 
 						return response;
@@ -0,0 +1,100 @@
+package io.activej.dns;
+
+import io.activej.dns.protocol.*;
+import io.activej.promise.Promise;
+import io.activej.promise.Promises;
+import io.activej.promise.SettablePromise;
+import io.activej.reactor.Reactor;
+import io.activej.test.rules.EventloopRule;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.activej.promise.TestUtils.await;
+import static io.activej.reactor.Reactor.getCurrentReactor;
+import static org.junit.Assert.*;
+
+public final class CachedDnsClientRefreshTest {
+	private static final String DOMAIN = "www.example.com";
+
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	private final List<SettablePromise<DnsResponse>> upstreamQueries = new ArrayList<>();
+
+	private final IDnsClient upstream = new IDnsClient() {
+		@Override
+		public Promise<DnsResponse> resolve(DnsQuery query) {
+			SettablePromise<DnsResponse> promise = new SettablePromise<>();
+			upstreamQueries.add(promise);
+			return promise;
+		}
+
+		@Override
+		public void close() {
+		}
+	};
+
+	@Test
+	public void testConcurrentMissesAreDeduplicated() {
+		CachedDnsClient client = CachedDnsClient.create(getCurrentReactor(), upstream);
+
+		Promise<DnsResponse> first = client.resolve4(DOMAIN);
+		Promise<DnsResponse> second = client.resolve4(DOMAIN);
+		assertEquals(1, upstreamQueries.size());
+
+		upstreamQueries.get(0).set(response(1));
+		assertTrue(first.getResult().isSuccessful());
+		assertTrue(second.getResult().isSuccessful());
+	}
+
+	@Test
+	public void testPopularEntryIsRefreshedAheadOfExpiration() {
+		Reactor reactor = getCurrentReactor();
+		CachedDnsClient client = CachedDnsClient.builder(reactor, upstream)
+			.withRefreshAhead(0.01, 2)
+			.build();
+
+		Promise<DnsResponse> promise = client.resolve4(DOMAIN);
+		upstreamQueries.get(0).set(response(10));
+		await(promise);
+
+		await(Promises.delay(150));
+		// the first hit after the refresh-ahead time is not enough for a refresh
+		await(client.resolve4(DOMAIN));
+		assertEquals(1, upstreamQueries.size());
+
+		// the second one is, but it is still served from cache
+		await(client.resolve4(DOMAIN));
+		assertEquals(2, upstreamQueries.size());
+
+		// the entry is being refreshed right now, so it is not refreshed again
+		await(client.resolve4(DOMAIN));
+		assertEquals(2, upstreamQueries.size());
+
+		upstreamQueries.get(1).set(response(10));
+		assertEquals(0, client.getCache().getFailedDomainsCount());
+	}
+
+	@Test
+	public void testEntryIsNotRefreshedAheadWithoutRefreshAhead() {
+		CachedDnsClient client = CachedDnsClient.create(getCurrentReactor(), upstream);
+
+		Promise<DnsResponse> promise = client.resolve4(DOMAIN);
+		upstreamQueries.get(0).set(response(10));
+		await(promise);
+
+		for (int i = 0; i < 10; i++) {
+			await(client.resolve4(DOMAIN));
+		}
+		assertEquals(1, upstreamQueries.size());
+	}
+
+	private static DnsResponse response(int ttlSeconds) {
+		InetAddress[] ips = {InetAddress.getLoopbackAddress()};
+		return DnsResponse.of(DnsTransaction.of((short) 0, DnsQuery.ipv4(DOMAIN)), DnsResourceRecord.of(ips, ttlSeconds));
+	}
+}
@@ -0,0 +1,97 @@
+package io.activej.dns;
+
+import io.activej.dns.protocol.*;
+import io.activej.promise.Promise;
+import io.activej.test.rules.EventloopRule;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.activej.dns.protocol.DnsProtocol.ResponseErrorCode.*;
+import static io.activej.promise.TestUtils.await;
+import static io.activej.promise.TestUtils.awaitException;
+import static io.activej.reactor.Reactor.getCurrentReactor;
+import static org.junit.Assert.*;
+
+public final class FailoverDnsClientTest {
+	private static final String DOMAIN = "www.example.com";
+
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@Test
+	public void testFailoverOnTimeout() {
+		StubDnsClient failing = new StubDnsClient(TIMED_OUT);
+		StubDnsClient working = new StubDnsClient(NO_ERROR);
+		FailoverDnsClient client = FailoverDnsClient.create(getCurrentReactor(), failing, working);
+
+		DnsResponse response = await(client.resolve4(DOMAIN));
+		assertTrue(response.isSuccessful());
+		assertEquals(1, client.getFailovers().getTotalCount());
+		assertEquals(1, client.getPreferredUpstream());
+
+		// the upstream that has answered is preferred for subsequent queries
+		await(client.resolve4(DOMAIN));
+		assertEquals(1, failing.queries.size());
+		assertEquals(2, working.queries.size());
+	}
+
+	@Test
+	public void testNoFailoverOnNameError() {
+		StubDnsClient first = new StubDnsClient(NAME_ERROR);
+		StubDnsClient second = new StubDnsClient(NO_ERROR);
+		FailoverDnsClient client = FailoverDnsClient.create(getCurrentReactor(), first, second);
+
+		DnsQueryException e = awaitException(client.resolve4(DOMAIN));
+		assertEquals(NAME_ERROR, e.getResult().getErrorCode());
+		assertTrue(second.queries.isEmpty());
+	}
+
+	@Test
+	public void testAllUpstreamsFail() {
+		StubDnsClient first = new StubDnsClient(TIMED_OUT);
+		StubDnsClient second = new StubDnsClient(SERVER_FAILURE);
+		FailoverDnsClient client = FailoverDnsClient.create(getCurrentReactor(), first, second);
+
+		DnsQueryException e = awaitException(client.resolve4(DOMAIN));
+		assertEquals(SERVER_FAILURE, e.getResult().getErrorCode());
+		assertEquals(1, first.queries.size());
+		assertEquals(1, second.queries.size());
+	}
+
+	@Test
+	public void testIpLiteralIsNotResolved() {
+		StubDnsClient upstream = new StubDnsClient(NO_ERROR);
+		FailoverDnsClient client = FailoverDnsClient.create(getCurrentReactor(), upstream);
+
+		await(client.resolve4("127.0.0.1"));
+		assertTrue(upstream.queries.isEmpty());
+	}
+
+	static final class StubDnsClient implements IDnsClient {
+		final List<DnsQuery> queries = new ArrayList<>();
+		private final DnsProtocol.ResponseErrorCode errorCode;
+
+		StubDnsClient(DnsProtocol.ResponseErrorCode errorCode) {
+			this.errorCode = errorCode;
+		}
+
+		@Override
+		public Promise<DnsResponse> resolve(DnsQuery query) {
+			queries.add(query);
+			DnsTransaction transaction = DnsTransaction.of((short) 0, query);
+			if (errorCode != NO_ERROR) {
+				return Promise.ofException(new DnsQueryException(DnsResponse.ofFailure(transaction, errorCode)));
+			}
+			InetAddress[] ips = {InetAddress.getLoopbackAddress()};
+			return Promise.of(DnsResponse.of(transaction, DnsResourceRecord.of(ips, 60)));
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
@@ -0,0 +1,234 @@
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.bytebuf.ByteBufPool;
+import io.activej.common.MemSize;
+import io.activej.promise.Promise;
+import io.activej.promise.SettablePromise;
+import io.activej.reactor.Reactor;
+import io.activej.test.rules.ByteBufRule;
+import io.activej.test.rules.EventloopRule;
+import org.junit.After;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.activej.http.HttpHeaders.*;
+import static io.activej.promise.TestUtils.await;
+import static io.activej.reactor.Reactor.getCurrentReactor;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+public final class CachingServletTest {
+	private static final String URL = "http://example.com/resource";
+
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	private final List<HttpRequest> upstreamRequests = new ArrayList<>();
+	private CachingServlet servlet;
+
+	@After
+	public void tearDown() {
+		if (servlet != null) servlet.clear();
+	}
+
+	@Test
+	public void testFreshResponseIsCached() throws Exception {
+		servlet = CachingServlet.create(getCurrentReactor(), upstream("max-age=60", null, "Hello"));
+
+		assertEquals("Hello", serve(HttpRequest.get(URL)));
+		assertEquals("Hello", serve(HttpRequest.get(URL)));
+		assertEquals(1, upstreamRequests.size());
+		assertEquals(1, servlet.getHits().getTotalCount());
+		assertEquals(1, servlet.getMisses().getTotalCount());
+		assertEquals(1, servlet.getCachedEntries());
+	}
+
+	@Test
+	public void testUncacheableResponses() throws Exception {
+		servlet = CachingServlet.create(getCurrentReactor(), upstream("no-store", null, "Hello"));
+
+		assertEquals("Hello", serve(HttpRequest.get(URL)));
+		assertEquals("Hello", serve(HttpRequest.get(URL)));
+		assertEquals(2, upstreamRequests.size());
+		assertEquals(0, servlet.getCachedEntries());
+	}
+
+	@Test
+	public void testConcurrentMissesAreCollapsed() throws Exception {
+		Reactor reactor = getCurrentReactor();
+		List<SettablePromise<HttpResponse>> upstreamPromises = new ArrayList<>();
+		servlet = CachingServlet.create(reactor, request -> {
+			upstreamRequests.add(request);
+			SettablePromise<HttpResponse> promise = new SettablePromise<>();
+			upstreamPromises.add(promise);
+			return promise;
+		});
+
+		Promise<HttpResponse> first = servlet.serve(HttpRequest.get(URL).build());
+		Promise<HttpResponse> second = servlet.serve(HttpRequest.get(URL).build());
+		Promise<HttpResponse> third = servlet.serve(HttpRequest.get(URL).build());
+		assertEquals(1, upstreamPromises.size());
+
+		upstreamPromises.get(0).set(response("max-age=60", null, "Hello"));
+		assertEquals("Hello", bodyOf(await(first)));
+		assertEquals("Hello", bodyOf(await(second)));
+		assertEquals("Hello", bodyOf(await(third)));
+		assertEquals(2, servlet.getCollapsedMisses().getTotalCount());
+	}
+
+	@Test
+	public void testRevalidationWithEtag() throws Exception {
+		servlet = CachingServlet.create(getCurrentReactor(), request -> {
+			upstreamRequests.add(request);
+			if ("\"v1\"".equals(request.getHeader(IF_NONE_MATCH))) {
+				return HttpResponse.ofCode(304).withHeader(ETAG, "\"v1\"").toPromise();
+			}
+			return Promise.of(response("max-age=0", "\"v1\"", "Hello"));
+		});
+
+		assertEquals("Hello", serve(HttpRequest.get(URL)));
+		assertEquals("Hello", serve(HttpRequest.get(URL)));
+		assertEquals(2, upstreamRequests.size());
+		assertEquals("\"v1\"", upstreamRequests.get(1).getHeader(IF_NONE_MATCH));
+		assertEquals(1, servlet.getNotModified().getTotalCount());
+	}
+
+	@Test
+	public void testStaleWhileRevalidate() throws Exception {
+		servlet = CachingServlet.create(getCurrentReactor(), request -> {
+			upstreamRequests.add(request);
+			return Promise.of(response("max-age=0, stale-while-revalidate=60", null, "Hello " + upstreamRequests.size()));
+		});
+
+		assertEquals("Hello 1", serve(HttpRequest.get(URL)));
+		// stale response is served while a fresh one is fetched in background
+		assertEquals("Hello 1", serve(HttpRequest.get(URL)));
+		assertEquals(2, upstreamRequests.size());
+		assertEquals("Hello 2", serve(HttpRequest.get(URL)));
+		assertEquals(2, servlet.getStaleHits().getTotalCount());
+	}
+
+	@Test
+	public void testConditionalClientRequest() throws Exception {
+		servlet = CachingServlet.create(getCurrentReactor(), upstream("max-age=60", "\"v1\"", "Hello"));
+
+		assertEquals("Hello", serve(HttpRequest.get(URL)));
+
+		HttpResponse response = await(servlet.serve(HttpRequest.get(URL).withHeader(IF_NONE_MATCH, "W/\"v1\"").build()));
+		assertEquals(304, response.getCode());
+		assertEquals("\"v1\"", response.getHeader(ETAG));
+		response.recycle();
+		assertEquals(1, upstreamRequests.size());
+	}
+
+	@Test
+	public void testVary() throws Exception {
+		servlet = CachingServlet.create(getCurrentReactor(), request -> {
+			upstreamRequests.add(request);
+			return HttpResponse.ok200()
+				.withHeader(CACHE_CONTROL, "max-age=60")
+				.withHeader(VARY, "Accept-Language")
+				.withBody(pooled("Hello " + request.getHeader(ACCEPT_LANGUAGE)))
+				.toPromise();
+		});
+
+		assertEquals("Hello en", serve(HttpRequest.get(URL).withHeader(ACCEPT_LANGUAGE, "en")));
+		assertEquals("Hello de", serve(HttpRequest.get(URL).withHeader(ACCEPT_LANGUAGE, "de")));
+		assertEquals("Hello en", serve(HttpRequest.get(URL).withHeader(ACCEPT_LANGUAGE, "en")));
+		assertEquals("Hello de", serve(HttpRequest.get(URL).withHeader(ACCEPT_LANGUAGE, "de")));
+		assertEquals(2, upstreamRequests.size());
+		assertEquals(2, servlet.getCachedEntries());
+	}
+
+	@Test
+	public void testVaryChangeEvictsPreviousVariants() throws Exception {
+		String[] vary = {"Accept-Language"};
+		servlet = CachingServlet.create(getCurrentReactor(), request -> {
+			upstreamRequests.add(request);
+			return HttpResponse.ok200()
+				.withHeader(CACHE_CONTROL, "max-age=60")
+				.withHeader(VARY, vary[0])
+				.withBody(pooled("Hello " + request.getHeader(ACCEPT_LANGUAGE)))
+				.toPromise();
+		});
+
+		assertEquals("Hello en", serve(HttpRequest.get(URL).withHeader(ACCEPT_LANGUAGE, "en")));
+		assertEquals("Hello de", serve(HttpRequest.get(URL).withHeader(ACCEPT_LANGUAGE, "de")));
+		assertEquals(2, servlet.getCachedEntries());
+
+		vary[0] = "Accept-Encoding";
+		assertEquals("Hello fr", serve(HttpRequest.get(URL).withHeader(ACCEPT_LANGUAGE, "fr")));
+		assertEquals(1, servlet.getCachedEntries());
+		assertEquals("Hello fr", serve(HttpRequest.get(URL).withHeader(ACCEPT_LANGUAGE, "en")));
+		assertEquals(3, upstreamRequests.size());
+	}
+
+	@Test
+	public void testUnsafeRequestInvalidates() throws Exception {
+		servlet = CachingServlet.create(getCurrentReactor(), upstream("max-age=60", null, "Hello"));
+
+		assertEquals("Hello", serve(HttpRequest.get(URL)));
+		assertEquals("Hello", serve(HttpRequest.post(URL)));
+		assertEquals(0, servlet.getCachedEntries());
+		assertEquals("Hello", serve(HttpRequest.get(URL)));
+		assertEquals(3, upstreamRequests.size());
+	}
+
+	@Test
+	public void testCacheIsBoundedBySize() throws Exception {
+		servlet = CachingServlet.builder(getCurrentReactor(), request -> {
+				upstreamRequests.add(request);
+				return Promise.of(response("max-age=60", null, "x".repeat(1000)));
+			})
+			.withMaxCacheSize(MemSize.kilobytes(10))
+			.build();
+
+		for (int i = 0; i < 100; i++) {
+			serve(HttpRequest.get(URL + i));
+		}
+		assertTrue(servlet.getCachedBytes() <= 10 * 1024);
+		assertTrue(servlet.getEvictions() > 0);
+	}
+
+	private AsyncServlet upstream(String cacheControl, String etag, String body) {
+		return request -> {
+			upstreamRequests.add(request);
+			return Promise.of(response(cacheControl, etag, body));
+		};
+	}
+
+	private static HttpResponse response(String cacheControl, String etag, String body) {
+		HttpResponse.Builder builder = HttpResponse.ok200()
+			.withHeader(CACHE_CONTROL, cacheControl)
+			.withBody(pooled(body));
+		if (etag != null) {
+			builder.withHeader(ETAG, etag);
+		}
+		return builder.build();
+	}
+
+	private static ByteBuf pooled(String body) {
+		byte[] bytes = body.getBytes(UTF_8);
+		ByteBuf buf = ByteBufPool.allocate(bytes.length);
+		buf.put(bytes);
+		return buf;
+	}
+
+	private String serve(HttpRequest.Builder request) throws Exception {
+		return bodyOf(await(servlet.serve(request.build())));
+	}
+
+	private static String bodyOf(HttpResponse response) {
+		assertEquals(200, response.getCode());
+		String body = response.getBody().getString(UTF_8);
+		response.recycle();
+		return body;
+	}
+}
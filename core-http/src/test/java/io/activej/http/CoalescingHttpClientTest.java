@@ -0,0 +1,109 @@
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.bytebuf.ByteBufPool;
+import io.activej.promise.Promise;
+import io.activej.promise.SettablePromise;
+import io.activej.test.rules.ByteBufRule;
+import io.activej.test.rules.EventloopRule;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.activej.http.HttpHeaders.ACCEPT_LANGUAGE;
+import static io.activej.promise.TestUtils.await;
+import static io.activej.promise.TestUtils.awaitException;
+import static io.activej.reactor.Reactor.getCurrentReactor;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+public final class CoalescingHttpClientTest {
+	private static final String URL = "http://example.com/resource";
+
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	private final List<SettablePromise<HttpResponse>> upstream = new ArrayList<>();
+
+	private final CoalescingHttpClient client = CoalescingHttpClient.create(getCurrentReactor(), request -> {
+		request.recycle();
+		SettablePromise<HttpResponse> promise = new SettablePromise<>();
+		upstream.add(promise);
+		return promise;
+	});
+
+	@Test
+	public void testIdenticalRequestsAreCoalesced() {
+		Promise<String> first = request(HttpRequest.get(URL));
+		Promise<String> second = request(HttpRequest.get(URL));
+		Promise<String> third = request(HttpRequest.get(URL));
+		assertEquals(1, upstream.size());
+		assertEquals(1, client.getInFlightRequests());
+
+		upstream.get(0).set(HttpResponse.ok200().withBody(pooled("Hello")).build());
+		assertEquals("Hello", await(first));
+		assertEquals("Hello", await(second));
+		assertEquals("Hello", await(third));
+		assertEquals(2, client.getCoalesced().getTotalCount());
+		assertEquals(0, client.getInFlightRequests());
+	}
+
+	@Test
+	public void testDifferentRequestsAreNotCoalesced() {
+		request(HttpRequest.get(URL));
+		request(HttpRequest.get(URL + "?a=b"));
+		request(HttpRequest.get(URL).withHeader(ACCEPT_LANGUAGE, "en"));
+		request(HttpRequest.post(URL));
+		assertEquals(4, upstream.size());
+		assertEquals(0, client.getCoalesced().getTotalCount());
+
+		for (SettablePromise<HttpResponse> promise : upstream) {
+			promise.set(HttpResponse.ok200().withBody(pooled("Hello")).build());
+		}
+	}
+
+	@Test
+	public void testExceptionIsPropagated() {
+		Promise<String> first = request(HttpRequest.get(URL));
+		Promise<String> second = request(HttpRequest.get(URL));
+
+		HttpException exception = new HttpException("Test");
+		upstream.get(0).setException(exception);
+		assertSame(exception, awaitException(first));
+		assertSame(exception, awaitException(second));
+	}
+
+	@Test
+	public void testRequestAfterResponseIsNotCoalesced() {
+		Promise<String> first = request(HttpRequest.get(URL));
+		upstream.get(0).set(HttpResponse.ok200().withBody(pooled("Hello")).build());
+		assertEquals("Hello", await(first));
+
+		Promise<String> second = request(HttpRequest.get(URL));
+		assertEquals(2, upstream.size());
+		upstream.get(1).set(HttpResponse.ok200().withBody(pooled("World")).build());
+		assertEquals("World", await(second));
+	}
+
+	private Promise<String> request(HttpRequest.Builder request) {
+		return client.request(request.build())
+			.then(response -> response.loadBody()
+				.map(body -> {
+					String string = body.getString(UTF_8);
+					response.recycle();
+					return string;
+				}));
+	}
+
+	private static ByteBuf pooled(String body) {
+		byte[] bytes = body.getBytes(UTF_8);
+		ByteBuf buf = ByteBufPool.allocate(bytes.length);
+		buf.put(bytes);
+		return buf;
+	}
+}
@@ -0,0 +1,89 @@
+package io.activej.http;
+
+import io.activej.dns.IDnsClient;
+import io.activej.dns.protocol.*;
+import io.activej.promise.Promise;
+import io.activej.promise.SettablePromise;
+import io.activej.test.rules.EventloopRule;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.net.InetAddress;
+
+import static io.activej.http.HttpUtils.inetAddress;
+import static io.activej.reactor.Reactor.getCurrentReactor;
+import static org.junit.Assert.*;
+
+public final class HappyEyeballsTest {
+	private static final String HOST = "dual-stack.test";
+	private static final InetAddress IPV6 = inetAddress("::1");
+	private static final InetAddress IPV4 = inetAddress("127.0.0.1");
+
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@Test
+	public void testIpv6AddressesAreNotDelayed() {
+		SettablePromise<DnsResponse> ipv4 = new SettablePromise<>();
+		SettablePromise<InetAddress[]> otherAddresses = new SettablePromise<>();
+		Promise<DnsResponse> resolved = HappyEyeballs.resolve(getCurrentReactor(), dnsClient(Promise.of(response6(IPV6)), ipv4), HOST, otherAddresses);
+
+		assertTrue(resolved.isResult());
+		assertEquals(DnsQuery.ipv6(HOST), resolved.getResult().getTransaction().getQuery());
+		assertArrayEquals(new InetAddress[]{IPV6}, resolved.getResult().getRecord().getIps());
+		assertFalse(otherAddresses.isComplete());
+
+		ipv4.set(response4(IPV4));
+		assertArrayEquals(new InetAddress[]{IPV4}, otherAddresses.getResult());
+	}
+
+	@Test
+	public void testIpv4AddressesAwaitIpv6Addresses() {
+		SettablePromise<DnsResponse> ipv6 = new SettablePromise<>();
+		SettablePromise<InetAddress[]> otherAddresses = new SettablePromise<>();
+		Promise<DnsResponse> resolved = HappyEyeballs.resolve(getCurrentReactor(), dnsClient(ipv6, Promise.of(response4(IPV4))), HOST, otherAddresses);
+
+		assertFalse(resolved.isComplete());
+		ipv6.set(response6(IPV6));
+		assertTrue(resolved.isResult());
+		assertArrayEquals(new InetAddress[]{IPV6}, resolved.getResult().getRecord().getIps());
+		assertArrayEquals(new InetAddress[]{IPV4}, otherAddresses.getResult());
+	}
+
+	@Test
+	public void testSingleFamily() {
+		SettablePromise<InetAddress[]> otherAddresses = new SettablePromise<>();
+		Promise<DnsResponse> resolved = HappyEyeballs.resolve(getCurrentReactor(),
+			dnsClient(Promise.ofException(new Exception("No IPv6")), Promise.of(response4(IPV4))), HOST, otherAddresses);
+
+		assertTrue(resolved.isResult());
+		assertEquals(DnsQuery.ipv4(HOST), resolved.getResult().getTransaction().getQuery());
+		assertArrayEquals(new InetAddress[0], otherAddresses.getResult());
+	}
+
+	private static IDnsClient dnsClient(Promise<DnsResponse> ipv6, Promise<DnsResponse> ipv4) {
+		return new IDnsClient() {
+			@Override
+			public Promise<DnsResponse> resolve(DnsQuery query) {
+				return query.getRecordType() == DnsProtocol.RecordType.AAAA ? ipv6 : ipv4;
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+	}
+
+	private static DnsResponse response4(InetAddress ip) {
+		return response(DnsQuery.ipv4(HOST), ip);
+	}
+
+	private static DnsResponse response6(InetAddress ip) {
+		return response(DnsQuery.ipv6(HOST), ip);
+	}
+
+	private static DnsResponse response(DnsQuery query, InetAddress ip) {
+		DnsTransaction transaction = DnsTransaction.of((short) 0, query);
+		return DnsResponse.of(transaction, DnsResourceRecord.of(new InetAddress[]{ip}, 60));
+	}
+}
@@ -0,0 +1,180 @@
+package io.activej.http;
+
+import io.activej.async.exception.AsyncCloseException;
+import io.activej.dns.IDnsClient;
+import io.activej.dns.protocol.*;
+import io.activej.promise.Promise;
+import io.activej.promise.Promises;
+import io.activej.reactor.Reactor;
+import io.activej.test.rules.ByteBufRule;
+import io.activej.test.rules.EventloopRule;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.activej.dns.protocol.DnsProtocol.ResponseErrorCode.NAME_ERROR;
+import static io.activej.http.HttpUtils.inetAddress;
+import static io.activej.promise.TestUtils.await;
+import static io.activej.promise.TestUtils.awaitException;
+import static io.activej.reactor.Reactor.getCurrentReactor;
+import static io.activej.test.TestUtils.getFreePort;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+public final class HedgingHttpClientTest {
+	private static final String URL = "http://example.com/resource";
+
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	private final List<HttpRequest> upstreamRequests = new ArrayList<>();
+
+	@Test
+	public void testSlowRequestIsHedged() {
+		HedgingHttpClient client = hedging(List.of(Duration.ofMillis(200), Duration.ZERO));
+
+		assertEquals("Response 2", await(request(client, HttpRequest.get(URL))));
+		assertEquals(2, upstreamRequests.size());
+		assertEquals(1, client.getHedges().getTotalCount());
+		assertEquals(1, client.getHedgesWon().getTotalCount());
+		assertEquals(1.0, client.getHedgeRate(), 0.0);
+	}
+
+	@Test
+	public void testFastRequestIsNotHedged() {
+		HedgingHttpClient client = hedging(List.of(Duration.ZERO));
+
+		assertEquals("Response 1", await(request(client, HttpRequest.get(URL))));
+		assertEquals(1, upstreamRequests.size());
+		assertEquals(0, client.getHedges().getTotalCount());
+	}
+
+	@Test
+	public void testUnsafeRequestIsNotHedged() {
+		HedgingHttpClient client = hedging(List.of(Duration.ofMillis(100)));
+
+		assertEquals("Response 1", await(request(client, HttpRequest.post(URL))));
+		assertEquals(1, upstreamRequests.size());
+		assertEquals(0, client.getHedges().getTotalCount());
+	}
+
+	@Test
+	public void testExceptionOfBothRequests() {
+		Reactor reactor = getCurrentReactor();
+		HedgingHttpClient client = HedgingHttpClient.builder(reactor, request -> {
+				upstreamRequests.add(request);
+				return Promises.delay(Duration.ofMillis(50))
+					.then(() -> Promise.ofException(new HttpException("Test " + upstreamRequests.size())));
+			})
+			.withMaxDelay(Duration.ofMillis(10))
+			.withMaxHedgeRatio(1)
+			.build();
+
+		Exception e = awaitException(request(client, HttpRequest.get(URL)));
+		assertEquals(2, upstreamRequests.size());
+		assertEquals("Test 2", e.getMessage());
+	}
+
+	@Test
+	public void testHedgeDelayFollowsLatencies() {
+		HedgingHttpClient client = HedgingHttpClient.builder(getCurrentReactor(), request -> HttpResponse.ok200().toPromise())
+			.withMinDelay(Duration.ofMillis(5))
+			.withMaxDelay(Duration.ofSeconds(10))
+			.withSampleSize(16)
+			.build();
+		assertEquals(10_000, client.getHedgeDelay());
+
+		for (int i = 0; i < 16; i++) {
+			await(client.request(HttpRequest.get(URL).build()));
+		}
+		assertEquals(5, client.getHedgeDelay());
+		assertEquals(0, client.getHedges().getTotalCount());
+	}
+
+	@Test
+	public void testHedgeIsSentToAnotherAddressAndLoserIsAborted() throws IOException {
+		int port = getFreePort();
+		HttpServer.builder(getCurrentReactor(), request -> Promises.delay(Duration.ofMillis(500))
+				.map($ -> HttpResponse.ok200().withBody("Slow".getBytes(UTF_8)).build()))
+			.withListenAddress(new InetSocketAddress("127.0.0.1", port))
+			.withAcceptOnce()
+			.build()
+			.listen();
+		HttpServer.builder(getCurrentReactor(), request -> HttpResponse.ok200().withBody("Hello".getBytes(UTF_8)).toPromise())
+			.withListenAddress(new InetSocketAddress("127.0.0.2", port))
+			.withAcceptOnce()
+			.build()
+			.listen();
+
+		List<InetSocketAddress> attempts = new ArrayList<>();
+		List<Exception> errors = new ArrayList<>();
+		IDnsClient dnsClient = new IDnsClient() {
+			@Override
+			public Promise<DnsResponse> resolve(DnsQuery query) {
+				DnsTransaction transaction = DnsTransaction.of((short) 0, query);
+				if (query.getRecordType() == DnsProtocol.RecordType.AAAA) {
+					return Promise.ofException(new DnsQueryException(DnsResponse.ofFailure(transaction, NAME_ERROR)));
+				}
+				InetAddress[] ips = {inetAddress("127.0.0.1"), inetAddress("127.0.0.2")};
+				return Promise.of(DnsResponse.of(transaction, DnsResourceRecord.of(ips, 60)));
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		HttpClient httpClient = HttpClient.builder(getCurrentReactor(), dnsClient)
+			.withHappyEyeballs(Duration.ofMillis(50))
+			.withNoKeepAlive()
+			.withInspector(new HttpClient.JmxInspector() {
+				@Override
+				public void onConnecting(HttpRequest request, InetSocketAddress address) {
+					attempts.add(address);
+				}
+
+				@Override
+				public void onHttpError(HttpClientConnection connection, Exception e) {
+					errors.add(e);
+				}
+			})
+			.build();
+		HedgingHttpClient client = HedgingHttpClient.builder(getCurrentReactor(), httpClient)
+			.withMaxDelay(Duration.ofMillis(10))
+			.withMaxHedgeRatio(1)
+			.build();
+
+		assertEquals("Hello", await(request(client, HttpRequest.get("http://hedging.test:" + port))));
+		assertEquals(1, client.getHedgesWon().getTotalCount());
+		assertEquals(List.of(new InetSocketAddress("127.0.0.1", port), new InetSocketAddress("127.0.0.2", port)), attempts);
+		// a connection of the original request is closed instead of waiting for a slow response
+		assertEquals(1, errors.size());
+		assertTrue(errors.get(0) instanceof AsyncCloseException);
+	}
+
+	private HedgingHttpClient hedging(List<Duration> delays) {
+		return HedgingHttpClient.builder(getCurrentReactor(), request -> {
+				upstreamRequests.add(request);
+				String body = "Response " + upstreamRequests.size();
+				return Promises.delay(delays.get(upstreamRequests.size() - 1))
+					.map($ -> HttpResponse.ok200().withBody(body.getBytes(UTF_8)).build());
+			})
+			.withMaxDelay(Duration.ofMillis(10))
+			.withMaxHedgeRatio(1)
+			.build();
+	}
+
+	private static Promise<String> request(HedgingHttpClient client, HttpRequest.Builder request) {
+		return client.request(request.build())
+			.then(response -> response.loadBody())
+			.map(body -> body.getString(UTF_8));
+	}
+}
@@ -0,0 +1,131 @@
+package io.activej.http;
+
+import io.activej.dns.IDnsClient;
+import io.activej.dns.protocol.*;
+import io.activej.promise.Promise;
+import io.activej.promise.Promises;
+import io.activej.reactor.nio.NioReactor;
+import io.activej.test.rules.ByteBufRule;
+import io.activej.test.rules.EventloopRule;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.activej.dns.protocol.DnsProtocol.ResponseErrorCode.NAME_ERROR;
+import static io.activej.http.HttpUtils.inetAddress;
+import static io.activej.promise.TestUtils.await;
+import static io.activej.reactor.Reactor.getCurrentReactor;
+import static io.activej.test.TestUtils.getFreePort;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+public final class HttpClientHappyEyeballsTest {
+	private static final String HOST = "dual-stack.test";
+
+	// an address from a block reserved for documentation, connections to it never succeed
+	private static final InetAddress UNREACHABLE = inetAddress("192.0.2.1");
+
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	private final List<InetSocketAddress> attempts = new ArrayList<>();
+	private int port;
+	private long ipv4DelayMillis;
+
+	@Before
+	public void setUp() throws IOException {
+		port = getFreePort();
+		HttpServer.builder(getCurrentReactor(), request -> HttpResponse.ok200().withBody("Hello".getBytes(UTF_8)).toPromise())
+			.withListenAddress(new InetSocketAddress("127.0.0.1", port))
+			.withAcceptOnce()
+			.build()
+			.listen();
+	}
+
+	@Test
+	public void testUnreachableAddressIsRaced() {
+		HttpClient client = client(new InetAddress[]{UNREACHABLE}, new InetAddress[]{inetAddress("127.0.0.1")});
+
+		long start = System.currentTimeMillis();
+		long[] responseTime = new long[1];
+		String body = await(client.request(HttpRequest.get("http://" + HOST + ":" + port).build())
+			.then(response -> response.loadBody())
+			.map(buf -> {
+				responseTime[0] = System.currentTimeMillis() - start;
+				return buf.getString(UTF_8);
+			}));
+		assertEquals("Hello", body);
+		// a response is not delayed by the connect timeout of the unreachable address
+		assertTrue(responseTime[0] < 1_000);
+		assertEquals(new InetSocketAddress(UNREACHABLE, port), attempts.get(0));
+		assertEquals(new InetSocketAddress(inetAddress("127.0.0.1"), port), attempts.get(1));
+	}
+
+	@Test
+	public void testLateIpv4AddressesAreRaced() {
+		ipv4DelayMillis = 200;
+		HttpClient client = client(new InetAddress[]{UNREACHABLE}, new InetAddress[]{inetAddress("127.0.0.1")});
+
+		long start = System.currentTimeMillis();
+		assertEquals("Hello", request(client));
+		// IPv4 addresses that are resolved after IPv6 addresses are not delayed by the connect timeout
+		assertTrue(System.currentTimeMillis() - start < 1_000);
+		assertEquals(List.of(new InetSocketAddress(UNREACHABLE, port), new InetSocketAddress(inetAddress("127.0.0.1"), port)), attempts);
+	}
+
+	@Test
+	public void testSingleFamily() {
+		HttpClient client = client(null, new InetAddress[]{inetAddress("127.0.0.1")});
+
+		assertEquals("Hello", request(client));
+		assertEquals(1, attempts.size());
+	}
+
+	private HttpClient client(InetAddress[] ipv6, InetAddress[] ipv4) {
+		NioReactor reactor = getCurrentReactor();
+		IDnsClient dnsClient = new IDnsClient() {
+			@Override
+			public Promise<DnsResponse> resolve(DnsQuery query) {
+				InetAddress[] ips = query.getRecordType() == DnsProtocol.RecordType.AAAA ? ipv6 : ipv4;
+				DnsTransaction transaction = DnsTransaction.of((short) 0, query);
+				if (ips == null) {
+					return Promise.ofException(new DnsQueryException(DnsResponse.ofFailure(transaction, NAME_ERROR)));
+				}
+				DnsResponse response = DnsResponse.of(transaction, DnsResourceRecord.of(ips, 60));
+				return query.getRecordType() == DnsProtocol.RecordType.A && ipv4DelayMillis != 0 ?
+					Promises.delay(ipv4DelayMillis, response) :
+					Promise.of(response);
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		return HttpClient.builder(reactor, dnsClient)
+			.withHappyEyeballs(Duration.ofMillis(50))
+			.withConnectTimeout(Duration.ofSeconds(1))
+			.withInspector(new HttpClient.JmxInspector() {
+				@Override
+				public void onConnecting(HttpRequest request, InetSocketAddress address) {
+					attempts.add(address);
+				}
+			})
+			.build();
+	}
+
+	private String request(HttpClient client) {
+		return await(client.request(HttpRequest.get("http://" + HOST + ":" + port).build())
+			.then(response -> response.loadBody())
+			.map(body -> body.getString(UTF_8)));
+	}
+}
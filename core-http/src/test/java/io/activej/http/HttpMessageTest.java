@@ -15,6 +15,7 @@ import static io.activej.http.HttpHeaders.HOST;
 import static io.activej.http.HttpMethod.*;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 public final class HttpMessageTest {
 	@ClassRule
@@ -29,6 +30,82 @@ public final class HttpMessageTest {
 		message.recycle();
 	}
 
+	@Test
+	public void testHttpResponseTemplate() {
+		HttpResponseTemplate template = HttpResponseTemplate.builder(200)
+			.withHeader(HttpHeaders.CONTENT_TYPE, "text/plain")
+			.withHeader(HttpHeaders.SERVER, "ActiveJ")
+			.build();
+		assertHttpMessageEquals("""
+			HTTP/1.1 200 OK\r
+			Content-Type: text/plain\r
+			Server: ActiveJ\r
+			Cache-Control: no-cache\r
+			Content-Length: 13\r
+			\r
+			Hello, world!""", template.response()
+			.withHeader(HttpHeaders.CACHE_CONTROL, "no-cache")
+			.withBody("Hello, world!".getBytes(StandardCharsets.UTF_8))
+			.build());
+
+		// headers of a template follow a status line of a changed code
+		assertHttpMessageEquals("""
+			HTTP/1.1 404 Not Found\r
+			Content-Type: text/plain\r
+			Server: ActiveJ\r
+			Content-Length: 0\r
+			\r
+			""", template.response()
+			.withCode(404)
+			.build());
+
+		assertHttpMessageEquals("""
+			HTTP/1.1 599 Error\r
+			Content-Type: text/plain\r
+			Server: ActiveJ\r
+			Content-Length: 0\r
+			\r
+			""", template.response()
+			.withCode(599)
+			.build());
+	}
+
+	@Test
+	public void testHttpResponseTemplateWithDate() {
+		HttpResponseTemplate template = HttpResponseTemplate.builder(204)
+			.withDate()
+			.build();
+		HttpResponse response = template.response().build();
+		ByteBuf buf = AbstractHttpConnection.renderHttpMessage(response);
+		assertNotNull(buf);
+		String actual = ByteBufStrings.asAscii(buf);
+		assertTrue(actual, actual.matches("""
+			HTTP/1\\.1 204 No Content\r
+			Date: \\w{3}, \\d{2} \\w{3} \\d{4} \\d{2}:\\d{2}:\\d{2} GMT\r
+			Content-Length: 0\r
+			\r
+			"""));
+		response.recycle();
+
+		HttpResponse changedCode = template.response().withCode(503).build();
+		buf = AbstractHttpConnection.renderHttpMessage(changedCode);
+		assertNotNull(buf);
+		actual = ByteBufStrings.asAscii(buf);
+		assertTrue(actual, actual.matches("""
+			HTTP/1\\.1 503 Service Unavailable\r
+			Date: \\w{3}, \\d{2} \\w{3} \\d{4} \\d{2}:\\d{2}:\\d{2} GMT\r
+			Content-Length: 0\r
+			\r
+			"""));
+		changedCode.recycle();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testHttpResponseTemplateForbiddenHeader() {
+		HttpResponseTemplate.builder(200)
+			.withHeader(HttpHeaders.CONTENT_LENGTH, "0");
+	}
+
 	@Test
 	public void testHttpResponse() {
 		assertHttpMessageEquals("""
@@ -0,0 +1,164 @@
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.common.MemSize;
+import io.activej.common.exception.InvalidSizeException;
+import io.activej.csp.consumer.ChannelConsumers;
+import io.activej.csp.file.ChannelFileWriter;
+import io.activej.csp.supplier.ChannelSupplier;
+import io.activej.csp.supplier.ChannelSuppliers;
+import io.activej.test.rules.ByteBufRule;
+import io.activej.test.rules.EventloopRule;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static io.activej.http.MultipartByteBufsDecoder.AsyncMultipartDataHandler.fieldsToMap;
+import static io.activej.promise.TestUtils.await;
+import static io.activej.promise.TestUtils.awaitException;
+import static io.activej.reactor.Reactor.getCurrentReactor;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+public final class MultipartReaderTest {
+	private static final String BOUNDARY = "test-boundary-123";
+
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testParts() {
+		MultipartReader reader = MultipartReader.create(getCurrentReactor());
+		ChannelSupplier<MultipartPart> parts = reader.read(request(
+			part("name=\"field\"", "value"),
+			part("name=\"file\"; filename=\"test.txt\"", "file content\r\nwith CRLF")));
+
+		List<String> result = new ArrayList<>();
+		await(parts.streamTo(ChannelConsumers.ofAsyncConsumer(part -> part.loadData(1024)
+			.map(data -> {
+				result.add(part.getFieldName() + ':' + part.getFileName() + ':' + part.getContentType() + ':' + data.asString(UTF_8));
+				return null;
+			}))));
+		assertEquals(List.of(
+			"field:null:text/plain:value",
+			"file:test.txt:text/plain:file content\r\nwith CRLF"), result);
+
+		assertEquals(1, reader.getReads().getTotalCount());
+		assertEquals(2, reader.getParts().getTotalCount());
+		assertEquals("value".length() + "file content\r\nwith CRLF".length(), reader.getBytes().getTotalCount());
+		assertEquals(0, reader.getActiveReads());
+	}
+
+	@Test
+	public void testUnconsumedDataIsSkipped() {
+		ChannelSupplier<MultipartPart> parts = MultipartReader.create(getCurrentReactor()).read(request(
+			part("name=\"first\"", "a".repeat(10_000)),
+			part("name=\"second\"", "b")));
+
+		MultipartPart first = await(parts.get());
+		assertEquals("first", getFieldName(first));
+		MultipartPart second = await(parts.get());
+		assertEquals("second", getFieldName(second));
+		assertEquals("b", await(second.loadData(1024)).asString(UTF_8));
+		assertNull(await(parts.get()));
+	}
+
+	@Test
+	public void testPartSizeLimit() {
+		MultipartReader reader = MultipartReader.builder(getCurrentReactor())
+			.withMaxPartSize(MemSize.of(100))
+			.build();
+		ChannelSupplier<MultipartPart> parts = reader.read(request(
+			part("name=\"small\"", "a".repeat(100)),
+			part("name=\"large\"", "b".repeat(101))));
+
+		Exception e = awaitException(parts.streamTo(ChannelConsumers.ofAsyncConsumer(part -> part.streamTo(ChannelConsumers.recycling()))));
+		assertTrue(e instanceof InvalidSizeException);
+		assertEquals(1, reader.getSizeLimitsExceeded().getTotalCount());
+	}
+
+	@Test
+	public void testTotalSizeLimit() {
+		MultipartReader reader = MultipartReader.builder(getCurrentReactor())
+			.withMaxTotalSize(MemSize.of(150))
+			.build();
+		ChannelSupplier<MultipartPart> parts = reader.read(request(
+			part("name=\"first\"", "a".repeat(100)),
+			part("name=\"second\"", "b".repeat(100))));
+
+		Exception e = awaitException(parts.streamTo(ChannelConsumers.ofAsyncConsumer(part -> part.streamTo(ChannelConsumers.recycling()))));
+		assertTrue(e instanceof InvalidSizeException);
+	}
+
+	@Test
+	public void testSplitToFiles() throws Exception {
+		Path dir = temporaryFolder.newFolder().toPath();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		String content = "x".repeat(100_000);
+		Map<String, String> fields = new HashMap<>();
+
+		await(MultipartReader.create(getCurrentReactor()).split(
+			request(
+				part("name=\"field\"", "value"),
+				part("name=\"file\"; filename=\"upload.txt\"", content)),
+			fieldsToMap(fields, fileName -> ChannelFileWriter.open(executor, dir.resolve(fileName)))));
+
+		executor.shutdown();
+		assertEquals(Map.of("field", "value"), fields);
+		assertEquals(content, Files.readString(dir.resolve("upload.txt")));
+	}
+
+	@Test
+	public void testNotMultipart() {
+		HttpRequest request = HttpRequest.post("http://example.com").withBody("test".getBytes(UTF_8)).build();
+		Exception e = awaitException(MultipartReader.create(getCurrentReactor()).read(request).get());
+		assertTrue(e instanceof HttpError);
+	}
+
+	private static String getFieldName(MultipartPart part) {
+		try {
+			return part.getFieldName();
+		} catch (MalformedHttpException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private static String part(String contentDisposition, String data) {
+		return "--" + BOUNDARY + "\r\n" +
+			"Content-Disposition: form-data; " + contentDisposition + "\r\n" +
+			"Content-Type: text/plain\r\n" +
+			"\r\n" +
+			data + "\r\n";
+	}
+
+	private static HttpRequest request(String... parts) {
+		String body = String.join("", parts) + "--" + BOUNDARY + "--\r\n";
+		byte[] bytes = body.getBytes(UTF_8);
+		List<ByteBuf> bufs = new ArrayList<>();
+		for (int i = 0; i < bytes.length; i += 1000) {
+			bufs.add(ByteBuf.wrapForReading(Arrays.copyOfRange(bytes, i, Math.min(bytes.length, i + 1000))));
+		}
+		HttpRequest request = HttpRequest.post("http://example.com")
+			.withHeader(HttpHeaders.CONTENT_TYPE, "multipart/form-data; boundary=" + BOUNDARY)
+			.build();
+		request.bodyStream = ChannelSuppliers.ofList(bufs);
+		return request;
+	}
+}
@@ -0,0 +1,239 @@
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.csp.supplier.ChannelSuppliers;
+import io.activej.dns.DnsClient;
+import io.activej.http.IWebSocket.Frame;
+import io.activej.http.IWebSocket.Message;
+import io.activej.promise.Promise;
+import io.activej.reactor.Reactor;
+import io.activej.reactor.nio.NioReactor;
+import io.activej.test.rules.ByteBufRule;
+import io.activej.test.rules.EventloopRule;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.activej.bytebuf.ByteBuf.wrapForReading;
+import static io.activej.http.HttpHeaders.SEC_WEBSOCKET_EXTENSIONS;
+import static io.activej.http.HttpUtils.inetAddress;
+import static io.activej.http.IWebSocket.Frame.FrameType.*;
+import static io.activej.http.TestUtils.*;
+import static io.activej.http.WebSocketConstants.MESSAGE_TOO_BIG;
+import static io.activej.promise.TestUtils.await;
+import static io.activej.promise.TestUtils.awaitException;
+import static io.activej.test.TestUtils.getFreePort;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.*;
+
+public final class PerMessageDeflateTest {
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	private static final int MAX_MESSAGE_SIZE = 1_000_000;
+	private static final String TEXT = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(100);
+
+	private int port;
+	private DnsClient dnsClient;
+
+	@Before
+	public void setUp() {
+		port = getFreePort();
+		dnsClient = DnsClient.create(Reactor.getCurrentReactor(), inetAddress("8.8.8.8"));
+	}
+
+	@Test
+	public void testAcceptOffer() {
+		PerMessageDeflate deflate = PerMessageDeflate.create();
+
+		assertNull(deflate.acceptOffer(null));
+		assertNull(deflate.acceptOffer("x-webkit-deflate-frame"));
+		assertNull(deflate.acceptOffer("permessage-deflate; server_max_window_bits=10"));
+		assertNull(deflate.acceptOffer("permessage-deflate; unknown_parameter"));
+
+		assertEquals("permessage-deflate", String.valueOf(deflate.acceptOffer("permessage-deflate")));
+		assertEquals("permessage-deflate",
+			String.valueOf(deflate.acceptOffer("permessage-deflate; client_max_window_bits")));
+		assertEquals("permessage-deflate; client_no_context_takeover",
+			String.valueOf(deflate.acceptOffer("permessage-deflate; server_max_window_bits=10, permessage-deflate; client_no_context_takeover")));
+
+		PerMessageDeflate noContextTakeover = PerMessageDeflate.builder()
+			.withServerNoContextTakeover(true)
+			.build();
+		assertEquals("permessage-deflate; server_no_context_takeover",
+			String.valueOf(noContextTakeover.acceptOffer("permessage-deflate; server_max_window_bits=15")));
+	}
+
+	@Test
+	public void testAcceptResponse() throws HttpException {
+		PerMessageDeflate deflate = PerMessageDeflate.create();
+		PerMessageDeflate.Agreement agreement = deflate.acceptResponse("permessage-deflate; server_no_context_takeover");
+		assertTrue(agreement.serverNoContextTakeover());
+		assertFalse(agreement.clientNoContextTakeover());
+
+		assertThrows(HttpException.class, () -> deflate.acceptResponse("permessage-deflate; client_max_window_bits=10"));
+		assertThrows(HttpException.class, () -> deflate.acceptResponse("x-webkit-deflate-frame"));
+	}
+
+	@Test
+	public void testRoundTrip() {
+		for (boolean noContextTakeover : new boolean[]{false, true}) {
+			for (boolean mask : new boolean[]{false, true}) {
+				PerMessageDeflate deflate = PerMessageDeflate.create();
+				WebSocketFramesToBufs encoder = WebSocketFramesToBufs.create(mask);
+				encoder.setCompressor(deflate.createCompressor(noContextTakeover));
+				WebSocketBufsToFrames decoder = WebSocketBufsToFrames.create(MAX_MESSAGE_SIZE, failOnItem(), failOnItem(), mask);
+				decoder.setDecompressor(deflate.createDecompressor(noContextTakeover));
+
+				List<Frame> result = await(ChannelSuppliers.ofValues(
+						Frame.text(wrapUtf8(TEXT)),
+						Frame.binary(wrapUtf8("tiny")),
+						Frame.text(wrapUtf8(TEXT), false),
+						Frame.next(wrapUtf8(TEXT), false),
+						Frame.next(wrapUtf8(TEXT), true),
+						Frame.text(wrapUtf8(TEXT)))
+					.transformWith(encoder)
+					.transformWith(chunker())
+					.transformWith(decoder)
+					.toCollector(toList()));
+
+				assertEquals(6, result.size());
+				assertFrame(result.get(0), Frame.FrameType.TEXT, TEXT, true);
+				assertFrame(result.get(1), BINARY, "tiny", true);
+				assertFrame(result.get(2), Frame.FrameType.TEXT, TEXT, false);
+				assertFrame(result.get(3), CONTINUATION, TEXT, false);
+				assertFrame(result.get(4), CONTINUATION, TEXT, true);
+				assertFrame(result.get(5), Frame.FrameType.TEXT, TEXT, true);
+			}
+		}
+	}
+
+	@Test
+	public void testFramesAreCompressed() {
+		PerMessageDeflate deflate = PerMessageDeflate.create();
+		WebSocketFramesToBufs encoder = WebSocketFramesToBufs.create(false);
+		encoder.setCompressor(deflate.createCompressor(false));
+
+		List<ByteBuf> result = await(ChannelSuppliers.ofValues(Frame.text(wrapUtf8(TEXT)), Frame.text(wrapUtf8("tiny")))
+			.transformWith(encoder)
+			.toCollector(toList()));
+
+		// two messages and a close frame
+		assertEquals(3, result.size());
+		ByteBuf compressed = result.get(0);
+		assertEquals(0xC1, compressed.peek(0) & 0xFF);
+		assertTrue(compressed.readRemaining() < TEXT.length() / 10);
+
+		// messages smaller than a threshold are not compressed
+		ByteBuf uncompressed = result.get(1);
+		assertEquals(0x81, uncompressed.peek(0) & 0xFF);
+
+		result.forEach(ByteBuf::recycle);
+	}
+
+	@Test
+	public void testDecompressedMessageTooBig() {
+		PerMessageDeflate deflate = PerMessageDeflate.create();
+		WebSocketFramesToBufs encoder = WebSocketFramesToBufs.create(false);
+		encoder.setCompressor(deflate.createCompressor(false));
+		WebSocketBufsToFrames decoder = WebSocketBufsToFrames.create(1000, failOnItem(), failOnItem(), false);
+		decoder.setDecompressor(deflate.createDecompressor(false));
+
+		List<ByteBuf> encoded = await(ChannelSuppliers.ofValue(Frame.text(wrapUtf8(TEXT)))
+			.transformWith(encoder)
+			.toCollector(toList()));
+		encoded.get(1).recycle();
+
+		Exception e = awaitException(ChannelSuppliers.ofValue(encoded.get(0))
+			.transformWith(decoder)
+			.toCollector(toList()));
+		assertSame(MESSAGE_TOO_BIG, e);
+	}
+
+	@Test
+	public void testClientServer() throws IOException {
+		NioReactor reactor = Reactor.getCurrentReactor();
+		HttpServer.builder(reactor, RoutingServlet.builder(reactor)
+				.withWebSocket("/", new WebSocketServlet(reactor, PerMessageDeflate.create()) {
+					@Override
+					protected void onWebSocket(IWebSocket webSocket) {
+						webSocket.messageReadChannel().streamTo(webSocket.messageWriteChannel());
+					}
+				})
+				.build())
+			.withListenPort(port)
+			.withAcceptOnce()
+			.build()
+			.listen();
+
+		List<String> messages = List.of(TEXT, "short", TEXT.toUpperCase());
+		List<String> extensions = new ArrayList<>();
+		List<String> result = await(HttpClient.builder(reactor, dnsClient)
+			.withPerMessageDeflate(PerMessageDeflate.builder()
+				.withClientNoContextTakeover(true)
+				.build())
+			.build()
+			.webSocketRequest(HttpRequest.get("ws://127.0.0.1:" + port).build())
+			.then(ws -> {
+				extensions.add(ws.getResponse().getHeader(SEC_WEBSOCKET_EXTENSIONS));
+				return echo(ws, messages);
+			}));
+
+		assertEquals(List.of("permessage-deflate; client_no_context_takeover"), extensions);
+		assertEquals(messages, result);
+	}
+
+	@Test
+	public void testExtensionIsNotNegotiatedIfNotOffered() throws IOException {
+		NioReactor reactor = Reactor.getCurrentReactor();
+		HttpServer.builder(reactor, RoutingServlet.builder(reactor)
+				.withWebSocket("/", new WebSocketServlet(reactor, PerMessageDeflate.create()) {
+					@Override
+					protected void onWebSocket(IWebSocket webSocket) {
+						webSocket.messageReadChannel().streamTo(webSocket.messageWriteChannel());
+					}
+				})
+				.build())
+			.withListenPort(port)
+			.withAcceptOnce()
+			.build()
+			.listen();
+
+		List<String> result = await(HttpClient.create(reactor, dnsClient)
+			.webSocketRequest(HttpRequest.get("ws://127.0.0.1:" + port).build())
+			.then(ws -> {
+				assertNull(ws.getResponse().getHeader(SEC_WEBSOCKET_EXTENSIONS));
+				return echo(ws, List.of(TEXT));
+			}));
+
+		assertEquals(List.of(TEXT), result);
+	}
+
+	private static Promise<List<String>> echo(IWebSocket ws, List<String> messages) {
+		return ChannelSuppliers.ofList(messages)
+			.mapAsync(message -> ws.writeMessage(Message.text(message))
+				.then(ws::readMessage)
+				.map(Message::getText))
+			.toCollector(toList())
+			.then(result -> ws.writeMessage(null)
+				.map($ -> result));
+	}
+
+	private static ByteBuf wrapUtf8(String string) {
+		return wrapForReading(string.getBytes(UTF_8));
+	}
+
+	private static void assertFrame(Frame frame, Frame.FrameType type, String payload, boolean isLastFrame) {
+		assertEquals(type, frame.getType());
+		assertEquals(isLastFrame, frame.isLastFrame());
+		assertEquals(payload, frame.getPayload().asString(UTF_8));
+	}
+}
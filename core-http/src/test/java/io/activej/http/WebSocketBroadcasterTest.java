@@ -0,0 +1,163 @@
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.csp.consumer.ChannelConsumers;
+import io.activej.csp.supplier.ChannelSuppliers;
+import io.activej.dns.DnsClient;
+import io.activej.http.IWebSocket.Message;
+import io.activej.promise.Promise;
+import io.activej.promise.Promises;
+import io.activej.promise.SettablePromise;
+import io.activej.reactor.Reactor;
+import io.activej.reactor.nio.NioReactor;
+import io.activej.test.rules.ByteBufRule;
+import io.activej.test.rules.EventloopRule;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static io.activej.bytebuf.ByteBuf.wrapForReading;
+import static io.activej.http.HttpUtils.inetAddress;
+import static io.activej.http.WebSocketBroadcaster.SLOW_CONSUMER;
+import static io.activej.promise.TestUtils.await;
+import static io.activej.test.TestUtils.getFreePort;
+import static org.junit.Assert.*;
+
+public final class WebSocketBroadcasterTest {
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	private static final int CLIENTS = 3;
+
+	private int port;
+	private DnsClient dnsClient;
+
+	@Before
+	public void setUp() {
+		port = getFreePort();
+		dnsClient = DnsClient.create(Reactor.getCurrentReactor(), inetAddress("8.8.8.8"));
+	}
+
+	@Test
+	public void testBroadcast() throws IOException {
+		NioReactor reactor = Reactor.getCurrentReactor();
+		WebSocketBroadcaster broadcaster = WebSocketBroadcaster.create(reactor);
+		SettablePromise<Void> allSubscribed = new SettablePromise<>();
+		HttpServer server = startServer(webSocket -> {
+			broadcaster.subscribe(webSocket);
+			if (broadcaster.getSubscribers() == CLIENTS) allSubscribed.set(null);
+		});
+
+		HttpClient client = HttpClient.create(reactor, dnsClient);
+		List<List<String>> results = await(Promises.toList(IntStream.range(0, CLIENTS)
+				.mapToObj($ -> client.webSocketRequest(HttpRequest.get("ws://127.0.0.1:" + port).build())))
+			.<List<List<String>>>then(webSockets -> {
+				allSubscribed
+					.whenResult(() -> {
+						assertEquals(CLIENTS, broadcaster.broadcast(Message.text("first")));
+						assertEquals(CLIENTS, broadcaster.broadcast(Message.binary(wrapForReading(new byte[]{1, 2, 3}))));
+						assertEquals(CLIENTS, broadcaster.broadcast(Message.text("last")));
+					});
+				return Promises.toList(webSockets.stream()
+					.map(webSocket -> readMessages(webSocket, 3)
+						.then(result -> webSocket.writeMessage(null).map($ -> result))));
+			})
+			.whenComplete(server::close));
+
+		assertEquals(CLIENTS, results.size());
+		for (List<String> result : results) {
+			assertEquals(List.of("first", "3", "last"), result);
+		}
+		assertEquals(3, broadcaster.getBroadcasts().getTotalCount());
+		assertEquals(3 * CLIENTS, broadcaster.getDeliveries().getTotalCount());
+	}
+
+	@Test
+	public void testClosedWebSocketsAreUnsubscribed() throws IOException {
+		NioReactor reactor = Reactor.getCurrentReactor();
+		WebSocketBroadcaster broadcaster = WebSocketBroadcaster.create(reactor);
+		List<IWebSocket> serverWebSockets = new ArrayList<>();
+		HttpServer server = startServer(webSocket -> {
+			serverWebSockets.add(webSocket);
+			broadcaster.subscribe(webSocket);
+		});
+
+		await(HttpClient.create(reactor, dnsClient)
+			.webSocketRequest(HttpRequest.get("ws://127.0.0.1:" + port).build())
+			.then(webSocket -> webSocket.writeMessage(null))
+			.then(() -> Promises.delay(100L))
+			.whenComplete(server::close));
+
+		assertEquals(1, serverWebSockets.size());
+		assertEquals(1, broadcaster.getSubscribers());
+
+		// a failed write unsubscribes a web socket closed by a peer
+		broadcaster.broadcast(Message.text("ignored"));
+		assertEquals(0, broadcaster.broadcast(Message.text("ignored")));
+		assertEquals(0, broadcaster.getSubscribers());
+	}
+
+	@Test
+	public void testSlowConsumerIsClosed() throws IOException {
+		NioReactor reactor = Reactor.getCurrentReactor();
+		WebSocketBroadcaster broadcaster = WebSocketBroadcaster.builder(reactor)
+			.withMaxPendingMessages(4)
+			.build();
+		HttpServer server = startServer(webSocket -> {
+			broadcaster.subscribe(webSocket);
+			for (int i = 0; i < 1000 && broadcaster.getSubscribers() != 0; i++) {
+				broadcaster.broadcast(Message.binary(wrapForReading(new byte[65536])));
+			}
+		});
+
+		Exception exception = await(HttpClient.create(reactor, dnsClient)
+			.webSocketRequest(HttpRequest.get("ws://127.0.0.1:" + port).build())
+			.then(webSocket -> Promises.delay(100L)
+				.then(() -> ChannelSuppliers.ofAsyncSupplier(webSocket::readMessage)
+					.streamTo(ChannelConsumers.ofConsumer(message -> message.getBuf().recycle()))))
+			.map(($, e) -> e)
+			.whenComplete(server::close));
+
+		assertTrue(exception instanceof WebSocketException);
+		assertEquals(SLOW_CONSUMER.getCode(), ((WebSocketException) exception).getCode());
+		assertEquals(1, broadcaster.getSlowConsumersClosed().getTotalCount());
+		assertEquals(0, broadcaster.getSubscribers());
+	}
+
+	private static Promise<List<String>> readMessages(IWebSocket webSocket, int count) {
+		List<String> result = new ArrayList<>();
+		return Promises.loop(0, i -> i < count,
+				i -> webSocket.readMessage()
+					.map(message -> {
+						if (message.getType() == Message.MessageType.TEXT) {
+							result.add(message.getText());
+						} else {
+							ByteBuf buf = message.getBuf();
+							result.add(String.valueOf(buf.readRemaining()));
+							buf.recycle();
+						}
+						return i + 1;
+					}))
+			.map($ -> result);
+	}
+
+	private HttpServer startServer(Consumer<IWebSocket> webSocketConsumer) throws IOException {
+		NioReactor reactor = Reactor.getCurrentReactor();
+		HttpServer server = HttpServer.builder(reactor, RoutingServlet.builder(reactor)
+				.withWebSocket("/", webSocketConsumer)
+				.build())
+			.withListenPort(port)
+			.build();
+		server.listen();
+		return server;
+	}
+}
@@ -18,8 +18,12 @@ package io.activej.serializer;
 
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -29,6 +33,15 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  */
 @SuppressWarnings({"unused", "WeakerAccess", "DuplicatedCode", "SpellCheckingInspection"})
 public final class BinaryInput {
+	private static final VarHandle SHORT_BE = MethodHandles.byteArrayViewVarHandle(short[].class, BIG_ENDIAN);
+	private static final VarHandle SHORT_LE = MethodHandles.byteArrayViewVarHandle(short[].class, LITTLE_ENDIAN);
+	private static final VarHandle CHAR_BE = MethodHandles.byteArrayViewVarHandle(char[].class, BIG_ENDIAN);
+	private static final VarHandle CHAR_LE = MethodHandles.byteArrayViewVarHandle(char[].class, LITTLE_ENDIAN);
+	private static final VarHandle INT_BE = MethodHandles.byteArrayViewVarHandle(int[].class, BIG_ENDIAN);
+	private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, LITTLE_ENDIAN);
+	private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, BIG_ENDIAN);
+	private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, LITTLE_ENDIAN);
+
 	public final byte[] array;
 	public int pos;
 
@@ -59,6 +72,23 @@ public final class BinaryInput {
 		this.pos += delta;
 	}
 
+	/**
+	 * Skips a value that is prefixed with its var-int length, measured in units of a given size
+	 */
+	public void skipSized(int unitSize) {
+		int length = readVarInt();
+		pos += length * unitSize;
+	}
+
+	/**
+	 * Skips a nullable value that is prefixed with its var-int length plus one,
+	 * measured in units of a given size
+	 */
+	public void skipSizedNullable(int unitSize) {
+		int length = readVarInt();
+		if (length != 0) pos += (length - 1) * unitSize;
+	}
+
 	public int read(byte[] b) {
 		return read(b, 0, b.length);
 	}
@@ -191,6 +221,137 @@ public final class BinaryInput {
 		throw new CorruptedDataException("Read varlong was too long");
 	}
 
+	public void readShorts(short[] values, int valuesOff, int len) {
+		for (int i = 0; i < len; i++) {
+			values[valuesOff + i] = (short) SHORT_BE.get(array, pos + i * 2);
+		}
+		pos += len * 2;
+	}
+
+	public void readShortsLE(short[] values, int valuesOff, int len) {
+		for (int i = 0; i < len; i++) {
+			values[valuesOff + i] = (short) SHORT_LE.get(array, pos + i * 2);
+		}
+		pos += len * 2;
+	}
+
+	public void readChars(char[] values, int valuesOff, int len) {
+		for (int i = 0; i < len; i++) {
+			values[valuesOff + i] = (char) CHAR_BE.get(array, pos + i * 2);
+		}
+		pos += len * 2;
+	}
+
+	public void readCharsLE(char[] values, int valuesOff, int len) {
+		for (int i = 0; i < len; i++) {
+			values[valuesOff + i] = (char) CHAR_LE.get(array, pos + i * 2);
+		}
+		pos += len * 2;
+	}
+
+	public void readInts(int[] values, int valuesOff, int len) {
+		for (int i = 0; i < len; i++) {
+			values[valuesOff + i] = (int) INT_BE.get(array, pos + i * 4);
+		}
+		pos += len * 4;
+	}
+
+	public void readIntsLE(int[] values, int valuesOff, int len) {
+		for (int i = 0; i < len; i++) {
+			values[valuesOff + i] = (int) INT_LE.get(array, pos + i * 4);
+		}
+		pos += len * 4;
+	}
+
+	public void readLongs(long[] values, int valuesOff, int len) {
+		for (int i = 0; i < len; i++) {
+			values[valuesOff + i] = (long) LONG_BE.get(array, pos + i * 8);
+		}
+		pos += len * 8;
+	}
+
+	public void readLongsLE(long[] values, int valuesOff, int len) {
+		for (int i = 0; i < len; i++) {
+			values[valuesOff + i] = (long) LONG_LE.get(array, pos + i * 8);
+		}
+		pos += len * 8;
+	}
+
+	public void readFloats(float[] values, int valuesOff, int len) {
+		for (int i = 0; i < len; i++) {
+			values[valuesOff + i] = Float.intBitsToFloat((int) INT_BE.get(array, pos + i * 4));
+		}
+		pos += len * 4;
+	}
+
+	public void readFloatsLE(float[] values, int valuesOff, int len) {
+		for (int i = 0; i < len; i++) {
+			values[valuesOff + i] = Float.intBitsToFloat((int) INT_LE.get(array, pos + i * 4));
+		}
+		pos += len * 4;
+	}
+
+	public void readDoubles(double[] values, int valuesOff, int len) {
+		for (int i = 0; i < len; i++) {
+			values[valuesOff + i] = Double.longBitsToDouble((long) LONG_BE.get(array, pos + i * 8));
+		}
+		pos += len * 8;
+	}
+
+	public void readDoublesLE(double[] values, int valuesOff, int len) {
+		for (int i = 0; i < len; i++) {
+			values[valuesOff + i] = Double.longBitsToDouble((long) LONG_LE.get(array, pos + i * 8));
+		}
+		pos += len * 8;
+	}
+
+	/**
+	 * Reads ints written in a group var-int format
+	 *
+	 * @see io.activej.serializer.util.BinaryOutputUtils#writeGroupVarInts
+	 */
+	public void readGroupVarInts(int[] values, int valuesOff, int len) {
+		int end = valuesOff + len;
+		for (int i = valuesOff; i < end; i += 4) {
+			int tag = array[pos++] & 0xFF;
+			int groupEnd = Math.min(i + 4, end);
+			for (int j = i; j < groupEnd; j++, tag >>>= 2) {
+				values[j] = (int) readBytesLE((tag & 0b11) + 1);
+			}
+		}
+	}
+
+	/**
+	 * Reads longs written in a group var-int format
+	 *
+	 * @see io.activej.serializer.util.BinaryOutputUtils#writeGroupVarLongs
+	 */
+	public void readGroupVarLongs(long[] values, int valuesOff, int len) {
+		int end = valuesOff + len;
+		for (int i = valuesOff; i < end; i += 2) {
+			int tag = array[pos++] & 0xFF;
+			int groupEnd = Math.min(i + 2, end);
+			for (int j = i; j < groupEnd; j++, tag >>>= 4) {
+				values[j] = readBytesLE((tag & 0b111) + 1);
+			}
+		}
+	}
+
+	private long readBytesLE(int bytes) {
+		long result;
+		if (pos + 8 <= array.length) {
+			// a single unaligned read, extra bytes are masked out
+			result = (long) LONG_LE.get(array, pos) & -1L >>> ((8 - bytes) << 3);
+		} else {
+			result = 0;
+			for (int i = 0; i < bytes; i++) {
+				result |= (long) (array[pos + i] & 0xFF) << (i << 3);
+			}
+		}
+		pos += bytes;
+		return result;
+	}
+
 	public float readFloat() {
 		return Float.intBitsToFloat(readInt());
 	}
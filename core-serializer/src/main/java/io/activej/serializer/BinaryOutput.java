@@ -95,6 +95,38 @@ public final class BinaryOutput {
 		pos = BinaryOutputUtils.writeDouble(array, pos, v);
 	}
 
+	public void writeShorts(short[] values, int valuesOff, int len) {
+		pos = BinaryOutputUtils.writeShorts(array, pos, values, valuesOff, len);
+	}
+
+	public void writeChars(char[] values, int valuesOff, int len) {
+		pos = BinaryOutputUtils.writeChars(array, pos, values, valuesOff, len);
+	}
+
+	public void writeInts(int[] values, int valuesOff, int len) {
+		pos = BinaryOutputUtils.writeInts(array, pos, values, valuesOff, len);
+	}
+
+	public void writeLongs(long[] values, int valuesOff, int len) {
+		pos = BinaryOutputUtils.writeLongs(array, pos, values, valuesOff, len);
+	}
+
+	public void writeFloats(float[] values, int valuesOff, int len) {
+		pos = BinaryOutputUtils.writeFloats(array, pos, values, valuesOff, len);
+	}
+
+	public void writeDoubles(double[] values, int valuesOff, int len) {
+		pos = BinaryOutputUtils.writeDoubles(array, pos, values, valuesOff, len);
+	}
+
+	public void writeGroupVarInts(int[] values, int valuesOff, int len) {
+		pos = BinaryOutputUtils.writeGroupVarInts(array, pos, values, valuesOff, len);
+	}
+
+	public void writeGroupVarLongs(long[] values, int valuesOff, int len) {
+		pos = BinaryOutputUtils.writeGroupVarLongs(array, pos, values, valuesOff, len);
+	}
+
 	public void writeIso88591(String s) {
 		pos = BinaryOutputUtils.writeIso88591(array, pos, s);
 	}
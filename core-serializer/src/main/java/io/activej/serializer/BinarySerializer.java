@@ -16,6 +16,11 @@
 
 package io.activej.serializer;
 
+import io.activej.serializer.util.ByteBufferUtils;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+
 /**
  * Represents a serializer which encodes and decodes &lt;T&gt; values to byte arrays
  */
@@ -30,7 +35,40 @@ public interface BinarySerializer<T> {
 		return decode(new BinaryInput(array, pos));
 	}
 
+	/**
+	 * Encodes an item at a position of a buffer and advances the position.
+	 * A buffer may be a direct or a memory-mapped one, see {@link ByteBufferUtils}
+	 */
+	default void encode(ByteBuffer buffer, T item) {
+		ByteBufferUtils.encode(this, buffer, item);
+	}
+
+	/**
+	 * Decodes an item at a position of a buffer and advances the position.
+	 * A buffer may be a direct or a memory-mapped one, see {@link ByteBufferUtils}
+	 */
+	default T decode(ByteBuffer buffer) throws CorruptedDataException {
+		return ByteBufferUtils.decode(this, buffer);
+	}
+
 	void encode(BinaryOutput out, T item);
 
 	T decode(BinaryInput in) throws CorruptedDataException;
+
+	/**
+	 * Decodes an item, reusing a previously decoded item and its nested objects, if possible.
+	 * A returned item may or may not be the same instance as a reused one
+	 * <p>
+	 * By default, a new item is decoded.
+	 * Reuse may be enabled with {@link SerializerFactory.Builder#withInstanceReuse(boolean)}
+	 *
+	 * @param reuse a previously decoded item that is no longer used, or {@code null}
+	 */
+	default T decode(BinaryInput in, @Nullable T reuse) throws CorruptedDataException {
+		return decode(in);
+	}
+
+	default T decode(byte[] array, int pos, @Nullable T reuse) throws CorruptedDataException {
+		return decode(new BinaryInput(array, pos), reuse);
+	}
 }
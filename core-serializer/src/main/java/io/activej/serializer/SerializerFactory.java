@@ -25,6 +25,7 @@ import io.activej.common.builder.AbstractBuilder;
 import io.activej.serializer.annotations.*;
 import io.activej.serializer.def.*;
 import io.activej.serializer.def.impl.ClassSerializerDef;
+import io.activej.serializer.def.impl.ColumnarSerializerDef;
 import io.activej.serializer.def.impl.SubclassSerializerDef;
 import io.activej.types.AnnotationUtils;
 import io.activej.types.TypeT;
@@ -75,6 +76,7 @@ public final class SerializerFactory {
 	private int decodeVersionMin = 0;
 	private int decodeVersionMax = Integer.MAX_VALUE;
 	private CompatibilityLevel compatibilityLevel = CompatibilityLevel.LEVEL_4;
+	private boolean instanceReuse;
 
 	private final Map<Object, List<Class<?>>> extraSubclassesMap = new HashMap<>();
 
@@ -316,6 +318,19 @@ public final class SerializerFactory {
 			return this;
 		}
 
+		/**
+		 * Enables generation of {@link BinarySerializer#decode(BinaryInput, Object)} method,
+		 * which decodes data into previously decoded instances of mutable classes,
+		 * as well as into their collections, maps and arrays, if sizes allow
+		 *
+		 * @param instanceReuse whether instances may be reused for decoding
+		 */
+		public Builder withInstanceReuse(boolean instanceReuse) {
+			checkNotBuilt(this);
+			SerializerFactory.this.instanceReuse = instanceReuse;
+			return this;
+		}
+
 		/**
 		 * Sets a serializer profile
 		 *
@@ -406,6 +421,22 @@ public final class SerializerFactory {
 		return create(DefiningClassLoader.create(), type);
 	}
 
+	/**
+	 * Builds a {@link BinarySerializer} out of {@code this} {@link SerializerFactory}
+	 * as a class of a given name, unless such class is already present.
+	 * <p>
+	 * If a class loader has a persistent {@link io.activej.codegen.IBytecodeStorage}, such as
+	 * a {@link io.activej.codegen.ClassPathBytecodeStorage} with pre-generated bytecode,
+	 * the serializer class is loaded from the storage and is generated only if it is missing.
+	 * The same class name should not be used for different types or factory configurations
+	 *
+	 * @param className a name of a serializer class
+	 * @see DefiningClassLoader#ensureClass(String, java.util.function.Supplier)
+	 */
+	public <T> BinarySerializer<T> create(DefiningClassLoader classLoader, String className, Class<T> type) {
+		return classLoader.ensureClassAndCreateInstance(className, () -> toClassGenerator(type));
+	}
+
 	/**
 	 * Builds a {@link BinarySerializer} out of {@code this} {@link SerializerFactory}.
 	 *
@@ -475,6 +506,71 @@ public final class SerializerFactory {
 		return registry.scanner(new HashMap<>()).scan(type);
 	}
 
+	/**
+	 * Builds a projection {@link BinarySerializer} that decodes only given properties of a class.
+	 * <p>
+	 * Serialized data of other properties is skipped over, without being decoded.
+	 * If a class is annotated with {@link SerializeOffsetTable}, requested properties are
+	 * located directly and no skipping is needed. Properties that are not decoded
+	 * are left with their default values. Encoding is the same as for {@link #create(Class)}
+	 *
+	 * @param type       a class whose instances would be deserialized
+	 * @param properties names of properties to be decoded
+	 * @return a generated projection {@link BinarySerializer}
+	 */
+	public <T> BinarySerializer<T> createProjection(DefiningClassLoader classLoader, Class<T> type, Set<String> properties) {
+		return toProjectionClassGenerator(type, properties).generateClassAndCreateInstance(classLoader);
+	}
+
+	public <T> BinarySerializer<T> createProjection(Class<T> type, Set<String> properties) {
+		return createProjection(DefiningClassLoader.create(), type, properties);
+	}
+
+	/**
+	 * Builds a projection {@link BinarySerializer} out of {@code this} {@link SerializerFactory}.
+	 *
+	 * @see #createProjection(DefiningClassLoader, Class, Set)
+	 */
+	public <T> ClassGenerator<BinarySerializer<T>> toProjectionClassGenerator(Class<T> type, Set<String> properties) {
+		SerializerDef serializerDef = toSerializerDef(type);
+		if (!(serializerDef instanceof ClassSerializerDef classSerializerDef)) {
+			throw new IllegalArgumentException("Cannot create a projection of " + type.getName());
+		}
+		return toClassGenerator(classSerializerDef.projection(properties));
+	}
+
+	/**
+	 * Builds a columnar batch {@link BinarySerializer} that serializes a list of instances of a class at once.
+	 * <p>
+	 * Values of each property are laid out together in a separate column, so that
+	 * columns of ints and longs are delta encoded, columns of booleans are bit-packed
+	 * and columns of UTF-8 strings are dictionary encoded. This is beneficial for large batches
+	 * of homogeneous records with similar values
+	 *
+	 * @param type a class whose instances would be serialized
+	 * @return a generated columnar batch {@link BinarySerializer}
+	 */
+	public <T> BinarySerializer<List<T>> createColumnar(DefiningClassLoader classLoader, Class<T> type) {
+		return this.<T>toColumnarClassGenerator(type).generateClassAndCreateInstance(classLoader);
+	}
+
+	public <T> BinarySerializer<List<T>> createColumnar(Class<T> type) {
+		return createColumnar(DefiningClassLoader.create(), type);
+	}
+
+	/**
+	 * Builds a columnar batch {@link BinarySerializer} out of {@code this} {@link SerializerFactory}.
+	 *
+	 * @see #createColumnar(DefiningClassLoader, Class)
+	 */
+	public <T> ClassGenerator<BinarySerializer<List<T>>> toColumnarClassGenerator(Class<T> type) {
+		SerializerDef serializerDef = toSerializerDef(type);
+		if (!(serializerDef instanceof ClassSerializerDef classSerializerDef)) {
+			throw new IllegalArgumentException("Cannot create a columnar serializer of " + type.getName());
+		}
+		return toClassGenerator(new ColumnarSerializerDef(classSerializerDef));
+	}
+
 	/**
 	 * Builds a {@link BinarySerializer} out of some {@link SerializerDef}.
 	 *
@@ -569,6 +665,11 @@ public final class SerializerFactory {
 			let(constructor(BinaryInput.class, arg(0), arg(1)), in ->
 				decodeImpl(serializer, latestVersion, latestStaticDecoders, in)));
 
+		if (instanceReuse) {
+			classGenerator.withMethod("decode", Object.class, List.of(BinaryInput.class, Object.class),
+				decodeIntoImpl(serializer, latestVersion, latestStaticDecoders, arg(0), cast(arg(1), serializer.getDecodeType())));
+		}
+
 		classGenerator.withMethod("decodeEarlierVersions",
 			serializer.getDecodeType(),
 			List.of(BinaryInput.class, byte.class),
@@ -617,6 +718,28 @@ public final class SerializerFactory {
 					call(self(), "decodeEarlierVersions", in, version)));
 	}
 
+	private Expression decodeIntoImpl(
+		SerializerDef serializer, Integer latestVersion, StaticDecoders staticDecoders, Expression in, Expression reuse
+	) {
+		return latestVersion == null ?
+			serializer.decodeInto(
+				staticDecoders,
+				in,
+				reuse,
+				0,
+				compatibilityLevel) :
+
+			let(readByte(in),
+				version -> ifEq(version, value((byte) (int) latestVersion),
+					serializer.decodeInto(
+						staticDecoders,
+						in,
+						reuse,
+						latestVersion,
+						compatibilityLevel),
+					call(self(), "decodeEarlierVersions", in, version)));
+	}
+
 	private static StaticEncoders staticEncoders(ClassGenerator<?>.Builder classGenerator, int version, CompatibilityLevel compatibilityLevel) {
 		return new StaticEncoders() {
 			final Map<List<?>, String> defined = new HashMap<>();
@@ -700,43 +823,50 @@ public final class SerializerFactory {
 			throw new IllegalArgumentException("Class " + rawClass.getName() + "should not be an inner class");
 
 		ClassSerializerDef.Builder classSerializerBuilder = ClassSerializerDef.builder(rawClass);
+		if (rawClass.getAnnotation(SerializeOffsetTable.class) != null) {
+			classSerializerBuilder.withOffsetTable();
+		}
+		boolean tagged = rawClass.getAnnotation(SerializeTagged.class) != null;
 		if (rawClass.getAnnotation(SerializeRecord.class) != null) {
 			if (!rawClass.isRecord()) {
 				throw new IllegalArgumentException(
 					"Non-record type '" + rawClass.getName() +
 					"' annotated with @SerializeRecord annotation");
 			}
-			scanRecord(ctx, classSerializerBuilder);
+			scanRecord(ctx, classSerializerBuilder, tagged);
 		} else {
 			scanStaticFactoryMethods(ctx, classSerializerBuilder);
 			if (!Modifier.isAbstract(rawClass.getModifiers())) {
 				scanConstructors(ctx, classSerializerBuilder);
 			}
-			scanClass(ctx, classSerializerBuilder);
+			scanClass(ctx, classSerializerBuilder, tagged);
 			classSerializerBuilder.withMatchingSetters();
 		}
 		return classSerializerBuilder.build();
 	}
 
-	private void scanClass(Context<SerializerDef> ctx, ClassSerializerDef.Builder classSerializerBuilder) {
+	private void scanClass(Context<SerializerDef> ctx, ClassSerializerDef.Builder classSerializerBuilder, boolean tagged) {
 		AnnotatedType annotatedClassType = ctx.getAnnotatedType();
 
 		Class<?> rawClassType = getRawType(annotatedClassType);
 		Function<TypeVariable<?>, AnnotatedType> bindings = getTypeBindings(annotatedClassType)::get;
 
 		if (rawClassType.getSuperclass() != Object.class) {
-			scanClass(ctx.push(bind(rawClassType.getAnnotatedSuperclass(), bindings)), classSerializerBuilder);
+			scanClass(ctx.push(bind(rawClassType.getAnnotatedSuperclass(), bindings)), classSerializerBuilder, tagged);
 		}
 
 		List<MemberSerializer> memberSerializers = new ArrayList<>();
 		scanFields(ctx, bindings, memberSerializers);
 		scanGetters(ctx, bindings, memberSerializers);
 		scanSetters(ctx, classSerializerBuilder);
+		if (tagged && memberSerializers.stream().anyMatch(f -> f.order == Integer.MIN_VALUE)) {
+			throw new IllegalArgumentException("Properties of a tagged " + rawClassType + " must have explicit orders");
+		}
 		resolveMembersOrder(ctx.getRawType(), memberSerializers);
-		addMemberSerializersToSerializerBuilder(classSerializerBuilder, memberSerializers);
+		addMemberSerializersToSerializerBuilder(classSerializerBuilder, memberSerializers, tagged);
 	}
 
-	private void scanRecord(Context<SerializerDef> ctx, ClassSerializerDef.Builder classSerializerBuilder) {
+	private void scanRecord(Context<SerializerDef> ctx, ClassSerializerDef.Builder classSerializerBuilder, boolean tagged) {
 		Function<TypeVariable<?>, AnnotatedType> bindings = getTypeBindings(ctx.getAnnotatedType())::get;
 		List<MemberSerializer> memberSerializers = new ArrayList<>();
 
@@ -757,7 +887,7 @@ public final class SerializerFactory {
 		}
 		classSerializerBuilder.withConstructor(rawType.getConstructors()[0], Arrays.stream(rawType.getRecordComponents()).map(RecordComponent::getName).toList());
 		resolveMembersOrder(ctx.getRawType(), memberSerializers);
-		addMemberSerializersToSerializerBuilder(classSerializerBuilder, memberSerializers);
+		addMemberSerializersToSerializerBuilder(classSerializerBuilder, memberSerializers, tagged);
 	}
 
 	private void scanFields(
@@ -873,7 +1003,9 @@ public final class SerializerFactory {
 		}
 	}
 
-	private static void addMemberSerializersToSerializerBuilder(ClassSerializerDef.Builder classSerializerBuilder, List<MemberSerializer> memberSerializers) {
+	private static void addMemberSerializersToSerializerBuilder(
+		ClassSerializerDef.Builder classSerializerBuilder, List<MemberSerializer> memberSerializers, boolean tagged
+	) {
 		Set<Integer> orders = new HashSet<>();
 		for (MemberSerializer memberSerializer : memberSerializers) {
 			if (!orders.add(memberSerializer.order))
@@ -887,6 +1019,9 @@ public final class SerializerFactory {
 			} else {
 				classSerializerBuilder.withField((Field) memberSerializer.member, memberSerializer.serializer, memberSerializer.added, memberSerializer.removed);
 			}
+			if (tagged) {
+				classSerializerBuilder.withTag(memberSerializer.member, memberSerializer.order);
+			}
 		}
 	}
 
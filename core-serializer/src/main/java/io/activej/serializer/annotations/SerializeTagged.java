@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.serializer.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Serializes properties of an annotated class in a tagged format, where explicit
+ * {@link Serialize#order() orders} of properties are used as their tags.
+ * <p>
+ * Each property is preceded by its tag and wire type, so a reader skips unknown properties
+ * and leaves missing ones with their default values, with no need for versions.
+ * A 64-bit fingerprint of a schema precedes properties, and if it matches a reader's own,
+ * properties are decoded positionally, as fast as in a regular format.
+ * <p>
+ * Tags of properties should never change or be reused once data is encoded.
+ * For records, tags are assigned in an order of record components
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface SerializeTagged {
+}
@@ -139,6 +139,55 @@ public abstract class AbstractMapSerializerDef extends AbstractSerializerDef imp
 			build(builder)));
 	}
 
+	@Override
+	public final Expression decodeInto(StaticDecoders staticDecoders, Expression in, Expression reuse, int version, CompatibilityLevel compatibilityLevel) {
+		if (!isReusable()) {
+			return decode(staticDecoders, in, version, compatibilityLevel);
+		}
+		return let(readVarInt(in), length ->
+			!nullable ?
+				doDecodeInto(staticDecoders, in, reuse, version, compatibilityLevel, length) :
+				ifEq(length, value(0),
+					nullRef(decodeType),
+					let(dec(length), len -> doDecodeInto(staticDecoders, in, reuse, version, compatibilityLevel, len))));
+	}
+
+	private Expression doDecodeInto(StaticDecoders staticDecoders, Expression in, Expression reuse, int version, CompatibilityLevel compatibilityLevel, Expression length) {
+		Decoder keyDecoder = keySerializer.defineDecoder(staticDecoders, version, compatibilityLevel);
+		Decoder valueDecoder = valueSerializer.defineDecoder(staticDecoders, version, compatibilityLevel);
+		return let(clearOrCreate(reuse, decodeType, createBuilder(length)), builder -> sequence(
+			iterate(value(0), length,
+				i -> putToBuilder(builder, i,
+					cast(keyDecoder.decode(in), keyType),
+					cast(valueDecoder.decode(in), valueType))),
+			builder));
+	}
+
+	/**
+	 * Whether decoded maps are mutable instances of a decode type,
+	 * which may be cleared and refilled by {@link #decodeInto}
+	 */
+	protected boolean isReusable() {
+		return false;
+	}
+
+	@Override
+	public final Expression skip(StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel) {
+		return let(readVarInt(in), length ->
+			!nullable ?
+				doSkip(staticDecoders, in, version, compatibilityLevel, length) :
+				ifNe(length, value(0),
+					doSkip(staticDecoders, in, version, compatibilityLevel, dec(length)),
+					voidExp()));
+	}
+
+	protected Expression doSkip(StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel, Expression length) {
+		return iterate(value(0), length,
+			i -> sequence(
+				keySerializer.skip(staticDecoders, in, version, compatibilityLevel),
+				valueSerializer.skip(staticDecoders, in, version, compatibilityLevel)));
+	}
+
 	protected abstract SerializerDef doEnsureNullable(CompatibilityLevel compatibilityLevel);
 
 	protected abstract Expression doIterateMap(Expression collection, BinaryOperator<Expression> keyValueAction);
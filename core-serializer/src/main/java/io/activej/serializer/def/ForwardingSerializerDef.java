@@ -7,6 +7,8 @@ import io.activej.serializer.CompatibilityLevel;
 import java.util.Set;
 
 public abstract class ForwardingSerializerDef implements SerializerDef {
+	private boolean decodingInto;
+
 	protected abstract SerializerDef serializer();
 
 	@Override
@@ -43,4 +45,26 @@ public abstract class ForwardingSerializerDef implements SerializerDef {
 	public Expression decode(StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel) {
 		return serializer().decode(staticDecoders, in, version, compatibilityLevel);
 	}
+
+	/**
+	 * Forwarding serializers are used for recursive types, so a reused value is decoded inline
+	 * only if it is not nested within another value of the same type
+	 */
+	@Override
+	public Expression decodeInto(StaticDecoders staticDecoders, Expression in, Expression reuse, int version, CompatibilityLevel compatibilityLevel) {
+		if (decodingInto) {
+			return defineDecoder(staticDecoders, version, compatibilityLevel).decode(in);
+		}
+		decodingInto = true;
+		try {
+			return serializer().decodeInto(staticDecoders, in, reuse, version, compatibilityLevel);
+		} finally {
+			decodingInto = false;
+		}
+	}
+
+	@Override
+	public Expression skip(StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel) {
+		return serializer().skip(staticDecoders, in, version, compatibilityLevel);
+	}
 }
@@ -20,7 +20,7 @@ import io.activej.codegen.expression.Expression;
 import io.activej.codegen.expression.Variable;
 import io.activej.serializer.CompatibilityLevel;
 
-import static io.activej.codegen.expression.Expressions.cast;
+import static io.activej.codegen.expression.Expressions.*;
 import static io.activej.types.Primitives.wrap;
 
 public abstract class PrimitiveSerializerDef extends AbstractSerializerDef implements SerializerDef {
@@ -59,6 +59,10 @@ public abstract class PrimitiveSerializerDef extends AbstractSerializerDef imple
 
 	protected abstract Expression doDeserialize(Expression in, CompatibilityLevel compatibilityLevel);
 
+	protected Expression doSkip(Expression in, CompatibilityLevel compatibilityLevel) {
+		return sequence(doDeserialize(in, compatibilityLevel), voidExp());
+	}
+
 	protected boolean castToPrimitive() {
 		return true;
 	}
@@ -73,4 +77,9 @@ public abstract class PrimitiveSerializerDef extends AbstractSerializerDef imple
 		Expression expression = doDeserialize(in, compatibilityLevel);
 		return wrapped ? cast(expression, wrappedType) : expression;
 	}
+
+	@Override
+	public final Expression skip(StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel) {
+		return doSkip(in, compatibilityLevel);
+	}
 }
@@ -22,7 +22,7 @@ import io.activej.serializer.CompatibilityLevel;
 
 import java.util.Set;
 
-import static io.activej.codegen.expression.Expressions.arg;
+import static io.activej.codegen.expression.Expressions.*;
 
 /**
  * Represents a serializer and deserializer of a particular class to byte arrays
@@ -56,6 +56,29 @@ public interface SerializerDef {
 
 	Expression decode(StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel);
 
+	/**
+	 * Returns an expression that decodes a value into a previously decoded one, if possible,
+	 * and evaluates to the decoded value, which may or may not be the same instance
+	 * <p>
+	 * An expression of a previously decoded value may evaluate to {@code null} and should be free of side effects.
+	 * By default, a new value is decoded
+	 */
+	default Expression decodeInto(StaticDecoders staticDecoders, Expression in, Expression reuse, int version, CompatibilityLevel compatibilityLevel) {
+		return defineDecoder(staticDecoders, version, compatibilityLevel).decode(in);
+	}
+
+	/**
+	 * Returns a void expression that advances {@code in} past a serialized value
+	 * without constructing it, if possible
+	 * <p>
+	 * By default, a value is decoded and discarded
+	 */
+	default Expression skip(StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel) {
+		return sequence(
+			defineDecoder(staticDecoders, version, compatibilityLevel).decode(in),
+			voidExp());
+	}
+
 	interface StaticEncoders {
 		Expression BUF = arg(0);
 		Variable POS = arg(1);
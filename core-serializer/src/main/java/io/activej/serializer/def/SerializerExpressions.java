@@ -223,6 +223,28 @@ public final class SerializerExpressions {
 		return call(in, "readVarLong");
 	}
 
+	public static Expression skipBytes(Expression in, int bytes) {
+		return move(in, bytes);
+	}
+
+	public static Expression skipSized(Expression in, int unitSize, boolean nullable) {
+		return call(in, nullable ? "skipSizedNullable" : "skipSized", value(unitSize));
+	}
+
+	/**
+	 * Returns a cleared collection or map, if a given one is an instance of exactly a given type,
+	 * otherwise returns a newly created one
+	 */
+	public static Expression clearOrCreate(Expression reuse, Class<?> type, Expression create) {
+		return ifNonNull(reuse,
+			ifRefEq(call(reuse, "getClass"), value(type),
+				sequence(
+					call(cast(reuse, type), "clear"),
+					cast(reuse, type)),
+				create),
+			create);
+	}
+
 	public static Expression readFloat(Expression in, boolean bigEndian) {
 		return staticCall(Float.class, "intBitsToFloat", readInt(in, bigEndian));
 	}
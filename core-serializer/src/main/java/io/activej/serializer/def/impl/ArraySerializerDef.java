@@ -21,7 +21,9 @@ import io.activej.codegen.expression.Variable;
 import io.activej.common.annotation.ExposedInternals;
 import io.activej.serializer.CompatibilityLevel;
 import io.activej.serializer.def.*;
+import io.activej.serializer.util.BinaryOutputUtils;
 import io.activej.serializer.util.ZeroArrayUtils;
+import org.jetbrains.annotations.Nullable;
 
 import static io.activej.codegen.expression.Expressions.*;
 import static io.activej.common.Checks.checkArgument;
@@ -102,9 +104,16 @@ public final class ArraySerializerDef extends AbstractSerializerDef implements S
 		} else {
 			Expression size = fixedSize != -1 ? value(fixedSize) : length(cast(value, encodeType));
 
-			Encoder encoder = valueSerializer.defineEncoder(staticEncoders, version, compatibilityLevel);
-			Expression writeCollection = iterate(value(0), size,
-				i -> encoder.encode(buf, pos, arrayGet(cast(value, encodeType), i)));
+			String bulkSuffix = bulkSuffix(compatibilityLevel);
+			Expression writeCollection;
+			if (bulkSuffix != null) {
+				writeCollection = set(pos,
+					staticCall(BinaryOutputUtils.class, "write" + bulkSuffix, buf, pos, cast(value, encodeType), value(0), size));
+			} else {
+				Encoder encoder = valueSerializer.defineEncoder(staticEncoders, version, compatibilityLevel);
+				writeCollection = iterate(value(0), size,
+					i -> encoder.encode(buf, pos, arrayGet(cast(value, encodeType), i)));
+			}
 
 			if (!nullable) {
 				return sequence(
@@ -146,7 +155,36 @@ public final class ArraySerializerDef extends AbstractSerializerDef implements S
 						len0 -> doDecode(staticDecoders, in, version, compatibilityLevel, len0))));
 	}
 
+	@Override
+	public Expression skip(StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel) {
+		if (decodeType.getComponentType() == Byte.TYPE) {
+			return skipSized(in, 1, nullable);
+		}
+		if (bulkSuffix(compatibilityLevel) != null) {
+			return skipSized(in, bulkUnitSize(), nullable);
+		}
+
+		return let(readVarInt(in),
+			len -> !nullable ?
+				doSkip(staticDecoders, in, version, compatibilityLevel, len) :
+				ifNe(len, value(0),
+					doSkip(staticDecoders, in, version, compatibilityLevel, dec(len)),
+					voidExp()));
+	}
+
+	private Expression doSkip(StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel, Expression size) {
+		return iterate(value(0), size,
+			i -> valueSerializer.skip(staticDecoders, in, version, compatibilityLevel));
+	}
+
 	private Expression doDecode(StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel, Expression size) {
+		String bulkSuffix = bulkSuffix(compatibilityLevel);
+		if (bulkSuffix != null) {
+			return let(arrayNew0(size),
+				array -> sequence(
+					call(in, "read" + bulkSuffix, array, value(0), size),
+					array));
+		}
 		Decoder decoder = valueSerializer.defineDecoder(staticDecoders, version, compatibilityLevel);
 		return let(arrayNew0(size),
 			array -> sequence(
@@ -156,6 +194,70 @@ public final class ArraySerializerDef extends AbstractSerializerDef implements S
 				array));
 	}
 
+	@Override
+	public Expression decodeInto(StaticDecoders staticDecoders, Expression in, Expression reuse, int version, CompatibilityLevel compatibilityLevel) {
+		return let(readVarInt(in),
+			len -> !nullable ?
+				doDecodeInto(staticDecoders, in, reuse, version, compatibilityLevel, len) :
+				ifEq(len, value(0),
+					nullRef(decodeType),
+					let(dec(len),
+						len0 -> doDecodeInto(staticDecoders, in, reuse, version, compatibilityLevel, len0))));
+	}
+
+	private Expression doDecodeInto(StaticDecoders staticDecoders, Expression in, Expression reuse, int version, CompatibilityLevel compatibilityLevel, Expression size) {
+		Expression newArray = arrayNew0(size);
+		return let(
+			ifNonNull(reuse,
+				ifEq(length(cast(reuse, decodeType)), size,
+					cast(reuse, decodeType),
+					newArray),
+				newArray),
+			array -> {
+				if (decodeType.getComponentType() == Byte.TYPE) {
+					return sequence(
+						readBytes(in, array, value(0), size),
+						array);
+				}
+				String bulkSuffix = bulkSuffix(compatibilityLevel);
+				if (bulkSuffix != null) {
+					return sequence(
+						call(in, "read" + bulkSuffix, array, value(0), size),
+						array);
+				}
+				return sequence(
+					iterate(value(0), size,
+						i -> arraySet(array, i,
+							cast(valueSerializer.decodeInto(staticDecoders, in, arrayGet(array, i), version, compatibilityLevel),
+								decodeType.getComponentType()))),
+					array);
+			});
+	}
+
+	/**
+	 * Returns a suffix of bulk read and write methods for arrays of fixed size primitives,
+	 * or {@code null} if elements are encoded one by one
+	 */
+	private @Nullable String bulkSuffix(CompatibilityLevel compatibilityLevel) {
+		String suffix;
+		if (valueSerializer instanceof ShortSerializerDef) suffix = "Shorts";
+		else if (valueSerializer instanceof CharSerializerDef) suffix = "Chars";
+		else if (valueSerializer instanceof IntSerializerDef def && !def.varLength) suffix = "Ints";
+		else if (valueSerializer instanceof LongSerializerDef def && !def.varLength) suffix = "Longs";
+		else if (valueSerializer instanceof FloatSerializerDef) suffix = "Floats";
+		else if (valueSerializer instanceof DoubleSerializerDef) suffix = "Doubles";
+		else return null;
+		if (!encodeType.getComponentType().isPrimitive() || !decodeType.getComponentType().isPrimitive()) return null;
+		return compatibilityLevel.isLittleEndian() ? suffix + "LE" : suffix;
+	}
+
+	private int bulkUnitSize() {
+		Class<?> componentType = decodeType.getComponentType();
+		if (componentType == short.class || componentType == char.class) return 2;
+		if (componentType == int.class || componentType == float.class) return 4;
+		return 8;
+	}
+
 	private Expression arrayNew0(Expression len) {
 		Class<?> componentType = decodeType.getComponentType();
 		if (!componentType.isPrimitive()) return arrayNew(decodeType, len);
@@ -28,6 +28,7 @@ import io.activej.serializer.def.SerializerDefs;
 import static io.activej.codegen.expression.Expressions.*;
 import static io.activej.serializer.CompatibilityLevel.LEVEL_4;
 import static io.activej.serializer.def.SerializerExpressions.readByte;
+import static io.activej.serializer.def.SerializerExpressions.skipBytes;
 import static io.activej.serializer.def.SerializerExpressions.writeByte;
 
 @ExposedInternals
@@ -79,6 +80,11 @@ public final class BooleanSerializerDef extends PrimitiveSerializerDef implement
 				));
 	}
 
+	@Override
+	protected Expression doSkip(Expression in, CompatibilityLevel compatibilityLevel) {
+		return skipBytes(in, 1);
+	}
+
 	@Override
 	public SerializerDef ensureNullable(CompatibilityLevel compatibilityLevel) {
 		if (compatibilityLevel.getLevel() < LEVEL_4.getLevel()) {
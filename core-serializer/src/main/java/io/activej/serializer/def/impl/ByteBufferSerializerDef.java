@@ -122,6 +122,11 @@ public final class ByteBufferSerializerDef extends AbstractSerializerDef impleme
 				});
 	}
 
+	@Override
+	public Expression skip(StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel) {
+		return skipSized(in, 1, nullable);
+	}
+
 	@Override
 	public SerializerDef ensureNullable(CompatibilityLevel compatibilityLevel) {
 		if (compatibilityLevel.getLevel() < LEVEL_3.getLevel()) {
@@ -24,6 +24,7 @@ import io.activej.serializer.def.PrimitiveSerializerDef;
 import io.activej.serializer.def.SerializerDef;
 
 import static io.activej.serializer.def.SerializerExpressions.readByte;
+import static io.activej.serializer.def.SerializerExpressions.skipBytes;
 import static io.activej.serializer.def.SerializerExpressions.writeByte;
 
 @ExposedInternals
@@ -52,4 +53,9 @@ public final class ByteSerializerDef extends PrimitiveSerializerDef {
 	protected Expression doDeserialize(Expression in, CompatibilityLevel compatibilityLevel) {
 		return readByte(in);
 	}
+
+	@Override
+	protected Expression doSkip(Expression in, CompatibilityLevel compatibilityLevel) {
+		return skipBytes(in, 1);
+	}
 }
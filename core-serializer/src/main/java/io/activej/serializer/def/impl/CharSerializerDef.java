@@ -24,6 +24,7 @@ import io.activej.serializer.def.PrimitiveSerializerDef;
 import io.activej.serializer.def.SerializerDef;
 
 import static io.activej.serializer.def.SerializerExpressions.readChar;
+import static io.activej.serializer.def.SerializerExpressions.skipBytes;
 import static io.activej.serializer.def.SerializerExpressions.writeChar;
 
 @ExposedInternals
@@ -52,4 +53,9 @@ public final class CharSerializerDef extends PrimitiveSerializerDef {
 	protected Expression doDeserialize(Expression in, CompatibilityLevel compatibilityLevel) {
 		return readChar(in, !compatibilityLevel.isLittleEndian());
 	}
+
+	@Override
+	protected Expression doSkip(Expression in, CompatibilityLevel compatibilityLevel) {
+		return skipBytes(in, 2);
+	}
 }
@@ -22,12 +22,19 @@ import io.activej.codegen.expression.Variable;
 import io.activej.common.annotation.ExposedInternals;
 import io.activej.common.builder.AbstractBuilder;
 import io.activej.serializer.CompatibilityLevel;
+import io.activej.serializer.CorruptedDataException;
 import io.activej.serializer.def.AbstractSerializerDef;
+import io.activej.serializer.def.PrimitiveSerializerDef;
 import io.activej.serializer.def.SerializerDef;
+import io.activej.serializer.util.BinaryOutputUtils;
+import io.activej.serializer.util.ColumnarUtils;
 import org.jetbrains.annotations.Nullable;
 import org.objectweb.asm.Type;
 
 import java.lang.reflect.*;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.function.UnaryOperator;
 
@@ -35,15 +42,24 @@ import static io.activej.codegen.expression.Expressions.*;
 import static io.activej.common.Checks.checkArgument;
 import static io.activej.common.Checks.checkNotNull;
 import static io.activej.common.collection.CollectorUtils.toHashMap;
+import static io.activej.serializer.StringFormat.UTF8;
+import static io.activej.serializer.def.SerializerExpressions.*;
 import static java.lang.Character.toUpperCase;
 import static java.lang.String.format;
 import static java.lang.reflect.Modifier.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toSet;
 import static org.objectweb.asm.Type.*;
 
 @ExposedInternals
 public final class ClassSerializerDef extends AbstractSerializerDef {
+	private static final int WIRE_VARINT = 0;
+	private static final int WIRE_FIXED_8 = 1;
+	private static final int WIRE_FIXED_16 = 2;
+	private static final int WIRE_FIXED_32 = 3;
+	private static final int WIRE_FIXED_64 = 4;
+	private static final int WIRE_SIZED = 5;
 
 	public final Class<?> encodeType;
 	public final Class<?> decodeType;
@@ -120,6 +136,26 @@ public final class ClassSerializerDef extends AbstractSerializerDef {
 
 	public @Nullable FactoryDef factory;
 
+	/**
+	 * Whether encoded properties are preceded by a table of their offsets,
+	 * so that a projection may jump directly to any of the properties
+	 */
+	public boolean offsetTable;
+
+	/**
+	 * Names of properties to be decoded, or {@code null} if all of the properties are decoded
+	 */
+	public @Nullable Set<String> projection;
+
+	/**
+	 * Tags of properties by their names. If not empty, properties are encoded in a tagged format,
+	 * where each property is preceded by its tag and wire type, so that unknown properties are skipped
+	 * and missing properties are left with their default values
+	 */
+	public final Map<String, Integer> tags = new HashMap<>();
+
+	private boolean skipping;
+
 	public ClassSerializerDef(
 		Class<?> encodeType, Class<?> decodeType,
 		List<PropertyDef> properties, List<SetterDef> setters, @Nullable FactoryDef factory
@@ -214,6 +250,28 @@ public final class ClassSerializerDef extends AbstractSerializerDef {
 			return this;
 		}
 
+		public Builder withOffsetTable() {
+			checkNotBuilt(this);
+			ClassSerializerDef.this.offsetTable = true;
+			return this;
+		}
+
+		/**
+		 * Assigns a tag to a property of a given member, enabling a tagged format.
+		 * Tags must be positive and unique and should never change once data is encoded
+		 */
+		public Builder withTag(Member member, int tag) {
+			checkNotBuilt(this);
+			checkArgument(tag > 0 && tag < 1 << 28, "Tag %d of %s is out of range", tag, member);
+			checkArgument(!tags.containsValue(tag), "Duplicate tag %d of %s", tag, member);
+			PropertyDef propertyDef = properties.stream()
+				.filter(property -> property.member.equals(member))
+				.findFirst()
+				.orElseThrow(() -> new IllegalArgumentException("Unknown property " + member));
+			ClassSerializerDef.this.tags.put(propertyDef.name, tag);
+			return this;
+		}
+
 		public Builder withMatchingSetters() {
 			checkNotBuilt(this);
 			Set<String> usedProperties = new HashSet<>();
@@ -241,10 +299,35 @@ public final class ClassSerializerDef extends AbstractSerializerDef {
 
 		@Override
 		protected ClassSerializerDef doBuild() {
+			if (!tags.isEmpty()) {
+				for (var property : properties) {
+					checkArgument(tags.containsKey(property.name), "Property '%s' of %s has no tag", property.name, decodeType.getName());
+				}
+				checkArgument(!offsetTable, "Tagged format cannot be combined with an offset table");
+			}
 			return ClassSerializerDef.this;
 		}
 	}
 
+	/**
+	 * Returns a copy of this serializer definition that decodes only given properties.
+	 * Other properties are skipped over and are left with their default values
+	 *
+	 * @param propertyNames names of properties to be decoded
+	 * @return a projection of this serializer definition
+	 */
+	public ClassSerializerDef projection(Set<String> propertyNames) {
+		Set<String> names = properties.stream().map(PropertyDef::name).collect(toSet());
+		for (String propertyName : propertyNames) {
+			checkArgument(names.contains(propertyName), "Unknown property '%s' of %s", propertyName, decodeType.getName());
+		}
+		ClassSerializerDef projectionDef = new ClassSerializerDef(encodeType, decodeType, properties, setters, factory);
+		projectionDef.offsetTable = offsetTable;
+		projectionDef.projection = Set.copyOf(propertyNames);
+		projectionDef.tags.putAll(tags);
+		return projectionDef;
+	}
+
 	@Override
 	public void accept(Visitor visitor) {
 		for (var property : properties) {
@@ -283,22 +366,26 @@ public final class ClassSerializerDef extends AbstractSerializerDef {
 
 	@Override
 	public Expression encode(StaticEncoders staticEncoders, Expression buf, Variable pos, Expression value, int version, CompatibilityLevel compatibilityLevel) {
+		if (!tags.isEmpty()) {
+			return encodeTagged(staticEncoders, buf, pos, value, version, compatibilityLevel);
+		}
 		List<Expression> list = new ArrayList<>();
 		for (var property : properties) {
 			if (!property.hasVersion(version)) continue;
 			Encoder encoder = property.serializer.defineEncoder(staticEncoders, version, compatibilityLevel);
-			Expression expression;
-			Class<?> fieldType = property.serializer.getEncodeType();
-			if (property.member instanceof Field field) {
-				expression = encoder.encode(buf, pos, cast(property(value, field.getName()), fieldType));
-			} else if (property.member instanceof Method method) {
-				expression = encoder.encode(buf, pos, cast(call(value, method.getName()), fieldType));
-			} else {
-				throw new AssertionError();
-			}
-			list.add(expression);
+			list.add(encoder.encode(buf, pos, propertyValue(property, value)));
 		}
-		return sequence(list);
+		if (!offsetTable) {
+			return sequence(list);
+		}
+		return let(pos, start -> sequence(seq -> {
+			seq.add(set(pos, add(pos, value(offsetTableSize(list.size())))));
+			for (int i = 0; i < list.size(); i++) {
+				seq.add(writeOffset(buf, start, i, sub(pos, start), compatibilityLevel));
+				seq.add(list.get(i));
+			}
+			seq.add(writeOffset(buf, start, list.size(), sub(pos, start), compatibilityLevel));
+		}));
 	}
 
 	@Override
@@ -306,62 +393,512 @@ public final class ClassSerializerDef extends AbstractSerializerDef {
 		return decoder(staticDecoders, in, version, compatibilityLevel, value -> sequence());
 	}
 
+	/**
+	 * Skips properties without constructing an instance. A tagged value is skipped by its wire types
+	 * and a value with an offset table is skipped by its end offset, other values are skipped
+	 * property by property. A value nested within a value of the same class is decoded and discarded
+	 */
+	@Override
+	public Expression skip(StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel) {
+		List<PropertyDef> versionProperties = properties.stream()
+			.filter(propertyDef -> propertyDef.hasVersion(version))
+			.toList();
+
+		if (!tags.isEmpty()) {
+			boolean bigEndian = !compatibilityLevel.isLittleEndian();
+			return sequence(
+				skipBytes(in, 8),
+				loop(let(readVarInt(in), key ->
+					ifEq(key, value(0),
+						value(false),
+						sequence(
+							skipTagged(in, bitAnd(key, value(7)), bigEndian),
+							value(true))))));
+		}
+		if (offsetTable) {
+			return let(pos(in), start ->
+				pos(in, add(start, readOffset(in, start, versionProperties.size(), compatibilityLevel))));
+		}
+		if (skipping) {
+			return super.skip(staticDecoders, in, version, compatibilityLevel);
+		}
+		skipping = true;
+		try {
+			List<Expression> list = new ArrayList<>();
+			for (var property : versionProperties) {
+				list.add(property.serializer.skip(staticDecoders, in, version, compatibilityLevel));
+			}
+			list.add(voidExp());
+			return sequence(list);
+		} finally {
+			skipping = false;
+		}
+	}
+
 	public Expression decoder(StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel, UnaryOperator<Expression> instanceInitializer) {
+		List<PropertyDef> versionProperties = properties.stream()
+			.filter(propertyDef -> propertyDef.hasVersion(version))
+			.toList();
+
+		if (!tags.isEmpty()) {
+			return decodeTagged(staticDecoders, in, version, compatibilityLevel, versionProperties, instanceInitializer);
+		}
+		if (!offsetTable) {
+			return decoder(staticDecoders, in, version, compatibilityLevel, versionProperties, null, instanceInitializer);
+		}
+		if (projection == null) {
+			return sequence(
+				skipBytes(in, offsetTableSize(versionProperties.size())),
+				decoder(staticDecoders, in, version, compatibilityLevel, versionProperties, null, instanceInitializer));
+		}
+		return let(pos(in), start ->
+			decoder(staticDecoders, in, version, compatibilityLevel, versionProperties, start, instanceInitializer));
+	}
+
+	private Expression decoder(
+		StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel,
+		List<PropertyDef> versionProperties, @Nullable Variable offsetTableStart, UnaryOperator<Expression> instanceInitializer
+	) {
 		Map<String, PropertyDef> propertyMap = properties.stream().collect(toHashMap(p -> p.name, identity()));
+		List<PropertyDef> decodedProperties = new ArrayList<>();
+		List<Expression> pending = new ArrayList<>();
 
 		return let(
 			propertyExpressions -> {
-				for (PropertyDef propertyDef : properties) {
-					if (!propertyDef.hasVersion(version)) continue;
-					propertyExpressions.add(
-						propertyDef.serializer.defineDecoder(staticDecoders, version, compatibilityLevel).decode(in));
+				for (int i = 0; i < versionProperties.size(); i++) {
+					PropertyDef propertyDef = versionProperties.get(i);
+					if (projection != null && !projection.contains(propertyDef.name)) {
+						if (offsetTableStart == null) {
+							pending.add(propertyDef.serializer.skip(staticDecoders, in, version, compatibilityLevel));
+						}
+						continue;
+					}
+					if (offsetTableStart != null) {
+						pending.add(pos(in, add(offsetTableStart, readOffset(in, offsetTableStart, i, compatibilityLevel))));
+					}
+					pending.add(propertyDef.serializer.defineDecoder(staticDecoders, version, compatibilityLevel).decode(in));
+					propertyExpressions.add(sequence(List.copyOf(pending)));
+					pending.clear();
+					decodedProperties.add(propertyDef);
+				}
+				if (offsetTableStart != null) {
+					pending.add(pos(in, add(offsetTableStart, readOffset(in, offsetTableStart, versionProperties.size(), compatibilityLevel))));
 				}
 			},
 			propertyValues -> {
 
 				Map<String, Expression> propertyValuesMap = new HashMap<>();
-				int i = 0;
-				for (var propertyDef : properties) {
-					if (!propertyDef.hasVersion(version)) continue;
-					propertyValuesMap.put(propertyDef.name, propertyValues[i++]);
+				for (int i = 0; i < decodedProperties.size(); i++) {
+					propertyValuesMap.put(decodedProperties.get(i).name, propertyValues[i]);
 				}
 
-				return let(
-					factory == null ?
-						constructor(decodeType) :
-						factory.member instanceof Constructor ?
-							constructor(decodeType,
-								extractParameters(factory.member, factory.properties, version, propertyMap, propertyValuesMap)) :
-							staticCall(factory.member.getDeclaringClass(), factory.member.getName(),
-								extractParameters(factory.member, factory.properties, version, propertyMap, propertyValuesMap)),
-					instance -> sequence(seq -> {
-						seq.add(instanceInitializer.apply(instance));
-						for (var setter : setters) {
-							if (setter.properties.stream().map(propertyMap::get).noneMatch(propertyDef -> propertyDef.hasVersion(version))) {
-								continue;
-							}
-							seq.add(
-								call(instance, setter.method.getName(),
-									extractParameters(setter.method, setter.properties, version, propertyMap, propertyValuesMap)));
-						}
+				pending.add(construct(propertyMap, decodedProperties, propertyValuesMap, instanceInitializer));
+				return sequence(pending);
+			});
+	}
 
-						for (var propertyDef : properties) {
-							if (!propertyDef.hasVersion(version)) continue;
-							if (!(propertyDef.member instanceof Field field)) continue;
-							if (isFinal(field.getModifiers())) continue;
-							seq.add(
-								set(property(instance, field.getName()),
-									cast(propertyValuesMap.get(propertyDef.name), propertyDef.getRawType())));
-						}
+	private Expression construct(
+		Map<String, PropertyDef> propertyMap, List<PropertyDef> decodedProperties,
+		Map<String, Expression> propertyValuesMap, UnaryOperator<Expression> instanceInitializer
+	) {
+		return let(
+			factory == null ?
+				constructor(decodeType) :
+				factory.member instanceof Constructor ?
+					constructor(decodeType,
+						extractParameters(factory.member, factory.properties, propertyMap, propertyValuesMap)) :
+					staticCall(factory.member.getDeclaringClass(), factory.member.getName(),
+						extractParameters(factory.member, factory.properties, propertyMap, propertyValuesMap)),
+			instance -> sequence(seq -> {
+				seq.add(instanceInitializer.apply(instance));
+				for (var setter : setters) {
+					if (setter.properties.stream().noneMatch(propertyValuesMap::containsKey)) {
+						continue;
+					}
+					seq.add(
+						call(instance, setter.method.getName(),
+							extractParameters(setter.method, setter.properties, propertyMap, propertyValuesMap)));
+				}
+
+				for (var propertyDef : decodedProperties) {
+					if (!(propertyDef.member instanceof Field field)) continue;
+					if (isFinal(field.getModifiers())) continue;
+					seq.add(
+						set(property(instance, field.getName()),
+							cast(propertyValuesMap.get(propertyDef.name), propertyDef.getRawType())));
+				}
+
+				return instance;
+			}));
+	}
+
+	/**
+	 * Decodes properties into a given instance of a decode type, if all of the properties
+	 * are either non-final fields or getters with single-property setters.
+	 * Otherwise, a new instance is decoded
+	 */
+	@Override
+	public Expression decodeInto(StaticDecoders staticDecoders, Expression in, Expression reuse, int version, CompatibilityLevel compatibilityLevel) {
+		if (!isReusable(version)) {
+			return defineDecoder(staticDecoders, version, compatibilityLevel).decode(in);
+		}
+		Map<String, Method> setterMap = new HashMap<>();
+		for (var setter : setters) {
+			setterMap.putIfAbsent(setter.properties.get(0), setter.method);
+		}
+		List<PropertyDef> versionProperties = properties.stream()
+			.filter(propertyDef -> propertyDef.hasVersion(version))
+			.toList();
+
+		return let(
+			ifNull(reuse,
+				constructor(decodeType),
+				cast(reuse, decodeType)),
+			instance -> sequence(seq -> {
+				if (offsetTable) {
+					seq.add(skipBytes(in, offsetTableSize(versionProperties.size())));
+				}
+				for (var propertyDef : versionProperties) {
+					if (propertyDef.member instanceof Field field) {
+						seq.add(
+							set(property(instance, field.getName()),
+								cast(propertyDef.serializer.decodeInto(staticDecoders, in,
+										property(instance, field.getName()), version, compatibilityLevel),
+									propertyDef.getRawType())));
+					} else {
+						Method setter = setterMap.get(propertyDef.name);
+						seq.add(
+							call(instance, setter.getName(),
+								cast(propertyDef.serializer.decodeInto(staticDecoders, in,
+										call(instance, propertyDef.member.getName()), version, compatibilityLevel),
+									setter.getParameterTypes()[0])));
+					}
+				}
+				return instance;
+			}));
+	}
+
+	private boolean isReusable(int version) {
+		if (factory != null || projection != null || !tags.isEmpty()) return false;
+		if (isAbstract(decodeType.getModifiers())) return false;
+		if (setters.stream().anyMatch(setter -> setter.properties.size() != 1)) return false;
+		Set<String> setterProperties = setters.stream().map(setter -> setter.properties.get(0)).collect(toSet());
+		for (var propertyDef : properties) {
+			if (!propertyDef.hasVersion(version)) continue;
+			if (propertyDef.member instanceof Field field ?
+				isFinal(field.getModifiers()) :
+				!setterProperties.contains(propertyDef.name)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Encodes a given number of instances from an array column by column: all the values
+	 * of the first property, then all the values of the second one, and so on.
+	 * Columns of ints and longs are delta encoded, columns of booleans are bit-packed
+	 * and columns of UTF-8 strings are dictionary encoded
+	 *
+	 * @param values an expression of an {@code Object[]} of instances to be encoded
+	 * @param size   an expression of a number of instances to be encoded
+	 */
+	public Expression encodeColumns(
+		StaticEncoders staticEncoders, Expression buf, Variable pos, Expression values, Expression size,
+		int version, CompatibilityLevel compatibilityLevel
+	) {
+		List<Expression> list = new ArrayList<>();
+		for (var property : properties) {
+			if (!property.hasVersion(version)) continue;
+			Class<?> fieldType = property.serializer.getEncodeType();
+			String codec = columnCodec(property.serializer);
+			if (codec == null) {
+				Encoder encoder = property.serializer.defineEncoder(staticEncoders, version, compatibilityLevel);
+				list.add(iterate(value(0), size,
+					i -> encoder.encode(buf, pos, propertyValue(property, cast(arrayGet(values, i), encodeType)))));
+				continue;
+			}
+			list.add(let(arrayNew(arrayType(fieldType), size), column -> sequence(
+				iterate(value(0), size,
+					i -> arraySet(column, i, propertyValue(property, cast(arrayGet(values, i), encodeType)))),
+				set(pos, staticCall(ColumnarUtils.class, "write" + codec, buf, pos, column, size)))));
+		}
+		return sequence(list);
+	}
+
+	/**
+	 * Decodes a given number of instances encoded by {@link #encodeColumns} into an {@code Object[]}
+	 *
+	 * @param size an expression of a number of instances to be decoded
+	 */
+	public Expression decodeColumns(
+		StaticDecoders staticDecoders, Expression in, Expression size,
+		int version, CompatibilityLevel compatibilityLevel
+	) {
+		Map<String, PropertyDef> propertyMap = properties.stream().collect(toHashMap(p -> p.name, identity()));
+		List<PropertyDef> versionProperties = properties.stream()
+			.filter(propertyDef -> propertyDef.hasVersion(version))
+			.toList();
+
+		return let(
+			columnExpressions -> {
+				for (var property : versionProperties) {
+					Class<?> columnType = arrayType(property.serializer.getDecodeType());
+					String codec = columnCodec(property.serializer);
+					if (codec == null) {
+						Decoder decoder = property.serializer.defineDecoder(staticDecoders, version, compatibilityLevel);
+						columnExpressions.add(let(arrayNew(columnType, size), column -> sequence(
+							iterate(value(0), size,
+								i -> arraySet(column, i, cast(decoder.decode(in), property.serializer.getDecodeType()))),
+							column)));
+						continue;
+					}
+					columnExpressions.add(let(arrayNew(columnType, size), column -> sequence(
+						staticCall(ColumnarUtils.class, "read" + codec, in, column, size),
+						column)));
+				}
+			},
+			columns -> let(arrayNew(Object[].class, size), result -> sequence(
+				iterate(value(0), size, i -> {
+					Map<String, Expression> propertyValuesMap = new HashMap<>();
+					for (int j = 0; j < versionProperties.size(); j++) {
+						propertyValuesMap.put(versionProperties.get(j).name, arrayGet(columns[j], i));
+					}
+					return arraySet(result, i,
+						construct(propertyMap, versionProperties, propertyValuesMap, instance -> sequence()));
+				}),
+				result)));
+	}
+
+	private static @Nullable String columnCodec(SerializerDef serializer) {
+		Class<?> type = serializer.getEncodeType();
+		if (serializer instanceof IntSerializerDef && type == int.class) return "DeltaInts";
+		if (serializer instanceof LongSerializerDef && type == long.class) return "DeltaLongs";
+		if (serializer instanceof BooleanSerializerDef && type == boolean.class) return "Bits";
+		if (serializer instanceof StringSerializerDef def && def.format == UTF8) {
+			return def.nullable ? "DictionaryStrings" : "NonNullDictionaryStrings";
+		}
+		return null;
+	}
 
-						return instance;
-					}));
+	private static Class<?> arrayType(Class<?> componentType) {
+		return Array.newInstance(componentType, 0).getClass();
+	}
+
+	private static Expression propertyValue(PropertyDef property, Expression value) {
+		Class<?> fieldType = property.serializer.getEncodeType();
+		if (property.member instanceof Field field) {
+			return cast(property(value, field.getName()), fieldType);
+		}
+		if (property.member instanceof Method method) {
+			return cast(call(value, method.getName()), fieldType);
+		}
+		throw new AssertionError();
+	}
 
+	private Expression encodeTagged(
+		StaticEncoders staticEncoders, Expression buf, Variable pos, Expression value,
+		int version, CompatibilityLevel compatibilityLevel
+	) {
+		boolean bigEndian = !compatibilityLevel.isLittleEndian();
+		List<PropertyDef> versionProperties = properties.stream()
+			.filter(propertyDef -> propertyDef.hasVersion(version))
+			.toList();
+
+		List<Expression> list = new ArrayList<>();
+		list.add(writeLong(buf, pos, value(fingerprint(versionProperties)), bigEndian));
+		for (var property : versionProperties) {
+			int wireType = wireType(property.serializer);
+			Encoder encoder = property.serializer.defineEncoder(staticEncoders, version, compatibilityLevel);
+			list.add(writeVarInt(buf, pos, value(tags.get(property.name) << 3 | wireType)));
+			if (wireType != WIRE_SIZED) {
+				list.add(encoder.encode(buf, pos, propertyValue(property, value)));
+				continue;
+			}
+			list.add(let(pos, start -> sequence(
+				set(pos, add(pos, value(4))),
+				encoder.encode(buf, pos, propertyValue(property, value)),
+				writeOffset(buf, start, 0, sub(pos, add(start, value(4))), compatibilityLevel))));
+		}
+		list.add(writeByte(buf, pos, value((byte) 0)));
+		return sequence(list);
+	}
+
+	/**
+	 * Decodes properties positionally if a schema fingerprint matches,
+	 * otherwise decodes tagged properties one by one, skipping unknown ones
+	 */
+	private Expression decodeTagged(
+		StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel,
+		List<PropertyDef> versionProperties, UnaryOperator<Expression> instanceInitializer
+	) {
+		boolean bigEndian = !compatibilityLevel.isLittleEndian();
+		return ifEq(readLong(in, bigEndian), value(fingerprint(versionProperties)),
+			decodeTaggedSameSchema(staticDecoders, in, version, compatibilityLevel, versionProperties, instanceInitializer),
+			decodeTaggedFields(staticDecoders, in, version, compatibilityLevel, versionProperties, instanceInitializer));
+	}
+
+	private Expression decodeTaggedSameSchema(
+		StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel,
+		List<PropertyDef> versionProperties, UnaryOperator<Expression> instanceInitializer
+	) {
+		boolean bigEndian = !compatibilityLevel.isLittleEndian();
+		Map<String, PropertyDef> propertyMap = properties.stream().collect(toHashMap(p -> p.name, identity()));
+		List<PropertyDef> decodedProperties = new ArrayList<>();
+		List<Expression> pending = new ArrayList<>();
+
+		return let(
+			propertyExpressions -> {
+				for (var propertyDef : versionProperties) {
+					int wireType = wireType(propertyDef.serializer);
+					pending.add(skipBytes(in, varIntSize(tags.get(propertyDef.name) << 3 | wireType)));
+					if (projection != null && !projection.contains(propertyDef.name)) {
+						pending.add(wireType == WIRE_SIZED ?
+							move(in, readInt(in, bigEndian)) :
+							propertyDef.serializer.skip(staticDecoders, in, version, compatibilityLevel));
+						continue;
+					}
+					if (wireType == WIRE_SIZED) {
+						pending.add(skipBytes(in, 4));
+					}
+					pending.add(propertyDef.serializer.defineDecoder(staticDecoders, version, compatibilityLevel).decode(in));
+					propertyExpressions.add(sequence(List.copyOf(pending)));
+					pending.clear();
+					decodedProperties.add(propertyDef);
+				}
+				pending.add(skipBytes(in, 1));
+			},
+			propertyValues -> {
+				Map<String, Expression> propertyValuesMap = new HashMap<>();
+				for (int i = 0; i < decodedProperties.size(); i++) {
+					propertyValuesMap.put(decodedProperties.get(i).name, propertyValues[i]);
+				}
+				pending.add(construct(propertyMap, decodedProperties, propertyValuesMap, instanceInitializer));
+				return sequence(pending);
 			});
 	}
 
+	private Expression decodeTaggedFields(
+		StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel,
+		List<PropertyDef> versionProperties, UnaryOperator<Expression> instanceInitializer
+	) {
+		boolean bigEndian = !compatibilityLevel.isLittleEndian();
+		Map<String, PropertyDef> propertyMap = properties.stream().collect(toHashMap(p -> p.name, identity()));
+		List<PropertyDef> decodedProperties = versionProperties.stream()
+			.filter(propertyDef -> projection == null || projection.contains(propertyDef.name))
+			.toList();
+
+		return let(
+			propertyExpressions -> {
+				for (var propertyDef : decodedProperties) {
+					propertyExpressions.add(propertyDef.defaultExpression());
+				}
+			},
+			propertyValues -> {
+				Map<String, Expression> propertyValuesMap = new HashMap<>();
+				for (int i = 0; i < decodedProperties.size(); i++) {
+					propertyValuesMap.put(decodedProperties.get(i).name, propertyValues[i]);
+				}
+				return sequence(
+					loop(let(readVarInt(in), key ->
+						ifEq(key, value(0),
+							value(false),
+							sequence(
+								let(bitAnd(key, value(7)), wireType ->
+									tableSwitch(ushr(key, value(3)),
+										decodeTaggedCases(staticDecoders, in, version, compatibilityLevel, decodedProperties, propertyValues, wireType),
+										skipTagged(in, wireType, bigEndian))),
+								value(true))))),
+					construct(propertyMap, decodedProperties, propertyValuesMap, instanceInitializer));
+			});
+	}
+
+	private Map<Integer, Expression> decodeTaggedCases(
+		StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel,
+		List<PropertyDef> decodedProperties, Variable[] propertyValues, Variable wireType
+	) {
+		Map<Integer, Expression> cases = new HashMap<>();
+		for (int i = 0; i < decodedProperties.size(); i++) {
+			PropertyDef propertyDef = decodedProperties.get(i);
+			int expectedWireType = wireType(propertyDef.serializer);
+			cases.put(tags.get(propertyDef.name),
+				ifNe(wireType, value(expectedWireType),
+					throwException(CorruptedDataException.class,
+						format("Unexpected wire type of property '%s'", propertyDef.name)),
+					sequence(
+						expectedWireType == WIRE_SIZED ? skipBytes(in, 4) : voidExp(),
+						set(propertyValues[i], cast(
+							propertyDef.serializer.defineDecoder(staticDecoders, version, compatibilityLevel).decode(in),
+							propertyDef.getRawType())))));
+		}
+		return cases;
+	}
+
+	private static Expression skipTagged(Expression in, Expression wireType, boolean bigEndian) {
+		return tableSwitch(wireType,
+			Map.of(
+				WIRE_VARINT, sequence(readVarLong(in), voidExp()),
+				WIRE_FIXED_8, skipBytes(in, 1),
+				WIRE_FIXED_16, skipBytes(in, 2),
+				WIRE_FIXED_32, skipBytes(in, 4),
+				WIRE_FIXED_64, skipBytes(in, 8),
+				WIRE_SIZED, move(in, readInt(in, bigEndian))),
+			throwException(CorruptedDataException.class, "Unknown wire type"));
+	}
+
+	private static int wireType(SerializerDef serializer) {
+		Class<?> type = serializer.getEncodeType();
+		if (!(serializer instanceof PrimitiveSerializerDef) || !type.isPrimitive()) return WIRE_SIZED;
+		if (type == boolean.class || type == byte.class) return WIRE_FIXED_8;
+		if (type == short.class || type == char.class) return WIRE_FIXED_16;
+		if (type == int.class) return serializer instanceof IntSerializerDef def && def.varLength ? WIRE_VARINT : WIRE_FIXED_32;
+		if (type == long.class) return serializer instanceof LongSerializerDef def && def.varLength ? WIRE_VARINT : WIRE_FIXED_64;
+		if (type == float.class) return WIRE_FIXED_32;
+		if (type == double.class) return WIRE_FIXED_64;
+		return WIRE_SIZED;
+	}
+
+	/**
+	 * A first 64 bits of SHA-256 of tags, wire types and types of properties,
+	 * so that different schemas practically never have the same fingerprint
+	 */
+	private long fingerprint(List<PropertyDef> versionProperties) {
+		StringBuilder sb = new StringBuilder();
+		for (var property : versionProperties) {
+			sb.append(tags.get(property.name)).append(':')
+				.append(wireType(property.serializer)).append(':')
+				.append(property.serializer.getEncodeType().getName()).append(';');
+		}
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new AssertionError(e);
+		}
+		return ByteBuffer.wrap(digest.digest(sb.toString().getBytes(UTF_8))).getLong();
+	}
+
+	private static int varIntSize(int value) {
+		return 1 + (31 - Integer.numberOfLeadingZeros(value)) / 7;
+	}
+
+	private static int offsetTableSize(int properties) {
+		return 4 * (properties + 1);
+	}
+
+	private static Expression writeOffset(Expression buf, Variable start, int index, Expression offset, CompatibilityLevel compatibilityLevel) {
+		return staticCall(BinaryOutputUtils.class, compatibilityLevel.isLittleEndian() ? "writeIntLE" : "writeInt",
+			buf, add(start, value(4 * index)), offset);
+	}
+
+	private static Expression readOffset(Expression in, Variable start, int index, CompatibilityLevel compatibilityLevel) {
+		return sequence(
+			pos(in, add(start, value(4 * index))),
+			readInt(in, !compatibilityLevel.isLittleEndian()));
+	}
+
 	private static Expression[] extractParameters(
-		Executable executable, List<String> properties, int version,
+		Executable executable, List<String> properties,
 		Map<String, PropertyDef> propertyMap, Map<String, Expression> propertyValuesMap
 	) {
 		Expression[] parameters = new Expression[properties.size()];
@@ -370,8 +907,9 @@ public final class ClassSerializerDef extends AbstractSerializerDef {
 			PropertyDef propertyDef = propertyMap.get(property);
 			if (propertyDef == null)
 				throw new NullPointerException(format("Field '%s' is not found in '%s'", property, executable));
-			if (propertyDef.hasVersion(version)) {
-				parameters[i] = cast(propertyValuesMap.get(property), executable.getParameterTypes()[i]);
+			Expression propertyValue = propertyValuesMap.get(property);
+			if (propertyValue != null) {
+				parameters[i] = cast(propertyValue, executable.getParameterTypes()[i]);
 			} else {
 				parameters[i] = cast(propertyDef.defaultExpression(), executable.getParameterTypes()[i]);
 			}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.serializer.def.impl;
+
+import io.activej.codegen.expression.Expression;
+import io.activej.codegen.expression.Variable;
+import io.activej.common.annotation.ExposedInternals;
+import io.activej.serializer.CompatibilityLevel;
+import io.activej.serializer.def.AbstractSerializerDef;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static io.activej.codegen.expression.Expressions.*;
+import static io.activej.serializer.def.SerializerExpressions.readVarInt;
+import static io.activej.serializer.def.SerializerExpressions.writeVarInt;
+
+/**
+ * Serializes a list of instances of a class as a single batch,
+ * laying out values of each property in a separate column
+ *
+ * @see ClassSerializerDef#encodeColumns
+ */
+@ExposedInternals
+public final class ColumnarSerializerDef extends AbstractSerializerDef {
+	public final ClassSerializerDef classSerializer;
+
+	public ColumnarSerializerDef(ClassSerializerDef classSerializer) {
+		this.classSerializer = classSerializer;
+	}
+
+	@Override
+	public void accept(Visitor visitor) {
+		visitor.visit(classSerializer);
+	}
+
+	@Override
+	public Class<?> getEncodeType() {
+		return List.class;
+	}
+
+	@Override
+	public Expression encode(StaticEncoders staticEncoders, Expression buf, Variable pos, Expression value, int version, CompatibilityLevel compatibilityLevel) {
+		return let(call(value, "toArray"), values ->
+			sequence(
+				writeVarInt(buf, pos, length(values)),
+				classSerializer.encodeColumns(staticEncoders, buf, pos, values, length(values), version, compatibilityLevel)));
+	}
+
+	@Override
+	public Expression decode(StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel) {
+		return let(readVarInt(in), size ->
+			staticCall(Arrays.class, "asList",
+				classSerializer.decodeColumns(staticDecoders, in, size, version, compatibilityLevel)));
+	}
+
+	@Override
+	public String toString() {
+		return "ColumnarSerializerDef{" + classSerializer + '}';
+	}
+}
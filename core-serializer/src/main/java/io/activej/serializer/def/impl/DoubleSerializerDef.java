@@ -24,6 +24,7 @@ import io.activej.serializer.def.PrimitiveSerializerDef;
 import io.activej.serializer.def.SerializerDef;
 
 import static io.activej.serializer.def.SerializerExpressions.readDouble;
+import static io.activej.serializer.def.SerializerExpressions.skipBytes;
 import static io.activej.serializer.def.SerializerExpressions.writeDouble;
 
 @ExposedInternals
@@ -52,5 +53,10 @@ public final class DoubleSerializerDef extends PrimitiveSerializerDef {
 	protected Expression doDeserialize(Expression in, CompatibilityLevel compatibilityLevel) {
 		return readDouble(in, !compatibilityLevel.isLittleEndian());
 	}
+
+	@Override
+	protected Expression doSkip(Expression in, CompatibilityLevel compatibilityLevel) {
+		return skipBytes(in, 8);
+	}
 }
 
@@ -37,6 +37,11 @@ public final class EnumMapSerializerDef extends RegularMapSerializerDef {
 		return new EnumMapSerializerDef(keySerializer, valueSerializer, true);
 	}
 
+	@Override
+	protected boolean isReusable() {
+		return false;
+	}
+
 	@Override
 	protected Expression createBuilder(Expression length) {
 		return constructor(EnumMap.class, value(keySerializer.getDecodeType()));
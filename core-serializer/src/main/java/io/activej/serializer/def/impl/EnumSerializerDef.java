@@ -79,6 +79,13 @@ public final class EnumSerializerDef extends AbstractSerializerDef implements Se
 						arrayGet(staticCall(enumType, "values"), dec(value))));
 	}
 
+	@Override
+	public Expression skip(StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel) {
+		return isSmallEnum() ?
+			skipBytes(in, 1) :
+			sequence(readVarInt(in), voidExp());
+	}
+
 	private boolean isSmallEnum() {
 		int size = enumType.getEnumConstants().length + (nullable ? 1 : 0);
 		if (size >= 16384) throw new IllegalArgumentException();
@@ -24,6 +24,7 @@ import io.activej.serializer.def.PrimitiveSerializerDef;
 import io.activej.serializer.def.SerializerDef;
 
 import static io.activej.serializer.def.SerializerExpressions.readFloat;
+import static io.activej.serializer.def.SerializerExpressions.skipBytes;
 import static io.activej.serializer.def.SerializerExpressions.writeFloat;
 
 @ExposedInternals
@@ -52,5 +53,10 @@ public final class FloatSerializerDef extends PrimitiveSerializerDef {
 	protected Expression doDeserialize(Expression in, CompatibilityLevel compatibilityLevel) {
 		return readFloat(in, !compatibilityLevel.isLittleEndian());
 	}
+
+	@Override
+	protected Expression doSkip(Expression in, CompatibilityLevel compatibilityLevel) {
+		return skipBytes(in, 4);
+	}
 }
 
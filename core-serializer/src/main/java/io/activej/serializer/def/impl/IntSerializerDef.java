@@ -60,6 +60,13 @@ public final class IntSerializerDef extends PrimitiveSerializerDef implements Se
 			readInt(in, !compatibilityLevel.isLittleEndian());
 	}
 
+	@Override
+	protected Expression doSkip(Expression in, CompatibilityLevel compatibilityLevel) {
+		return varLength ?
+			super.doSkip(in, compatibilityLevel) :
+			skipBytes(in, 4);
+	}
+
 	@Override
 	public SerializerDef ensureVarLength() {
 		return new IntSerializerDef(wrapped, true);
@@ -59,6 +59,13 @@ public final class LongSerializerDef extends PrimitiveSerializerDef implements S
 			readLong(in, !compatibilityLevel.isLittleEndian());
 	}
 
+	@Override
+	protected Expression doSkip(Expression in, CompatibilityLevel compatibilityLevel) {
+		return varLength ?
+			super.doSkip(in, compatibilityLevel) :
+			skipBytes(in, 8);
+	}
+
 	@Override
 	public SerializerDef ensureVarLength() {
 		return new LongSerializerDef(wrapped, true);
@@ -40,6 +40,11 @@ public final class MapSerializerDef extends RegularMapSerializerDef {
 		return new MapSerializerDef(keySerializer, valueSerializer, true);
 	}
 
+	@Override
+	protected boolean isReusable() {
+		return false;
+	}
+
 	@Override
 	protected Expression doDecode(SerializerDef.StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel, Expression length) {
 		SerializerDef.Decoder keyDecoder = keySerializer.defineDecoder(staticDecoders, version, compatibilityLevel);
@@ -69,4 +69,18 @@ public final class NullableSerializerDef extends AbstractSerializerDef implement
 				decoder.decode(in),
 				nullRef(serializer.getDecodeType())));
 	}
+
+	@Override
+	public Expression decodeInto(StaticDecoders staticDecoders, Expression in, Expression reuse, int version, CompatibilityLevel compatibilityLevel) {
+		return ifNe(readByte(in), value((byte) 0),
+			serializer.decodeInto(staticDecoders, in, reuse, version, compatibilityLevel),
+			nullRef(serializer.getDecodeType()));
+	}
+
+	@Override
+	public Expression skip(StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel) {
+		return ifNe(readByte(in), value((byte) 0),
+			serializer.skip(staticDecoders, in, version, compatibilityLevel),
+			voidExp());
+	}
 }
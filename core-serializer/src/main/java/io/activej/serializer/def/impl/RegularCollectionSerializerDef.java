@@ -22,6 +22,7 @@ import io.activej.serializer.CompatibilityLevel;
 import io.activej.serializer.def.AbstractCollectionSerializerDef;
 import io.activej.serializer.def.SerializerDef;
 
+import java.lang.reflect.Modifier;
 import java.util.function.UnaryOperator;
 
 import static io.activej.codegen.expression.Expressions.*;
@@ -37,6 +38,15 @@ public class RegularCollectionSerializerDef extends AbstractCollectionSerializer
 		return new RegularCollectionSerializerDef(valueSerializer, encodeType, decodeType, elementType, true);
 	}
 
+	/**
+	 * A collection is reusable if it is decoded as an instance of a concrete decode type.
+	 * Collections of abstract types are decoded as immutable or specialized instances
+	 */
+	@Override
+	protected boolean isReusable() {
+		return !Modifier.isAbstract(decodeType.getModifiers());
+	}
+
 	@Override
 	protected Expression doIterate(Expression collection, UnaryOperator<Expression> action) {
 		return iterateIterable(collection, action);
@@ -37,6 +37,11 @@ public class RegularMapSerializerDef extends AbstractMapSerializerDef {
 		return new RegularMapSerializerDef(keySerializer, valueSerializer, encodeType, decodeType, keyType, valueType, true);
 	}
 
+	@Override
+	protected boolean isReusable() {
+		return true;
+	}
+
 	@Override
 	protected Expression doIterateMap(Expression collection, BinaryOperator<Expression> keyValueAction) {
 		return iterateMap(collection, keyValueAction);
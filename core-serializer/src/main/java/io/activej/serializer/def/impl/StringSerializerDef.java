@@ -26,7 +26,9 @@ import io.activej.serializer.def.SerializerDefWithNullable;
 import io.activej.serializer.util.BinaryOutputUtils;
 
 import static io.activej.codegen.expression.Expressions.*;
+import static io.activej.serializer.StringFormat.UTF16;
 import static io.activej.serializer.StringFormat.UTF8;
+import static io.activej.serializer.def.SerializerExpressions.skipSized;
 
 @ExposedInternals
 public final class StringSerializerDef extends AbstractSerializerDef implements SerializerDefWithNullable {
@@ -95,4 +97,9 @@ public final class StringSerializerDef extends AbstractSerializerDef implements
 			}
 		};
 	}
+
+	@Override
+	public Expression skip(StaticDecoders staticDecoders, Expression in, int version, CompatibilityLevel compatibilityLevel) {
+		return skipSized(in, format == UTF16 ? 2 : 1, nullable);
+	}
 }
@@ -235,9 +235,7 @@ public class StreamCodecs {
 
 			@Override
 			protected void doWrite(BinaryOutput output, char[] array, int offset, int limit) {
-				for (; offset < limit; offset++) {
-					output.writeChar(array[offset]);
-				}
+				output.writeChars(array, offset, limit - offset);
 			}
 
 			@Override
@@ -247,9 +245,7 @@ public class StreamCodecs {
 
 			@Override
 			protected void doRead(BinaryInput input, char[] array, int offset, int count) {
-				for (int i = 0; i < count; i++) {
-					array[i + offset] = input.readChar();
-				}
+				input.readChars(array, offset, count);
 			}
 
 			@Override
@@ -289,9 +285,7 @@ public class StreamCodecs {
 
 			@Override
 			protected void doWrite(BinaryOutput output, short[] array, int offset, int limit) {
-				for (; offset < limit; offset++) {
-					output.writeShort(array[offset]);
-				}
+				output.writeShorts(array, offset, limit - offset);
 			}
 
 			@Override
@@ -301,9 +295,7 @@ public class StreamCodecs {
 
 			@Override
 			protected void doRead(BinaryInput input, short[] array, int offset, int count) {
-				for (int i = 0; i < count; i++) {
-					array[i + offset] = input.readShort();
-				}
+				input.readShorts(array, offset, count);
 			}
 
 			@Override
@@ -324,9 +316,7 @@ public class StreamCodecs {
 
 			@Override
 			protected void doWrite(BinaryOutput output, int[] array, int offset, int limit) {
-				for (; offset < limit; offset++) {
-					output.writeInt(array[offset]);
-				}
+				output.writeInts(array, offset, limit - offset);
 			}
 
 			@Override
@@ -336,9 +326,7 @@ public class StreamCodecs {
 
 			@Override
 			protected void doRead(BinaryInput input, int[] array, int offset, int count) {
-				for (int i = 0; i < count; i++) {
-					array[i + offset] = input.readInt();
-				}
+				input.readInts(array, offset, count);
 			}
 
 			@Override
@@ -359,9 +347,7 @@ public class StreamCodecs {
 
 			@Override
 			protected void doWrite(BinaryOutput output, long[] array, int offset, int limit) {
-				for (; offset < limit; offset++) {
-					output.writeLong(array[offset]);
-				}
+				output.writeLongs(array, offset, limit - offset);
 			}
 
 			@Override
@@ -371,9 +357,7 @@ public class StreamCodecs {
 
 			@Override
 			protected void doRead(BinaryInput input, long[] array, int offset, int count) {
-				for (int i = 0; i < count; i++) {
-					array[i + offset] = input.readLong();
-				}
+				input.readLongs(array, offset, count);
 			}
 
 			@Override
@@ -394,9 +378,7 @@ public class StreamCodecs {
 
 			@Override
 			protected void doWrite(BinaryOutput output, float[] array, int offset, int limit) {
-				for (; offset < limit; offset++) {
-					output.writeFloat(array[offset]);
-				}
+				output.writeFloats(array, offset, limit - offset);
 			}
 
 			@Override
@@ -406,9 +388,7 @@ public class StreamCodecs {
 
 			@Override
 			protected void doRead(BinaryInput input, float[] array, int offset, int count) {
-				for (int i = 0; i < count; i++) {
-					array[i + offset] = input.readFloat();
-				}
+				input.readFloats(array, offset, count);
 			}
 
 			@Override
@@ -429,9 +409,7 @@ public class StreamCodecs {
 
 			@Override
 			protected void doWrite(BinaryOutput output, double[] array, int offset, int limit) {
-				for (; offset < limit; offset++) {
-					output.writeDouble(array[offset]);
-				}
+				output.writeDoubles(array, offset, limit - offset);
 			}
 
 			@Override
@@ -441,9 +419,7 @@ public class StreamCodecs {
 
 			@Override
 			protected void doRead(BinaryInput input, double[] array, int offset, int count) {
-				for (int i = 0; i < count; i++) {
-					array[i + offset] = input.readDouble();
-				}
+				input.readDoubles(array, offset, count);
 			}
 
 			@Override
@@ -525,6 +501,98 @@ public class StreamCodecs {
 		};
 	}
 
+	/**
+	 * Returns a codec of int arrays in a group var-int format, which is decoded faster than a var-int format
+	 *
+	 * @see io.activej.serializer.util.BinaryOutputUtils#writeGroupVarInts
+	 */
+	public static StreamCodec<int[]> ofGroupVarIntArray() {
+		return new StreamCodec<>() {
+			// a tag byte plus 4 values of 4 bytes
+			private static final int MAX_GROUP_SIZE = 1 + 4 * 4;
+
+			@Override
+			public void encode(StreamOutput output, int[] array) throws IOException {
+				output.writeVarInt(array.length);
+				for (int i = 0; i < array.length; ) {
+					output.ensure(MAX_GROUP_SIZE);
+					int count = Math.min(array.length - i, output.remaining() / MAX_GROUP_SIZE * 4);
+					output.out().writeGroupVarInts(array, i, count);
+					i += count;
+				}
+			}
+
+			@Override
+			public int[] decode(StreamInput input) throws IOException {
+				int length = input.readVarInt();
+				if (length == 0) return ZERO_ARRAY_INTS;
+				int[] array = new int[length];
+				for (int i = 0; i < length; ) {
+					int count = Math.min(length - i, input.remaining() / MAX_GROUP_SIZE * 4);
+					if (count == 0) {
+						count = Math.min(length - i, 4);
+						input.ensure(1);
+						int tag = input.in().array()[input.in().pos()];
+						int size = 1;
+						for (int j = 0; j < count; j++) {
+							size += (tag >>> (j << 1) & 0b11) + 1;
+						}
+						input.ensure(size);
+					}
+					input.in().readGroupVarInts(array, i, count);
+					i += count;
+				}
+				return array;
+			}
+		};
+	}
+
+	/**
+	 * Returns a codec of long arrays in a group var-int format, which is decoded faster than a var-int format
+	 *
+	 * @see io.activej.serializer.util.BinaryOutputUtils#writeGroupVarLongs
+	 */
+	public static StreamCodec<long[]> ofGroupVarLongArray() {
+		return new StreamCodec<>() {
+			// a tag byte plus 2 values of 8 bytes
+			private static final int MAX_GROUP_SIZE = 1 + 2 * 8;
+
+			@Override
+			public void encode(StreamOutput output, long[] array) throws IOException {
+				output.writeVarInt(array.length);
+				for (int i = 0; i < array.length; ) {
+					output.ensure(MAX_GROUP_SIZE);
+					int count = Math.min(array.length - i, output.remaining() / MAX_GROUP_SIZE * 2);
+					output.out().writeGroupVarLongs(array, i, count);
+					i += count;
+				}
+			}
+
+			@Override
+			public long[] decode(StreamInput input) throws IOException {
+				int length = input.readVarInt();
+				if (length == 0) return ZERO_ARRAY_LONGS;
+				long[] array = new long[length];
+				for (int i = 0; i < length; ) {
+					int count = Math.min(length - i, input.remaining() / MAX_GROUP_SIZE * 2);
+					if (count == 0) {
+						count = Math.min(length - i, 2);
+						input.ensure(1);
+						int tag = input.in().array()[input.in().pos()];
+						int size = 1;
+						for (int j = 0; j < count; j++) {
+							size += (tag >>> (j << 2) & 0b111) + 1;
+						}
+						input.ensure(size);
+					}
+					input.in().readGroupVarLongs(array, i, count);
+					i += count;
+				}
+				return array;
+			}
+		};
+	}
+
 	public static StreamCodec<boolean[]> ofFixedLengthBooleanArray(int length) {
 		if (length == 0) return StreamCodec.of(($1, $2) -> {}, $ -> ZERO_ARRAY_BOOLEANS);
 		return new AbstractFixedLengthArrayStreamCodec<>(1, length) {
@@ -561,9 +629,7 @@ public class StreamCodecs {
 		return new AbstractFixedLengthArrayStreamCodec<>(2, length) {
 			@Override
 			protected void doWrite(BinaryOutput output, char[] array, int offset, int limit) {
-				for (; offset < limit; offset++) {
-					output.writeChar(array[offset]);
-				}
+				output.writeChars(array, offset, limit - offset);
 			}
 
 			@Override
@@ -573,9 +639,7 @@ public class StreamCodecs {
 
 			@Override
 			protected void doRead(BinaryInput input, char[] array, int offset, int count) {
-				for (int i = 0; i < count; i++) {
-					array[i + offset] = input.readChar();
-				}
+				input.readChars(array, offset, count);
 			}
 
 			@Override
@@ -609,9 +673,7 @@ public class StreamCodecs {
 		return new AbstractFixedLengthArrayStreamCodec<>(2, length) {
 			@Override
 			protected void doWrite(BinaryOutput output, short[] array, int offset, int limit) {
-				for (; offset < limit; offset++) {
-					output.writeShort(array[offset]);
-				}
+				output.writeShorts(array, offset, limit - offset);
 			}
 
 			@Override
@@ -621,9 +683,7 @@ public class StreamCodecs {
 
 			@Override
 			protected void doRead(BinaryInput input, short[] array, int offset, int count) {
-				for (int i = 0; i < count; i++) {
-					array[i + offset] = input.readShort();
-				}
+				input.readShorts(array, offset, count);
 			}
 
 			@Override
@@ -640,9 +700,7 @@ public class StreamCodecs {
 		return new AbstractFixedLengthArrayStreamCodec<>(4, length) {
 			@Override
 			protected void doWrite(BinaryOutput output, int[] array, int offset, int limit) {
-				for (; offset < limit; offset++) {
-					output.writeInt(array[offset]);
-				}
+				output.writeInts(array, offset, limit - offset);
 			}
 
 			@Override
@@ -652,9 +710,7 @@ public class StreamCodecs {
 
 			@Override
 			protected void doRead(BinaryInput input, int[] array, int offset, int count) {
-				for (int i = 0; i < count; i++) {
-					array[i + offset] = input.readInt();
-				}
+				input.readInts(array, offset, count);
 			}
 
 			@Override
@@ -671,9 +727,7 @@ public class StreamCodecs {
 		return new AbstractFixedLengthArrayStreamCodec<>(8, length) {
 			@Override
 			protected void doWrite(BinaryOutput output, long[] array, int offset, int limit) {
-				for (; offset < limit; offset++) {
-					output.writeLong(array[offset]);
-				}
+				output.writeLongs(array, offset, limit - offset);
 			}
 
 			@Override
@@ -683,9 +737,7 @@ public class StreamCodecs {
 
 			@Override
 			protected void doRead(BinaryInput input, long[] array, int offset, int count) {
-				for (int i = 0; i < count; i++) {
-					array[i + offset] = input.readLong();
-				}
+				input.readLongs(array, offset, count);
 			}
 
 			@Override
@@ -702,9 +754,7 @@ public class StreamCodecs {
 		return new AbstractFixedLengthArrayStreamCodec<>(4, length) {
 			@Override
 			protected void doWrite(BinaryOutput output, float[] array, int offset, int limit) {
-				for (; offset < limit; offset++) {
-					output.writeFloat(array[offset]);
-				}
+				output.writeFloats(array, offset, limit - offset);
 			}
 
 			@Override
@@ -714,9 +764,7 @@ public class StreamCodecs {
 
 			@Override
 			protected void doRead(BinaryInput input, float[] array, int offset, int count) {
-				for (int i = 0; i < count; i++) {
-					array[i + offset] = input.readFloat();
-				}
+				input.readFloats(array, offset, count);
 			}
 
 			@Override
@@ -733,9 +781,7 @@ public class StreamCodecs {
 		return new AbstractFixedLengthArrayStreamCodec<>(8, length) {
 			@Override
 			protected void doWrite(BinaryOutput output, double[] array, int offset, int limit) {
-				for (; offset < limit; offset++) {
-					output.writeDouble(array[offset]);
-				}
+				output.writeDoubles(array, offset, limit - offset);
 			}
 
 			@Override
@@ -745,9 +791,7 @@ public class StreamCodecs {
 
 			@Override
 			protected void doRead(BinaryInput input, double[] array, int offset, int count) {
-				for (int i = 0; i < count; i++) {
-					array[i + offset] = input.readDouble();
-				}
+				input.readDoubles(array, offset, count);
 			}
 
 			@Override
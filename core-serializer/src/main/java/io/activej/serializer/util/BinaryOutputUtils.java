@@ -16,7 +16,12 @@
 
 package io.activej.serializer.util;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 import static java.lang.Character.*;
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
 
 /**
  * Provides methods for writing primitives
@@ -24,6 +29,14 @@ import static java.lang.Character.*;
  */
 @SuppressWarnings({"WeakerAccess", "unused", "DuplicatedCode"})
 public final class BinaryOutputUtils {
+	private static final VarHandle SHORT_BE = MethodHandles.byteArrayViewVarHandle(short[].class, BIG_ENDIAN);
+	private static final VarHandle SHORT_LE = MethodHandles.byteArrayViewVarHandle(short[].class, LITTLE_ENDIAN);
+	private static final VarHandle CHAR_BE = MethodHandles.byteArrayViewVarHandle(char[].class, BIG_ENDIAN);
+	private static final VarHandle CHAR_LE = MethodHandles.byteArrayViewVarHandle(char[].class, LITTLE_ENDIAN);
+	private static final VarHandle INT_BE = MethodHandles.byteArrayViewVarHandle(int[].class, BIG_ENDIAN);
+	private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, LITTLE_ENDIAN);
+	private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, BIG_ENDIAN);
+	private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, LITTLE_ENDIAN);
 
 	public static int write(byte[] buf, int off, byte[] bytes) {
 		return write(buf, off, bytes, 0, bytes.length);
@@ -167,14 +180,163 @@ public final class BinaryOutputUtils {
 		return writeLong(buf, off, Double.doubleToLongBits(v));
 	}
 
+	public static int writeShorts(byte[] buf, int off, short[] values, int valuesOff, int len) {
+		ensureRemaining(buf, off, len * 2);
+		for (int i = 0; i < len; i++) {
+			SHORT_BE.set(buf, off + i * 2, values[valuesOff + i]);
+		}
+		return off + len * 2;
+	}
+
+	public static int writeShortsLE(byte[] buf, int off, short[] values, int valuesOff, int len) {
+		ensureRemaining(buf, off, len * 2);
+		for (int i = 0; i < len; i++) {
+			SHORT_LE.set(buf, off + i * 2, values[valuesOff + i]);
+		}
+		return off + len * 2;
+	}
+
+	public static int writeChars(byte[] buf, int off, char[] values, int valuesOff, int len) {
+		ensureRemaining(buf, off, len * 2);
+		for (int i = 0; i < len; i++) {
+			CHAR_BE.set(buf, off + i * 2, values[valuesOff + i]);
+		}
+		return off + len * 2;
+	}
+
+	public static int writeCharsLE(byte[] buf, int off, char[] values, int valuesOff, int len) {
+		ensureRemaining(buf, off, len * 2);
+		for (int i = 0; i < len; i++) {
+			CHAR_LE.set(buf, off + i * 2, values[valuesOff + i]);
+		}
+		return off + len * 2;
+	}
+
+	public static int writeInts(byte[] buf, int off, int[] values, int valuesOff, int len) {
+		ensureRemaining(buf, off, len * 4);
+		for (int i = 0; i < len; i++) {
+			INT_BE.set(buf, off + i * 4, values[valuesOff + i]);
+		}
+		return off + len * 4;
+	}
+
+	public static int writeIntsLE(byte[] buf, int off, int[] values, int valuesOff, int len) {
+		ensureRemaining(buf, off, len * 4);
+		for (int i = 0; i < len; i++) {
+			INT_LE.set(buf, off + i * 4, values[valuesOff + i]);
+		}
+		return off + len * 4;
+	}
+
+	public static int writeLongs(byte[] buf, int off, long[] values, int valuesOff, int len) {
+		ensureRemaining(buf, off, len * 8);
+		for (int i = 0; i < len; i++) {
+			LONG_BE.set(buf, off + i * 8, values[valuesOff + i]);
+		}
+		return off + len * 8;
+	}
+
+	public static int writeLongsLE(byte[] buf, int off, long[] values, int valuesOff, int len) {
+		ensureRemaining(buf, off, len * 8);
+		for (int i = 0; i < len; i++) {
+			LONG_LE.set(buf, off + i * 8, values[valuesOff + i]);
+		}
+		return off + len * 8;
+	}
+
+	public static int writeFloats(byte[] buf, int off, float[] values, int valuesOff, int len) {
+		ensureRemaining(buf, off, len * 4);
+		for (int i = 0; i < len; i++) {
+			INT_BE.set(buf, off + i * 4, Float.floatToIntBits(values[valuesOff + i]));
+		}
+		return off + len * 4;
+	}
+
+	public static int writeFloatsLE(byte[] buf, int off, float[] values, int valuesOff, int len) {
+		ensureRemaining(buf, off, len * 4);
+		for (int i = 0; i < len; i++) {
+			INT_LE.set(buf, off + i * 4, Float.floatToIntBits(values[valuesOff + i]));
+		}
+		return off + len * 4;
+	}
+
+	public static int writeDoubles(byte[] buf, int off, double[] values, int valuesOff, int len) {
+		ensureRemaining(buf, off, len * 8);
+		for (int i = 0; i < len; i++) {
+			LONG_BE.set(buf, off + i * 8, Double.doubleToLongBits(values[valuesOff + i]));
+		}
+		return off + len * 8;
+	}
+
+	public static int writeDoublesLE(byte[] buf, int off, double[] values, int valuesOff, int len) {
+		ensureRemaining(buf, off, len * 8);
+		for (int i = 0; i < len; i++) {
+			LONG_LE.set(buf, off + i * 8, Double.doubleToLongBits(values[valuesOff + i]));
+		}
+		return off + len * 8;
+	}
+
+	/**
+	 * Writes ints in a group var-int format. Each group of up to 4 values is prefixed with a tag byte,
+	 * which holds a number of bytes minus one of each of the values, 2 bits per value.
+	 * The values follow in little endian order, negative values always take 4 bytes
+	 */
+	public static int writeGroupVarInts(byte[] buf, int off, int[] values, int valuesOff, int len) {
+		int end = valuesOff + len;
+		for (int i = valuesOff; i < end; i += 4) {
+			int tagPos = off++;
+			int tag = 0;
+			int groupEnd = Math.min(i + 4, end);
+			for (int j = i; j < groupEnd; j++) {
+				int v = values[j];
+				int bytes = 4 - (Integer.numberOfLeadingZeros(v | 1) >>> 3);
+				tag |= (bytes - 1) << ((j - i) << 1);
+				off = writeBytesLE(buf, off, v, bytes);
+			}
+			buf[tagPos] = (byte) tag;
+		}
+		return off;
+	}
+
+	/**
+	 * Writes longs in a group var-int format. Each group of up to 2 values is prefixed with a tag byte,
+	 * which holds a number of bytes minus one of each of the values, 4 bits per value.
+	 * The values follow in little endian order, negative values always take 8 bytes
+	 */
+	public static int writeGroupVarLongs(byte[] buf, int off, long[] values, int valuesOff, int len) {
+		int end = valuesOff + len;
+		for (int i = valuesOff; i < end; i += 2) {
+			int tagPos = off++;
+			int tag = 0;
+			int groupEnd = Math.min(i + 2, end);
+			for (int j = i; j < groupEnd; j++) {
+				long v = values[j];
+				int bytes = 8 - (Long.numberOfLeadingZeros(v | 1) >>> 3);
+				tag |= (bytes - 1) << ((j - i) << 2);
+				off = writeBytesLE(buf, off, v, bytes);
+			}
+			buf[tagPos] = (byte) tag;
+		}
+		return off;
+	}
+
+	private static int writeBytesLE(byte[] buf, int off, long v, int bytes) {
+		for (int i = 0; i < bytes; i++) {
+			buf[off + i] = (byte) (v >>> (i << 3));
+		}
+		return off + bytes;
+	}
+
+	private static void ensureRemaining(byte[] buf, int off, int bytes) {
+		if (off + bytes > buf.length) {
+			throw new ArrayIndexOutOfBoundsException(off + bytes - 1);
+		}
+	}
+
 	public static int writeIso88591(byte[] buf, int off, String s) {
 		int length = s.length();
 		off = writeVarInt(buf, off, length);
-		for (int i = 0; i < length; i++) {
-			int c = s.charAt(i);
-			buf[off++] = (byte) c;
-		}
-		return off;
+		return writeLowBytes(buf, off, s, length);
 	}
 
 	public static int writeIso88591Nullable(byte[] buf, int off, String s) {
@@ -184,16 +346,22 @@ public final class BinaryOutputUtils {
 		}
 		int length = s.length();
 		off = writeVarInt(buf, off, length + 1);
-		for (int i = 0; i < length; i++) {
-			int c = s.charAt(i);
-			buf[off++] = (byte) c;
-		}
-		return off;
+		return writeLowBytes(buf, off, s, length);
+	}
+
+	@SuppressWarnings("deprecation")
+	private static int writeLowBytes(byte[] buf, int off, String s, int length) {
+		ensureRemaining(buf, off, length);
+		// copies low bytes of chars, which is a plain array copy for Latin-1 strings
+		s.getBytes(0, length, buf, off);
+		return off + length;
 	}
 
 	public static int writeUTF8(byte[] buf, int off, String s) {
-		int pos = off;
-		for (int i = 0; i < s.length(); i++) {
+		int length = s.length();
+		int i = writeAscii(buf, off + 1, s, length);
+		int pos = off + i;
+		for (; i < length; i++) {
 			char c = s.charAt(i);
 			if (c <= '\u007F') {
 				buf[++pos] = (byte) c;
@@ -230,8 +398,10 @@ public final class BinaryOutputUtils {
 			buf[off] = (byte) 0;
 			return off + 1;
 		}
-		int pos = off;
-		for (int i = 0; i < s.length(); i++) {
+		int length = s.length();
+		int i = writeAscii(buf, off + 1, s, length);
+		int pos = off + i;
+		for (; i < length; i++) {
 			char c = s.charAt(i);
 
 			if (c <= '\u007F') {
@@ -265,6 +435,21 @@ public final class BinaryOutputUtils {
 		return off + bytes;
 	}
 
+	/**
+	 * Writes a leading run of ASCII chars, which is the most common case for UTF-8 strings
+	 *
+	 * @return a number of chars written
+	 */
+	private static int writeAscii(byte[] buf, int off, String s, int length) {
+		int i = 0;
+		for (; i < length; i++) {
+			char c = s.charAt(i);
+			if (c > '\u007F') break;
+			buf[off + i] = (byte) c;
+		}
+		return i;
+	}
+
 	private static byte writeUtf8char4(byte[] buf, int pos, char high, String s, int i) {
 		if (isHighSurrogate(high) && i + 1 < s.length()) {
 			char low = s.charAt(i + 1);
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.serializer.util;
+
+import io.activej.common.ApplicationSettings;
+import io.activej.serializer.BinaryInput;
+import io.activej.serializer.BinaryOutput;
+import io.activej.serializer.BinarySerializer;
+import io.activej.serializer.CorruptedDataException;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Provides methods for encoding and decoding items to and from {@link ByteBuffer ByteBuffers}
+ * with the same binary format as byte arrays.
+ * <p>
+ * Items are encoded and decoded in place if a buffer is backed by an accessible array.
+ * Otherwise (for direct and memory-mapped buffers), this is a copying shim: as generated serializers
+ * operate on byte arrays only, bytes of an item are copied through a per-thread window,
+ * rather than being read from or written to off-heap memory directly.
+ * <p>
+ * A window grows up to the size of an item, which never exceeds the remaining bytes of a buffer
+ * nor a {@link #MAX_WINDOW_SIZE maximum window size}. Only windows of up to a
+ * {@link #MAX_RETAINED_WINDOW_SIZE maximum retained size} are reused, larger windows
+ * are dropped after use. Bytes are placed at the end of a window, so that reading or writing
+ * past them fails regardless of a size of a window, and only bytes of an item itself are copied,
+ * rather than the whole contents of a buffer.
+ */
+public final class ByteBufferUtils {
+	/**
+	 * A maximum size of an item that is encoded to or decoded from a buffer that is not backed by an array
+	 */
+	public static final int MAX_WINDOW_SIZE = ApplicationSettings.getInt(ByteBufferUtils.class, "maxWindowSize", 1 << 26);
+
+	/**
+	 * A maximum size of a window that is kept by a thread for reuse
+	 */
+	public static final int MAX_RETAINED_WINDOW_SIZE = ApplicationSettings.getInt(ByteBufferUtils.class, "maxRetainedWindowSize", 1 << 16);
+
+	private static final int MIN_WINDOW_SIZE = 64;
+
+	private static final ThreadLocal<Window> WINDOW = ThreadLocal.withInitial(Window::new);
+
+	/**
+	 * Encodes an item at a position of a buffer and advances the position
+	 *
+	 * @throws BufferOverflowException  if there is not enough space remaining in a buffer
+	 * @throws IllegalArgumentException if a buffer is not backed by an array and an item exceeds
+	 *                                  a {@link #MAX_WINDOW_SIZE maximum window size}
+	 */
+	public static <T> void encode(BinarySerializer<T> serializer, ByteBuffer buffer, T item) {
+		int position = buffer.position();
+		if (buffer.hasArray() && !buffer.isReadOnly() && buffer.arrayOffset() + buffer.limit() == buffer.array().length) {
+			int end;
+			try {
+				end = serializer.encode(buffer.array(), buffer.arrayOffset() + position, item);
+			} catch (IndexOutOfBoundsException e) {
+				throw new BufferOverflowException();
+			}
+			buffer.position(end - buffer.arrayOffset());
+			return;
+		}
+		int remaining = buffer.remaining();
+		int limit = Math.min(remaining, MAX_WINDOW_SIZE);
+		Window window = WINDOW.get();
+		for (int size = Math.min(window.bytes.length, limit); ; size = grow(size, limit)) {
+			byte[] bytes = window.ensureCapacity(size);
+			int offset = bytes.length - size;
+			int end;
+			try {
+				end = serializer.encode(bytes, offset, item);
+			} catch (IndexOutOfBoundsException e) {
+				if (size == remaining) throw new BufferOverflowException();
+				if (size == limit) throw new IllegalArgumentException("Item exceeds a maximum window size of " + MAX_WINDOW_SIZE + " bytes");
+				continue;
+			}
+			buffer.put(bytes, offset, end - offset);
+			return;
+		}
+	}
+
+	/**
+	 * Decodes an item at a position of a buffer and advances the position
+	 *
+	 * @throws CorruptedDataException if data is corrupted or an item exceeds the limit of a buffer,
+	 *                                or if a buffer is not backed by an array and an item exceeds
+	 *                                a {@link #MAX_WINDOW_SIZE maximum window size}
+	 */
+	public static <T> T decode(BinarySerializer<T> serializer, ByteBuffer buffer) throws CorruptedDataException {
+		int position = buffer.position();
+		int remaining = buffer.remaining();
+		if (buffer.hasArray()) {
+			int offset = buffer.arrayOffset() + position;
+			BinaryInput in = new BinaryInput(buffer.array(), offset);
+			T item;
+			try {
+				item = serializer.decode(in);
+			} catch (IndexOutOfBoundsException e) {
+				throw new CorruptedDataException("Item exceeds the limit of a buffer");
+			}
+			if (in.pos() - offset > remaining) {
+				throw new CorruptedDataException("Item exceeds the limit of a buffer");
+			}
+			buffer.position(in.pos() - buffer.arrayOffset());
+			return item;
+		}
+		int limit = Math.min(remaining, MAX_WINDOW_SIZE);
+		Window window = WINDOW.get();
+		// only as many bytes as a previous item had are copied at first
+		for (int size = Math.min(window.decodeSize, limit); ; size = grow(size, limit)) {
+			byte[] bytes = window.ensureCapacity(size);
+			int offset = bytes.length - size;
+			buffer.get(position, bytes, offset, size);
+			BinaryInput in = new BinaryInput(bytes, offset);
+			T item;
+			try {
+				item = serializer.decode(in);
+			} catch (IndexOutOfBoundsException e) {
+				if (size == remaining) throw new CorruptedDataException("Item exceeds the limit of a buffer");
+				if (size == limit) throw new CorruptedDataException("Item exceeds a maximum window size of " + MAX_WINDOW_SIZE + " bytes");
+				continue;
+			}
+			int length = in.pos() - offset;
+			window.decodeSize = Math.max(MIN_WINDOW_SIZE, Integer.highestOneBit(length - 1) << 1);
+			buffer.position(position + length);
+			return item;
+		}
+	}
+
+	private static int grow(int size, int limit) {
+		return (int) Math.min(2L * Math.max(size, MIN_WINDOW_SIZE), limit);
+	}
+
+	private static final class Window {
+		byte[] bytes = new byte[MIN_WINDOW_SIZE];
+		int decodeSize = MIN_WINDOW_SIZE;
+
+		byte[] ensureCapacity(int size) {
+			if (bytes.length < size) {
+				if (size > MAX_RETAINED_WINDOW_SIZE) {
+					// an oversized window is used only once, so that it is not retained by a thread
+					return new byte[size];
+				}
+				bytes = new byte[size];
+			}
+			return bytes;
+		}
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.serializer.util;
+
+import io.activej.serializer.BinaryInput;
+import io.activej.serializer.CorruptedDataException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.activej.serializer.util.BinaryOutputUtils.*;
+
+/**
+ * Provides methods for writing and reading columns of values
+ * that are used by columnar serializers
+ */
+@SuppressWarnings("unused")
+public final class ColumnarUtils {
+	private static final byte PLAIN = 0;
+	private static final byte DICTIONARY = 1;
+
+	/**
+	 * Writes ints as zig-zag encoded var-int deltas between consecutive values
+	 */
+	public static int writeDeltaInts(byte[] buf, int off, int[] values, int len) {
+		int prev = 0;
+		for (int i = 0; i < len; i++) {
+			int v = values[i];
+			int delta = v - prev;
+			off = writeVarInt(buf, off, (delta << 1) ^ (delta >> 31));
+			prev = v;
+		}
+		return off;
+	}
+
+	public static void readDeltaInts(BinaryInput in, int[] values, int len) {
+		int prev = 0;
+		for (int i = 0; i < len; i++) {
+			int zigZag = in.readVarInt();
+			prev += (zigZag >>> 1) ^ -(zigZag & 1);
+			values[i] = prev;
+		}
+	}
+
+	/**
+	 * Writes longs as zig-zag encoded var-long deltas between consecutive values
+	 */
+	public static int writeDeltaLongs(byte[] buf, int off, long[] values, int len) {
+		long prev = 0;
+		for (int i = 0; i < len; i++) {
+			long v = values[i];
+			long delta = v - prev;
+			off = writeVarLong(buf, off, (delta << 1) ^ (delta >> 63));
+			prev = v;
+		}
+		return off;
+	}
+
+	public static void readDeltaLongs(BinaryInput in, long[] values, int len) {
+		long prev = 0;
+		for (int i = 0; i < len; i++) {
+			long zigZag = in.readVarLong();
+			prev += (zigZag >>> 1) ^ -(zigZag & 1);
+			values[i] = prev;
+		}
+	}
+
+	/**
+	 * Writes booleans packed 8 per byte
+	 */
+	public static int writeBits(byte[] buf, int off, boolean[] values, int len) {
+		for (int i = 0; i < len; i += 8) {
+			int b = 0;
+			int count = Math.min(len - i, 8);
+			for (int j = 0; j < count; j++) {
+				if (values[i + j]) b |= 1 << j;
+			}
+			buf[off++] = (byte) b;
+		}
+		return off;
+	}
+
+	public static void readBits(BinaryInput in, boolean[] values, int len) {
+		for (int i = 0; i < len; i += 8) {
+			int b = in.readByte();
+			int count = Math.min(len - i, 8);
+			for (int j = 0; j < count; j++) {
+				values[i + j] = (b & 1 << j) != 0;
+			}
+		}
+	}
+
+	/**
+	 * Writes strings as a dictionary of distinct strings followed by var-int indices into it,
+	 * or as plain UTF-8 strings if most of the strings are distinct.
+	 * A {@code null} string is written as index 0
+	 */
+	public static int writeDictionaryStrings(byte[] buf, int off, String[] values, int len) {
+		Map<String, Integer> dictionary = new HashMap<>();
+		for (int i = 0; i < len; i++) {
+			String v = values[i];
+			if (v != null) dictionary.putIfAbsent(v, dictionary.size() + 1);
+		}
+		if (dictionary.size() * 2 > len) {
+			buf[off++] = PLAIN;
+			for (int i = 0; i < len; i++) {
+				off = writeUTF8Nullable(buf, off, values[i]);
+			}
+			return off;
+		}
+		buf[off++] = DICTIONARY;
+		String[] entries = new String[dictionary.size()];
+		dictionary.forEach((s, index) -> entries[index - 1] = s);
+		off = writeVarInt(buf, off, entries.length);
+		for (String entry : entries) {
+			off = writeUTF8(buf, off, entry);
+		}
+		for (int i = 0; i < len; i++) {
+			String v = values[i];
+			off = writeVarInt(buf, off, v == null ? 0 : dictionary.get(v));
+		}
+		return off;
+	}
+
+	/**
+	 * Writes strings of a non-nullable column the same way as {@link #writeDictionaryStrings},
+	 * a {@code null} string is rejected
+	 */
+	public static int writeNonNullDictionaryStrings(byte[] buf, int off, String[] values, int len) {
+		for (int i = 0; i < len; i++) {
+			if (values[i] == null) {
+				throw new NullPointerException("Null string in a non-nullable column at index " + i);
+			}
+		}
+		return writeDictionaryStrings(buf, off, values, len);
+	}
+
+	public static void readNonNullDictionaryStrings(BinaryInput in, String[] values, int len) {
+		readDictionaryStrings(in, values, len);
+		for (int i = 0; i < len; i++) {
+			if (values[i] == null) {
+				throw new CorruptedDataException("Null string in a non-nullable column at index " + i);
+			}
+		}
+	}
+
+	public static void readDictionaryStrings(BinaryInput in, String[] values, int len) {
+		byte mode = in.readByte();
+		if (mode == PLAIN) {
+			for (int i = 0; i < len; i++) {
+				values[i] = in.readUTF8Nullable();
+			}
+			return;
+		}
+		if (mode != DICTIONARY) {
+			throw new CorruptedDataException("Unknown string column mode: " + mode);
+		}
+		String[] entries = new String[in.readVarInt() + 1];
+		for (int i = 1; i < entries.length; i++) {
+			entries[i] = in.readUTF8();
+		}
+		for (int i = 0; i < len; i++) {
+			int index = in.readVarInt();
+			if (index < 0 || index >= entries.length) {
+				throw new CorruptedDataException("Dictionary index out of range: " + index);
+			}
+			values[i] = entries[index];
+		}
+	}
+}
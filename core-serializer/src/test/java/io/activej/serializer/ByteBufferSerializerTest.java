@@ -0,0 +1,179 @@
+package io.activej.serializer;
+
+import io.activej.serializer.annotations.SerializeRecord;
+import io.activej.serializer.util.ByteBufferUtils;
+import io.activej.test.rules.ClassBuilderConstantsRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.activej.serializer.Utils.DEFINING_CLASS_LOADER;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.Assert.*;
+
+public class ByteBufferSerializerTest {
+
+	@Rule
+	public final ClassBuilderConstantsRule classBuilderConstantsRule = new ClassBuilderConstantsRule();
+
+	@SerializeRecord
+	public record TestRecord(int id, String name, long[] values) {}
+
+	private final BinarySerializer<TestRecord> serializer = SerializerFactory.defaultInstance()
+		.create(DEFINING_CLASS_LOADER, TestRecord.class);
+
+	@Test
+	public void testSameFormatAsByteArrays() {
+		TestRecord record = new TestRecord(1, "test", new long[]{1, 2, 3});
+		byte[] expected = new byte[100];
+		int size = serializer.encode(expected, 0, record);
+
+		for (ByteBuffer buffer : List.of(ByteBuffer.allocate(100), ByteBuffer.allocateDirect(100))) {
+			buffer.position(10);
+			serializer.encode(buffer, record);
+			assertEquals(10 + size, buffer.position());
+
+			byte[] actual = new byte[size];
+			buffer.get(10, actual);
+			assertArrayEquals(Arrays.copyOf(expected, size), actual);
+
+			buffer.position(10);
+			assertRecordEquals(record, serializer.decode(buffer));
+			assertEquals(10 + size, buffer.position());
+		}
+	}
+
+	@Test
+	public void testDirectBufferWithItemsOfDifferentSizes() {
+		List<TestRecord> records = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			records.add(new TestRecord(i, "x".repeat(i * i), new long[i % 7]));
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+		for (TestRecord record : records) {
+			serializer.encode(buffer, record);
+		}
+		buffer.flip();
+
+		for (TestRecord record : records) {
+			assertRecordEquals(record, serializer.decode(buffer));
+		}
+		assertFalse(buffer.hasRemaining());
+	}
+
+	@Test
+	public void testSlicedHeapBuffer() {
+		TestRecord record = new TestRecord(1, "test", new long[]{42});
+		ByteBuffer buffer = ByteBuffer.allocate(200).position(50).slice().limit(100);
+
+		serializer.encode(buffer, record);
+		buffer.flip();
+		assertRecordEquals(record, serializer.decode(buffer));
+	}
+
+	@Test
+	public void testOverflow() {
+		TestRecord record = new TestRecord(1, "x".repeat(100), new long[0]);
+
+		assertThrows(BufferOverflowException.class, () -> serializer.encode(ByteBuffer.allocate(50), record));
+		assertThrows(BufferOverflowException.class, () -> serializer.encode(ByteBuffer.allocateDirect(50), record));
+	}
+
+	@Test
+	public void testTruncatedItem() {
+		TestRecord record = new TestRecord(1, "x".repeat(100), new long[0]);
+		for (ByteBuffer buffer : List.of(ByteBuffer.allocate(200), ByteBuffer.allocateDirect(200))) {
+			serializer.encode(buffer, record);
+			buffer.flip().limit(buffer.limit() - 1);
+
+			assertThrows(CorruptedDataException.class, () -> serializer.decode(buffer));
+			assertEquals(0, buffer.position());
+		}
+	}
+
+	@Test
+	public void testWindowLargerThanRemainingBytes() {
+		// a window grows to the size of a large item
+		TestRecord large = new TestRecord(0, "x".repeat(1 << 16), new long[0]);
+		ByteBuffer largeBuffer = ByteBuffer.allocateDirect(1 << 17);
+		serializer.encode(largeBuffer, large);
+		assertRecordEquals(large, serializer.decode(largeBuffer.flip()));
+
+		TestRecord record = new TestRecord(1, "x".repeat(100), new long[0]);
+		byte[] bytes = new byte[200];
+		int size = serializer.encode(bytes, 0, record);
+
+		assertThrows(BufferOverflowException.class, () -> serializer.encode(ByteBuffer.allocateDirect(size - 1), record));
+		ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+		serializer.encode(buffer, record);
+		assertFalse(buffer.hasRemaining());
+
+		buffer.flip().limit(size - 1);
+		assertThrows(CorruptedDataException.class, () -> serializer.decode(buffer));
+		buffer.limit(size);
+		assertRecordEquals(record, serializer.decode(buffer));
+	}
+
+	@Test
+	public void testOversizedWindowIsNotRetained() throws Exception {
+		TestRecord large = new TestRecord(0, "x".repeat(ByteBufferUtils.MAX_RETAINED_WINDOW_SIZE * 2), new long[0]);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(ByteBufferUtils.MAX_RETAINED_WINDOW_SIZE * 4);
+		serializer.encode(buffer, large);
+		assertRecordEquals(large, serializer.decode(buffer.flip()));
+
+		assertTrue(retainedWindowSize() <= ByteBufferUtils.MAX_RETAINED_WINDOW_SIZE);
+	}
+
+	@Test
+	public void testMappedFile() throws Exception {
+		Path file = Files.createTempFile("records", ".bin");
+		try {
+			List<TestRecord> records = new ArrayList<>();
+			for (int i = 0; i < 1000; i++) {
+				records.add(new TestRecord(i, "record " + i, new long[]{i}));
+			}
+			ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+			for (TestRecord record : records) {
+				serializer.encode(buffer, record);
+			}
+			Files.write(file, Arrays.copyOf(buffer.array(), buffer.position()));
+
+			try (FileChannel channel = FileChannel.open(file, READ, WRITE)) {
+				MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				for (TestRecord record : records) {
+					assertRecordEquals(record, serializer.decode(mapped));
+				}
+				assertFalse(mapped.hasRemaining());
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private static int retainedWindowSize() throws Exception {
+		Field windowField = ByteBufferUtils.class.getDeclaredField("WINDOW");
+		windowField.setAccessible(true);
+		Object window = ((ThreadLocal<?>) windowField.get(null)).get();
+		Field bytesField = window.getClass().getDeclaredField("bytes");
+		bytesField.setAccessible(true);
+		return ((byte[]) bytesField.get(window)).length;
+	}
+
+	private static void assertRecordEquals(TestRecord expected, TestRecord actual) {
+		assertEquals(expected.id(), actual.id());
+		assertEquals(expected.name(), actual.name());
+		assertArrayEquals(expected.values(), actual.values());
+	}
+}
@@ -0,0 +1,224 @@
+package io.activej.serializer;
+
+import io.activej.serializer.annotations.Serialize;
+import io.activej.serializer.annotations.SerializeNullable;
+import io.activej.serializer.annotations.SerializeRecord;
+import io.activej.serializer.annotations.SerializeStringFormat;
+import io.activej.test.rules.ClassBuilderConstantsRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.activej.serializer.StringFormat.ISO_8859_1;
+import static io.activej.serializer.StringFormat.UTF16;
+import static io.activej.serializer.Utils.DEFINING_CLASS_LOADER;
+import static org.junit.Assert.*;
+
+public class ColumnarSerializerTest {
+
+	@Rule
+	public final ClassBuilderConstantsRule classBuilderConstantsRule = new ClassBuilderConstantsRule();
+
+	public static class Event {
+		@Serialize
+		public int id;
+
+		@Serialize
+		public long timestamp;
+
+		@Serialize
+		public boolean flag;
+
+		@Serialize
+		@SerializeNullable
+		public String category;
+
+		@Serialize
+		public double value;
+
+		@Serialize
+		public List<Integer> tags;
+	}
+
+	@SerializeRecord
+	public record Point(int x, long y, String label) {}
+
+	public static class Texts {
+		@Serialize
+		@SerializeStringFormat(UTF16)
+		@SerializeNullable
+		public String utf16;
+
+		@Serialize
+		@SerializeStringFormat(ISO_8859_1)
+		public String latin1;
+	}
+
+	public static class Versioned {
+		@Serialize(added = 1)
+		public int added;
+
+		@Serialize(removed = 2)
+		public String removed;
+
+		@Serialize
+		public long common;
+	}
+
+	@Test
+	public void testRoundTrip() {
+		BinarySerializer<List<Event>> serializer = SerializerFactory.defaultInstance()
+			.createColumnar(DEFINING_CLASS_LOADER, Event.class);
+
+		List<Event> events = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			Event event = new Event();
+			event.id = i % 2 == 0 ? Integer.MIN_VALUE + i : Integer.MAX_VALUE - i;
+			event.timestamp = 1_600_000_000_000L + i * 1000L;
+			event.flag = i % 3 == 0;
+			event.category = i % 7 == 0 ? null : "category " + i % 5;
+			event.value = i / 3.0;
+			event.tags = List.of(i, -i);
+			events.add(event);
+		}
+
+		List<Event> decoded = doTest(serializer, events);
+		assertEquals(events.size(), decoded.size());
+		for (int i = 0; i < events.size(); i++) {
+			Event expected = events.get(i);
+			Event actual = decoded.get(i);
+			assertEquals(expected.id, actual.id);
+			assertEquals(expected.timestamp, actual.timestamp);
+			assertEquals(expected.flag, actual.flag);
+			assertEquals(expected.category, actual.category);
+			assertEquals(expected.value, actual.value, 0.0);
+			assertEquals(expected.tags, actual.tags);
+		}
+	}
+
+	@Test
+	public void testRecords() {
+		BinarySerializer<List<Point>> serializer = SerializerFactory.defaultInstance()
+			.createColumnar(DEFINING_CLASS_LOADER, Point.class);
+
+		List<Point> points = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			points.add(new Point(i, -i * 1_000_000_000_000L, "label " + i));
+		}
+		assertEquals(points, doTest(serializer, points));
+	}
+
+	@Test
+	public void testEmptyBatch() {
+		BinarySerializer<List<Point>> serializer = SerializerFactory.defaultInstance()
+			.createColumnar(DEFINING_CLASS_LOADER, Point.class);
+
+		assertEquals(List.of(), doTest(serializer, List.of()));
+	}
+
+	@Test
+	public void testColumnsAreCompact() {
+		BinarySerializer<List<Point>> columnar = SerializerFactory.defaultInstance()
+			.createColumnar(DEFINING_CLASS_LOADER, Point.class);
+		BinarySerializer<Point> regular = SerializerFactory.defaultInstance()
+			.create(DEFINING_CLASS_LOADER, Point.class);
+
+		List<Point> points = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			points.add(new Point(1_000_000 + i, 1_600_000_000_000L + i, i % 2 == 0 ? "even" : "odd"));
+		}
+
+		byte[] buf = new byte[100_000];
+		int regularSize = 0;
+		for (Point point : points) {
+			regularSize += regular.encode(buf, 0, point);
+		}
+		int columnarSize = columnar.encode(buf, 0, points);
+		assertTrue(columnarSize * 4 < regularSize);
+		assertEquals(points, columnar.decode(buf, 0));
+	}
+
+	@Test
+	public void testVersions() {
+		BinarySerializer<List<Versioned>> serializer1 = SerializerFactory.builder()
+			.withEncodeVersion(1)
+			.build()
+			.createColumnar(DEFINING_CLASS_LOADER, Versioned.class);
+		BinarySerializer<List<Versioned>> serializer2 = SerializerFactory.builder()
+			.withEncodeVersion(2)
+			.build()
+			.createColumnar(DEFINING_CLASS_LOADER, Versioned.class);
+
+		Versioned versioned = new Versioned();
+		versioned.added = 10;
+		versioned.removed = "removed";
+		versioned.common = 100L;
+
+		byte[] buf = new byte[1000];
+		serializer1.encode(buf, 0, List.of(versioned));
+		Versioned decoded = serializer2.decode(buf, 0).get(0);
+		assertEquals(10, decoded.added);
+		assertEquals("removed", decoded.removed);
+		assertEquals(100L, decoded.common);
+
+		serializer2.encode(buf, 0, List.of(versioned));
+		decoded = serializer1.decode(buf, 0).get(0);
+		assertEquals(10, decoded.added);
+		assertNull(decoded.removed);
+		assertEquals(100L, decoded.common);
+	}
+
+	@Test
+	public void testNullInNonNullableColumnIsRejected() {
+		BinarySerializer<List<Point>> serializer = SerializerFactory.defaultInstance()
+			.createColumnar(DEFINING_CLASS_LOADER, Point.class);
+
+		List<Point> points = List.of(new Point(1, 1L, "label"), new Point(2, 2L, null));
+		assertThrows(NullPointerException.class, () -> serializer.encode(new byte[1000], 0, points));
+	}
+
+	@Test
+	public void testNonUtf8StringsKeepTheirFormat() {
+		BinarySerializer<List<Texts>> columnar = SerializerFactory.defaultInstance()
+			.createColumnar(DEFINING_CLASS_LOADER, Texts.class);
+		BinarySerializer<Texts> regular = SerializerFactory.defaultInstance()
+			.create(DEFINING_CLASS_LOADER, Texts.class);
+
+		List<Texts> texts = new ArrayList<>();
+		byte[] buf = new byte[100_000];
+		int regularSize = 0;
+		for (int i = 0; i < 100; i++) {
+			Texts text = new Texts();
+			text.utf16 = i % 5 == 0 ? null : "\u0442\u0435\u043a\u0441\u0442 " + i % 2;
+			text.latin1 = "caf\u00e9 " + i % 2;
+			texts.add(text);
+			regularSize += regular.encode(buf, 0, text);
+		}
+
+		int columnarSize = columnar.encode(buf, 0, texts);
+		// strings are encoded one by one in their own formats, rather than in a UTF-8 dictionary
+		assertEquals(regularSize, columnarSize - 1);
+		List<Texts> decoded = columnar.decode(buf, 0);
+		for (int i = 0; i < texts.size(); i++) {
+			assertEquals(texts.get(i).utf16, decoded.get(i).utf16);
+			assertEquals(texts.get(i).latin1, decoded.get(i).latin1);
+		}
+	}
+
+	@Test
+	public void testNonClassType() {
+		assertThrows(IllegalArgumentException.class, () -> SerializerFactory.defaultInstance()
+			.createColumnar(DEFINING_CLASS_LOADER, String.class));
+	}
+
+	private static <T> List<T> doTest(BinarySerializer<List<T>> serializer, List<T> items) {
+		byte[] buf = new byte[100_000];
+		int size = serializer.encode(buf, 0, items);
+		BinaryInput in = new BinaryInput(buf);
+		List<T> decoded = serializer.decode(in);
+		assertEquals(size, in.pos());
+		return decoded;
+	}
+}
@@ -0,0 +1,237 @@
+package io.activej.serializer;
+
+import io.activej.serializer.annotations.Serialize;
+import io.activej.serializer.annotations.SerializeNullable;
+import io.activej.serializer.annotations.SerializeRecord;
+import io.activej.test.rules.ClassBuilderConstantsRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+import static io.activej.serializer.Utils.DEFINING_CLASS_LOADER;
+import static org.junit.Assert.*;
+
+public class InstanceReuseSerializerTest {
+
+	@Rule
+	public final ClassBuilderConstantsRule classBuilderConstantsRule = new ClassBuilderConstantsRule();
+
+	public static class Nested {
+		@Serialize
+		public long value;
+	}
+
+	public static class MutableData {
+		@Serialize
+		public int id;
+
+		@Serialize
+		public String name;
+
+		@Serialize
+		public int[] ints;
+
+		@Serialize
+		public byte[] bytes;
+
+		@Serialize
+		public ArrayList<String> list;
+
+		@Serialize
+		public HashMap<String, Integer> map;
+
+		@Serialize
+		@SerializeNullable
+		public Nested nested;
+
+		@Serialize
+		public Nested[] nestedArray;
+
+		private long timestamp;
+
+		@Serialize
+		public long getTimestamp() {
+			return timestamp;
+		}
+
+		public void setTimestamp(long timestamp) {
+			this.timestamp = timestamp;
+		}
+	}
+
+	@SerializeRecord
+	public record ImmutableData(int id, String name) {}
+
+	public static class InterfaceCollections {
+		@Serialize
+		public List<String> list;
+
+		@Serialize
+		public Set<String> set;
+	}
+
+	private final BinarySerializer<MutableData> serializer = SerializerFactory.builder()
+		.withInstanceReuse(true)
+		.build()
+		.create(DEFINING_CLASS_LOADER, MutableData.class);
+
+	@Test
+	public void testDecodeIntoReusedInstance() {
+		byte[] buf = new byte[1000];
+		MutableData reuse = null;
+		for (int i = 0; i < 10; i++) {
+			MutableData data = mutableData(i);
+			serializer.encode(buf, 0, data);
+
+			MutableData decoded = serializer.decode(new BinaryInput(buf), reuse);
+			assertMutableDataEquals(data, decoded);
+			if (reuse != null) {
+				assertSame(reuse, decoded);
+			}
+			reuse = decoded;
+		}
+	}
+
+	@Test
+	public void testNestedObjectsAreReused() {
+		byte[] buf = new byte[1000];
+		serializer.encode(buf, 0, mutableData(1));
+		MutableData first = serializer.decode(buf, 0);
+		int[] ints = first.ints;
+		byte[] bytes = first.bytes;
+		ArrayList<String> list = first.list;
+		HashMap<String, Integer> map = first.map;
+		Nested nested = first.nested;
+		Nested[] nestedArray = first.nestedArray;
+		Nested nestedArrayElement = first.nestedArray[0];
+
+		MutableData data = mutableData(2);
+		data.ints = new int[]{4, 5, 6};
+		data.bytes = new byte[]{7, 8};
+		serializer.encode(buf, 0, data);
+		MutableData second = serializer.decode(buf, 0, first);
+
+		assertMutableDataEquals(data, second);
+		assertSame(ints, second.ints);
+		assertSame(bytes, second.bytes);
+		assertSame(list, second.list);
+		assertSame(map, second.map);
+		assertSame(nested, second.nested);
+		assertSame(nestedArray, second.nestedArray);
+		assertSame(nestedArrayElement, second.nestedArray[0]);
+	}
+
+	@Test
+	public void testSizeMismatchAndNulls() {
+		byte[] buf = new byte[1000];
+		serializer.encode(buf, 0, mutableData(1));
+		MutableData first = serializer.decode(buf, 0);
+		int[] ints = first.ints;
+
+		MutableData data = mutableData(2);
+		data.ints = new int[]{1, 2, 3, 4, 5};
+		data.nested = null;
+		serializer.encode(buf, 0, data);
+		MutableData second = serializer.decode(buf, 0, first);
+
+		assertMutableDataEquals(data, second);
+		assertNotSame(ints, second.ints);
+		assertNull(second.nested);
+	}
+
+	@Test
+	public void testImmutableClassIsNotReused() {
+		BinarySerializer<ImmutableData> serializer = SerializerFactory.builder()
+			.withInstanceReuse(true)
+			.build()
+			.create(DEFINING_CLASS_LOADER, ImmutableData.class);
+
+		byte[] buf = new byte[100];
+		ImmutableData data = new ImmutableData(1, "test");
+		serializer.encode(buf, 0, data);
+		ImmutableData first = serializer.decode(buf, 0);
+		ImmutableData second = serializer.decode(buf, 0, first);
+		assertEquals(data, second);
+		assertNotSame(first, second);
+	}
+
+	@Test
+	public void testCollectionsOfInterfaceTypesAreNotReused() {
+		BinarySerializer<InterfaceCollections> serializer = SerializerFactory.builder()
+			.withInstanceReuse(true)
+			.build()
+			.create(DEFINING_CLASS_LOADER, InterfaceCollections.class);
+
+		byte[] buf = new byte[100];
+		InterfaceCollections data = new InterfaceCollections();
+		data.list = List.of("a");
+		data.set = Set.of("b");
+		serializer.encode(buf, 0, data);
+		InterfaceCollections first = serializer.decode(buf, 0);
+		List<String> list = first.list;
+		Set<String> set = first.set;
+
+		data.list = List.of("c", "d");
+		data.set = Set.of("e", "f");
+		serializer.encode(buf, 0, data);
+		InterfaceCollections second = serializer.decode(buf, 0, first);
+		assertEquals(data.list, second.list);
+		assertEquals(data.set, second.set);
+		assertNotSame(list, second.list);
+		assertNotSame(set, second.set);
+	}
+
+	@Test
+	public void testReuseIsDisabledByDefault() {
+		BinarySerializer<MutableData> serializer = SerializerFactory.defaultInstance()
+			.create(DEFINING_CLASS_LOADER, MutableData.class);
+
+		byte[] buf = new byte[1000];
+		serializer.encode(buf, 0, mutableData(1));
+		MutableData first = serializer.decode(buf, 0);
+		MutableData second = serializer.decode(buf, 0, first);
+		assertMutableDataEquals(first, second);
+		assertNotSame(first, second);
+	}
+
+	private static MutableData mutableData(int i) {
+		MutableData data = new MutableData();
+		data.id = i;
+		data.name = "name " + i;
+		data.ints = new int[]{i, i + 1, i + 2};
+		data.bytes = new byte[]{(byte) i, 1};
+		data.list = new ArrayList<>(List.of("a" + i, "b" + i));
+		data.map = new HashMap<>();
+		for (int j = 0; j < i; j++) {
+			data.map.put("key" + j, j);
+		}
+		data.nested = new Nested();
+		data.nested.value = i * 100L;
+		Nested element = new Nested();
+		element.value = -i;
+		data.nestedArray = new Nested[]{element};
+		data.timestamp = i * 1000L;
+		return data;
+	}
+
+	private static void assertMutableDataEquals(MutableData expected, MutableData actual) {
+		assertEquals(expected.id, actual.id);
+		assertEquals(expected.name, actual.name);
+		assertArrayEquals(expected.ints, actual.ints);
+		assertArrayEquals(expected.bytes, actual.bytes);
+		assertEquals(expected.list, actual.list);
+		assertEquals(expected.map, actual.map);
+		if (expected.nested == null) {
+			assertNull(actual.nested);
+		} else {
+			assertEquals(expected.nested.value, actual.nested.value);
+		}
+		assertEquals(expected.nestedArray.length, actual.nestedArray.length);
+		assertEquals(expected.nestedArray[0].value, actual.nestedArray[0].value);
+		assertEquals(expected.getTimestamp(), actual.getTimestamp());
+	}
+}
@@ -0,0 +1,379 @@
+package io.activej.serializer;
+
+import io.activej.serializer.annotations.*;
+import io.activej.test.rules.ClassBuilderConstantsRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.activej.serializer.StringFormat.UTF16;
+import static io.activej.serializer.Utils.DEFINING_CLASS_LOADER;
+import static org.junit.Assert.*;
+
+public class ProjectionSerializerTest {
+
+	@Rule
+	public final ClassBuilderConstantsRule classBuilderConstantsRule = new ClassBuilderConstantsRule();
+
+	public enum Color {RED, GREEN, BLUE}
+
+	public static class Nested {
+		@Serialize
+		public String text;
+
+		@Serialize
+		public int number;
+	}
+
+	public static class WideData {
+		@Serialize
+		public int id;
+
+		@Serialize
+		@SerializeVarLength
+		public long varLong;
+
+		@Serialize
+		public String utf8;
+
+		@Serialize
+		@SerializeStringFormat(UTF16)
+		@SerializeNullable
+		public String utf16;
+
+		@Serialize
+		@SerializeNullable
+		public String nullString;
+
+		@Serialize
+		public List<String> list;
+
+		@Serialize
+		public Map<String, Integer> map;
+
+		@Serialize
+		public int[] ints;
+
+		@Serialize
+		public byte[] bytes;
+
+		@Serialize
+		@SerializeNullable
+		public Nested nested;
+
+		@Serialize
+		public Color color;
+
+		@Serialize
+		public boolean flag;
+
+		@Serialize
+		public double value;
+	}
+
+	@SerializeOffsetTable
+	public static class WideDataWithOffsetTable {
+		@Serialize
+		public int id;
+
+		@Serialize
+		public String name;
+
+		@Serialize
+		public List<String> tags;
+
+		@Serialize
+		public double value;
+	}
+
+	public static class CountedNested {
+		static int instances;
+
+		@Serialize
+		public String text;
+
+		@Serialize
+		public List<String> values;
+
+		public CountedNested() {
+			instances++;
+		}
+	}
+
+	@SerializeTagged
+	public static class TaggedNested {
+		@Serialize(order = 1)
+		public String text;
+
+		@Serialize(order = 2)
+		@SerializeVarLength
+		public long value;
+
+		public TaggedNested() {
+			CountedNested.instances++;
+		}
+	}
+
+	@SerializeOffsetTable
+	public static class OffsetTableNested {
+		@Serialize
+		public String text;
+
+		@Serialize
+		public List<Integer> values;
+
+		public OffsetTableNested() {
+			CountedNested.instances++;
+		}
+	}
+
+	public static class WithNested {
+		@Serialize
+		public int id;
+
+		@Serialize
+		public CountedNested nested;
+
+		@Serialize
+		@SerializeNullable
+		public CountedNested nullableNested;
+
+		@Serialize
+		@SerializeNullable
+		public WithNested next;
+
+		@Serialize
+		public TaggedNested tagged;
+
+		@Serialize
+		public OffsetTableNested withOffsetTable;
+	}
+
+	@SerializeRecord
+	public record Record(int id, String name, List<Integer> values, long timestamp) {}
+
+	public static class Versioned {
+		@Serialize(added = 1)
+		public int a;
+
+		@Serialize(added = 1, removed = 2)
+		public String b;
+
+		@Serialize(added = 2)
+		public String c;
+	}
+
+	@Test
+	public void testSkipsUnusedProperties() {
+		SerializerFactory factory = SerializerFactory.defaultInstance();
+		BinarySerializer<WideData> serializer = factory.create(DEFINING_CLASS_LOADER, WideData.class);
+		BinarySerializer<WideData> projection = factory.createProjection(DEFINING_CLASS_LOADER, WideData.class, Set.of("varLong", "value"));
+
+		byte[] buf = new byte[10_000];
+		int pos = 0;
+		for (int i = 0; i < 10; i++) {
+			pos = serializer.encode(buf, pos, wideData(i));
+		}
+
+		BinaryInput in = new BinaryInput(buf);
+		for (int i = 0; i < 10; i++) {
+			WideData data = projection.decode(in);
+			assertEquals(i * 1_000_000_000L, data.varLong);
+			assertEquals(i / 2.0, data.value, 0);
+
+			assertEquals(0, data.id);
+			assertNull(data.utf8);
+			assertNull(data.utf16);
+			assertNull(data.list);
+			assertNull(data.map);
+			assertNull(data.ints);
+			assertNull(data.bytes);
+			assertNull(data.nested);
+			assertNull(data.color);
+			assertFalse(data.flag);
+		}
+		assertEquals(pos, in.pos());
+	}
+
+	@Test
+	public void testSkipsNestedClassesWithoutDecoding() {
+		SerializerFactory factory = SerializerFactory.defaultInstance();
+		BinarySerializer<WithNested> serializer = factory.create(DEFINING_CLASS_LOADER, WithNested.class);
+		BinarySerializer<WithNested> projection = factory.createProjection(DEFINING_CLASS_LOADER, WithNested.class, Set.of("id"));
+
+		byte[] buf = new byte[10_000];
+		int pos = 0;
+		for (int i = 0; i < 10; i++) {
+			WithNested data = withNested(i);
+			if (i % 2 == 0) data.next = withNested(i + 100);
+			pos = serializer.encode(buf, pos, data);
+		}
+
+		CountedNested.instances = 0;
+		BinaryInput in = new BinaryInput(buf);
+		for (int i = 0; i < 10; i++) {
+			WithNested data = projection.decode(in);
+			assertEquals(i, data.id);
+			assertNull(data.nested);
+			assertNull(data.nullableNested);
+			assertNull(data.next);
+			assertNull(data.tagged);
+			assertNull(data.withOffsetTable);
+		}
+		assertEquals(pos, in.pos());
+		assertEquals(0, CountedNested.instances);
+	}
+
+	@Test
+	public void testFullProjection() {
+		SerializerFactory factory = SerializerFactory.defaultInstance();
+		BinarySerializer<WideData> serializer = factory.create(DEFINING_CLASS_LOADER, WideData.class);
+		BinarySerializer<WideData> projection = factory.createProjection(DEFINING_CLASS_LOADER, WideData.class,
+			Set.of("id", "varLong", "utf8", "utf16", "nullString", "list", "map", "ints", "bytes", "nested", "color", "flag", "value"));
+
+		byte[] buf = new byte[1000];
+		WideData expected = wideData(3);
+		int size = serializer.encode(buf, 0, expected);
+
+		BinaryInput in = new BinaryInput(buf);
+		WideData actual = projection.decode(in);
+		assertEquals(size, in.pos());
+		assertEquals(expected.id, actual.id);
+		assertEquals(expected.utf8, actual.utf8);
+		assertEquals(expected.utf16, actual.utf16);
+		assertEquals(expected.list, actual.list);
+		assertEquals(expected.map, actual.map);
+		assertArrayEquals(expected.ints, actual.ints);
+		assertArrayEquals(expected.bytes, actual.bytes);
+		assertEquals(expected.nested.text, actual.nested.text);
+		assertEquals(expected.color, actual.color);
+		assertEquals(expected.flag, actual.flag);
+	}
+
+	@Test
+	public void testRecordProjection() {
+		SerializerFactory factory = SerializerFactory.defaultInstance();
+		BinarySerializer<Record> serializer = factory.create(DEFINING_CLASS_LOADER, Record.class);
+		BinarySerializer<Record> projection = factory.createProjection(DEFINING_CLASS_LOADER, Record.class, Set.of("name", "timestamp"));
+
+		byte[] buf = new byte[1000];
+		int size = serializer.encode(buf, 0, new Record(1, "test", List.of(1, 2, 3), 12345L));
+
+		BinaryInput in = new BinaryInput(buf);
+		assertEquals(new Record(0, "test", null, 12345L), projection.decode(in));
+		assertEquals(size, in.pos());
+	}
+
+	@Test
+	public void testOffsetTable() {
+		SerializerFactory factory = SerializerFactory.defaultInstance();
+		BinarySerializer<WideDataWithOffsetTable> serializer = factory.create(DEFINING_CLASS_LOADER, WideDataWithOffsetTable.class);
+		BinarySerializer<WideDataWithOffsetTable> projection = factory.createProjection(DEFINING_CLASS_LOADER, WideDataWithOffsetTable.class, Set.of("tags"));
+
+		byte[] buf = new byte[10_000];
+		int pos = 0;
+		for (int i = 0; i < 10; i++) {
+			WideDataWithOffsetTable data = new WideDataWithOffsetTable();
+			data.id = i;
+			data.name = "name " + i;
+			data.tags = List.of("tag" + i, "x".repeat(i));
+			data.value = i;
+			int newPos = serializer.encode(buf, pos, data);
+			// 4 bytes for each of the properties plus the end offset
+			assertEquals(4 * 5 + 4 + 1 + data.name.length() + 1 + 1 + data.tags.get(0).length() + 1 + i + 8, newPos - pos);
+			pos = newPos;
+		}
+
+		BinaryInput in = new BinaryInput(buf);
+		for (int i = 0; i < 10; i++) {
+			WideDataWithOffsetTable data = projection.decode(in);
+			assertEquals(List.of("tag" + i, "x".repeat(i)), data.tags);
+			assertEquals(0, data.id);
+			assertNull(data.name);
+		}
+		assertEquals(pos, in.pos());
+
+		in = new BinaryInput(buf);
+		for (int i = 0; i < 10; i++) {
+			WideDataWithOffsetTable data = serializer.decode(in);
+			assertEquals(i, data.id);
+			assertEquals("name " + i, data.name);
+			assertEquals(List.of("tag" + i, "x".repeat(i)), data.tags);
+			assertEquals(i, data.value, 0);
+		}
+		assertEquals(pos, in.pos());
+	}
+
+	@Test
+	public void testVersions() {
+		BinarySerializer<Versioned> serializer1 = SerializerFactory.builder()
+			.withEncodeVersion(1)
+			.build()
+			.create(DEFINING_CLASS_LOADER, Versioned.class);
+		BinarySerializer<Versioned> projection = SerializerFactory.builder()
+			.withEncodeVersion(2)
+			.build()
+			.createProjection(DEFINING_CLASS_LOADER, Versioned.class, Set.of("a", "c"));
+
+		Versioned data = new Versioned();
+		data.a = 10;
+		data.b = "b";
+		data.c = "c";
+
+		byte[] buf = new byte[100];
+		int size = serializer1.encode(buf, 0, data);
+
+		BinaryInput in = new BinaryInput(buf);
+		Versioned decoded = projection.decode(in);
+		assertEquals(size, in.pos());
+		assertEquals(10, decoded.a);
+		assertNull(decoded.b);
+		assertNull(decoded.c);
+	}
+
+	@Test
+	public void testUnknownProperty() {
+		SerializerFactory factory = SerializerFactory.defaultInstance();
+		assertThrows(IllegalArgumentException.class,
+			() -> factory.createProjection(DEFINING_CLASS_LOADER, WideData.class, Set.of("unknown")));
+	}
+
+	private static WithNested withNested(int i) {
+		CountedNested nested = new CountedNested();
+		nested.text = "text " + i;
+		nested.values = List.of("a" + i, "b" + i);
+		WithNested data = new WithNested();
+		data.id = i;
+		data.nested = nested;
+		data.nullableNested = i % 3 == 0 ? null : nested;
+		data.tagged = new TaggedNested();
+		data.tagged.text = "tagged " + i;
+		data.tagged.value = i * 1_000_000L;
+		data.withOffsetTable = new OffsetTableNested();
+		data.withOffsetTable.text = "offset table " + i;
+		data.withOffsetTable.values = List.of(i, i + 1);
+		return data;
+	}
+
+	private static WideData wideData(int i) {
+		WideData data = new WideData();
+		data.id = i;
+		data.varLong = i * 1_000_000_000L;
+		data.utf8 = "utf8 " + i;
+		data.utf16 = i % 2 == 0 ? null : "utf16 " + i;
+		data.list = List.of("a" + i, "b" + i);
+		data.map = Map.of("key" + i, i);
+		data.ints = new int[i];
+		data.bytes = new byte[]{(byte) i, 1, 2};
+		data.nested = new Nested();
+		data.nested.text = "nested " + i;
+		data.nested.number = i;
+		data.color = Color.values()[i % 3];
+		data.flag = i % 2 == 0;
+		data.value = i / 2.0;
+		return data;
+	}
+}
@@ -0,0 +1,222 @@
+package io.activej.serializer;
+
+import io.activej.serializer.annotations.*;
+import io.activej.test.rules.ClassBuilderConstantsRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static io.activej.serializer.Utils.DEFINING_CLASS_LOADER;
+import static org.junit.Assert.*;
+
+public class TaggedSerializerTest {
+
+	@Rule
+	public final ClassBuilderConstantsRule classBuilderConstantsRule = new ClassBuilderConstantsRule();
+
+	@SerializeTagged
+	public static class Nested {
+		@Serialize(order = 1)
+		public String name;
+	}
+
+	@SerializeTagged
+	public static class Data {
+		@Serialize(order = 1)
+		public int id;
+
+		@Serialize(order = 2)
+		@SerializeVarLength
+		public long timestamp;
+
+		@Serialize(order = 3)
+		public boolean flag;
+
+		@Serialize(order = 4)
+		public byte b;
+
+		@Serialize(order = 5)
+		public char c;
+
+		@Serialize(order = 6)
+		public double value;
+
+		@Serialize(order = 7)
+		@SerializeNullable
+		public String text;
+
+		@Serialize(order = 8)
+		public List<Integer> list;
+
+		@Serialize(order = 9)
+		@SerializeNullable
+		public Nested nested;
+	}
+
+	@SerializeTagged
+	public static class DataV1 {
+		@Serialize(order = 1)
+		public int id;
+
+		@Serialize(order = 3)
+		@SerializeNullable
+		public String text;
+	}
+
+	@SerializeTagged
+	public static class DataV2 {
+		@Serialize(order = 1)
+		public int id;
+
+		@Serialize(order = 2)
+		public List<String> added;
+
+		@Serialize(order = 3)
+		@SerializeNullable
+		public String text;
+
+		@Serialize(order = 4)
+		@SerializeVarLength
+		public long addedVarLong;
+
+		@Serialize(order = 5)
+		public double addedDouble;
+	}
+
+	@SerializeTagged
+	public static class DataChangedType {
+		@Serialize(order = 1)
+		public long id;
+	}
+
+	@SerializeTagged
+	@SerializeRecord
+	public record Point(int x, int y) {}
+
+	@SerializeTagged
+	public static class NoOrder {
+		@Serialize
+		public int id;
+	}
+
+	@Test
+	public void testRoundTrip() {
+		Data data = new Data();
+		data.id = -1;
+		data.timestamp = 1_600_000_000_000L;
+		data.flag = true;
+		data.b = 42;
+		data.c = 'c';
+		data.value = 0.5;
+		data.text = "text";
+		data.list = List.of(1, 2, 3);
+		data.nested = new Nested();
+		data.nested.name = "nested";
+
+		Data decoded = doTest(Data.class, Data.class, data);
+		assertEquals(data.id, decoded.id);
+		assertEquals(data.timestamp, decoded.timestamp);
+		assertEquals(data.flag, decoded.flag);
+		assertEquals(data.b, decoded.b);
+		assertEquals(data.c, decoded.c);
+		assertEquals(data.value, decoded.value, 0.0);
+		assertEquals(data.text, decoded.text);
+		assertEquals(data.list, decoded.list);
+		assertEquals(data.nested.name, decoded.nested.name);
+	}
+
+	@Test
+	public void testRecord() {
+		Point point = new Point(1, -1);
+		assertEquals(point, doTest(Point.class, Point.class, point));
+	}
+
+	@Test
+	public void testUnknownPropertiesAreSkipped() {
+		DataV2 data = new DataV2();
+		data.id = 1;
+		data.added = List.of("a", "b");
+		data.text = "text";
+		data.addedVarLong = -1L;
+		data.addedDouble = 1.5;
+
+		DataV1 decoded = doTest(DataV2.class, DataV1.class, data);
+		assertEquals(1, decoded.id);
+		assertEquals("text", decoded.text);
+	}
+
+	@Test
+	public void testMissingPropertiesHaveDefaultValues() {
+		DataV1 data = new DataV1();
+		data.id = 1;
+		data.text = "text";
+
+		DataV2 decoded = doTest(DataV1.class, DataV2.class, data);
+		assertEquals(1, decoded.id);
+		assertEquals("text", decoded.text);
+		assertNull(decoded.added);
+		assertEquals(0L, decoded.addedVarLong);
+		assertEquals(0.0, decoded.addedDouble, 0.0);
+	}
+
+	@Test
+	public void testProjection() {
+		DataV2 data = new DataV2();
+		data.id = 1;
+		data.added = List.of("a");
+		data.text = "text";
+
+		BinarySerializer<DataV2> serializer = SerializerFactory.defaultInstance().create(DEFINING_CLASS_LOADER, DataV2.class);
+		BinarySerializer<DataV2> projection = SerializerFactory.defaultInstance().createProjection(DEFINING_CLASS_LOADER, DataV2.class, Set.of("text"));
+		BinarySerializer<DataV1> otherSchemaProjection = SerializerFactory.defaultInstance().createProjection(DEFINING_CLASS_LOADER, DataV1.class, Set.of("text"));
+
+		byte[] buf = new byte[1000];
+		int size = serializer.encode(buf, 0, data);
+
+		BinaryInput in = new BinaryInput(buf);
+		DataV2 decoded = projection.decode(in);
+		assertEquals(size, in.pos());
+		assertEquals(0, decoded.id);
+		assertNull(decoded.added);
+		assertEquals("text", decoded.text);
+
+		in = new BinaryInput(buf);
+		DataV1 decodedV1 = otherSchemaProjection.decode(in);
+		assertEquals(size, in.pos());
+		assertEquals(0, decodedV1.id);
+		assertEquals("text", decodedV1.text);
+	}
+
+	@Test
+	public void testChangedWireType() {
+		DataV1 data = new DataV1();
+		data.id = 1;
+
+		BinarySerializer<DataV1> serializer = SerializerFactory.defaultInstance().create(DEFINING_CLASS_LOADER, DataV1.class);
+		BinarySerializer<DataChangedType> deserializer = SerializerFactory.defaultInstance().create(DEFINING_CLASS_LOADER, DataChangedType.class);
+
+		byte[] buf = new byte[1000];
+		serializer.encode(buf, 0, data);
+		assertThrows(CorruptedDataException.class, () -> deserializer.decode(buf, 0));
+	}
+
+	@Test
+	public void testExplicitOrderIsRequired() {
+		assertThrows(IllegalArgumentException.class, () -> SerializerFactory.defaultInstance()
+			.create(DEFINING_CLASS_LOADER, NoOrder.class));
+	}
+
+	private static <T, R> R doTest(Class<T> encodeType, Class<R> decodeType, T value) {
+		BinarySerializer<T> serializer = SerializerFactory.defaultInstance().create(DEFINING_CLASS_LOADER, encodeType);
+		BinarySerializer<R> deserializer = SerializerFactory.defaultInstance().create(DEFINING_CLASS_LOADER, decodeType);
+
+		byte[] buf = new byte[1000];
+		int size = serializer.encode(buf, 0, value);
+		BinaryInput in = new BinaryInput(buf);
+		R decoded = deserializer.decode(in);
+		assertEquals(size, in.pos());
+		return decoded;
+	}
+}
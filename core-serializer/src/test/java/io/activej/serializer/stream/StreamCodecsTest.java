@@ -415,6 +415,106 @@ public class StreamCodecsTest {
 		assertArrayEquals(longs, result);
 	}
 
+	@Theory
+	public void ofGroupVarIntArray(
+		@FromDataPoints("bufferSizes") int readBufferSize,
+		@FromDataPoints("bufferSizes") int writeBufferSize,
+		@FromDataPoints("containerSizes") int arraySize
+	) {
+		assumeTrue((arraySize != 1_000_000 || readBufferSize >= 100) && writeBufferSize >= 100);
+
+		StreamCodec<int[]> codec = StreamCodecs.ofGroupVarIntArray();
+		int[] values = new int[arraySize];
+		Random random = ThreadLocalRandom.current();
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextInt() >> random.nextInt(32);
+		}
+
+		int[] result = doTest(codec, values, readBufferSize, writeBufferSize);
+
+		assertArrayEquals(values, result);
+	}
+
+	@Theory
+	public void ofGroupVarIntArrayWithAdditionalData(
+		@FromDataPoints("bufferSizes") int readBufferSize,
+		@FromDataPoints("bufferSizes") int writeBufferSize,
+		@FromDataPoints("containerSizes") int arraySize
+	) {
+		assumeTrue((arraySize != 1_000_000 || readBufferSize >= 100) && writeBufferSize >= 100);
+
+		StreamCodec<int[]> codec = StreamCodecs.ofGroupVarIntArray();
+		int[] values = new int[arraySize];
+		Random random = ThreadLocalRandom.current();
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextInt() >> random.nextInt(32);
+		}
+
+		int[] result = doTestWithAdditionalData(codec, values, readBufferSize, writeBufferSize, 10, 10);
+
+		assertArrayEquals(values, result);
+	}
+
+	@Theory
+	public void ofGroupVarLongArray(
+		@FromDataPoints("bufferSizes") int readBufferSize,
+		@FromDataPoints("bufferSizes") int writeBufferSize,
+		@FromDataPoints("containerSizes") int arraySize
+	) {
+		assumeTrue((arraySize != 1_000_000 || readBufferSize >= 100) && writeBufferSize >= 100);
+
+		StreamCodec<long[]> codec = StreamCodecs.ofGroupVarLongArray();
+		long[] values = new long[arraySize];
+		Random random = ThreadLocalRandom.current();
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextLong() >> random.nextInt(64);
+		}
+
+		long[] result = doTest(codec, values, readBufferSize, writeBufferSize);
+
+		assertArrayEquals(values, result);
+	}
+
+	@Theory
+	public void ofGroupVarLongArrayWithAdditionalData(
+		@FromDataPoints("bufferSizes") int readBufferSize,
+		@FromDataPoints("bufferSizes") int writeBufferSize,
+		@FromDataPoints("containerSizes") int arraySize
+	) {
+		assumeTrue((arraySize != 1_000_000 || readBufferSize >= 100) && writeBufferSize >= 100);
+
+		StreamCodec<long[]> codec = StreamCodecs.ofGroupVarLongArray();
+		long[] values = new long[arraySize];
+		Random random = ThreadLocalRandom.current();
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextLong() >> random.nextInt(64);
+		}
+
+		long[] result = doTestWithAdditionalData(codec, values, readBufferSize, writeBufferSize, 10, 10);
+
+		assertArrayEquals(values, result);
+	}
+
+	@Theory
+	public void ofDoubleArray(
+		@FromDataPoints("bufferSizes") int readBufferSize,
+		@FromDataPoints("bufferSizes") int writeBufferSize,
+		@FromDataPoints("containerSizes") int arraySize
+	) {
+		assumeTrue((arraySize != 1_000_000 || readBufferSize >= 100) && writeBufferSize >= 100);
+
+		StreamCodec<double[]> codec = StreamCodecs.ofDoubleArray();
+		double[] values = new double[arraySize];
+		Random random = ThreadLocalRandom.current();
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextDouble();
+		}
+
+		double[] result = doTest(codec, values, readBufferSize, writeBufferSize);
+
+		assertArrayEquals(values, result, 0);
+	}
+
 	@Theory
 	public void ofFixedLengthVarIntArrayList(@FromDataPoints("bufferSizes") int readBufferSize, @FromDataPoints("bufferSizes") int writeBufferSize) {
 		StreamCodec<List<int[]>> codec = StreamCodecs.ofList(StreamCodecs.ofFixedLengthVarIntArray(3));
@@ -16,13 +16,22 @@
 
 package io.activej.specializer;
 
-import org.objectweb.asm.Type;
+import org.objectweb.asm.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.function.UnaryOperator;
 
+import static org.objectweb.asm.Opcodes.*;
+
 import static java.lang.System.identityHashCode;
 
 public class Utils {
@@ -115,4 +124,172 @@ public class Utils {
 		}
 	}
 
+	/**
+	 * Checks whether instances of a class may be specialized as a part of a hot-path object graph
+	 * <p>
+	 * A class should be public, have only final instance fields of public types, and its methods
+	 * should not use lambdas or access non-public members of other classes,
+	 * since specialized methods are moved into a class that is defined by another class loader
+	 * <p>
+	 * The result is computed once per class, as it requires reading the class bytecode
+	 */
+	static boolean isSpecializable(Class<?> cls) {
+		return SPECIALIZABLE.get(cls);
+	}
+
+	private static final ClassValue<Boolean> SPECIALIZABLE = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> cls) {
+			return checkSpecializable(cls);
+		}
+	};
+
+	private static boolean checkSpecializable(Class<?> cls) {
+		if (cls.isPrimitive() || cls.isArray() || cls.isSynthetic() || cls.isAnonymousClass() || cls.isHidden()) return false;
+		if (!isAccessible(cls)) return false;
+		Set<String> hierarchy = new HashSet<>();
+		for (Class<?> clazz = cls; clazz != Object.class; clazz = clazz.getSuperclass()) {
+			hierarchy.add(Type.getInternalName(clazz));
+		}
+		for (Class<?> clazz = cls; clazz != Object.class; clazz = clazz.getSuperclass()) {
+			ClassLoader loader = clazz.getClassLoader();
+			if (loader == null || loader instanceof BytecodeClassLoader) return false;
+			for (Field field : clazz.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers())) continue;
+				if (!Modifier.isFinal(field.getModifiers())) return false;
+				if (field.getType().isAnonymousClass() || !isAccessible(field.getType())) return false;
+			}
+			if (!hasPortableMethods(clazz, hierarchy)) return false;
+		}
+		return true;
+	}
+
+	private static boolean isAccessible(Class<?> cls) {
+		while (cls.isArray()) {
+			cls = cls.getComponentType();
+		}
+		if (cls.isPrimitive()) return true;
+		for (Class<?> clazz = cls; clazz != null; clazz = clazz.getDeclaringClass()) {
+			if (!Modifier.isPublic(clazz.getModifiers())) return false;
+		}
+		return true;
+	}
+
+	private static boolean hasPortableMethods(Class<?> clazz, Set<String> hierarchy) {
+		ClassLoader loader = clazz.getClassLoader();
+		ClassReader cr;
+		try (InputStream stream = loader.getResourceAsStream(clazz.getName().replace('.', '/') + ".class")) {
+			if (stream == null) return false;
+			cr = new ClassReader(stream);
+		} catch (IOException e) {
+			return false;
+		}
+
+		boolean[] portable = {true};
+		cr.accept(new ClassVisitor(ASM9) {
+			@Override
+			public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+				if ((access & (ACC_STATIC | ACC_ABSTRACT)) != 0 || name.equals("<init>")) return null;
+				return new MethodVisitor(ASM9) {
+					@Override
+					public void visitInvokeDynamicInsn(String name, String descriptor, Handle bsm, Object... bsmArgs) {
+						portable[0] = false;
+					}
+
+					@Override
+					public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+						if (opcode != INVOKESTATIC && !name.equals("<init>") && hierarchy.contains(owner)) return;
+						if (!isPublicMember(loader, owner, name, descriptor, false)) portable[0] = false;
+					}
+
+					@Override
+					public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+						if (hierarchy.contains(owner)) return;
+						if (!isPublicMember(loader, owner, name, descriptor, true)) portable[0] = false;
+					}
+
+					@Override
+					public void visitTypeInsn(int opcode, String type) {
+						if (hierarchy.contains(type)) return;
+						Class<?> cls = loadClassOrNull(loader, type);
+						if (cls == null || !isAccessible(cls)) portable[0] = false;
+					}
+
+					@Override
+					public void visitLdcInsn(Object value) {
+						if (value instanceof Type type && type.getSort() == Type.OBJECT && !hierarchy.contains(type.getInternalName())) {
+							Class<?> cls = loadClassOrNull(loader, type.getInternalName());
+							if (cls == null || !isAccessible(cls)) portable[0] = false;
+						}
+					}
+				};
+			}
+		}, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+		return portable[0];
+	}
+
+	private static boolean isPublicMember(ClassLoader loader, String owner, String name, String descriptor, boolean isField) {
+		if (owner.startsWith("[")) return true;
+		Class<?> ownerClass = loadClassOrNull(loader, owner);
+		if (ownerClass == null || !isAccessible(ownerClass)) return false;
+		if (isField) {
+			for (Class<?> clazz = ownerClass; clazz != null; clazz = clazz.getSuperclass()) {
+				for (Field field : clazz.getDeclaredFields()) {
+					if (field.getName().equals(name)) return Modifier.isPublic(field.getModifiers());
+				}
+			}
+			return Arrays.stream(ownerClass.getFields()).anyMatch(field -> field.getName().equals(name));
+		}
+		if (name.equals("<init>")) {
+			for (Constructor<?> constructor : ownerClass.getDeclaredConstructors()) {
+				if (Type.getConstructorDescriptor(constructor).equals(descriptor)) {
+					return Modifier.isPublic(constructor.getModifiers());
+				}
+			}
+			return false;
+		}
+		for (Class<?> clazz = ownerClass; clazz != null; clazz = clazz.getSuperclass()) {
+			for (Method method : clazz.getDeclaredMethods()) {
+				if (method.getName().equals(name) && Type.getMethodDescriptor(method).equals(descriptor)) {
+					return Modifier.isPublic(method.getModifiers());
+				}
+			}
+		}
+		return Arrays.stream(ownerClass.isInterface() ? concat(ownerClass.getMethods(), Object.class.getMethods()) : ownerClass.getMethods())
+			.anyMatch(method -> method.getName().equals(name) && Type.getMethodDescriptor(method).equals(descriptor));
+	}
+
+	private static Method[] concat(Method[] methods1, Method[] methods2) {
+		Method[] methods = Arrays.copyOf(methods1, methods1.length + methods2.length);
+		System.arraycopy(methods2, 0, methods, methods1.length, methods2.length);
+		return methods;
+	}
+
+	private static Class<?> loadClassOrNull(ClassLoader loader, String internalName) {
+		try {
+			return Class.forName(Type.getObjectType(internalName).getClassName(), false, loader);
+		} catch (ClassNotFoundException | LinkageError e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Specializes long-lived object graphs, like predicates and functions of stream transformers
+	 * or servlet trees, leaving instances that cannot be specialized as is
+	 * <p>
+	 * Each graph is specialized by its own {@link Specializer}, so that specialized classes
+	 * are not retained once the specialized graph becomes unreachable
+	 *
+	 * @see #isSpecializable(Class)
+	 */
+	@SuppressWarnings("unused") // A private class that should only be accessed via Reflection API
+	public static class GraphSpecializer implements UnaryOperator<Object> {
+		@Override
+		public Object apply(Object o) {
+			return Specializer.create(Thread.currentThread().getContextClassLoader())
+				.withPredicate(Utils::isSpecializable)
+				.specialize(o);
+		}
+	}
+
 }
@@ -0,0 +1,123 @@
+package io.activej.specializer;
+
+import io.activej.specializer.Utils.GraphSpecializer;
+import org.junit.Test;
+
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+
+public class GraphSpecializerTest {
+	public static final class IsPositive implements Predicate<Integer> {
+		@Override
+		public boolean test(Integer value) {
+			return value > 0;
+		}
+	}
+
+	public static final class IsLessThan implements Predicate<Integer> {
+		private final int limit;
+
+		public IsLessThan(int limit) {
+			this.limit = limit;
+		}
+
+		@Override
+		public boolean test(Integer value) {
+			return value < limit;
+		}
+	}
+
+	public static final class And implements Predicate<Integer> {
+		private final Predicate<Integer> predicate1;
+		private final Predicate<Integer> predicate2;
+
+		public And(Predicate<Integer> predicate1, Predicate<Integer> predicate2) {
+			this.predicate1 = predicate1;
+			this.predicate2 = predicate2;
+		}
+
+		@Override
+		public boolean test(Integer value) {
+			return predicate1.test(value) && predicate2.test(value);
+		}
+	}
+
+	public static final class Counting implements Predicate<Integer> {
+		private int count;
+
+		@Override
+		public boolean test(Integer value) {
+			return count++ < value;
+		}
+	}
+
+	public static final class UsingLambda implements Predicate<Integer> {
+		@Override
+		public boolean test(Integer value) {
+			Predicate<Integer> isEven = v -> v % 2 == 0;
+			return isEven.test(value);
+		}
+	}
+
+	public static final class UsingPrivateStatic implements Predicate<Integer> {
+		@Override
+		public boolean test(Integer value) {
+			return isEven(value);
+		}
+
+		private static boolean isEven(int value) {
+			return value % 2 == 0;
+		}
+	}
+
+	@Test
+	public void testGraphIsSpecialized() {
+		Predicate<Integer> predicate = new And(new IsPositive(), new And(new IsLessThan(10), new IsLessThan(5)));
+		Predicate<Integer> specialized = specialize(predicate);
+
+		assertNotSame(predicate, specialized);
+		assertTrue(specialized.getClass().getClassLoader() instanceof BytecodeClassLoader);
+		for (int i = -10; i < 10; i++) {
+			assertEquals(predicate.test(i), specialized.test(i));
+		}
+	}
+
+	@Test
+	public void testUnsupportedInstancesAreKept() {
+		assertUnchanged(value -> value > 0);
+		assertUnchanged(new Counting());
+		assertUnchanged(new UsingLambda());
+		assertUnchanged(new UsingPrivateStatic());
+	}
+
+	@Test
+	public void testUnsupportedFieldInstancesAreKept() {
+		Predicate<Integer> predicate = new And(new IsPositive(), new UsingPrivateStatic());
+		Predicate<Integer> specialized = specialize(predicate);
+
+		assertNotSame(predicate, specialized);
+		for (int i = -10; i < 10; i++) {
+			assertEquals(predicate.test(i), specialized.test(i));
+		}
+	}
+
+	@Test
+	public void testGraphsAreSpecializedIndependently() {
+		Predicate<Integer> predicate = new And(new IsPositive(), new IsLessThan(10));
+		Predicate<Integer> specialized1 = specialize(predicate);
+		Predicate<Integer> specialized2 = specialize(predicate);
+
+		assertNotSame(specialized1.getClass(), specialized2.getClass());
+		assertNotSame(specialized1.getClass().getClassLoader(), specialized2.getClass().getClassLoader());
+	}
+
+	private static void assertUnchanged(Predicate<Integer> predicate) {
+		assertSame(predicate, specialize(predicate));
+	}
+
+	private static Predicate<Integer> specialize(Predicate<Integer> predicate) {
+		//noinspection unchecked
+		return (Predicate<Integer>) new GraphSpecializer().apply(predicate);
+	}
+}
@@ -0,0 +1,508 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.common.collection;
+
+import io.activej.common.builder.AbstractBuilder;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongBiFunction;
+
+import static io.activej.common.Checks.checkArgument;
+
+/**
+ * A weight-bounded cache that uses W-TinyLFU admission and eviction policy.
+ * <p>
+ * New entries are placed into a small LRU <i>window</i>. Entries that overflow the window
+ * become candidates for the <i>main</i> space, which is a segmented LRU consisting of
+ * <i>probation</i> and <i>protected</i> segments. When the cache exceeds its maximum weight,
+ * a candidate competes with the main space victim, and the one with a lower estimated
+ * access frequency is evicted. Frequencies are estimated by a 4-bit count-min sketch
+ * which is periodically aged, so that the cache adapts to a changing workload.
+ * <p>
+ * Each entry is weighed by a {@link #builder(long) configurable} weigher, so the cache
+ * may be bounded by the total number of bytes held rather than by the number of entries.
+ * <p>
+ * Every value that leaves the cache (is evicted, replaced, invalidated or cleared) is passed
+ * to a removal listener, which makes it possible to store values that must be released explicitly,
+ * like pooled byte buffers.
+ * <p>
+ * This class is not thread-safe, it is meant to be used from a single reactor thread.
+ */
+public final class WTinyLfuCache<K, V> {
+	public static final double DEFAULT_WINDOW_RATIO = 0.01;
+	public static final double DEFAULT_PROTECTED_RATIO = 0.8;
+
+	private static final byte WINDOW = 0;
+	private static final byte PROBATION = 1;
+	private static final byte PROTECTED = 2;
+
+	private final Map<K, Node<K, V>> data = new HashMap<>();
+	private final AccessOrderQueue<K, V> window = new AccessOrderQueue<>();
+	private final AccessOrderQueue<K, V> probation = new AccessOrderQueue<>();
+	private final AccessOrderQueue<K, V> protectedQueue = new AccessOrderQueue<>();
+	private final FrequencySketch sketch = new FrequencySketch();
+
+	private long maximumWeight;
+	private double windowRatio = DEFAULT_WINDOW_RATIO;
+	private double protectedRatio = DEFAULT_PROTECTED_RATIO;
+	private ToLongBiFunction<K, V> weigher = (k, v) -> 1;
+	private BiConsumer<K, V> removalListener = (k, v) -> {};
+
+	private long windowMaximum;
+	private long protectedMaximum;
+
+	private long weightedSize;
+	private long windowWeightedSize;
+	private long protectedWeightedSize;
+
+	private long evictionCount;
+	private long evictionWeight;
+
+	private WTinyLfuCache(long maximumWeight) {
+		this.maximumWeight = maximumWeight;
+	}
+
+	public static <K, V> WTinyLfuCache<K, V> create(long maximumWeight) {
+		return WTinyLfuCache.<K, V>builder(maximumWeight).build();
+	}
+
+	public static <K, V> WTinyLfuCache<K, V>.Builder builder(long maximumWeight) {
+		checkArgument(maximumWeight > 0, "Maximum weight must be positive");
+		return new WTinyLfuCache<K, V>(maximumWeight).new Builder();
+	}
+
+	public final class Builder extends AbstractBuilder<Builder, WTinyLfuCache<K, V>> {
+		private Builder() {}
+
+		/**
+		 * Sets a function that computes a weight of an entry.
+		 * By default, each entry weighs {@code 1}, so the cache is bounded by the number of entries.
+		 */
+		public Builder withWeigher(ToLongBiFunction<K, V> weigher) {
+			checkNotBuilt(this);
+			WTinyLfuCache.this.weigher = weigher;
+			return this;
+		}
+
+		/**
+		 * Sets a listener that is called for every value that leaves the cache
+		 */
+		public Builder withRemovalListener(BiConsumer<K, V> removalListener) {
+			checkNotBuilt(this);
+			WTinyLfuCache.this.removalListener = removalListener;
+			return this;
+		}
+
+		/**
+		 * Sets the part of maximum weight that is dedicated to the admission window
+		 */
+		public Builder withWindowRatio(double windowRatio) {
+			checkNotBuilt(this);
+			checkArgument(windowRatio >= 0 && windowRatio < 1, "Window ratio must be in range [0, 1)");
+			WTinyLfuCache.this.windowRatio = windowRatio;
+			return this;
+		}
+
+		/**
+		 * Sets the part of the main space that is dedicated to the protected segment
+		 */
+		public Builder withProtectedRatio(double protectedRatio) {
+			checkNotBuilt(this);
+			checkArgument(protectedRatio >= 0 && protectedRatio < 1, "Protected ratio must be in range [0, 1)");
+			WTinyLfuCache.this.protectedRatio = protectedRatio;
+			return this;
+		}
+
+		@Override
+		protected WTinyLfuCache<K, V> doBuild() {
+			recalculateLimits();
+			return WTinyLfuCache.this;
+		}
+	}
+
+	/**
+	 * Returns a value associated with a given key and records an access to it
+	 */
+	public @Nullable V get(K key) {
+		Node<K, V> node = data.get(key);
+		if (node == null) {
+			sketch.increment(spread(key.hashCode()));
+			return null;
+		}
+		onAccess(node);
+		return node.value;
+	}
+
+	/**
+	 * Returns a value associated with a given key without recording an access to it
+	 */
+	public @Nullable V peek(K key) {
+		Node<K, V> node = data.get(key);
+		return node == null ? null : node.value;
+	}
+
+	public boolean containsKey(K key) {
+		return data.containsKey(key);
+	}
+
+	/**
+	 * Associates a value with a given key, replacing previous value, if any.
+	 * <p>
+	 * A value that weighs more than the maximum weight of this cache is not stored
+	 * and is passed to the removal listener right away.
+	 */
+	public void put(K key, V value) {
+		long weight = weigher.applyAsLong(key, value);
+		checkArgument(weight >= 0, "Weight cannot be negative");
+
+		Node<K, V> node = data.get(key);
+		if (node != null) {
+			V oldValue = node.value;
+			long delta = weight - node.weight;
+			node.value = value;
+			node.weight = weight;
+			weightedSize += delta;
+			if (node.queue == WINDOW) {
+				windowWeightedSize += delta;
+			} else if (node.queue == PROTECTED) {
+				protectedWeightedSize += delta;
+			}
+			onAccess(node);
+			if (oldValue != value) {
+				removalListener.accept(key, oldValue);
+			}
+			evict();
+			return;
+		}
+
+		if (weight > maximumWeight) {
+			removalListener.accept(key, value);
+			return;
+		}
+
+		node = new Node<>(key, value, weight);
+		data.put(key, node);
+		sketch.ensureCapacity(data.size());
+		sketch.increment(spread(key.hashCode()));
+
+		window.linkLast(node);
+		windowWeightedSize += weight;
+		weightedSize += weight;
+		evict();
+	}
+
+	/**
+	 * Removes an entry associated with a given key, passing its value to the removal listener
+	 *
+	 * @return {@code true} if an entry was present in cache
+	 */
+	public boolean invalidate(K key) {
+		Node<K, V> node = data.get(key);
+		if (node == null) return false;
+		removeNode(node);
+		return true;
+	}
+
+	/**
+	 * Removes all the entries, passing their values to the removal listener
+	 */
+	public void clear() {
+		for (Node<K, V> node : new ArrayList<>(data.values())) {
+			removeNode(node);
+		}
+	}
+
+	public int size() {
+		return data.size();
+	}
+
+	public long getWeightedSize() {
+		return weightedSize;
+	}
+
+	public long getMaximumWeight() {
+		return maximumWeight;
+	}
+
+	public void setMaximumWeight(long maximumWeight) {
+		checkArgument(maximumWeight > 0, "Maximum weight must be positive");
+		this.maximumWeight = maximumWeight;
+		recalculateLimits();
+		evict();
+	}
+
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	public long getEvictionWeight() {
+		return evictionWeight;
+	}
+
+	/**
+	 * Returns an estimated access frequency of a given key, in range [0, 15]
+	 */
+	public int frequency(K key) {
+		return sketch.frequency(spread(key.hashCode()));
+	}
+
+	private void recalculateLimits() {
+		windowMaximum = (long) (maximumWeight * windowRatio);
+		protectedMaximum = (long) ((maximumWeight - windowMaximum) * protectedRatio);
+	}
+
+	private void onAccess(Node<K, V> node) {
+		sketch.increment(spread(node.key.hashCode()));
+		switch (node.queue) {
+			case WINDOW -> window.moveToLast(node);
+			case PROBATION -> {
+				probation.unlink(node);
+				node.queue = PROTECTED;
+				protectedQueue.linkLast(node);
+				protectedWeightedSize += node.weight;
+				demoteFromProtected();
+			}
+			case PROTECTED -> protectedQueue.moveToLast(node);
+		}
+	}
+
+	private void demoteFromProtected() {
+		while (protectedWeightedSize > protectedMaximum) {
+			Node<K, V> demoted = protectedQueue.first;
+			if (demoted == null) break;
+			protectedQueue.unlink(demoted);
+			protectedWeightedSize -= demoted.weight;
+			demoted.queue = PROBATION;
+			probation.linkLast(demoted);
+		}
+	}
+
+	private void evict() {
+		Node<K, V> candidate = null;
+		while (windowWeightedSize > windowMaximum) {
+			Node<K, V> node = window.first;
+			if (node == null) break;
+			window.unlink(node);
+			windowWeightedSize -= node.weight;
+			node.queue = PROBATION;
+			probation.linkLast(node);
+			if (candidate == null) {
+				candidate = node;
+			}
+		}
+
+		while (weightedSize > maximumWeight) {
+			Node<K, V> victim = probation.first;
+			if (victim == null || victim == candidate) {
+				victim = protectedQueue.first;
+			}
+			if (victim == null) {
+				victim = window.first;
+			}
+
+			if (candidate == null) {
+				evictNode(victim);
+				continue;
+			}
+
+			Node<K, V> nextCandidate = candidate.next;
+			if (victim == null || victim.queue == WINDOW) {
+				evictNode(candidate);
+				candidate = nextCandidate;
+				continue;
+			}
+
+			int candidateFrequency = sketch.frequency(spread(candidate.key.hashCode()));
+			int victimFrequency = sketch.frequency(spread(victim.key.hashCode()));
+			if (candidateFrequency > victimFrequency) {
+				evictNode(victim);
+			} else {
+				evictNode(candidate);
+				candidate = nextCandidate;
+			}
+		}
+	}
+
+	private void evictNode(Node<K, V> node) {
+		evictionCount++;
+		evictionWeight += node.weight;
+		removeNode(node);
+	}
+
+	private void removeNode(Node<K, V> node) {
+		data.remove(node.key);
+		switch (node.queue) {
+			case WINDOW -> {
+				window.unlink(node);
+				windowWeightedSize -= node.weight;
+			}
+			case PROBATION -> probation.unlink(node);
+			case PROTECTED -> {
+				protectedQueue.unlink(node);
+				protectedWeightedSize -= node.weight;
+			}
+		}
+		weightedSize -= node.weight;
+		removalListener.accept(node.key, node.value);
+	}
+
+	private static int spread(int x) {
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		return (x >>> 16) ^ x;
+	}
+
+	@Override
+	public String toString() {
+		return "WTinyLfuCache{" +
+			"size=" + data.size() +
+			", weightedSize=" + weightedSize +
+			", maximumWeight=" + maximumWeight +
+			'}';
+	}
+
+	private static final class Node<K, V> {
+		final K key;
+		V value;
+		long weight;
+		byte queue = WINDOW;
+
+		@Nullable Node<K, V> prev;
+		@Nullable Node<K, V> next;
+
+		Node(K key, V value, long weight) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+
+	private static final class AccessOrderQueue<K, V> {
+		@Nullable Node<K, V> first;
+		@Nullable Node<K, V> last;
+
+		void linkLast(Node<K, V> node) {
+			node.prev = last;
+			node.next = null;
+			if (last == null) {
+				first = node;
+			} else {
+				last.next = node;
+			}
+			last = node;
+		}
+
+		void unlink(Node<K, V> node) {
+			Node<K, V> prev = node.prev;
+			Node<K, V> next = node.next;
+			if (prev == null) {
+				first = next;
+			} else {
+				prev.next = next;
+			}
+			if (next == null) {
+				last = prev;
+			} else {
+				next.prev = prev;
+			}
+			node.prev = null;
+			node.next = null;
+		}
+
+		void moveToLast(Node<K, V> node) {
+			if (node == last) return;
+			unlink(node);
+			linkLast(node);
+		}
+	}
+
+	/**
+	 * A count-min sketch with 4-bit counters, sixteen counters are packed into a single {@code long}.
+	 * When the number of recorded increments reaches the sample size, all the counters are halved.
+	 */
+	static final class FrequencySketch {
+		private static final long[] SEEDS = {
+			0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+		private static final long RESET_MASK = 0x7777777777777777L;
+		private static final long ONE_MASK = 0x1111111111111111L;
+
+		private long[] table = new long[16];
+		private int tableMask = table.length - 1;
+		private int sampleSize = 10 * table.length;
+		private int size;
+
+		void ensureCapacity(int maximumSize) {
+			if (maximumSize <= table.length) return;
+			int capacity = Integer.highestOneBit(Math.min(maximumSize, 1 << 30) - 1) << 1;
+			table = new long[capacity];
+			tableMask = capacity - 1;
+			sampleSize = 10 * capacity;
+			size = 0;
+		}
+
+		int frequency(int hash) {
+			int start = (hash & 3) << 2;
+			int frequency = Integer.MAX_VALUE;
+			for (int i = 0; i < 4; i++) {
+				int index = indexOf(hash, i);
+				int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+				frequency = Math.min(frequency, count);
+			}
+			return frequency;
+		}
+
+		void increment(int hash) {
+			int start = (hash & 3) << 2;
+			boolean added = false;
+			for (int i = 0; i < 4; i++) {
+				added |= incrementAt(indexOf(hash, i), start + i);
+			}
+			if (added && ++size == sampleSize) {
+				reset();
+			}
+		}
+
+		private boolean incrementAt(int index, int counter) {
+			int offset = counter << 2;
+			long mask = 0xfL << offset;
+			if ((table[index] & mask) != mask) {
+				table[index] += 1L << offset;
+				return true;
+			}
+			return false;
+		}
+
+		private int indexOf(int item, int i) {
+			long hash = (item + SEEDS[i]) * SEEDS[i];
+			hash += hash >>> 32;
+			return ((int) hash) & tableMask;
+		}
+
+		private void reset() {
+			int count = 0;
+			for (int i = 0; i < table.length; i++) {
+				count += Long.bitCount(table[i] & ONE_MASK);
+				table[i] = (table[i] >>> 1) & RESET_MASK;
+			}
+			size = (size >>> 1) - (count >>> 2);
+		}
+	}
+}
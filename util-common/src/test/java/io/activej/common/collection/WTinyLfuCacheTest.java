@@ -0,0 +1,97 @@
+package io.activej.common.collection;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class WTinyLfuCacheTest {
+
+	@Test
+	public void testGetAndPut() {
+		WTinyLfuCache<String, String> cache = WTinyLfuCache.create(10);
+		assertNull(cache.get("a"));
+
+		cache.put("a", "1");
+		cache.put("b", "2");
+		assertEquals("1", cache.get("a"));
+		assertEquals("2", cache.get("b"));
+		assertEquals(2, cache.size());
+		assertEquals(2, cache.getWeightedSize());
+	}
+
+	@Test
+	public void testRemovalListener() {
+		List<String> removed = new ArrayList<>();
+		WTinyLfuCache<String, String> cache = WTinyLfuCache.<String, String>builder(10)
+			.withRemovalListener((key, value) -> removed.add(key + '=' + value))
+			.build();
+
+		cache.put("a", "1");
+		cache.put("a", "2");
+		assertEquals(List.of("a=1"), removed);
+
+		assertTrue(cache.invalidate("a"));
+		assertFalse(cache.invalidate("a"));
+		assertEquals(List.of("a=1", "a=2"), removed);
+
+		cache.put("b", "3");
+		cache.put("c", "4");
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getWeightedSize());
+		assertEquals(4, removed.size());
+	}
+
+	@Test
+	public void testBoundedByWeight() {
+		List<String> removed = new ArrayList<>();
+		WTinyLfuCache<String, byte[]> cache = WTinyLfuCache.<String, byte[]>builder(1000)
+			.withWeigher((key, value) -> value.length)
+			.withRemovalListener((key, value) -> removed.add(key))
+			.build();
+
+		for (int i = 0; i < 100; i++) {
+			cache.put("key" + i, new byte[100]);
+			assertTrue(cache.getWeightedSize() <= 1000);
+		}
+		assertEquals(10, cache.size());
+		assertEquals(90, removed.size());
+		assertEquals(90, cache.getEvictionCount());
+
+		cache.put("huge", new byte[1001]);
+		assertFalse(cache.containsKey("huge"));
+		assertEquals("huge", removed.get(removed.size() - 1));
+
+		cache.setMaximumWeight(500);
+		assertEquals(5, cache.size());
+	}
+
+	@Test
+	public void testFrequentKeysSurviveScan() {
+		WTinyLfuCache<Integer, Integer> cache = WTinyLfuCache.create(100);
+		for (int i = 0; i < 50; i++) {
+			cache.put(i, i);
+		}
+		for (int round = 0; round < 10; round++) {
+			for (int i = 0; i < 50; i++) {
+				assertNotNull(cache.get(i));
+			}
+		}
+
+		// a scan over keys that are accessed only once
+		for (int i = 1000; i < 10_000; i++) {
+			cache.get(i);
+			cache.put(i, i);
+		}
+
+		int survived = 0;
+		for (int i = 0; i < 50; i++) {
+			if (cache.peek(i) != null) survived++;
+		}
+		assertTrue("Only " + survived + " hot keys survived", survived >= 45);
+		assertEquals(100, cache.size());
+	}
+}